@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Creates the migration scripts the benchmarks work on. The content only depends on the arguments, so that runs on
+ * different releases measure exactly the same input.
+ */
+public final class BenchmarkFiles {
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * @return The name of the i-th versioned migration.
+     */
+    public static String migrationName(int i) {
+        return "V" + i + "__create_table_" + i + ".sql";
+    }
+
+    /**
+     * @return The script of the i-th versioned migration: a table, a few rows and an index.
+     */
+    public static String migrationScript(int i) {
+        String table = "bench_" + i;
+        StringBuilder script = new StringBuilder();
+        script.append("-- Migration ").append(i).append('\n');
+        script.append("CREATE TABLE ").append(table).append(" (\n")
+                .append("    id INTEGER NOT NULL PRIMARY KEY,\n")
+                .append("    name VARCHAR(100) NOT NULL,\n")
+                .append("    note VARCHAR(400)\n")
+                .append(");\n");
+        for (int row = 1; row <= 5; row++) {
+            script.append("INSERT INTO ").append(table).append(" (id, name, note) VALUES (")
+                    .append(row).append(", 'row ").append(row).append("', 'note for row ").append(row)
+                    .append(" of migration ").append(i).append("');\n");
+        }
+        script.append("CREATE INDEX ").append(table).append("_name ON ").append(table).append(" (name);\n");
+        return script.toString();
+    }
+
+    /**
+     * Writes this number of migrations into this directory.
+     */
+    public static Path createMigrations(Path dir, int count) {
+        try {
+            Files.createDirectories(dir);
+            for (int i = 1; i <= count; i++) {
+                Files.write(dir.resolve(migrationName(i)), migrationScript(i).getBytes(StandardCharsets.UTF_8));
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes this number of migrations into a jar, below this directory.
+     */
+    public static Path createMigrationJar(Path jar, String dir, int count) {
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry(dir + "/"));
+            jarOut.closeEntry();
+            for (int i = 1; i <= count; i++) {
+                jarOut.putNextEntry(new JarEntry(dir + "/" + migrationName(i)));
+                jarOut.write(migrationScript(i).getBytes(StandardCharsets.UTF_8));
+                jarOut.closeEntry();
+            }
+            return jar;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes this file or directory, including its content.
+     */
+    public static void delete(Path path) {
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.Flyway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the same arguments as the JMH launcher, but writes a JSON report named
+ * after the benchmarked autoexec-core version ({@code jmh-<version>.json}) unless a result format or file is given,
+ * so that the reports of several releases can be compared side by side, e.g. with
+ * <a href="https://jmh.morethan.io">JMH Visualizer</a>.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-h") && !arguments.contains("-l") && !arguments.contains("-lp")
+                && !arguments.contains("-rf") && !arguments.contains("-rff")) {
+            arguments.add("-rf");
+            arguments.add("json");
+            arguments.add("-rff");
+            arguments.add("jmh-" + getCoreVersion() + ".json");
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+
+    /**
+     * @return The version of autoexec-core on the classpath, as recorded by Maven in its jar.
+     */
+    private static String getCoreVersion() throws IOException {
+        try (InputStream in = Flyway.class.getResourceAsStream("/META-INF/maven/beluga.autoexec/autoexec-core/pom.properties")) {
+            if (in == null) {
+                return "unknown";
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("version", "unknown");
+        }
+    }
+}
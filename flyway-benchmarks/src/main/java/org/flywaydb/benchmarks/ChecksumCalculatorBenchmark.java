@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.internal.resolver.ChecksumCalculator;
+import org.flywaydb.core.internal.resource.StringResource;
+import org.flywaydb.core.internal.resource.filesystem.FileSystemResource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the checksum calculation of a script of exactly 1 MiB of ASCII text, in memory and on disk, so the
+ * reported throughput is in MiB/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChecksumCalculatorBenchmark {
+    private static final int SCRIPT_SIZE = 1024 * 1024;
+
+    private Path tempDir;
+    private StringResource stringResource;
+    private FileSystemResource fileSystemResource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringBuilder script = new StringBuilder(SCRIPT_SIZE);
+        for (int i = 1; script.length() < SCRIPT_SIZE; i++) {
+            script.append(BenchmarkFiles.migrationScript(i));
+        }
+        script.setLength(SCRIPT_SIZE);
+        stringResource = new StringResource(script.toString());
+
+        tempDir = Files.createTempDirectory("autoexec-checksum-benchmark");
+        Path file = tempDir.resolve("V1__large.sql");
+        Files.write(file, script.toString().getBytes(StandardCharsets.UTF_8));
+        fileSystemResource = new FileSystemResource(new Location("filesystem:" + tempDir.toAbsolutePath()),
+                                                    file.toAbsolutePath().toString(), StandardCharsets.UTF_8, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.delete(tempDir);
+    }
+
+    @Benchmark
+    public int inMemory() {
+        return ChecksumCalculator.calculate(stringResource);
+    }
+
+    @Benchmark
+    public int fileSystem() {
+        return ChecksumCalculator.calculate(fileSystemResource);
+    }
+}
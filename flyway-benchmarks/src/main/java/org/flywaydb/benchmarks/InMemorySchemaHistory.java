@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.api.MigrationPattern;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.output.RepairResult;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.extensibility.AppliedMigration;
+import org.flywaydb.core.extensibility.MigrationType;
+import org.flywaydb.core.internal.schemahistory.BaseAppliedMigration;
+import org.flywaydb.core.internal.schemahistory.SchemaHistory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Schema history kept in memory, so that benchmarks measure the bookkeeping around the history table rather than the
+ * database round trips.
+ */
+public class InMemorySchemaHistory extends SchemaHistory {
+    private final List<AppliedMigration> appliedMigrations = new ArrayList<>();
+
+    @Override
+    public <T> T lock(Callable<T> callable) {
+        try {
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public void create(boolean baseline) {
+    }
+
+    @Override
+    public List<AppliedMigration> allAppliedMigrations() {
+        return appliedMigrations;
+    }
+
+    @Override
+    public boolean removeFailedMigrations(RepairResult repairResult, MigrationPattern[] migrationPatternFilter) {
+        return false;
+    }
+
+    @Override
+    public void update(AppliedMigration appliedMigration, ResolvedMigration resolvedMigration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void delete(AppliedMigration appliedMigration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<AppliedMigration> allClaims() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public AppliedMigration claim(MigrationVersion version, String description, String script, Integer checksum) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void release(AppliedMigration claim) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<AppliedMigration> releaseAllClaims() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    protected void doAddAppliedMigration(int installedRank, MigrationVersion version, String description,
+                                         MigrationType type, String script, Integer checksum,
+                                         int executionTime, boolean success) {
+        appliedMigrations.add(new BaseAppliedMigration(installedRank, version, description, type, script, checksum,
+                                                       new Date(), "benchmark", executionTime, success));
+    }
+
+    @Override
+    public String toString() {
+        return "in-memory schema history";
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete {@link Flyway#migrate()} of a fresh embedded database, from scanning the locations to the last
+ * schema history row.
+ * <p>The SQLite driver is not a default dependency of this module. Build with {@code -Psqlite} and run with
+ * {@code -p database=h2,sqlite} to include SQLite.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class MigrateBenchmark {
+    @Param({"h2"})
+    public String database;
+
+    @Param({"100"})
+    public int migrations;
+
+    private Path tempDir;
+    private String location;
+    private int invocation;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUpMigrations() throws IOException {
+        tempDir = Files.createTempDirectory("autoexec-migrate-benchmark");
+        location = "filesystem:" + BenchmarkFiles.createMigrations(tempDir.resolve("sql"), migrations).toAbsolutePath();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpDatabase() {
+        invocation++;
+        switch (database) {
+            case "h2":
+                url = "jdbc:h2:mem:autoexec_benchmark_" + invocation + ";DB_CLOSE_DELAY=-1";
+                break;
+            case "sqlite":
+                url = "jdbc:sqlite:" + tempDir.resolve("autoexec_benchmark_" + invocation + ".db").toAbsolutePath();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown database: " + database);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownDatabase() throws SQLException, IOException {
+        if ("h2".equals(database)) {
+            try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        } else {
+            Files.deleteIfExists(tempDir.resolve("autoexec_benchmark_" + invocation + ".db"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownMigrations() {
+        BenchmarkFiles.delete(tempDir);
+    }
+
+    @Benchmark
+    public MigrateResult migrate() {
+        MigrateResult result = Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations(location)
+                .load()
+                .migrate();
+        if (result.migrationsExecuted != migrations) {
+            throw new IllegalStateException("Expected " + migrations + " migrations to be executed but got " + result.migrationsExecuted);
+        }
+        return result;
+    }
+}
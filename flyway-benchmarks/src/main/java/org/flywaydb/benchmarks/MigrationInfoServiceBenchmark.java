@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.resolver.MigrationResolver;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.info.MigrationInfoImpl;
+import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
+import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
+import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
+import org.flywaydb.core.internal.util.ValidatePatternUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the bookkeeping {@code DbMigrate} does when applying every migration of a fresh schema one by one
+ * (group = false). With the incremental info service the total cost should grow linearly with the number of
+ * migrations, while rebuilding the info service for every migration grows quadratically.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MigrationInfoServiceBenchmark {
+    @Param({"500", "1000", "2000", "4000"})
+    public int migrations;
+
+    private ClassicConfiguration configuration;
+    private CompositeMigrationResolver migrationResolver;
+    private InMemorySchemaHistory schemaHistory;
+
+    @Setup(Level.Trial)
+    public void setUpResolver() {
+        List<ResolvedMigration> resolvedMigrations = new ArrayList<>(migrations);
+        for (int i = 1; i <= migrations; i++) {
+            String script = "V" + i + "__migration_" + i + ".sql";
+            resolvedMigrations.add(new ResolvedMigrationImpl(MigrationVersion.fromVersion(Integer.toString(i)),
+                                                             "migration " + i, script, i, null,
+                                                             CoreMigrationType.SQL, script, null));
+        }
+        MigrationResolver resolver = context -> resolvedMigrations;
+
+        configuration = new ClassicConfiguration();
+        configuration.setSkipDefaultResolvers(true);
+        migrationResolver = new CompositeMigrationResolver(null, null, configuration, null, null, null, null, resolver);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpSchemaHistory() {
+        schemaHistory = new InMemorySchemaHistory();
+    }
+
+    @Benchmark
+    public int incrementalRefresh() {
+        MigrationInfoServiceImpl infoService = createInfoService();
+        infoService.refresh();
+        int applied = 0;
+        while (applyNext(infoService)) {
+            applied++;
+            infoService.refreshIncrementally();
+        }
+        return applied;
+    }
+
+    @Benchmark
+    public int fullRefreshPerMigration() {
+        int applied = 0;
+        while (true) {
+            MigrationInfoServiceImpl infoService = createInfoService();
+            infoService.refresh();
+            if (!applyNext(infoService)) {
+                return applied;
+            }
+            applied++;
+        }
+    }
+
+    private MigrationInfoServiceImpl createInfoService() {
+        return new MigrationInfoServiceImpl(migrationResolver, schemaHistory, null, configuration,
+                                            configuration.getTarget(), true, ValidatePatternUtils.getIgnoreAllPattern(), null);
+    }
+
+    /**
+     * Mirrors the checks {@code DbMigrate.migrateGroup()} runs before applying the next pending migration.
+     */
+    private boolean applyNext(MigrationInfoServiceImpl infoService) {
+        infoService.current();
+        infoService.future();
+        infoService.failed();
+        Iterator<MigrationInfoImpl> pending = infoService.pendingMigrations().iterator();
+        if (!pending.hasNext()) {
+            return false;
+        }
+        MigrationInfoImpl next = pending.next();
+        schemaHistory.addAppliedMigration(next.getVersion(), next.getDescription(), next.getType(),
+                                          next.getScript(), next.getChecksum(), 0, true);
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
+import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
+import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
+import org.flywaydb.core.internal.util.ValidatePatternUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link MigrationInfoServiceImpl#refresh()} against a schema history that already contains every
+ * migration, as on the start of an application that is up to date. A share of the scripts can be made to look changed
+ * and re-executed, which leaves a DELETE marker and a second row for each of them at the end of the history.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MigrationInfoServiceRefreshBenchmark {
+    @Param({"10000", "50000"})
+    public int migrations;
+
+    /**
+     * The percentage of migrations that were re-executed after a change.
+     */
+    @Param({"0", "10"})
+    public int reexecutedPercent;
+
+    private ClassicConfiguration configuration;
+    private CompositeMigrationResolver migrationResolver;
+    private InMemorySchemaHistory schemaHistory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ResolvedMigration> resolvedMigrations = new ArrayList<>(migrations);
+        schemaHistory = new InMemorySchemaHistory();
+        for (int i = 1; i <= migrations; i++) {
+            MigrationVersion version = MigrationVersion.fromVersion(Integer.toString(i));
+            String script = BenchmarkFiles.migrationName(i);
+            resolvedMigrations.add(new ResolvedMigrationImpl(version, "create table " + i, script, i, null,
+                                                             CoreMigrationType.SQL, script, null));
+            schemaHistory.addAppliedMigration(version, "create table " + i, CoreMigrationType.SQL, script, i, 0, true);
+        }
+        int reexecuted = migrations * reexecutedPercent / 100;
+        for (int n = 1; n <= reexecuted; n++) {
+            int i = (int) ((long) n * migrations / reexecuted);
+            MigrationVersion version = MigrationVersion.fromVersion(Integer.toString(i));
+            String script = BenchmarkFiles.migrationName(i);
+            schemaHistory.addAppliedMigration(version, "create table " + i, CoreMigrationType.DELETE, script, i, 0, true);
+            schemaHistory.addAppliedMigration(version, "create table " + i, CoreMigrationType.SQL, script, i, 0, true);
+        }
+
+        configuration = new ClassicConfiguration();
+        configuration.setSkipDefaultResolvers(true);
+        migrationResolver = new CompositeMigrationResolver(null, null, configuration, null, null, null, null,
+                                                           context -> resolvedMigrations);
+    }
+
+    @Benchmark
+    public MigrationInfo[] refresh() {
+        MigrationInfoServiceImpl infoService = new MigrationInfoServiceImpl(migrationResolver, schemaHistory, null,
+                                                                            configuration, configuration.getTarget(),
+                                                                            true, ValidatePatternUtils.getIgnoreAllPattern(), null);
+        infoService.refresh();
+        return infoService.all();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.internal.database.dm.DmParser;
+import org.flywaydb.core.internal.database.h2.H2Parser;
+import org.flywaydb.core.internal.database.oracle.OracleParser;
+import org.flywaydb.core.internal.database.postgresql.PostgreSQLParser;
+import org.flywaydb.core.internal.database.sqlite.SQLiteParser;
+import org.flywaydb.core.internal.parser.Parser;
+import org.flywaydb.core.internal.parser.ParsingContext;
+import org.flywaydb.core.internal.resource.StringResource;
+import org.flywaydb.core.internal.sqlscript.SqlStatementIterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast {@link Parser#parse} splits a script into statements, per dialect. Each operation parses a script
+ * of exactly 1 MiB of ASCII text, so the reported throughput is in MiB/s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParserBenchmark {
+    private static final int SCRIPT_SIZE = 1024 * 1024;
+
+    private static final String COMMON =
+            "-- Orders of customer ${table}\n" +
+            "CREATE TABLE ${table}_orders (\n" +
+            "    id INTEGER NOT NULL PRIMARY KEY,\n" +
+            "    customer VARCHAR(100) NOT NULL, /* denormalized on purpose */\n" +
+            "    note VARCHAR(4000)\n" +
+            ");\n" +
+            "INSERT INTO ${table}_orders (id, customer, note) VALUES (1, 'O''Brien', 'first order; paid in cash');\n" +
+            "INSERT INTO ${table}_orders (id, customer, note) VALUES (2, 'Smith', 'a somewhat longer note that " +
+            "spans a good part of the line, as free text columns often do');\n" +
+            "UPDATE ${table}_orders SET note = 'shipped' WHERE id = 1 AND customer <> 'nobody';\n" +
+            "/*\n * Clean up everything that was shipped.\n */\n" +
+            "DELETE FROM ${table}_orders WHERE note = 'shipped';\n" +
+            "CREATE INDEX ${table}_orders_customer ON ${table}_orders (customer);\n\n";
+
+    private static final String PLSQL =
+            "CREATE OR REPLACE PROCEDURE ${table}_touch(p_id IN NUMBER) AS\n" +
+            "BEGIN\n" +
+            "    UPDATE ${table}_orders SET note = 'touched' WHERE id = p_id;\n" +
+            "    IF SQL%ROWCOUNT = 0 THEN\n" +
+            "        INSERT INTO ${table}_orders (id, customer) VALUES (p_id, 'unknown');\n" +
+            "    END IF;\n" +
+            "END;\n" +
+            "/\n\n";
+
+    private static final String PLPGSQL =
+            "CREATE OR REPLACE FUNCTION ${table}_touch(p_id INTEGER) RETURNS void AS $$\n" +
+            "BEGIN\n" +
+            "    UPDATE ${table}_orders SET note = 'touched' WHERE id = p_id;\n" +
+            "    IF NOT FOUND THEN\n" +
+            "        INSERT INTO ${table}_orders (id, customer) VALUES (p_id, 'unknown');\n" +
+            "    END IF;\n" +
+            "END;\n" +
+            "$$ LANGUAGE plpgsql;\n\n";
+
+    @Param({"oracle", "dm", "postgresql", "h2", "sqlite"})
+    public String parser;
+
+    private Parser sqlParser;
+    private StringResource resource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setPlaceholders(Collections.singletonMap("table", "shop"));
+        ParsingContext parsingContext = new ParsingContext();
+
+        String block;
+        switch (parser) {
+            case "oracle":
+                sqlParser = new OracleParser(configuration, parsingContext);
+                block = COMMON + PLSQL;
+                break;
+            case "dm":
+                sqlParser = new DmParser(configuration, parsingContext);
+                block = COMMON + PLSQL;
+                break;
+            case "postgresql":
+                sqlParser = new PostgreSQLParser(configuration, parsingContext);
+                block = COMMON + PLPGSQL;
+                break;
+            case "h2":
+                sqlParser = new H2Parser(configuration, parsingContext);
+                block = COMMON;
+                break;
+            case "sqlite":
+                sqlParser = new SQLiteParser(configuration, parsingContext);
+                block = COMMON;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown parser: " + parser);
+        }
+        resource = new StringResource(createScript(block));
+    }
+
+    /**
+     * Repeats this block and pads the script with a trailing comment to exactly {@link #SCRIPT_SIZE} characters.
+     */
+    private static String createScript(String block) {
+        StringBuilder script = new StringBuilder(SCRIPT_SIZE);
+        while (script.length() + block.length() + 3 <= SCRIPT_SIZE) {
+            script.append(block);
+        }
+        script.append("--");
+        while (script.length() < SCRIPT_SIZE - 1) {
+            script.append(' ');
+        }
+        return script.append('\n').toString();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws Exception {
+        try (SqlStatementIterator statements = sqlParser.parse(resource)) {
+            while (statements.hasNext()) {
+                blackhole.consume(statements.next());
+            }
+        }
+    }
+}
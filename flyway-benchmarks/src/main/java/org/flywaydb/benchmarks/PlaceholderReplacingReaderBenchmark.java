@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.internal.parser.PlaceholderReplacingReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PlaceholderReplacingReader} against the per-character {@link LegacyPlaceholderReplacingReader} and
+ * against reading the same script without placeholder replacement. Each operation reads a script of 100 MiB of ASCII
+ * text with a placeholder every 20 characters or so, in blocks of 8 KiB as the parser does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PlaceholderReplacingReaderBenchmark {
+    private static final int SCRIPT_SIZE = 100 * 1024 * 1024;
+
+    private static final String LINE =
+            "INSERT INTO ${schema}.${table}_${Suffix} (id, name) VALUES (${id}, '${name}'); -- ${flyway:user}\n";
+
+    private final Map<String, String> placeholders = new HashMap<>();
+    private String script;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        placeholders.put("schema", "app");
+        placeholders.put("table", "customer");
+        placeholders.put("suffix", "2022");
+        placeholders.put("id", "42");
+        placeholders.put("name", "O''Brien");
+        placeholders.put("flyway:user", "sa");
+
+        StringBuilder builder = new StringBuilder(SCRIPT_SIZE);
+        while (builder.length() + LINE.length() <= SCRIPT_SIZE) {
+            builder.append(LINE);
+        }
+        while (builder.length() < SCRIPT_SIZE) {
+            builder.append(' ');
+        }
+        script = builder.toString();
+    }
+
+    @Benchmark
+    public long withoutPlaceholders() throws IOException {
+        return drain(new StringReader(script));
+    }
+
+    @Benchmark
+    public long legacy() throws IOException {
+        return drain(new LegacyPlaceholderReplacingReader("${", "}", placeholders, new StringReader(script)));
+    }
+
+    @Benchmark
+    public long current() throws IOException {
+        return drain(new PlaceholderReplacingReader("${", "}", placeholders, new StringReader(script)));
+    }
+
+    private static long drain(Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        long checksum = 0;
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            checksum += read + buffer[0];
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.benchmarks;
+
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.scanner.LocationScannerCache;
+import org.flywaydb.core.internal.scanner.ResourceNameCache;
+import org.flywaydb.core.internal.scanner.Scanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to discover the migrations of a file system and of a jar location, starting with empty
+ * scanner caches as on every application start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScannerBenchmark {
+    private static final String JAR_DIR = "db/migration";
+
+    @Param({"100", "1000"})
+    public int migrations;
+
+    private Path tempDir;
+    private Location fileSystemLocation;
+    private URLClassLoader jarClassLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("autoexec-scanner-benchmark");
+        Path dir = BenchmarkFiles.createMigrations(tempDir.resolve("sql"), migrations);
+        fileSystemLocation = new Location("filesystem:" + dir.toAbsolutePath());
+
+        Path jar = BenchmarkFiles.createMigrationJar(tempDir.resolve("migrations.jar"), JAR_DIR, migrations);
+        jarClassLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        jarClassLoader.close();
+        BenchmarkFiles.delete(tempDir);
+    }
+
+    @Benchmark
+    public Collection<LoadableResource> fileSystem() {
+        return scan(fileSystemLocation, getClass().getClassLoader());
+    }
+
+    @Benchmark
+    public Collection<LoadableResource> jar() {
+        return scan(new Location("classpath:" + JAR_DIR), jarClassLoader);
+    }
+
+    private Collection<LoadableResource> scan(Location location, ClassLoader classLoader) {
+        Scanner<JavaMigration> scanner = new Scanner<>(JavaMigration.class, Collections.singletonList(location),
+                                                       classLoader, StandardCharsets.UTF_8, false, false,
+                                                       new ResourceNameCache(), new LocationScannerCache(), true);
+        Collection<LoadableResource> resources = scanner.getResources("V", ".sql");
+        if (resources.size() != migrations) {
+            throw new IllegalStateException("Expected " + migrations + " migrations in " + location + " but found " + resources.size());
+        }
+        return resources;
+    }
+}
@@ -17,7 +17,9 @@ package org.flywaydb.core;
 
 import lombok.CustomLog;
 import lombok.experimental.ExtensionMethod;
+import org.flywaydb.core.api.BackgroundMigrations;
 import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
 import org.flywaydb.core.api.MigrationInfoService;
 import org.flywaydb.core.api.callback.Event;
 import org.flywaydb.core.api.configuration.ClassicConfiguration;
@@ -34,6 +36,7 @@ import org.flywaydb.core.internal.database.base.Database;
 import org.flywaydb.core.internal.database.base.Schema;
 import org.flywaydb.core.internal.jdbc.StatementInterceptor;
 import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
+import org.flywaydb.core.internal.resolver.MigrationFingerprint;
 import org.flywaydb.core.internal.schemahistory.SchemaHistory;
 import org.flywaydb.core.internal.util.StringUtils;
 
@@ -58,6 +61,7 @@ import java.util.List;
 public class Flyway {
     private final ClassicConfiguration configuration;
     private final FlywayExecutor flywayExecutor;
+    private volatile BackgroundMigrationsImpl backgroundMigrations = BackgroundMigrationsImpl.NONE;
 
     /**
      * This is your starting point. This creates a configuration which can be customized to your needs before being
@@ -123,9 +127,21 @@ public class Flyway {
      * @throws FlywayException when the migration failed.
      */
     public MigrateResult migrate() throws FlywayException {
-        return flywayExecutor.execute(new FlywayExecutor.Command<MigrateResult>() {
+        List<String> background = new ArrayList<>();
+        MigrateResult migrateResult = flywayExecutor.execute(new FlywayExecutor.Command<MigrateResult>() {
             public MigrateResult execute(CompositeMigrationResolver migrationResolver, SchemaHistory schemaHistory, Database database,
                                          Schema defaultSchema, Schema[] schemas, CallbackExecutor callbackExecutor, StatementInterceptor statementInterceptor) {
+                String upToDateFingerprint = null;
+                if (configuration.isUpToDateCheck()) {
+                    upToDateFingerprint = MigrationFingerprint.calculate(migrationResolver.resolveMigrations(configuration), configuration);
+                    if (schemaHistory.isUpToDate(upToDateFingerprint)) {
+                        LOG.info("Schema " + defaultSchema + " is up to date with all resolved migrations. No migration necessary.");
+                        MigrateResult result = CommandResultFactory.createMigrateResult(database.getCatalog(), configuration);
+                        callbackExecutor.onOperationFinishEvent(Event.AFTER_MIGRATE_OPERATION_FINISH, result);
+                        return result;
+                    }
+                }
+
                 if (configuration.isValidateOnMigrate()) {
                     List<ValidatePattern> ignorePatterns = new ArrayList<>(Arrays.asList(configuration.getIgnoreMigrationPatterns()));
                     ignorePatterns.add(ValidatePattern.fromPattern("*:pending"));
@@ -173,13 +189,72 @@ public class Flyway {
                     }
                 }
 
-                MigrateResult result = new DbMigrate(database, schemaHistory, defaultSchema, migrationResolver, configuration, callbackExecutor).migrate();
+                if (configuration.isCompactSchemaHistory()) {
+                    schemaHistory.compact();
+                }
+
+                DbMigrate dbMigrate = new DbMigrate(database, schemaHistory, defaultSchema, migrationResolver, configuration, callbackExecutor, upToDateFingerprint);
+                MigrateResult result = dbMigrate.migrate();
+                for (MigrationInfo migrationInfo : dbMigrate.getBackgroundMigrations()) {
+                    background.add(migrationInfo.getDescription());
+                }
 
                 callbackExecutor.onOperationFinishEvent(Event.AFTER_MIGRATE_OPERATION_FINISH, result);
 
                 return result;
             }
         }, true);
+
+        startBackgroundMigrations(background);
+        return migrateResult;
+    }
+
+    /**
+     * Retrieves the migrations flagged with {@code background=true} in their script configuration, which the last
+     * call to {@link #migrate()} left to be applied in the background.
+     *
+     * @return The background migrations. Done straight away if there were none.
+     */
+    public BackgroundMigrations getBackgroundMigrations() {
+        return backgroundMigrations;
+    }
+
+    /**
+     * Applies these pending migrations on a daemon thread, with its own connections, unless this instance is still
+     * applying background migrations.
+     */
+    private void startBackgroundMigrations(List<String> descriptions) {
+        if (descriptions.isEmpty() || !backgroundMigrations.isDone()) {
+            return;
+        }
+
+        BackgroundMigrationsImpl started = new BackgroundMigrationsImpl(descriptions);
+        backgroundMigrations = started;
+        LOG.info("Applying " + descriptions.size() + " migrations in the background: " + StringUtils.collectionToCommaDelimitedString(descriptions));
+
+        // The executor caches are not meant to be shared between threads
+        FlywayExecutor backgroundExecutor = new FlywayExecutor(configuration);
+        Thread thread = new Thread(() -> {
+            try {
+                MigrateResult result = backgroundExecutor.execute(new FlywayExecutor.Command<MigrateResult>() {
+                    public MigrateResult execute(CompositeMigrationResolver migrationResolver, SchemaHistory schemaHistory, Database database,
+                                                 Schema defaultSchema, Schema[] schemas, CallbackExecutor callbackExecutor, StatementInterceptor statementInterceptor) {
+                        return new DbMigrate(database, schemaHistory, defaultSchema, migrationResolver, configuration, callbackExecutor)
+                                .migrateInBackground(started);
+                    }
+                }, true);
+                LOG.info("Successfully applied " + result.migrationsExecuted + " migrations in the background");
+                started.finished(null);
+            } catch (RuntimeException e) {
+                LOG.error("Background migrations failed: " + e.getMessage(), e);
+                started.finished(e);
+            } catch (Error e) {
+                started.finished(e);
+                throw e;
+            }
+        }, "autoexec-background-migrations");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -15,7 +15,6 @@
  */
 package org.flywaydb.core;
 
-import com.amazonaws.util.CollectionUtils;
 import lombok.CustomLog;
 import org.flywaydb.core.api.ClassProvider;
 import org.flywaydb.core.api.ResourceProvider;
@@ -36,6 +35,8 @@ import org.flywaydb.core.internal.parser.ParsingContext;
 import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
 
 import org.flywaydb.core.internal.resource.NoopResourceProvider;
+import org.flywaydb.core.internal.resource.ResourceCatalog;
+import org.flywaydb.core.internal.resource.ResourceReadCounter;
 import org.flywaydb.core.internal.resource.ResourceNameValidator;
 import org.flywaydb.core.internal.resource.StringResource;
 import org.flywaydb.core.internal.scanner.LocationScannerCache;
@@ -46,6 +47,7 @@ import org.flywaydb.core.internal.schemahistory.SchemaHistoryFactory;
 import org.flywaydb.core.internal.sqlscript.SqlScript;
 import org.flywaydb.core.internal.sqlscript.SqlScriptExecutorFactory;
 import org.flywaydb.core.internal.sqlscript.SqlScriptFactory;
+import org.flywaydb.core.internal.strategy.LockWaitMetrics;
 import org.flywaydb.core.internal.strategy.RetryStrategy;
 import org.flywaydb.core.internal.util.IOUtils;
 import org.flywaydb.core.internal.util.Pair;
@@ -54,6 +56,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.flywaydb.core.internal.util.DataUnits.KILOBYTE;
 import static org.flywaydb.core.internal.util.DataUnits.MEGABYTE;
 
 
@@ -141,13 +144,16 @@ public class FlywayExecutor {
 
 
 
-        resourceNameValidator.validateSQLMigrationNaming(resourceProvider, configuration);
+        // The SQL resources are listed and their names parsed once, for validation, migrations and callbacks alike
+        final ResourceCatalog resourceCatalog = new ResourceCatalog(resourceProvider, configuration);
+        resourceNameValidator.validateSQLMigrationNaming(resourceCatalog, configuration);
 
         JdbcConnectionFactory jdbcConnectionFactory = new JdbcConnectionFactory(configuration.getDataSource(), configuration, statementInterceptor);
 
         final DatabaseType databaseType = jdbcConnectionFactory.getDatabaseType();
         final SqlScriptFactory sqlScriptFactory = databaseType.createSqlScriptFactory(configuration, parsingContext);
         RetryStrategy.setNumberOfRetries(configuration.getLockRetryCount());
+        RetryStrategy.setBackoff(configuration.isLockRetryBackoff());
 
         final SqlScriptExecutorFactory noCallbackSqlScriptExecutorFactory = databaseType.createSqlScriptExecutorFactory(
                 jdbcConnectionFactory, NoopCallbackExecutor.INSTANCE, null);
@@ -168,6 +174,8 @@ public class FlywayExecutor {
             noCallbackSqlScriptExecutorFactory.createSqlScriptExecutor(connection, false, false, outputQueryResults).execute(sqlScript);
         });
 
+        long resourceBytesReadBefore = ResourceReadCounter.getBytesRead();
+        LockWaitMetrics lockWaitMetrics = LockWaitMetrics.start();
         Database database = null;
         try {
             database = databaseType.createDatabase(configuration, !dbConnectionInfoPrinted, jdbcConnectionFactory, statementInterceptor);
@@ -196,13 +204,19 @@ public class FlywayExecutor {
                     database,
                     defaultSchema,
                     statementInterceptor);
-            DefaultCallbackExecutor callbackExecutor = new DefaultCallbackExecutor(configuration, database, defaultSchema,
-                    prepareCallbacks(database, resourceProvider, jdbcConnectionFactory, sqlScriptFactory,
-                            statementInterceptor, defaultSchema, parsingContext, schemaHistory, classProvider));
+            List<Callback> callbacks = prepareCallbacks(database, resourceProvider, resourceCatalog, jdbcConnectionFactory, sqlScriptFactory,
+                    statementInterceptor, schemaHistory);
+            DefaultCallbackExecutor callbackExecutor = new DefaultCallbackExecutor(configuration, database, defaultSchema, callbacks);
             SqlScriptExecutorFactory sqlScriptExecutorFactory = databaseType.createSqlScriptExecutorFactory(jdbcConnectionFactory, callbackExecutor, statementInterceptor);
 
+            // One resolver for the whole run: it resolves, reads and checksums every migration once, and both the
+            // callbacks and the command work off that same snapshot.
+            CompositeMigrationResolver migrationResolver = createMigrationResolver(resourceProvider, resourceCatalog, classProvider,
+                    sqlScriptExecutorFactory, sqlScriptFactory, parsingContext, statementInterceptor);
+            callbacks.forEach(callback -> callback.setMigrationResolver(migrationResolver));
+
             result = command.execute(
-                    createMigrationResolver(resourceProvider, classProvider, sqlScriptExecutorFactory, sqlScriptFactory, parsingContext, statementInterceptor),
+                    migrationResolver,
                     schemaHistory,
                     database,
                     defaultSchema,
@@ -211,12 +225,16 @@ public class FlywayExecutor {
                     statementInterceptor);
         } finally {
             IOUtils.close(database);
+            lockWaitMetrics.stop();
 
 
 
 
 
             showMemoryUsage();
+            showResourceUsage(resourceBytesReadBefore);
+            showLockUsage(lockWaitMetrics);
+            showSavedRoundTrips(database);
         }
         return result;
     }
@@ -248,7 +266,8 @@ public class FlywayExecutor {
                         stream,
                         resourceNameCache,
                         locationScannerCache,
-                        configuration.isFailOnMissingLocations());
+                        configuration.isFailOnMissingLocations(),
+                        configuration.getResolverThreads());
                 // set the defaults
                 resourceProvider = scanner;
                 classProvider = scanner;
@@ -264,11 +283,13 @@ public class FlywayExecutor {
         return Pair.of(resourceProvider, classProvider);
     }
 
-    private List<Callback> prepareCallbacks(Database database, ResourceProvider resourceProvider,
+    /**
+     * The callbacks receive the run's migration resolver once it has been created, see {@link #execute(Command, boolean)}.
+     */
+    private List<Callback> prepareCallbacks(Database database, ResourceProvider resourceProvider, ResourceCatalog resourceCatalog,
                                             JdbcConnectionFactory jdbcConnectionFactory,
                                             SqlScriptFactory sqlScriptFactory, StatementInterceptor statementInterceptor,
-                                            Schema schema, ParsingContext parsingContext,  SchemaHistory schemaHistory,
-                                            ClassProvider classProvider) {
+                                            SchemaHistory schemaHistory) {
         List<Callback> effectiveCallbacks = new ArrayList<>();
         CallbackExecutor callbackExecutor = NoopCallbackExecutor.INSTANCE;
 
@@ -289,12 +310,9 @@ public class FlywayExecutor {
         List<Callback> customCallbacks = Arrays.asList(configuration.getCallbacks());
         SqlScriptExecutorFactory sqlScriptExecutorFactory = jdbcConnectionFactory.getDatabaseType()
                 .createSqlScriptExecutorFactory(jdbcConnectionFactory, callbackExecutor, statementInterceptor);
-        CompositeMigrationResolver migrationResolver = createMigrationResolver(resourceProvider, classProvider,
-                sqlScriptExecutorFactory, sqlScriptFactory, parsingContext, statementInterceptor);
-        if (!CollectionUtils.isNullOrEmpty(customCallbacks)) {
+        if (!customCallbacks.isEmpty()) {
             customCallbacks.forEach(callback -> {
                 callback.setDatabase(database);
-                callback.setMigrationResolver(migrationResolver);
                 callback.setSchemaHistory(schemaHistory);
             });
             effectiveCallbacks.addAll(customCallbacks);
@@ -306,9 +324,9 @@ public class FlywayExecutor {
 
 
         if (!configuration.isSkipDefaultCallbacks()) {
-            effectiveCallbacks.addAll(new SqlScriptCallbackFactory(resourceProvider, sqlScriptExecutorFactory, sqlScriptFactory, configuration).getCallbacks());
+            effectiveCallbacks.addAll(new SqlScriptCallbackFactory(resourceProvider, resourceCatalog, sqlScriptExecutorFactory, sqlScriptFactory, configuration).getCallbacks());
             effectiveCallbacks.add(RePublishScriptCallback.builder().database(database)
-                    .migrationResolver(migrationResolver).schemaHistory(schemaHistory).build());
+                    .schemaHistory(schemaHistory).build());
         }
 
 
@@ -319,12 +337,13 @@ public class FlywayExecutor {
     }
 
     private CompositeMigrationResolver createMigrationResolver(ResourceProvider resourceProvider,
+                                                      ResourceCatalog resourceCatalog,
                                                       ClassProvider<JavaMigration> classProvider,
                                                       SqlScriptExecutorFactory sqlScriptExecutorFactory,
                                                       SqlScriptFactory sqlScriptFactory,
                                                       ParsingContext parsingContext,
                                                       StatementInterceptor statementInterceptor) {
-        return new CompositeMigrationResolver(resourceProvider, classProvider, configuration, sqlScriptExecutorFactory, sqlScriptFactory, parsingContext, statementInterceptor, configuration.getResolvers());
+        return new CompositeMigrationResolver(resourceProvider, resourceCatalog, classProvider, configuration, sqlScriptExecutorFactory, sqlScriptFactory, parsingContext, statementInterceptor, configuration.getResolvers());
     }
 
     private void showMemoryUsage() {
@@ -337,4 +356,23 @@ public class FlywayExecutor {
         long usedMB = MEGABYTE.fromBytes(used);
         LOG.debug("Memory usage: " + usedMB + " of " + totalMB + "M");
     }
+
+    private void showResourceUsage(long resourceBytesReadBefore) {
+        long bytesRead = ResourceReadCounter.getBytesRead() - resourceBytesReadBefore;
+        LOG.debug("Resources read: " + bytesRead + " bytes (" + KILOBYTE.toHumanReadableString(bytesRead) + ")");
+    }
+
+    private void showLockUsage(LockWaitMetrics lockWaitMetrics) {
+        long attempts = lockWaitMetrics.getAttempts();
+        if (attempts > 0) {
+            LOG.debug("Lock attempts: " + attempts + " in " + lockWaitMetrics.getWaitMillis() + " ms");
+        }
+    }
+
+    private void showSavedRoundTrips(Database database) {
+        long savedRoundTrips = database == null ? 0 : database.getSessionStateMetrics().getSavedRoundTrips();
+        if (savedRoundTrips > 0) {
+            LOG.debug("Round trips saved by session state tracking: " + savedRoundTrips);
+        }
+    }
 }
\ No newline at end of file
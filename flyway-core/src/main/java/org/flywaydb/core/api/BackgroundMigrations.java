@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.api;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The migrations flagged with {@code background=true} in their script configuration, which are applied in the
+ * background once migrate has returned. Lets the application hold back the features relying on them until they have
+ * been applied.
+ */
+public interface BackgroundMigrations {
+    /**
+     * @return The descriptions of the migrations being applied in the background. An empty set if none.
+     */
+    Set<String> getDescriptions();
+
+    /**
+     * Retrieves the completion of this migration.
+     *
+     * @param description The description of the migration.
+     * @return A future completed once the migration has been applied, by this node or another one, or completed
+     * exceptionally if it failed or could not be applied. Already completed if it is not being applied in the background.
+     */
+    CompletableFuture<Void> completion(String description);
+
+    /**
+     * @return A future completed once all migrations have been applied, or completed exceptionally with the failure
+     * which stopped them.
+     */
+    CompletableFuture<Void> completion();
+
+    /**
+     * @return Whether all migrations have been applied or failed.
+     */
+    boolean isDone();
+}
@@ -34,6 +34,18 @@ public enum CoreMigrationType implements MigrationType {
      * Deleted migration
      */
     DELETE(true, false, false),
+    /**
+     * Archive of the migrations removed by schema history compaction
+     */
+    ARCHIVE(true, false, false),
+    /**
+     * Marker of the migrations the schema was last found up to date with. Kept out of the applied migrations.
+     */
+    FINGERPRINT(true, false, false),
+    /**
+     * Claim of a migration being applied in the background by one node. Kept out of the applied migrations.
+     */
+    CLAIM(true, false, false),
     /**
      * SQL migrations.
      */
@@ -20,6 +20,7 @@ import org.flywaydb.core.extensibility.MigrationType;
 
 /**
  * migration unquire combine by type,version and script.
+ * The hash code is cached, as instances serve as hash keys while refreshing the migration infos.
  *
  * @author liulili
  * @since 2022/4/18 9:28
@@ -27,7 +28,7 @@ import org.flywaydb.core.extensibility.MigrationType;
 @Builder
 @AllArgsConstructor
 @Getter
-@EqualsAndHashCode
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 @ToString
 public final class MigrationUnique {
 
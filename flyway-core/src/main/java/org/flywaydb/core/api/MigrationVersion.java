@@ -16,36 +16,51 @@
 package org.flywaydb.core.api;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class MigrationVersion implements Comparable<MigrationVersion> {
     /**
      * Version for an empty schema.
      */
-    public static final MigrationVersion EMPTY = new MigrationVersion(null, "<< Empty Schema >>");
+    public static final MigrationVersion EMPTY = new MigrationVersion(new long[] {0}, "<< Empty Schema >>");
     /**
      * Latest version.
      */
-    public static final MigrationVersion LATEST = new MigrationVersion(BigInteger.valueOf(-1), "<< Latest Version >>");
+    public static final MigrationVersion LATEST = new MigrationVersion(new long[] {-1}, "<< Latest Version >>");
     /**
      * Current version. Only a marker. For the real version use Flyway.info().current() instead.
      */
-    public static final MigrationVersion CURRENT = new MigrationVersion(BigInteger.valueOf(-2), "<< Current Version >>");
+    public static final MigrationVersion CURRENT = new MigrationVersion(new long[] {-2}, "<< Current Version >>");
     /**
      * Next version.
      */
-    public static final MigrationVersion NEXT = new MigrationVersion(BigInteger.valueOf(-3), "<< Next Version >>");
+    public static final MigrationVersion NEXT = new MigrationVersion(new long[] {-3}, "<< Next Version >>");
 
     /**
-     * Regex for matching proper version format
+     * The maximum number of versions kept in the intern pool.
      */
-    private static final Pattern SPLIT_REGEX = Pattern.compile("\\.(?=\\d)");
+    private static final int MAX_INTERNED_VERSIONS = 1 << 16;
     /**
-     * The individual parts this version string is composed of. Ex. 1.2.3.4.0 -> [1, 2, 3, 4, 0]
+     * Versions already parsed, by version string, so that the same version read from the schema history table and
+     * from the migrations shares a single instance.
      */
-    private final List<BigInteger> versionParts;
+    private static final ConcurrentMap<String, MigrationVersion> INTERNED_VERSIONS = new ConcurrentHashMap<>();
+    /**
+     * The individual parts this version string is composed of, without trailing zeros. Ex. 1.2.3.4.0 -> [1, 2, 3, 4]
+     * {@code null} if one of them does not fit in a long.
+     */
+    private final long[] versionParts;
+    /**
+     * The individual parts this version string is composed of when one of them does not fit in a long, {@code null}
+     * otherwise.
+     */
+    private final BigInteger[] bigVersionParts;
+    /**
+     * The hash of the version parts.
+     */
+    private final int hash;
     /**
      * The printable text to represent the version.
      */
@@ -72,29 +87,73 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
         if (version == null) {
             return EMPTY;
         }
-        return new MigrationVersion(version);
+
+        MigrationVersion migrationVersion = INTERNED_VERSIONS.get(version);
+        if (migrationVersion != null) {
+            return migrationVersion;
+        }
+        migrationVersion = new MigrationVersion(version);
+        if (INTERNED_VERSIONS.size() < MAX_INTERNED_VERSIONS) {
+            MigrationVersion interned = INTERNED_VERSIONS.putIfAbsent(version, migrationVersion);
+            if (interned != null) {
+                return interned;
+            }
+        }
+        return migrationVersion;
     }
 
     /**
      * Creates a Version using this version string.
      *
-     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021. <br/>{@code null}
-     * means that this version refers to an empty schema.
+     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021.
      */
     private MigrationVersion(String version) {
         String normalizedVersion = version.replace('_', '.');
-        this.versionParts = tokenize(normalizedVersion);
         this.displayText = normalizedVersion;
+
+        String[] parts = split(normalizedVersion);
+        long[] longParts = new long[parts.length];
+        BigInteger[] bigParts = null;
+        for (int i = 0; i < parts.length; i++) {
+            if (bigParts == null) {
+                longParts[i] = toLong(parts[i]);
+                if (longParts[i] >= 0) {
+                    continue;
+                }
+                bigParts = new BigInteger[parts.length];
+                for (int j = 0; j < i; j++) {
+                    bigParts[j] = BigInteger.valueOf(longParts[j]);
+                }
+            }
+            bigParts[i] = toBigInteger(normalizedVersion, parts[i]);
+        }
+
+        if (bigParts != null && !fitsInLongs(bigParts)) {
+            int length = significantLength(bigParts);
+            this.versionParts = null;
+            this.bigVersionParts = length == bigParts.length ? bigParts : Arrays.copyOf(bigParts, length);
+            this.hash = Arrays.hashCode(this.bigVersionParts);
+            return;
+        }
+        if (bigParts != null) {
+            for (int i = 0; i < bigParts.length; i++) {
+                longParts[i] = bigParts[i].longValue();
+            }
+        }
+        int length = significantLength(longParts);
+        this.versionParts = length == longParts.length ? longParts : Arrays.copyOf(longParts, length);
+        this.bigVersionParts = null;
+        this.hash = Arrays.hashCode(this.versionParts);
     }
 
     /**
-     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021. <br/>{@code null}
-     * means that this version refers to an empty schema.
+     * @param versionParts The single part of this special version.
      * @param displayText The alternative text to display instead of the version number.
      */
-    private MigrationVersion(BigInteger version, String displayText) {
-        this.versionParts = new ArrayList<>();
-        this.versionParts.add(version);
+    private MigrationVersion(long[] versionParts, String displayText) {
+        this.versionParts = versionParts;
+        this.bigVersionParts = null;
+        this.hash = Arrays.hashCode(versionParts);
         this.displayText = displayText;
     }
 
@@ -107,10 +166,10 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
      * @return Numeric version as String
      */
     public String getVersion() {
-        if (this.equals(EMPTY)) {
+        if (this == EMPTY) {
             return null;
         }
-        if (this.equals(LATEST)) {
+        if (this == LATEST) {
             return Long.toString(Long.MAX_VALUE);
         }
         return displayText;
@@ -127,12 +186,12 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
 
         MigrationVersion version1 = (MigrationVersion) o;
 
-        return compareTo(version1) == 0;
+        return hash == version1.hash && compareTo(version1) == 0;
     }
 
     @Override
     public int hashCode() {
-        return versionParts == null ? 0 : versionParts.hashCode();
+        return hash;
     }
 
     /**
@@ -169,24 +228,27 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
      * @return The major version.
      */
     public BigInteger getMajor() {
-        return versionParts.get(0);
+        if (this == EMPTY) {
+            return null;
+        }
+        return getPart(0);
     }
 
     /**
      * @return The major version as a string.
      */
     public String getMajorAsString() {
-        return versionParts.get(0).toString();
+        return getMajor().toString();
     }
 
     /**
      * @return The minor version as a string.
      */
     public String getMinorAsString() {
-        if (versionParts.size() == 1) {
+        if (getNumberOfParts() == 1) {
             return "0";
         }
-        return versionParts.get(1).toString();
+        return getPart(1).toString();
     }
 
     @Override
@@ -226,11 +288,23 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
         if (o == LATEST) {
             return -1;
         }
-        final List<BigInteger> parts1 = versionParts;
-        final List<BigInteger> parts2 = o.versionParts;
-        int largestNumberOfParts = Math.max(parts1.size(), parts2.size());
+
+        if (versionParts != null && o.versionParts != null) {
+            final long[] parts1 = versionParts;
+            final long[] parts2 = o.versionParts;
+            int largestNumberOfParts = Math.max(parts1.length, parts2.length);
+            for (int i = 0; i < largestNumberOfParts; i++) {
+                final int compared = Long.compare(i < parts1.length ? parts1[i] : 0, i < parts2.length ? parts2[i] : 0);
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        }
+
+        int largestNumberOfParts = Math.max(getNumberOfParts(), o.getNumberOfParts());
         for (int i = 0; i < largestNumberOfParts; i++) {
-            final int compared = getOrZero(parts1, i).compareTo(getOrZero(parts2, i));
+            final int compared = getOrZero(i).compareTo(o.getOrZero(i));
             if (compared != 0) {
                 return compared;
             }
@@ -238,37 +312,111 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
         return 0;
     }
 
-    private BigInteger getOrZero(List<BigInteger> elements, int i) {
-        return i < elements.size() ? elements.get(i) : BigInteger.ZERO;
+    private int getNumberOfParts() {
+        return versionParts != null ? versionParts.length : bigVersionParts.length;
+    }
+
+    private BigInteger getPart(int i) {
+        return versionParts != null ? BigInteger.valueOf(versionParts[i]) : bigVersionParts[i];
+    }
+
+    private BigInteger getOrZero(int i) {
+        return i < getNumberOfParts() ? getPart(i) : BigInteger.ZERO;
     }
 
     /**
-     * Splits this string into list of BigIntegers
+     * Splits this string into its parts at each dot followed by a digit.
      *
      * @param versionStr The string to split.
      * @return The resulting array.
      */
-    private List<BigInteger> tokenize(String versionStr) {
-        List<BigInteger> parts = new ArrayList<>();
-        for (String part : SPLIT_REGEX.split(versionStr)) {
-            parts.add(toBigInteger(versionStr, part));
+    private static String[] split(String versionStr) {
+        int count = 1;
+        for (int i = 0; i < versionStr.length() - 1; i++) {
+            if (isSeparator(versionStr, i)) {
+                count++;
+            }
+        }
+        if (count == 1) {
+            return new String[] {versionStr};
         }
 
-        for (int i = parts.size() - 1; i > 0; i--) {
-            if (!parts.get(i).equals(BigInteger.ZERO)) {
-                break;
+        String[] parts = new String[count];
+        int part = 0;
+        int start = 0;
+        for (int i = 0; i < versionStr.length() - 1; i++) {
+            if (isSeparator(versionStr, i)) {
+                parts[part++] = versionStr.substring(start, i);
+                start = i + 1;
             }
-            parts.remove(i);
         }
-
+        parts[part] = versionStr.substring(start);
         return parts;
     }
 
-    private BigInteger toBigInteger(String versionStr, String part) {
+    private static boolean isSeparator(String versionStr, int i) {
+        char next = versionStr.charAt(i + 1);
+        return versionStr.charAt(i) == '.' && next >= '0' && next <= '9';
+    }
+
+    /**
+     * @return The value of this part if it is made only of ASCII digits and fits in a long, {@code -1} otherwise.
+     */
+    private static long toLong(String part) {
+        if (part.isEmpty()) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < part.length(); i++) {
+            int digit = part.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static BigInteger toBigInteger(String versionStr, String part) {
+        // BigInteger also accepts a sign, which would let -1 pass for LATEST and -3 for NEXT
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new FlywayException("Version may only contain 0..9 and . (dot). Invalid version: " + versionStr);
+            }
+        }
         try {
             return new BigInteger(part);
         } catch (NumberFormatException e) {
             throw new FlywayException("Version may only contain 0..9 and . (dot). Invalid version: " + versionStr);
         }
     }
-}
\ No newline at end of file
+
+    private static boolean fitsInLongs(BigInteger[] parts) {
+        for (BigInteger part : parts) {
+            if (part.bitLength() > 63) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of parts once trailing zeros are stripped, keeping at least the first one.
+     */
+    private static int significantLength(long[] parts) {
+        int length = parts.length;
+        while (length > 1 && parts[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
+    private static int significantLength(BigInteger[] parts) {
+        int length = parts.length;
+        while (length > 1 && parts[length - 1].signum() == 0) {
+            length--;
+        }
+        return length;
+    }
+}
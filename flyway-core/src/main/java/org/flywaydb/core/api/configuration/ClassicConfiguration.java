@@ -21,6 +21,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.flywaydb.core.api.*;
 import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.executor.RowSink;
 import org.flywaydb.core.api.migration.JavaMigration;
 import org.flywaydb.core.api.pattern.ValidatePattern;
 import org.flywaydb.core.api.resolver.MigrationResolver;
@@ -82,6 +83,52 @@ public class ClassicConfiguration implements Configuration {
      */
     private Charset encoding = StandardCharsets.UTF_8;
     private boolean detectEncoding = false;
+    /**
+     * -- SETTER --
+     * Sets the local file used to cache SQL migration checksums between runs.
+     *
+     * @param checksumCacheFile The checksum cache file, or {@code null} to disable the cache. (default: {@code null})
+     */
+    private String checksumCacheFile;
+    /**
+     * -- SETTER --
+     * Sets the maximum number of SQL migrations whose names and checksums are resolved concurrently, which is also
+     * the maximum number of filesystem locations scanned concurrently.
+     *
+     * @param resolverThreads The number of resolver threads. {@code 1} resolves migrations sequentially. (default: 1)
+     */
+    private int resolverThreads = 1;
+    /**
+     * -- SETTER --
+     * Sets the maximum number of repeatable migrations applied concurrently, each on a connection of its own.
+     * Run-once ({@code X}) scripts are versioned and are not part of this. {@code beforeEachMigrate} and
+     * {@code afterEachMigrate} callbacks run on the main connection, not on the one of the migration.
+     *
+     * @param repeatableMigrationThreads The number of connections for repeatable migrations. {@code 1} applies them sequentially. (default: 1)
+     */
+    private int repeatableMigrationThreads = 1;
+    /**
+     * -- SETTER --
+     * Sets the number of rows fetched per round trip when reading the results of queries in migrations and callbacks.
+     *
+     * @param queryResultFetchSize The fetch size. {@code 0} uses the default of the JDBC driver. (default: 0)
+     */
+    private int queryResultFetchSize = 0;
+    /**
+     * -- SETTER --
+     * Sets the maximum number of rows of each query result of migrations and callbacks kept in memory and output.
+     * Further rows are only counted and passed to the row sink.
+     *
+     * @param queryResultMaxRows The maximum number of rows kept per query result. {@code 0} keeps all of them. (default: 0)
+     */
+    private int queryResultMaxRows = 0;
+    /**
+     * -- SETTER --
+     * Sets the sink receiving every row of the query results of migrations and callbacks as it is read.
+     *
+     * @param queryResultRowSink The row sink, or {@code null} for none. (default: null)
+     */
+    private RowSink queryResultRowSink = null;
     /**
      * -- SETTER --
      * Sets the default schema managed by Flyway. This schema name is case-sensitive. If not specified, but <i>schemas</i>
@@ -303,9 +350,66 @@ public class ClassicConfiguration implements Configuration {
     private OutputStream dryRunOutput;
     private boolean stream;
     private boolean batch;
+    /**
+     * -- SETTER --
+     * Sets the maximum number of statements sent to the database at once when batching is enabled.
+     *
+     * @param batchSize The batch size. (default: 100)
+     */
+    private int batchSize = 100;
+    /**
+     * -- SETTER --
+     * Sets whether to compact the schema history table before migrating.
+     *
+     * @param compactSchemaHistory {@code true} to compact the schema history table. (default: {@code false})
+     */
+    private boolean compactSchemaHistory;
+    /**
+     * -- SETTER --
+     * Sets whether migrate should return straight away when the schema is already up to date.
+     *
+     * @param upToDateCheck {@code true} to check whether the schema is up to date first. (default: {@code false})
+     */
+    private boolean upToDateCheck;
+    /**
+     * -- SETTER --
+     * Sets whether the migrations flagged with {@code background=true} in their script configuration are applied in
+     * the background once migrate has returned.
+     *
+     * @param backgroundMigrations {@code true} to apply flagged migrations in the background. (default: {@code true})
+     */
+    private boolean backgroundMigrations = true;
+    /**
+     * -- SETTER --
+     * Sets how long a background migration may stay claimed before other nodes take its claim over.
+     *
+     * @param backgroundClaimTimeout The claim timeout in seconds. {@code 0} to wait for claimed migrations indefinitely. (default: 3600)
+     */
+    private int backgroundClaimTimeout = 3600;
     private boolean outputQueryResults = true;
     private String licenseKey;
     private int lockRetryCount = 50;
+    /**
+     * -- SETTER --
+     * Sets whether to back off exponentially, with random jitter, between attempts to obtain a lock.
+     *
+     * @param lockRetryBackoff {@code true} to back off exponentially, {@code false} to wait one second every time. (default: {@code true})
+     */
+    private boolean lockRetryBackoff = true;
+    /**
+     * -- SETTER --
+     * Sets the maximum number of prepared statements to keep open per connection for reuse.
+     *
+     * @param preparedStatementCacheSize The maximum number of cached statements per connection. {@code 0} to disable the cache. (default: {@code 0})
+     */
+    private int preparedStatementCacheSize;
+    /**
+     * -- SETTER --
+     * Sets the number of rows to fetch per round trip when reading the schema history table.
+     *
+     * @param schemaHistoryFetchSize The fetch size. {@code 0} to use the default of the JDBC driver. (default: {@code 0})
+     */
+    private int schemaHistoryFetchSize;
     private Map<String, String> jdbcProperties;
     private boolean oracleSqlplus;
     private boolean oracleSqlplusWarn;
@@ -808,17 +912,13 @@ public class ClassicConfiguration implements Configuration {
      * Whether to stream SQL migrations when executing them. Streaming doesn't load the entire migration in memory at
      * once. Instead each statement is loaded individually. This is particularly useful for very large SQL migrations
      * composed of multiple MB or even GB of reference data, as this dramatically reduces Flyway's memory consumption.
-     * <i>Flyway Teams only</i>
+     * Unless its script configuration sets {@code executeInTransaction}, the script is first scanned without keeping
+     * its statements, to find out whether it can run in a transaction.
      *
      * @param stream {@code true} to stream SQL migrations. {@code false} to fully loaded them in memory instead. (default: {@code false})
      */
     public void setStream(boolean stream) {
-
-        throw new org.flywaydb.core.internal.license.FlywayTeamsUpgradeRequiredException("stream");
-
-
-
-
+        this.stream = stream;
     }
 
     /**
@@ -827,17 +927,11 @@ public class ClassicConfiguration implements Configuration {
      * individually. This is particularly useful for very large SQL migrations composed of multiple MB or even GB of
      * reference data, as this can dramatically reduce the network overhead. This is supported for INSERT, UPDATE,
      * DELETE, MERGE and UPSERT statements. All other statements are automatically executed without batching.
-     * <i>Flyway Teams only</i>
      *
      * @param batch {@code true} to batch SQL statements. {@code false} to execute them individually instead. (default: {@code false})
      */
     public void setBatch(boolean batch) {
-
-        throw new org.flywaydb.core.internal.license.FlywayTeamsUpgradeRequiredException("batch");
-
-
-
-
+        this.batch = batch;
     }
 
     /**
@@ -1202,6 +1296,19 @@ public class ClassicConfiguration implements Configuration {
 
 
         setEncoding(configuration.getEncoding());
+        setChecksumCacheFile(configuration.getChecksumCacheFile());
+        setStream(configuration.isStream());
+        setBatch(configuration.isBatch());
+        setBatchSize(configuration.getBatchSize());
+        setCompactSchemaHistory(configuration.isCompactSchemaHistory());
+        setUpToDateCheck(configuration.isUpToDateCheck());
+        setBackgroundMigrations(configuration.isBackgroundMigrations());
+        setBackgroundClaimTimeout(configuration.getBackgroundClaimTimeout());
+        setResolverThreads(configuration.getResolverThreads());
+        setRepeatableMigrationThreads(configuration.getRepeatableMigrationThreads());
+        setQueryResultFetchSize(configuration.getQueryResultFetchSize());
+        setQueryResultMaxRows(configuration.getQueryResultMaxRows());
+        setQueryResultRowSink(configuration.getQueryResultRowSink());
         setGroup(configuration.isGroup());
         setValidateMigrationNaming(configuration.isValidateMigrationNaming());
         setIgnoreMigrationPatterns(configuration.getIgnoreMigrationPatterns());
@@ -1236,6 +1343,9 @@ public class ClassicConfiguration implements Configuration {
         setJavaMigrationClassProvider(configuration.getJavaMigrationClassProvider());
         setShouldCreateSchemas(configuration.isCreateSchemas());
         setLockRetryCount(configuration.getLockRetryCount());
+        setLockRetryBackoff(configuration.isLockRetryBackoff());
+        setPreparedStatementCacheSize(configuration.getPreparedStatementCacheSize());
+        setSchemaHistoryFetchSize(configuration.getSchemaHistoryFetchSize());
         setFailOnMissingLocations(configuration.isFailOnMissingLocations());
 
         url = configuration.getUrl();
@@ -1367,6 +1477,26 @@ public class ClassicConfiguration implements Configuration {
         if (detectEncoding != null) {
             setDetectEncoding(detectEncoding);
         }
+        String checksumCacheFileProp = props.remove(ConfigUtils.CHECKSUM_CACHE_FILE);
+        if (checksumCacheFileProp != null) {
+            setChecksumCacheFile(checksumCacheFileProp);
+        }
+        Integer resolverThreadsProp = removeInteger(props, ConfigUtils.RESOLVER_THREADS);
+        if (resolverThreadsProp != null) {
+            setResolverThreads(resolverThreadsProp);
+        }
+        Integer repeatableMigrationThreadsProp = removeInteger(props, ConfigUtils.REPEATABLE_MIGRATION_THREADS);
+        if (repeatableMigrationThreadsProp != null) {
+            setRepeatableMigrationThreads(repeatableMigrationThreadsProp);
+        }
+        Integer queryResultFetchSizeProp = removeInteger(props, ConfigUtils.QUERY_RESULT_FETCH_SIZE);
+        if (queryResultFetchSizeProp != null) {
+            setQueryResultFetchSize(queryResultFetchSizeProp);
+        }
+        Integer queryResultMaxRowsProp = removeInteger(props, ConfigUtils.QUERY_RESULT_MAX_ROWS);
+        if (queryResultMaxRowsProp != null) {
+            setQueryResultMaxRows(queryResultMaxRowsProp);
+        }
         String defaultSchemaProp = props.remove(ConfigUtils.DEFAULT_SCHEMA);
         if (defaultSchemaProp != null) {
             setDefaultSchema(defaultSchemaProp);
@@ -1427,6 +1557,18 @@ public class ClassicConfiguration implements Configuration {
         if (lockRetryCount != null) {
             setLockRetryCount(lockRetryCount);
         }
+        Boolean lockRetryBackoffProp = removeBoolean(props, ConfigUtils.LOCK_RETRY_BACKOFF);
+        if (lockRetryBackoffProp != null) {
+            setLockRetryBackoff(lockRetryBackoffProp);
+        }
+        Integer preparedStatementCacheSizeProp = removeInteger(props, ConfigUtils.PREPARED_STATEMENT_CACHE_SIZE);
+        if (preparedStatementCacheSizeProp != null) {
+            setPreparedStatementCacheSize(preparedStatementCacheSizeProp);
+        }
+        Integer schemaHistoryFetchSizeProp = removeInteger(props, ConfigUtils.SCHEMA_HISTORY_FETCH_SIZE);
+        if (schemaHistoryFetchSizeProp != null) {
+            setSchemaHistoryFetchSize(schemaHistoryFetchSizeProp);
+        }
         Boolean outOfOrderProp = removeBoolean(props, ConfigUtils.OUT_OF_ORDER);
         if (outOfOrderProp != null) {
             setOutOfOrder(outOfOrderProp);
@@ -1485,6 +1627,26 @@ public class ClassicConfiguration implements Configuration {
         if (batchProp != null) {
             setBatch(batchProp);
         }
+        Integer batchSizeProp = removeInteger(props, ConfigUtils.BATCH_SIZE);
+        if (batchSizeProp != null) {
+            setBatchSize(batchSizeProp);
+        }
+        Boolean compactSchemaHistoryProp = removeBoolean(props, ConfigUtils.COMPACT_SCHEMA_HISTORY);
+        if (compactSchemaHistoryProp != null) {
+            setCompactSchemaHistory(compactSchemaHistoryProp);
+        }
+        Boolean upToDateCheckProp = removeBoolean(props, ConfigUtils.UP_TO_DATE_CHECK);
+        if (upToDateCheckProp != null) {
+            setUpToDateCheck(upToDateCheckProp);
+        }
+        Boolean backgroundMigrationsProp = removeBoolean(props, ConfigUtils.BACKGROUND_MIGRATIONS);
+        if (backgroundMigrationsProp != null) {
+            setBackgroundMigrations(backgroundMigrationsProp);
+        }
+        Integer backgroundClaimTimeoutProp = removeInteger(props, ConfigUtils.BACKGROUND_CLAIM_TIMEOUT);
+        if (backgroundClaimTimeoutProp != null) {
+            setBackgroundClaimTimeout(backgroundClaimTimeoutProp);
+        }
         Boolean oracleSqlplusProp = removeBoolean(props, ConfigUtils.ORACLE_SQLPLUS);
         if (oracleSqlplusProp != null) {
             setOracleSqlplus(oracleSqlplusProp);
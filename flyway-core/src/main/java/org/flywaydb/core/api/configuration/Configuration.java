@@ -17,6 +17,7 @@ package org.flywaydb.core.api.configuration;
 
 import org.flywaydb.core.api.*;
 import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.executor.RowSink;
 import org.flywaydb.core.api.migration.JavaMigration;
 import org.flywaydb.core.api.pattern.ValidatePattern;
 import org.flywaydb.core.api.resolver.MigrationResolver;
@@ -346,6 +347,62 @@ public interface Configuration {
      */
     boolean isDetectEncoding();
 
+    /**
+     * Retrieves the local file used to cache SQL migration checksums between runs. Scripts whose size, modification time
+     * (or jar entry CRC), encoding and placeholders are unchanged are not read again to compute their checksum.
+     *
+     * @return The checksum cache file, or {@code null} to disable the cache. (default: {@code null})
+     */
+    String getChecksumCacheFile();
+
+    /**
+     * Retrieves the maximum number of SQL migrations whose names and checksums are resolved concurrently, which is also
+     * the maximum number of filesystem locations scanned concurrently. Useful when the locations are on a high-latency
+     * (e.g. network-mounted) filesystem. Virtual threads are used where available.
+     *
+     * @return The number of resolver threads. {@code 1} resolves migrations sequentially. (default: 1)
+     */
+    int getResolverThreads();
+
+    /**
+     * Retrieves the maximum number of repeatable migrations applied concurrently, each on a connection of its own.
+     * A repeatable migration whose script configuration lists other repeatable migrations in {@code dependsOn} (by
+     * description or script name) is only started once those have been applied. Run-once ({@code X}) scripts are
+     * versioned and therefore always applied in version order on the main connection. Not available with
+     * {@code group} or on databases restricted to a single connection.
+     * <p>{@code beforeEachMigrate} and {@code afterEachMigrate} callbacks of a concurrently applied migration still
+     * run on the main connection, not on the connection the migration itself runs on, so any session state they set
+     * is not visible to the migration.</p>
+     *
+     * @return The number of connections for repeatable migrations. {@code 1} applies them sequentially. (default: 1)
+     */
+    int getRepeatableMigrationThreads();
+
+    /**
+     * Retrieves the number of rows fetched per round trip when reading the results of queries in migrations and
+     * callbacks.
+     *
+     * @return The fetch size. {@code 0} uses the default of the JDBC driver. (default: 0)
+     */
+    int getQueryResultFetchSize();
+
+    /**
+     * Retrieves the maximum number of rows of each query result of migrations and callbacks kept in memory and
+     * output. Further rows are still read, so that errors are detected, and passed to the
+     * {@link #getQueryResultRowSink() row sink}, but not kept.
+     *
+     * @return The maximum number of rows kept per query result. {@code 0} keeps all of them. (default: 0)
+     */
+    int getQueryResultMaxRows();
+
+    /**
+     * Retrieves the sink receiving every row of the query results of migrations and callbacks as it is read,
+     * independently of {@link #getQueryResultMaxRows()}.
+     *
+     * @return The row sink, or {@code null} for none. (default: null)
+     */
+    RowSink getQueryResultRowSink();
+
     /**
      * Retrieves the locations to scan recursively for migrations.
      * The location type is determined by its prefix.
@@ -508,7 +565,8 @@ public interface Configuration {
      * Whether to stream SQL migrations when executing them. Streaming doesn't load the entire migration in memory at
      * once. Instead each statement is loaded individually. This is particularly useful for very large SQL migrations
      * composed of multiple MB or even GB of reference data, as this dramatically reduces Flyway's memory consumption.
-     * <i>Flyway Teams only</i>
+     * Unless its script configuration sets {@code executeInTransaction}, the script is first scanned without keeping
+     * its statements, to find out whether it can run in a transaction.
      *
      * @return {@code true} to stream SQL migrations. {@code false} to fully loaded them in memory instead. (default: {@code false})
      */
@@ -520,12 +578,59 @@ public interface Configuration {
      * individually. This is particularly useful for very large SQL migrations composed of multiple MB or even GB of
      * reference data, as this can dramatically reduce the network overhead. This is supported for INSERT, UPDATE,
      * DELETE, MERGE and UPSERT statements. All other statements are automatically executed without batching.
-     * <i>Flyway Teams only</i>
      *
      * @return {@code true} to batch SQL statements. {@code false} to execute them individually instead. (default: {@code false})
      */
     boolean isBatch();
 
+    /**
+     * The maximum number of statements sent to the database at once when {@link #isBatch()} is enabled.
+     *
+     * @return The batch size. (default: 100)
+     */
+    int getBatchSize();
+
+    /**
+     * Whether to compact the schema history table before migrating. Applied migrations that were superseded by a
+     * DELETE marker (e.g. because their script changed and was re-executed) are removed together with their markers
+     * and accounted for in a single ARCHIVE row, so that the cost of reading the history is bounded by the number of
+     * live migrations rather than by the length of the history.
+     *
+     * @return {@code true} to compact the schema history table. (default: {@code false})
+     */
+    boolean isCompactSchemaHistory();
+
+    /**
+     * Whether migrate should return straight away, without taking the schema history lock nor reading the applied
+     * migrations, when the schema is already up to date. A fingerprint of the resolved migrations is recorded in the
+     * schema history table each time a migration run finds nothing left to apply, and compared by later runs in a
+     * single query. Callbacks and validation are skipped when the fingerprint matches. This lets all but one of the
+     * nodes of a rolling deployment start without touching the schema history.
+     *
+     * @return {@code true} to check whether the schema is up to date first. (default: {@code false})
+     */
+    boolean isUpToDateCheck();
+
+    /**
+     * Whether the migrations flagged with {@code background=true} in their script configuration are applied in the
+     * background once migrate has returned, instead of along with all other migrations. Each of them is claimed in the
+     * schema history table by the node applying it, and the application can wait for them through
+     * {@link org.flywaydb.core.Flyway#getBackgroundMigrations()}. Disable this for short-lived processes, which would
+     * exit before they are applied.
+     *
+     * @return {@code true} to apply flagged migrations in the background. (default: {@code true})
+     */
+    boolean isBackgroundMigrations();
+
+    /**
+     * Retrieves how long a background migration may stay claimed, counted from the time it was claimed, before other
+     * nodes consider the node applying it gone and take its claim over. Must exceed the time the longest background
+     * migration takes to apply, as a migration still being applied past it is applied a second time.
+     *
+     * @return The claim timeout in seconds. {@code 0} to wait for claimed migrations indefinitely. (default: 3600)
+     */
+    int getBackgroundClaimTimeout();
+
     /**
      * Whether to Flyway's support for Oracle SQL*Plus commands should be activated.
      *
@@ -599,6 +704,33 @@ public interface Configuration {
      */
     int getLockRetryCount();
 
+    /**
+     * Whether to back off exponentially, with random jitter, between attempts to obtain a lock. Waits start at 50 ms
+     * and double up to one second, so that a node waiting for another one wakes up soon after the lock is released
+     * without all waiting nodes retrying in lockstep. When disabled, every wait lasts one second.
+     *
+     * @return {@code true} to back off exponentially. (default: {@code true})
+     */
+    boolean isLockRetryBackoff();
+
+    /**
+     * The maximum number of prepared statements to keep open per connection for reuse, such as the queries and
+     * inserts Flyway runs against the schema history table. Reusing a statement saves preparing it again, which costs
+     * a round trip on high-latency databases. The least recently used statement is closed when the cache is full, and
+     * all of them are closed together with their connection.
+     *
+     * @return The maximum number of cached statements per connection. {@code 0} to disable the cache. (default: {@code 0})
+     */
+    int getPreparedStatementCacheSize();
+
+    /**
+     * The number of rows to fetch per round trip when reading the schema history table. Only the rows added since
+     * the last read are fetched, so this mostly matters for the first read of a large history.
+     *
+     * @return The fetch size. {@code 0} to use the default of the JDBC driver. (default: {@code 0})
+     */
+    int getSchemaHistoryFetchSize();
+
     /**
      * Properties to pass to the JDBC driver object
      *
@@ -19,6 +19,7 @@ import lombok.experimental.Delegate;
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.*;
 import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.executor.RowSink;
 import org.flywaydb.core.api.migration.JavaMigration;
 import org.flywaydb.core.api.pattern.ValidatePattern;
 import org.flywaydb.core.api.resolver.MigrationResolver;
@@ -325,6 +326,70 @@ public class FluentConfiguration implements Configuration {
         return this;
     }
 
+    /**
+     * Sets the local file used to cache SQL migration checksums between runs.
+     *
+     * @param checksumCacheFile The checksum cache file, or {@code null} to disable the cache. (default: {@code null})
+     */
+    public FluentConfiguration checksumCacheFile(String checksumCacheFile) {
+        config.setChecksumCacheFile(checksumCacheFile);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of SQL migrations whose names and checksums are resolved concurrently, which is also
+     * the maximum number of filesystem locations scanned concurrently.
+     *
+     * @param resolverThreads The number of resolver threads. {@code 1} resolves migrations sequentially. (default: 1)
+     */
+    public FluentConfiguration resolverThreads(int resolverThreads) {
+        config.setResolverThreads(resolverThreads);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of repeatable migrations applied concurrently, each on a connection of its own.
+     * Run-once ({@code X}) scripts are versioned and are not part of this. {@code beforeEachMigrate} and
+     * {@code afterEachMigrate} callbacks run on the main connection, not on the one of the migration.
+     *
+     * @param repeatableMigrationThreads The number of connections for repeatable migrations. {@code 1} applies them sequentially. (default: 1)
+     */
+    public FluentConfiguration repeatableMigrationThreads(int repeatableMigrationThreads) {
+        config.setRepeatableMigrationThreads(repeatableMigrationThreads);
+        return this;
+    }
+
+    /**
+     * Sets the number of rows fetched per round trip when reading the results of queries in migrations and callbacks.
+     *
+     * @param queryResultFetchSize The fetch size. {@code 0} uses the default of the JDBC driver. (default: 0)
+     */
+    public FluentConfiguration queryResultFetchSize(int queryResultFetchSize) {
+        config.setQueryResultFetchSize(queryResultFetchSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of rows of each query result of migrations and callbacks kept in memory and output.
+     * Further rows are only counted and passed to the row sink.
+     *
+     * @param queryResultMaxRows The maximum number of rows kept per query result. {@code 0} keeps all of them. (default: 0)
+     */
+    public FluentConfiguration queryResultMaxRows(int queryResultMaxRows) {
+        config.setQueryResultMaxRows(queryResultMaxRows);
+        return this;
+    }
+
+    /**
+     * Sets the sink receiving every row of the query results of migrations and callbacks as it is read.
+     *
+     * @param queryResultRowSink The row sink, or {@code null} for none. (default: null)
+     */
+    public FluentConfiguration queryResultRowSink(RowSink queryResultRowSink) {
+        config.setQueryResultRowSink(queryResultRowSink);
+        return this;
+    }
+
     /**
      * Sets the default schema managed by Flyway. This schema name is case-sensitive. If not specified, but <i>schemas</i>
      * is, Flyway uses the first schema in that list. If that is also not specified, Flyway uses the default schema for the
@@ -789,7 +854,8 @@ public class FluentConfiguration implements Configuration {
      * Whether to stream SQL migrations when executing them. Streaming doesn't load the entire migration in memory at
      * once. Instead each statement is loaded individually. This is particularly useful for very large SQL migrations
      * composed of multiple MB or even GB of reference data, as this dramatically reduces Flyway's memory consumption.
-     * <i>Flyway Teams only</i>
+     * Unless its script configuration sets {@code executeInTransaction}, the script is first scanned without keeping
+     * its statements, to find out whether it can run in a transaction.
      *
      * @param stream {@code true} to stream SQL migrations. {@code false} to fully loaded them in memory instead. (default: {@code false})
      */
@@ -804,7 +870,6 @@ public class FluentConfiguration implements Configuration {
      * individually. This is particularly useful for very large SQL migrations composed of multiple MB or even GB of
      * reference data, as this can dramatically reduce the network overhead. This is supported for INSERT, UPDATE,
      * DELETE, MERGE and UPSERT statements. All other statements are automatically executed without batching.
-     * <i>Flyway Teams only</i>
      *
      * @param batch {@code true} to batch SQL statements. {@code false} to execute them individually instead. (default: {@code false})
      */
@@ -813,11 +878,93 @@ public class FluentConfiguration implements Configuration {
         return this;
     }
 
+    /**
+     * Sets the maximum number of statements sent to the database at once when batching is enabled.
+     *
+     * @param batchSize The batch size. (default: 100)
+     */
+    public FluentConfiguration batchSize(int batchSize) {
+        config.setBatchSize(batchSize);
+        return this;
+    }
+
+    /**
+     * Sets whether to compact the schema history table before migrating.
+     *
+     * @param compactSchemaHistory {@code true} to compact the schema history table. (default: {@code false})
+     */
+    public FluentConfiguration compactSchemaHistory(boolean compactSchemaHistory) {
+        config.setCompactSchemaHistory(compactSchemaHistory);
+        return this;
+    }
+
+    /**
+     * Sets whether migrate should return straight away when the schema is already up to date.
+     *
+     * @param upToDateCheck {@code true} to check whether the schema is up to date first. (default: {@code false})
+     */
+    public FluentConfiguration upToDateCheck(boolean upToDateCheck) {
+        config.setUpToDateCheck(upToDateCheck);
+        return this;
+    }
+
+    /**
+     * Sets whether the migrations flagged with {@code background=true} in their script configuration are applied in
+     * the background once migrate has returned.
+     *
+     * @param backgroundMigrations {@code true} to apply flagged migrations in the background. (default: {@code true})
+     */
+    public FluentConfiguration backgroundMigrations(boolean backgroundMigrations) {
+        config.setBackgroundMigrations(backgroundMigrations);
+        return this;
+    }
+
+    /**
+     * Sets how long a background migration may stay claimed before other nodes take its claim over. Must exceed the
+     * time the longest background migration takes to apply.
+     *
+     * @param backgroundClaimTimeout The claim timeout in seconds. {@code 0} to wait for claimed migrations indefinitely. (default: 3600)
+     */
+    public FluentConfiguration backgroundClaimTimeout(int backgroundClaimTimeout) {
+        config.setBackgroundClaimTimeout(backgroundClaimTimeout);
+        return this;
+    }
+
     public FluentConfiguration lockRetryCount(int lockRetryCount) {
         config.setLockRetryCount(lockRetryCount);
         return this;
     }
 
+    /**
+     * Sets whether to back off exponentially, with random jitter, between attempts to obtain a lock.
+     *
+     * @param lockRetryBackoff {@code true} to back off exponentially, {@code false} to wait one second every time. (default: {@code true})
+     */
+    public FluentConfiguration lockRetryBackoff(boolean lockRetryBackoff) {
+        config.setLockRetryBackoff(lockRetryBackoff);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of prepared statements to keep open per connection for reuse.
+     *
+     * @param preparedStatementCacheSize The maximum number of cached statements per connection. {@code 0} to disable the cache. (default: {@code 0})
+     */
+    public FluentConfiguration preparedStatementCacheSize(int preparedStatementCacheSize) {
+        config.setPreparedStatementCacheSize(preparedStatementCacheSize);
+        return this;
+    }
+
+    /**
+     * Sets the number of rows to fetch per round trip when reading the schema history table.
+     *
+     * @param schemaHistoryFetchSize The fetch size. {@code 0} to use the default of the JDBC driver. (default: {@code 0})
+     */
+    public FluentConfiguration schemaHistoryFetchSize(int schemaHistoryFetchSize) {
+        config.setSchemaHistoryFetchSize(schemaHistoryFetchSize);
+        return this;
+    }
+
     /**
      * Properties to pass to the JDBC driver object
      * <i>Flyway Teams only</i>
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.api.executor;
+
+import java.util.List;
+
+/**
+ * Receives the rows of the query results of migrations and callbacks as they are read. Every row is passed on,
+ * independently of how many of them are kept in memory and output (see
+ * {@link org.flywaydb.core.api.configuration.Configuration#getQueryResultMaxRows()}), so that large results can be
+ * processed without holding them in memory.
+ */
+public interface RowSink {
+    /**
+     * Called before the rows of each result set.
+     *
+     * @param sql The statement which returned the result set.
+     * @param columns The names of its columns.
+     */
+    void start(String sql, List<String> columns);
+
+    /**
+     * Called for each row of the current result set.
+     *
+     * @param row The values of the row, as strings.
+     */
+    void row(List<String> row);
+
+    /**
+     * Called once all rows of the current result set have been read.
+     *
+     * @param rowCount The number of rows read.
+     */
+    void end(long rowCount);
+}
@@ -71,6 +71,11 @@ public class ValidatePattern {
         return new ValidatePattern(migrationType, migrationState);
     }
 
+    @Override
+    public String toString() {
+        return migrationType + ":" + migrationState;
+    }
+
     public boolean matchesMigration(boolean isVersioned, MigrationState state) {
         if (!state.getDisplayName().equalsIgnoreCase(migrationState) && !migrationState.equals("*")) {
             return false;
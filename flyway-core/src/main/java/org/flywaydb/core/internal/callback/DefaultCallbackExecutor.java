@@ -77,10 +77,15 @@ public class DefaultCallbackExecutor implements CallbackExecutor {
 
     @Override
     public void onEachMigrateOrUndoEvent(Event event) {
-        final Context context = new SimpleContext(configuration, database.getMigrationConnection(), migrationInfo, null);
+        final Connection connection = database.getMigrationConnection();
+        final Context context = new SimpleContext(configuration, connection, migrationInfo, null);
         for (Callback callback : callbacks) {
             if (callback.supports(event, context)) {
-                callback.handle(event, context);
+                try {
+                    callback.handle(event, context);
+                } finally {
+                    connection.invalidateSessionState();
+                }
             }
         }
     }
@@ -98,10 +103,15 @@ public class DefaultCallbackExecutor implements CallbackExecutor {
 
 
     public void onOperationFinishEvent(Event event, OperationResult operationResult) {
-        final Context context = new SimpleContext(configuration, database.getMigrationConnection(), migrationInfo, operationResult);
+        final Connection connection = database.getMigrationConnection();
+        final Context context = new SimpleContext(configuration, connection, migrationInfo, operationResult);
         for (Callback callback : callbacks) {
             if (callback.supports(event, context)) {
-                callback.handle(event, context);
+                try {
+                    callback.handle(event, context);
+                } finally {
+                    connection.invalidateSessionState();
+                }
             }
         }
     }
@@ -126,7 +136,11 @@ public class DefaultCallbackExecutor implements CallbackExecutor {
     private void execute(Connection connection, Callback callback, Event event, Context context) {
         connection.restoreOriginalState();
         connection.changeCurrentSchemaTo(schema);
-        handleEvent(callback, event, context);
+        try {
+            handleEvent(callback, event, context);
+        } finally {
+            connection.invalidateSessionState();
+        }
     }
 
     private void handleEvent(Callback callback, Event event, Context context) {
@@ -25,11 +25,12 @@ import org.flywaydb.core.api.callback.Context;
 import org.flywaydb.core.api.callback.Event;
 import org.flywaydb.core.api.configuration.Configuration;
 import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.resource.ResourceCatalog;
 import org.flywaydb.core.internal.resource.ResourceName;
-import org.flywaydb.core.internal.resource.ResourceNameParser;
 import org.flywaydb.core.internal.sqlscript.SqlScript;
 import org.flywaydb.core.internal.sqlscript.SqlScriptExecutorFactory;
 import org.flywaydb.core.internal.sqlscript.SqlScriptFactory;
+import org.flywaydb.core.internal.util.Pair;
 
 import java.util.*;
 
@@ -52,21 +53,31 @@ public class SqlScriptCallbackFactory {
                                     SqlScriptExecutorFactory sqlScriptExecutorFactory,
                                     SqlScriptFactory sqlScriptFactory,
                                     Configuration configuration) {
+        this(resourceProvider, new ResourceCatalog(resourceProvider, configuration), sqlScriptExecutorFactory, sqlScriptFactory, configuration);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param resourceProvider The resource provider.
+     * @param resourceCatalog The SQL resources of this resource provider.
+     * @param sqlScriptFactory The SQL statement factory.
+     * @param configuration The Flyway configuration.
+     */
+    public SqlScriptCallbackFactory(ResourceProvider resourceProvider,
+                                    ResourceCatalog resourceCatalog,
+                                    SqlScriptExecutorFactory sqlScriptExecutorFactory,
+                                    SqlScriptFactory sqlScriptFactory,
+                                    Configuration configuration) {
         Map<String, SqlScript> callbacksFound = new HashMap<>();
 
         LOG.debug("Scanning for SQL callbacks ...");
-        Collection<LoadableResource> resources = resourceProvider.getResources("", configuration.getSqlMigrationSuffixes());
-        ResourceNameParser resourceNameParser = new ResourceNameParser(configuration);
-
-        for (LoadableResource resource : resources) {
-            ResourceName parsedName = resourceNameParser.parse(resource.getFilename());
-            if (!parsedName.isValid()) {
-                continue;
-            }
+        for (Event event : Event.values()) {
+            for (Pair<LoadableResource, ResourceName> entry : resourceCatalog.getResources(event.getId())) {
+                LoadableResource resource = entry.getLeft();
+                ResourceName parsedName = entry.getRight();
 
-            String name = parsedName.getFilenameWithoutSuffix();
-            Event event = Event.fromId(parsedName.getPrefix());
-            if (event != null) {
+                String name = parsedName.getFilenameWithoutSuffix();
                 SqlScript existing = callbacksFound.get(name);
                 if (existing != null) {
                     throw new FlywayException("Found more than 1 SQL callback script called " + name + "!\n" +
@@ -77,7 +88,7 @@ public class SqlScriptCallbackFactory {
                 SqlScript sqlScript = sqlScriptFactory.createSqlScript(resource, configuration.isMixed(), resourceProvider);
                 callbacksFound.put(name, sqlScript);
 
-                boolean batch = false;
+                boolean batch = configuration.isBatch();
 
 
 
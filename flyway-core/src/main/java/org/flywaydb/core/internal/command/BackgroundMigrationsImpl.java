@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.command;
+
+import org.flywaydb.core.api.BackgroundMigrations;
+import org.flywaydb.core.api.FlywayException;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the migrations applied in the background. The futures handed out are dependents of the internal ones, so that
+ * callers completing them have no effect on the others.
+ */
+public class BackgroundMigrationsImpl implements BackgroundMigrations {
+    public static final BackgroundMigrationsImpl NONE = new BackgroundMigrationsImpl(Collections.emptyList());
+
+    private final Map<String, CompletableFuture<Void>> migrations = new LinkedHashMap<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    public BackgroundMigrationsImpl(Collection<String> descriptions) {
+        for (String description : descriptions) {
+            migrations.put(description, new CompletableFuture<>());
+        }
+        if (migrations.isEmpty()) {
+            completion.complete(null);
+        }
+    }
+
+    @Override
+    public Set<String> getDescriptions() {
+        return Collections.unmodifiableSet(migrations.keySet());
+    }
+
+    @Override
+    public CompletableFuture<Void> completion(String description) {
+        CompletableFuture<Void> migration = migrations.get(description);
+        return migration == null ? CompletableFuture.completedFuture(null) : migration.thenApply(v -> v);
+    }
+
+    @Override
+    public CompletableFuture<Void> completion() {
+        return completion.thenApply(v -> v);
+    }
+
+    @Override
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Marks the migrations no longer pending as applied, and those which failed on another node as failed.
+     *
+     * @param pending The descriptions of the migrations still pending.
+     * @param failed The descriptions of the migrations recorded as failed.
+     */
+    void update(Set<String> pending, Set<String> failed) {
+        for (Map.Entry<String, CompletableFuture<Void>> entry : migrations.entrySet()) {
+            if (failed.contains(entry.getKey())) {
+                entry.getValue().completeExceptionally(new FlywayException("Background migration \"" + entry.getKey() + "\" failed"));
+            } else if (!pending.contains(entry.getKey())) {
+                entry.getValue().complete(null);
+            }
+        }
+    }
+
+    void applied(String description) {
+        CompletableFuture<Void> migration = migrations.get(description);
+        if (migration != null) {
+            migration.complete(null);
+        }
+    }
+
+    void failed(String description, Throwable failure) {
+        CompletableFuture<Void> migration = migrations.get(description);
+        if (migration != null) {
+            migration.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Completes all migrations not completed so far, as well as the whole.
+     *
+     * @param failure The failure which stopped the background migrations, or {@code null} if none did.
+     */
+    public void finished(Throwable failure) {
+        for (CompletableFuture<Void> migration : migrations.values()) {
+            if (failure == null) {
+                migration.complete(null);
+            } else {
+                migration.completeExceptionally(failure);
+            }
+        }
+        if (failure == null) {
+            completion.complete(null);
+        } else {
+            completion.completeExceptionally(failure);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.flywaydb.core.internal.command;
 
 import lombok.CustomLog;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.MigrationInfo;
 import org.flywaydb.core.api.MigrationState;
@@ -24,23 +25,33 @@ import org.flywaydb.core.api.MigrationVersion;
 import org.flywaydb.core.api.callback.Event;
 import org.flywaydb.core.api.configuration.Configuration;
 import org.flywaydb.core.api.executor.Context;
+import org.flywaydb.core.api.executor.MigrationExecutor;
 import org.flywaydb.core.api.output.CommandResultFactory;
 import org.flywaydb.core.api.output.MigrateErrorResult;
 import org.flywaydb.core.api.output.MigrateResult;
 import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.extensibility.AppliedMigration;
 import org.flywaydb.core.internal.callback.CallbackExecutor;
 import org.flywaydb.core.internal.database.base.Connection;
 import org.flywaydb.core.internal.database.base.Database;
 import org.flywaydb.core.internal.database.base.Schema;
+import org.flywaydb.core.internal.exception.FlywaySqlException;
 import org.flywaydb.core.internal.info.MigrationInfoImpl;
 import org.flywaydb.core.internal.info.MigrationInfoServiceImpl;
 import org.flywaydb.core.internal.jdbc.ExecutionTemplateFactory;
 import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
+import org.flywaydb.core.internal.resolver.sql.SqlMigrationExecutor;
+import org.flywaydb.core.internal.schemahistory.CheckpointTable;
 import org.flywaydb.core.internal.schemahistory.SchemaHistory;
 import org.flywaydb.core.internal.util.*;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @CustomLog
 public class DbMigrate {
@@ -54,20 +65,49 @@ public class DbMigrate {
     private final CompositeMigrationResolver migrationResolver;
     private final Configuration configuration;
     private final CallbackExecutor callbackExecutor;
+    private final String upToDateFingerprint;
     /**
      * The connection to use to perform the actual database migrations.
      */
     private final Connection connectionUserObjects;
+    /**
+     * The checkpoints of the migrations committing every so many statements.
+     */
+    private final CheckpointTable checkpointTable;
     private MigrateResult migrateResult;
     /**
      * This is used to remember the type of migration between calls to migrateGroup().
      */
     private boolean isPreviousVersioned;
-    private final List<ResolvedMigration> appliedResolvedMigrations = new ArrayList<>();
+    private final Set<ResolvedMigration> appliedResolvedMigrations = new HashSet<>();
+    /**
+     * How long to wait before checking again whether a background migration claimed by another node has been applied.
+     */
+    private static final long BACKGROUND_POLL_MILLIS = 5000;
+    /**
+     * The migration state kept for the whole run. It is built once and then updated in place with the migrations
+     * applied since, instead of being rebuilt from scratch for every group.
+     */
+    private MigrationInfoServiceImpl infoService;
+    /**
+     * The pending migrations left to be applied in the background, as of the last group.
+     */
+    @Getter
+    private List<MigrationInfoImpl> backgroundMigrations = Collections.emptyList();
 
     public DbMigrate(Database database,
                      SchemaHistory schemaHistory, Schema schema, CompositeMigrationResolver migrationResolver,
                      Configuration configuration, CallbackExecutor callbackExecutor) {
+        this(database, schemaHistory, schema, migrationResolver, configuration, callbackExecutor, null);
+    }
+
+    /**
+     * @param upToDateFingerprint The fingerprint of the resolved migrations to record in the schema history once
+     *                            nothing is left to apply, or {@code null} not to record any.
+     */
+    public DbMigrate(Database database,
+                     SchemaHistory schemaHistory, Schema schema, CompositeMigrationResolver migrationResolver,
+                     Configuration configuration, CallbackExecutor callbackExecutor, String upToDateFingerprint) {
         this.database = database;
         this.connectionUserObjects = database.getMigrationConnection();
         this.schemaHistory = schemaHistory;
@@ -75,6 +115,8 @@ public class DbMigrate {
         this.migrationResolver = migrationResolver;
         this.configuration = configuration;
         this.callbackExecutor = callbackExecutor;
+        this.upToDateFingerprint = upToDateFingerprint;
+        this.checkpointTable = new CheckpointTable(database, schema, configuration);
     }
 
     /**
@@ -166,10 +208,7 @@ public class DbMigrate {
      * @return The number of newly applied migrations.
      */
     private Integer migrateGroup(boolean firstRun) {
-        MigrationInfoServiceImpl infoService =
-                new MigrationInfoServiceImpl(migrationResolver, schemaHistory, database, configuration,
-                                             configuration.getTarget(), configuration.isOutOfOrder(), ValidatePatternUtils.getIgnoreAllPattern(), configuration.getCherryPick());
-        infoService.refresh();
+        refreshInfoService();
 
         MigrationInfo current = infoService.current();
         MigrationVersion currentSchemaVersion = current == null ? MigrationVersion.EMPTY : current.getVersion();
@@ -222,10 +261,17 @@ public class DbMigrate {
         }
 
         LinkedHashMap<MigrationInfoImpl, Boolean> group = new LinkedHashMap<>();
-        for (MigrationInfoImpl pendingMigration : infoService.pending()) {
+        List<MigrationInfoImpl> background = new ArrayList<>();
+        boolean upToDate = true;
+        for (MigrationInfoImpl pendingMigration : infoService.pendingMigrations()) {
+            upToDate = false;
             if (appliedResolvedMigrations.contains(pendingMigration.getResolvedMigration())) {
                 continue;
             }
+            if (isBackground(pendingMigration)) {
+                background.add(pendingMigration);
+                continue;
+            }
 
             boolean isOutOfOrder = pendingMigration.getVersion() != null
                     && pendingMigration.getVersion().compareTo(currentSchemaVersion) < 0;
@@ -237,17 +283,38 @@ public class DbMigrate {
                 break;
             }
         }
+        backgroundMigrations = background;
 
         if (!group.isEmpty()) {
             boolean skipExecutingMigrations = false;
 
 
 
+            List<MigrationInfoImpl> repeatables = collectConcurrentRepeatables(group);
+            if (repeatables.size() > 1) {
+                applyRepeatablesConcurrently(repeatables);
+                return repeatables.size();
+            }
+
             applyMigrations(group, skipExecutingMigrations);
+        } else if (upToDate && upToDateFingerprint != null) {
+            // Still under the lock, so no other node can have changed the history since it was read
+            schemaHistory.markUpToDate(upToDateFingerprint);
         }
         return group.size();
     }
 
+    private void refreshInfoService() {
+        if (infoService == null) {
+            infoService = new MigrationInfoServiceImpl(migrationResolver, schemaHistory, database, configuration,
+                                                       configuration.getTarget(), configuration.isOutOfOrder(), ValidatePatternUtils.getIgnoreAllPattern(), configuration.getCherryPick());
+            infoService.refresh();
+        } else {
+            // Only fold in what was applied since the previous group, by this run or by other nodes.
+            infoService.refreshIncrementally();
+        }
+    }
+
     private void logSummary(int migrationSuccessCount, long executionTime, String targetVersion) {
         if (migrationSuccessCount == 0) {
             LOG.info("Schema " + schema + " is up to date. No migration necessary.");
@@ -270,7 +337,13 @@ public class DbMigrate {
         final StopWatch stopWatch = new StopWatch();
         try {
             if (executeGroupInTransaction) {
+                AtomicBoolean attempted = new AtomicBoolean();
                 ExecutionTemplateFactory.createExecutionTemplate(connectionUserObjects.getJdbcConnection(), database).execute(() -> {
+                    if (attempted.getAndSet(true)) {
+                        // The transaction is being retried, so the rows the previous attempt wrote to the schema
+                        // history were rolled back
+                        schemaHistory.clearCache();
+                    }
                     doMigrateGroup(group, stopWatch, skipExecutingMigrations, true);
                     return null;
                 });
@@ -278,23 +351,41 @@ public class DbMigrate {
                 doMigrateGroup(group, stopWatch, skipExecutingMigrations, false);
             }
         } catch (FlywayMigrateException e) {
-            MigrationInfo migration = e.getMigration();
-
-            String failedMsg = "Migration of " + toMigrationText(migration, e.isExecutableInTransaction(), e.isOutOfOrder()) + " failed!";
-            if (database.supportsDdlTransactions() && executeGroupInTransaction) {
-                LOG.error(failedMsg + " Changes successfully rolled back.");
-            } else {
-                LOG.error(failedMsg + " Please restore backups and roll back database and code!");
-
+            boolean rolledBack = database.supportsDdlTransactions() && executeGroupInTransaction;
+            if (!rolledBack) {
                 stopWatch.stop();
-                int executionTime = (int) stopWatch.getTotalTimeMillis();
-                schemaHistory.addAppliedMigration(migration.getVersion(), migration.getDescription(),
-                                                  migration.getType(), migration.getScript(), migration.getChecksum(), executionTime, false);
             }
+            handleFailure(e, rolledBack, (int) stopWatch.getTotalTimeMillis());
+            throw e;
+        } catch (RuntimeException e) {
+            schemaHistory.clearCache();
             throw e;
         }
     }
 
+    /**
+     * Logs this failed migration and, unless its changes were rolled back, records it as failed in the schema history.
+     */
+    private void handleFailure(FlywayMigrateException e, boolean rolledBack, int executionTime) {
+        // The rows written to the schema history within the failed transaction were rolled back with it, even on
+        // databases rolling back DML only, so they must not stay cached
+        schemaHistory.clearCache();
+
+        MigrationInfo migration = e.getMigration();
+
+        String failedMsg = "Migration of " + toMigrationText(migration, e.isExecutableInTransaction(), e.isOutOfOrder()) + " failed!";
+        if (migration instanceof MigrationInfoImpl && isResumable((MigrationInfoImpl) migration)) {
+            LOG.error(failedMsg + " Changes since its last checkpoint rolled back, it will resume from there.");
+        } else if (rolledBack) {
+            LOG.error(failedMsg + " Changes successfully rolled back.");
+        } else {
+            LOG.error(failedMsg + " Please restore backups and roll back database and code!");
+
+            schemaHistory.addAppliedMigration(migration.getVersion(), migration.getDescription(),
+                                              migration.getType(), migration.getScript(), migration.getChecksum(), executionTime, false);
+        }
+    }
+
     private boolean isExecuteGroupInTransaction(LinkedHashMap<MigrationInfoImpl, Boolean> group) {
         boolean executeGroupInTransaction = true;
         boolean first = true;
@@ -373,7 +464,7 @@ public class DbMigrate {
                         if (database.useSingleConnection() && !isExecuteInTransaction) {
                             context.getConnection().setAutoCommit(true);
                         }
-                        migration.getResolvedMigration().getExecutor().execute(context);
+                        execute(migration, context, connectionUserObjects);
                         if (database.useSingleConnection() && !isExecuteInTransaction) {
                             context.getConnection().setAutoCommit(oldAutoCommit);
                         }
@@ -391,6 +482,7 @@ public class DbMigrate {
                     callbackExecutor.onEachMigrateOrUndoEvent(Event.AFTER_EACH_MIGRATE);
                 } finally {
                     callbackExecutor.setMigrationInfo(null);
+                    connectionUserObjects.invalidateSessionState();
                 }
             }
 
@@ -399,11 +491,541 @@ public class DbMigrate {
 
             migrateResult.migrations.add(CommandResultFactory.createMigrateOutput(migration, executionTime));
 
-            schemaHistory.addAppliedMigration(migration.getVersion(), migration.getDescription(), migration.getType(),
-                                              migration.getScript(), migration.getResolvedMigration().getChecksum(), executionTime, true);
+            recordApplied(migration, executionTime);
+        }
+    }
+
+    /**
+     * @return Whether this migration commits every so many statements along with a checkpoint to resume from.
+     */
+    private boolean isResumable(MigrationInfoImpl migration) {
+        if (migration.getResolvedMigration() == null) {
+            return false;
+        }
+        MigrationExecutor migrationExecutor = migration.getResolvedMigration().getExecutor();
+        return migrationExecutor instanceof SqlMigrationExecutor && ((SqlMigrationExecutor) migrationExecutor).getCommitEvery() > 0;
+    }
+
+    /**
+     * Executes this migration, resuming from its checkpoint if it commits every so many statements.
+     */
+    private void execute(MigrationInfoImpl migration, Context context, Connection<?> connection) throws SQLException {
+        MigrationExecutor migrationExecutor = migration.getResolvedMigration().getExecutor();
+        if (isResumable(migration)) {
+            ((SqlMigrationExecutor) migrationExecutor).executeResumable(context, checkpointTable.forScript(connection, migration.getScript()));
+        } else {
+            migrationExecutor.execute(context);
+        }
+    }
+
+    /**
+     * Records this migration as applied in the schema history. The checkpoint of a migration committing every so many
+     * statements is removed within the same transaction: left behind, it would make a later execution of the same
+     * script, after an undo or a repair, skip the statements it records as committed. Until the transaction commits,
+     * a restart resumes after the last statement of the migration and only records it.
+     */
+    private void recordApplied(MigrationInfoImpl migration, int executionTime) {
+        if (!isResumable(migration)) {
+            addAppliedMigration(migration, executionTime);
+            return;
+        }
+
+        try {
+            ExecutionTemplateFactory.createExecutionTemplate(database.getMainConnection().getJdbcConnection(), database).execute(() -> {
+                addAppliedMigration(migration, executionTime);
+                checkpointTable.clear(migration.getScript());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // The row was rolled back along with the removal of the checkpoint
+            schemaHistory.clearCache();
+            throw e;
+        }
+    }
+
+    private void addAppliedMigration(MigrationInfoImpl migration, int executionTime) {
+        schemaHistory.addAppliedMigration(migration.getVersion(), migration.getDescription(), migration.getType(),
+                                          migration.getScript(), migration.getResolvedMigration().getChecksum(), executionTime, true);
+    }
+
+    /**
+     * @return Whether this migration is left to be applied in the background.
+     * @throws FlywayException when it is a versioned migration and outOfOrder is disabled, as later versions may be
+     * applied before it.
+     */
+    private boolean isBackground(MigrationInfoImpl migration) {
+        MigrationExecutor migrationExecutor = migration.getResolvedMigration().getExecutor();
+        if (!configuration.isBackgroundMigrations()
+                || !(migrationExecutor instanceof SqlMigrationExecutor)
+                || !((SqlMigrationExecutor) migrationExecutor).runInBackground()) {
+            return false;
+        }
+        if (migration.getVersion() != null && !configuration.isOutOfOrder()) {
+            throw new FlywayException("Migration " + migration.getScript() + " can only be applied in the background with outOfOrder enabled,"
+                                              + " as later versions may be applied before it");
+        }
+        return true;
+    }
+
+    /**
+     * Applies the pending migrations flagged to run in the background, one at a time. Each of them is claimed under
+     * the schema history lock, so that no other node applies it meanwhile, but applied without holding the lock.
+     * Migrations claimed by other nodes are waited for, until their claim exceeds {@code backgroundClaimTimeout} and
+     * is taken over.
+     *
+     * @param backgroundMigrations Notified as migrations get applied, by this node or other ones.
+     * @return The migrations applied by this node.
+     * @throws FlywayException when a migration failed on this node.
+     */
+    public MigrateResult migrateInBackground(BackgroundMigrationsImpl backgroundMigrations) {
+        migrateResult = CommandResultFactory.createMigrateResult(database.getCatalog(), configuration);
+
+        Set<Integer> waitedFor = new HashSet<>();
+        while (true) {
+            BackgroundClaim next = schemaHistory.lock(() -> claimNextBackgroundMigration(backgroundMigrations));
+            if (next == null) {
+                break;
+            }
+
+            if (next.claimedHere) {
+                applyInBackground(next.migration, next.claim, backgroundMigrations);
+                continue;
+            }
+
+            if (waitedFor.add(next.claim.getInstalledRank())) {
+                LOG.info("Waiting for background migration " + doQuote(next.migration.getDescription()) + " claimed by "
+                                 + next.claim.getInstalledBy() + " at " + next.claim.getInstalledOn()
+                                 + ". Run repair if it is no longer being applied"
+                                 + (configuration.getBackgroundClaimTimeout() > 0
+                                    ? ", or wait for its claim to be taken over after " + configuration.getBackgroundClaimTimeout() + " seconds."
+                                    : "."));
+            }
+            try {
+                Thread.sleep(BACKGROUND_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlywayException("Interrupted while waiting for background migration " + doQuote(next.migration.getDescription()), e);
+            }
+        }
+
+        migrateResult.migrationsExecuted = migrateResult.migrations.size();
+        migrateResult.targetSchemaVersion = getTargetVersion();
+        return migrateResult;
+    }
+
+    /**
+     * Finds the next pending background migration and claims it, unless all of them have been claimed by other nodes.
+     * Must be called under the schema history lock.
+     *
+     * @return The migration claimed by this node, else one claimed by another node, or {@code null} if there are no
+     * pending background migrations left.
+     */
+    private BackgroundClaim claimNextBackgroundMigration(BackgroundMigrationsImpl backgroundMigrations) {
+        refreshInfoService();
+
+        List<AppliedMigration> claims = schemaHistory.allClaims();
+        Set<String> pending = new HashSet<>();
+        MigrationInfoImpl unclaimed = null;
+        BackgroundClaim claimedElsewhere = null;
+        for (MigrationInfoImpl pendingMigration : infoService.pendingMigrations()) {
+            if (!isBackground(pendingMigration)) {
+                continue;
+            }
+            pending.add(pendingMigration.getDescription());
+
+            AppliedMigration claim = findClaim(claims, pendingMigration);
+            if (claim != null && isExpired(claim)) {
+                LOG.warn("Taking over background migration " + doQuote(pendingMigration.getDescription()) + " claimed by "
+                                 + claim.getInstalledBy() + " at " + claim.getInstalledOn() + ", as its claim is older than "
+                                 + configuration.getBackgroundClaimTimeout() + " seconds");
+                schemaHistory.release(claim);
+                claim = null;
+            }
+            if (claim == null) {
+                if (unclaimed == null) {
+                    unclaimed = pendingMigration;
+                }
+            } else if (claimedElsewhere == null) {
+                claimedElsewhere = new BackgroundClaim(pendingMigration, claim, false);
+            }
+        }
+
+        Set<String> failed = new HashSet<>();
+        for (MigrationInfoImpl failedMigration : infoService.failed()) {
+            failed.add(failedMigration.getDescription());
+        }
+        backgroundMigrations.update(pending, failed);
+
+        if (unclaimed != null) {
+            AppliedMigration claim = schemaHistory.claim(unclaimed.getVersion(), unclaimed.getDescription(), unclaimed.getScript(),
+                                                         unclaimed.getResolvedMigration().getChecksum());
+            return new BackgroundClaim(unclaimed, claim, true);
+        }
+        return claimedElsewhere;
+    }
+
+    /**
+     * @return Whether this claim is older than {@code backgroundClaimTimeout}, its node being considered gone.
+     */
+    private boolean isExpired(AppliedMigration claim) {
+        int timeout = configuration.getBackgroundClaimTimeout();
+        return timeout > 0 && claim.getInstalledOn() != null
+                && System.currentTimeMillis() - claim.getInstalledOn().getTime() > timeout * 1000L;
+    }
+
+    private AppliedMigration findClaim(List<AppliedMigration> claims, MigrationInfoImpl migration) {
+        String script = AbbreviationUtils.abbreviateScript(migration.getScript());
+        for (AppliedMigration claim : claims) {
+            if (Objects.equals(claim.getVersion(), migration.getVersion()) && Objects.equals(claim.getScript(), script)) {
+                return claim;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies this background migration claimed by this node, then records it and releases the claim under the
+     * schema history lock.
+     */
+    private void applyInBackground(MigrationInfoImpl migration, AppliedMigration claim, BackgroundMigrationsImpl backgroundMigrations) {
+        MigrationInfo current = infoService.current();
+        boolean isOutOfOrder = migration.getVersion() != null && current != null && current.getVersion() != null
+                && migration.getVersion().compareTo(current.getVersion()) < 0;
+
+        MigrationOutcome outcome;
+        try {
+            LOG.info("Migrating " + toMigrationText(migration, migration.canExecuteInTransaction(), isOutOfOrder) + " in the background");
+            fireEachMigrateEvent(migration, Event.BEFORE_EACH_MIGRATE);
+            outcome = applyOnConnection(0, migration, connectionUserObjects);
+        } catch (RuntimeException e) {
+            schemaHistory.lock(() -> {
+                schemaHistory.release(claim);
+                return null;
+            });
+            backgroundMigrations.failed(migration.getDescription(), e);
+            throw e;
+        }
+
+        try {
+            schemaHistory.lock(() -> {
+                try {
+                    recordOutcome(migration, isOutOfOrder, outcome);
+                } finally {
+                    schemaHistory.release(claim);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            backgroundMigrations.failed(migration.getDescription(), e);
+            throw e;
+        }
+        backgroundMigrations.applied(migration.getDescription());
+    }
+
+    /**
+     * @return All pending repeatable migrations if this group starts with one and they may be applied concurrently,
+     * or an empty list if the group is to be applied as usual. Run-once ({@code X}) scripts resolve as versioned
+     * migrations and are deliberately left out: they keep their place in the version order, like any other versioned
+     * migration.
+     */
+    private List<MigrationInfoImpl> collectConcurrentRepeatables(LinkedHashMap<MigrationInfoImpl, Boolean> group) {
+        if (configuration.getRepeatableMigrationThreads() <= 1
+                || configuration.isGroup()
+                || configuration.getTarget() == MigrationVersion.NEXT
+                || database.useSingleConnection()
+                || group.keySet().iterator().next().getVersion() != null) {
+            return Collections.emptyList();
+        }
+
+        List<MigrationInfoImpl> repeatables = new ArrayList<>();
+        for (MigrationInfoImpl pendingMigration : infoService.pendingMigrations()) {
+            if (pendingMigration.getVersion() == null
+                    && !appliedResolvedMigrations.contains(pendingMigration.getResolvedMigration())
+                    && !isBackground(pendingMigration)) {
+                repeatables.add(pendingMigration);
+            }
+        }
+        return repeatables;
+    }
+
+    /**
+     * Applies these repeatable migrations concurrently, each on one of up to {@code repeatableMigrationThreads}
+     * additional connections. A migration is only started once all pending migrations it depends on have been applied.
+     * Callbacks and the schema history are still handled one migration at a time on the calling thread and its
+     * connection, so {@code beforeEachMigrate} and {@code afterEachMigrate} callbacks do not share the session of the
+     * pooled connection the migration runs on. No further migration is started once one has failed.
+     */
+    private void applyRepeatablesConcurrently(List<MigrationInfoImpl> migrations) {
+        int[] blockers = new int[migrations.size()];
+        List<Set<Integer>> dependents = resolveDependents(migrations, blockers);
+
+        if (isPreviousVersioned) {
+            callbackExecutor.onMigrateOrUndoEvent(Event.AFTER_VERSIONED);
+            callbackExecutor.onMigrateOrUndoEvent(Event.BEFORE_REPEATABLES);
+            isPreviousVersioned = false;
+        }
+
+        int threads = Math.min(configuration.getRepeatableMigrationThreads(), migrations.size());
+        LOG.info("Applying " + migrations.size() + " repeatable migrations to schema " + schema + " on " + threads + " connections");
+
+        // Lowest index first, so that independent migrations start in the usual order
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < blockers.length; i++) {
+            if (blockers[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        List<Connection> opened = new ArrayList<>(threads);
+        Deque<Connection> idle = new ArrayDeque<>(threads);
+        ExecutorService executor = null;
+        try {
+            for (int i = 0; i < threads; i++) {
+                Connection connection = database.openAdditionalConnection();
+                opened.add(connection);
+                idle.add(connection);
+            }
+            executor = ParallelUtils.createExecutor(threads);
+            CompletionService<MigrationOutcome> completionService = new ExecutorCompletionService<>(executor);
+
+            RuntimeException failure = null;
+            int running = 0;
+            while (true) {
+                while (failure == null && !ready.isEmpty() && !idle.isEmpty()) {
+                    int index = ready.poll();
+                    MigrationInfoImpl migration = migrations.get(index);
+                    Connection connection = idle.poll();
+                    try {
+                        LOG.info("Migrating " + toMigrationText(migration, migration.canExecuteInTransaction(), false));
+                        fireEachMigrateEvent(migration, Event.BEFORE_EACH_MIGRATE);
+                    } catch (RuntimeException e) {
+                        idle.add(connection);
+                        failure = e;
+                        break;
+                    }
+                    completionService.submit(() -> applyOnConnection(index, migration, connection));
+                    running++;
+                }
+                if (running == 0) {
+                    break;
+                }
+
+                MigrationOutcome outcome = completionService.take().get();
+                running--;
+                idle.add(outcome.connection);
+                try {
+                    recordOutcome(migrations.get(outcome.index), false, outcome);
+                    for (int dependent : dependents.get(outcome.index)) {
+                        if (--blockers[dependent] == 0) {
+                            ready.add(dependent);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FlywayException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while applying repeatable migrations", e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (RuntimeException e) {
+                    LOG.warn("Unable to close connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of this migration applied on another connection: fires the callbacks and adds the migration
+     * to the schema history.
+     *
+     * @throws FlywayMigrateException when the migration failed.
+     */
+    private void recordOutcome(MigrationInfoImpl migration, boolean isOutOfOrder, MigrationOutcome outcome) {
+        if (outcome.failure == null) {
+            LOG.debug("Successfully completed migration of " + toMigrationText(migration, migration.canExecuteInTransaction(), isOutOfOrder));
+            fireEachMigrateEvent(migration, Event.AFTER_EACH_MIGRATE);
+
+            appliedResolvedMigrations.add(migration.getResolvedMigration());
+            migrateResult.migrations.add(CommandResultFactory.createMigrateOutput(migration, outcome.executionTime));
+            recordApplied(migration, outcome.executionTime);
+            return;
+        }
+
+        fireEachMigrateEvent(migration, Event.AFTER_EACH_MIGRATE_ERROR);
+        if (!(outcome.failure instanceof FlywayException) && !(outcome.failure instanceof SQLException)) {
+            throw (RuntimeException) outcome.failure;
+        }
+        FlywayMigrateException e = outcome.failure instanceof SQLException
+                ? new FlywayMigrateException(migration, isOutOfOrder, (SQLException) outcome.failure, migration.canExecuteInTransaction(), migrateResult)
+                : new FlywayMigrateException(migration, isOutOfOrder, (FlywayException) outcome.failure, migration.canExecuteInTransaction(), migrateResult);
+        handleFailure(e, database.supportsDdlTransactions() && migration.canExecuteInTransaction(), outcome.executionTime);
+        throw e;
+    }
+
+    /**
+     * Resolves the {@code dependsOn} script configuration of these migrations. Dependencies on migrations which are not
+     * part of this list are already satisfied and therefore ignored.
+     *
+     * @param blockers Receives the number of migrations each migration has to wait for.
+     * @return The indexes of the migrations waiting for each migration.
+     * @throws FlywayException when the dependencies are circular.
+     */
+    private List<Set<Integer>> resolveDependents(List<MigrationInfoImpl> migrations, int[] blockers) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < migrations.size(); i++) {
+            MigrationInfoImpl migration = migrations.get(i);
+            indexes.putIfAbsent(migration.getDescription(), i);
+            String script = migration.getScript();
+            if (script != null) {
+                indexes.putIfAbsent(script, i);
+                indexes.putIfAbsent(script.substring(script.lastIndexOf('/') + 1), i);
+            }
+        }
+
+        List<Set<Integer>> dependents = new ArrayList<>(migrations.size());
+        for (int i = 0; i < migrations.size(); i++) {
+            dependents.add(new TreeSet<>());
+        }
+        for (int i = 0; i < migrations.size(); i++) {
+            MigrationExecutor migrationExecutor = migrations.get(i).getResolvedMigration().getExecutor();
+            if (!(migrationExecutor instanceof SqlMigrationExecutor)) {
+                continue;
+            }
+            for (String dependency : ((SqlMigrationExecutor) migrationExecutor).dependsOn()) {
+                Integer index = indexes.get(dependency);
+                if (index == null) {
+                    LOG.debug("Repeatable migration " + doQuote(migrations.get(i).getDescription()) + " depends on "
+                                      + doQuote(dependency) + " which is not pending");
+                } else if (index != i && dependents.get(index).add(i)) {
+                    blockers[i]++;
+                }
+            }
+        }
+
+        int[] remaining = blockers.clone();
+        Deque<Integer> free = new ArrayDeque<>();
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] == 0) {
+                free.add(i);
+            }
+        }
+        int sorted = 0;
+        while (!free.isEmpty()) {
+            sorted++;
+            for (int dependent : dependents.get(free.poll())) {
+                if (--remaining[dependent] == 0) {
+                    free.add(dependent);
+                }
+            }
+        }
+        if (sorted < migrations.size()) {
+            List<String> circular = new ArrayList<>();
+            for (int i = 0; i < remaining.length; i++) {
+                if (remaining[i] > 0) {
+                    circular.add(doQuote(migrations.get(i).getDescription()));
+                }
+            }
+            throw new FlywayException("Circular dependsOn between repeatable migrations " + String.join(", ", circular));
+        }
+        return dependents;
+    }
+
+    /**
+     * Applies this migration on this connection. May run on a worker thread, so it only touches the connection it was
+     * given and reports failures through its outcome instead of throwing.
+     */
+    private MigrationOutcome applyOnConnection(int index, MigrationInfoImpl migration, Connection connection) {
+        MigrationOutcome outcome = new MigrationOutcome(index, connection);
+        Context context = new Context() {
+            @Override
+            public Configuration getConfiguration() {
+                return configuration;
+            }
+
+            @Override
+            public java.sql.Connection getConnection() {
+                return connection.getJdbcConnection();
+            }
+        };
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        try {
+            connection.restoreOriginalState();
+            connection.changeCurrentSchemaTo(schema);
+            if (migration.canExecuteInTransaction()) {
+                ExecutionTemplateFactory.createExecutionTemplate(connection.getJdbcConnection(), database).execute(() -> {
+                    executeMigration(migration, context, outcome);
+                    return null;
+                });
+            } else {
+                executeMigration(migration, context, outcome);
+            }
+        } catch (RuntimeException e) {
+            if (outcome.failure == null) {
+                outcome.failure = e;
+            }
+        } finally {
+            connection.invalidateSessionState();
+        }
+        stopWatch.stop();
+        outcome.executionTime = (int) stopWatch.getTotalTimeMillis();
+        return outcome;
+    }
+
+    private void executeMigration(MigrationInfoImpl migration, Context context, MigrationOutcome outcome) {
+        try {
+            execute(migration, context, outcome.connection);
+        } catch (SQLException e) {
+            // Keep the original exception for the error message, but fail the transaction
+            outcome.failure = e;
+            throw new FlywaySqlException("Unable to apply repeatable migration", e);
+        }
+    }
+
+    private void fireEachMigrateEvent(MigrationInfoImpl migration, Event event) {
+        callbackExecutor.setMigrationInfo(migration);
+        try {
+            callbackExecutor.onEachMigrateOrUndoEvent(event);
+        } finally {
+            callbackExecutor.setMigrationInfo(null);
         }
     }
 
+    @RequiredArgsConstructor
+    private static class BackgroundClaim {
+        private final MigrationInfoImpl migration;
+        private final AppliedMigration claim;
+        private final boolean claimedHere;
+    }
+
+    @RequiredArgsConstructor
+    private static class MigrationOutcome {
+        private final int index;
+        private final Connection connection;
+        private Exception failure;
+        private int executionTime;
+    }
+
     private String toMigrationText(MigrationInfo migration, boolean canExecuteInTransaction, boolean isOutOfOrder) {
         final String migrationText;
         if (migration.getVersion() != null) {
@@ -120,6 +120,11 @@ public class DbRepair {
                     CompletedRepairActions completedActions = new CompletedRepairActions();
 
                     completedActions.removedFailedMigrations = schemaHistory.removeFailedMigrations(repairResult, configuration.getCherryPick());
+                    // Claims left behind by nodes which stopped while applying a background migration
+                    for (AppliedMigration claim : schemaHistory.releaseAllClaims()) {
+                        repairResult.migrationsRemoved.add(CommandResultFactory.createRepairOutput(claim));
+                        completedActions.removedFailedMigrations = true;
+                    }
                     migrationInfoService.refresh();
 
                     completedActions.deletedMissingMigrations = deleteMissingMigrations();
@@ -39,13 +39,17 @@ public class ConfigUtils {
     public static final String CONFIG_FILE_NAME = "autoexec.conf";
     public static final String CONFIG_FILES = "autoexec.configFiles";
     public static final String CONFIG_FILE_ENCODING = "autoexec.configFileEncoding";
+    public static final String BACKGROUND_CLAIM_TIMEOUT = "autoexec.backgroundClaimTimeout";
+    public static final String BACKGROUND_MIGRATIONS = "autoexec.backgroundMigrations";
     public static final String BASELINE_DESCRIPTION = "autoexec.baselineDescription";
     public static final String BASELINE_ON_MIGRATE = "autoexec.baselineOnMigrate";
     public static final String BASELINE_VERSION = "autoexec.baselineVersion";
     public static final String BATCH = "autoexec.batch";
+    public static final String BATCH_SIZE = "autoexec.batchSize";
     public static final String CALLBACKS = "autoexec.callbacks";
     public static final String CLEAN_DISABLED = "autoexec.cleanDisabled";
     public static final String CLEAN_ON_VALIDATION_ERROR = "autoexec.cleanOnValidationError";
+    public static final String COMPACT_SCHEMA_HISTORY = "autoexec.compactSchemaHistory";
     public static final String CONNECT_RETRIES = "autoexec.connectRetries";
     public static final String CONNECT_RETRIES_INTERVAL = "autoexec.connectRetriesInterval";
     public static final String DEFAULT_SCHEMA = "autoexec.defaultSchema";
@@ -53,6 +57,11 @@ public class ConfigUtils {
     public static final String DRYRUN_OUTPUT = "autoexec.dryRunOutput";
     public static final String ENCODING = "autoexec.encoding";
     public static final String DETECT_ENCODING = "autoexec.detectEncoding";
+    public static final String CHECKSUM_CACHE_FILE = "autoexec.checksumCacheFile";
+    public static final String RESOLVER_THREADS = "autoexec.resolverThreads";
+    public static final String REPEATABLE_MIGRATION_THREADS = "autoexec.repeatableMigrationThreads";
+    public static final String QUERY_RESULT_FETCH_SIZE = "autoexec.queryResultFetchSize";
+    public static final String QUERY_RESULT_MAX_ROWS = "autoexec.queryResultMaxRows";
     public static final String ERROR_OVERRIDES = "autoexec.errorOverrides";
     public static final String GROUP = "autoexec.group";
     public static final String IGNORE_MIGRATION_PATTERNS = "autoexec.ignoreMigrationPatterns";
@@ -73,6 +82,9 @@ public class ConfigUtils {
     public static final String SCRIPT_PLACEHOLDER_SUFFIX = "autoexec.scriptPlaceholderSuffix";
     public static final String PLACEHOLDERS_PROPERTY_PREFIX = "autoexec.placeholders.";
     public static final String LOCK_RETRY_COUNT = "autoexec.lockRetryCount";
+    public static final String LOCK_RETRY_BACKOFF = "autoexec.lockRetryBackoff";
+    public static final String PREPARED_STATEMENT_CACHE_SIZE = "autoexec.preparedStatementCacheSize";
+    public static final String SCHEMA_HISTORY_FETCH_SIZE = "autoexec.schemaHistoryFetchSize";
     public static final String JDBC_PROPERTIES_PREFIX = "autoexec.jdbcProperties.";
     public static final String REPEATABLE_SQL_MIGRATION_PREFIX = "autoexec.repeatableSqlMigrationPrefix";
     public static final String RESOLVERS = "autoexec.resolvers";
@@ -90,6 +102,7 @@ public class ConfigUtils {
     public static final String TARGET = "autoexec.target";
     public static final String CHERRY_PICK = "autoexec.cherryPick";
     public static final String UNDO_SQL_MIGRATION_PREFIX = "autoexec.undoSqlMigrationPrefix";
+    public static final String UP_TO_DATE_CHECK = "autoexec.upToDateCheck";
     public static final String URL = "autoexec.url";
     public static final String USER = "autoexec.user";
     public static final String VALIDATE_ON_MIGRATE = "autoexec.validateOnMigrate";
@@ -134,6 +147,12 @@ public class ConfigUtils {
     }
 
     private static String convertKey(String key) {
+        if ("AUTOEXEC_BACKGROUND_CLAIM_TIMEOUT".equals(key)) {
+            return BACKGROUND_CLAIM_TIMEOUT;
+        }
+        if ("AUTOEXEC_BACKGROUND_MIGRATIONS".equals(key)) {
+            return BACKGROUND_MIGRATIONS;
+        }
         if ("AUTOEXEC_BASELINE_DESCRIPTION".equals(key)) {
             return BASELINE_DESCRIPTION;
         }
@@ -146,6 +165,9 @@ public class ConfigUtils {
         if ("AUTOEXEC_BATCH".equals(key)) {
             return BATCH;
         }
+        if ("AUTOEXEC_BATCH_SIZE".equals(key)) {
+            return BATCH_SIZE;
+        }
         if ("AUTOEXEC_CALLBACKS".equals(key)) {
             return CALLBACKS;
         }
@@ -155,6 +177,9 @@ public class ConfigUtils {
         if ("AUTOEXEC_CLEAN_ON_VALIDATION_ERROR".equals(key)) {
             return CLEAN_ON_VALIDATION_ERROR;
         }
+        if ("AUTOEXEC_COMPACT_SCHEMA_HISTORY".equals(key)) {
+            return COMPACT_SCHEMA_HISTORY;
+        }
         if ("AUTOEXEC_CONFIG_FILE_ENCODING".equals(key)) {
             return CONFIG_FILE_ENCODING;
         }
@@ -184,6 +209,21 @@ public class ConfigUtils {
         if ("AUTOEXEC_DETECT_ENCODING".equals(key)) {
             return DETECT_ENCODING;
         }
+        if ("AUTOEXEC_CHECKSUM_CACHE_FILE".equals(key)) {
+            return CHECKSUM_CACHE_FILE;
+        }
+        if ("AUTOEXEC_RESOLVER_THREADS".equals(key)) {
+            return RESOLVER_THREADS;
+        }
+        if ("AUTOEXEC_REPEATABLE_MIGRATION_THREADS".equals(key)) {
+            return REPEATABLE_MIGRATION_THREADS;
+        }
+        if ("AUTOEXEC_QUERY_RESULT_FETCH_SIZE".equals(key)) {
+            return QUERY_RESULT_FETCH_SIZE;
+        }
+        if ("AUTOEXEC_QUERY_RESULT_MAX_ROWS".equals(key)) {
+            return QUERY_RESULT_MAX_ROWS;
+        }
         if ("AUTOEXEC_ERROR_OVERRIDES".equals(key)) {
             return ERROR_OVERRIDES;
         }
@@ -223,6 +263,15 @@ public class ConfigUtils {
         if ("AUTOEXEC_LOCK_RETRY_COUNT".equals(key)) {
             return LOCK_RETRY_COUNT;
         }
+        if ("AUTOEXEC_LOCK_RETRY_BACKOFF".equals(key)) {
+            return LOCK_RETRY_BACKOFF;
+        }
+        if ("AUTOEXEC_PREPARED_STATEMENT_CACHE_SIZE".equals(key)) {
+            return PREPARED_STATEMENT_CACHE_SIZE;
+        }
+        if ("AUTOEXEC_SCHEMA_HISTORY_FETCH_SIZE".equals(key)) {
+            return SCHEMA_HISTORY_FETCH_SIZE;
+        }
         if ("AUTOEXEC_PLACEHOLDER_PREFIX".equals(key)) {
             return PLACEHOLDER_PREFIX;
         }
@@ -294,6 +343,9 @@ public class ConfigUtils {
         if ("AUTOEXEC_UNDO_SQL_MIGRATION_PREFIX".equals(key)) {
             return UNDO_SQL_MIGRATION_PREFIX;
         }
+        if ("AUTOEXEC_UP_TO_DATE_CHECK".equals(key)) {
+            return UP_TO_DATE_CHECK;
+        }
         if ("AUTOEXEC_URL".equals(key)) {
             return URL;
         }
@@ -18,6 +18,8 @@ package org.flywaydb.core.internal.database;
 import lombok.CustomLog;
 import org.flywaydb.core.internal.jdbc.JdbcTemplate;
 import org.flywaydb.core.internal.jdbc.Results;
+import org.flywaydb.core.internal.strategy.BackoffStrategy;
+import org.flywaydb.core.internal.strategy.RetryStrategy;
 
 import java.math.BigInteger;
 import java.sql.SQLException;
@@ -52,6 +54,7 @@ public class InsertRowLock {
 
     public void doLock(String insertStatementTemplate, String updateLockStatement, String deleteExpiredLockStatement, String booleanTrue) throws SQLException {
         int retryCount = 0;
+        BackoffStrategy backoffStrategy = RetryStrategy.createLockWaitBackoffStrategy();
         while (true) {
             try {
                 jdbcTemplate.execute(generateDeleteExpiredLockStatement(deleteExpiredLockStatement));
@@ -66,7 +69,7 @@ public class InsertRowLock {
                     LOG.error("Waiting for lock on Flyway schema history table. Application may be deadlocked. Lock row may require manual removal " +
                                       "from the schema history table.");
                 }
-                Thread.sleep(1000);
+                Thread.sleep(RetryStrategy.nextLockWaitInMilliseconds(backoffStrategy));
             } catch (InterruptedException ex) {
                 // Ignore - if interrupted, we still need to wait for lock to become available
             }
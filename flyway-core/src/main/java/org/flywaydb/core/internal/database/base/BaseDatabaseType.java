@@ -160,16 +160,13 @@ public abstract class BaseDatabaseType implements DatabaseType {
     public SqlScriptExecutorFactory createSqlScriptExecutorFactory(final JdbcConnectionFactory jdbcConnectionFactory,
                                                                    final CallbackExecutor callbackExecutor,
                                                                    final StatementInterceptor statementInterceptor) {
-        boolean supportsBatch = false;
-
-
-
-
-        final boolean finalSupportsBatch = supportsBatch;
+        final Configuration configuration = jdbcConnectionFactory.getConfiguration();
+        final int batchSize = configuration.getBatchSize();
         final DatabaseType thisRef = this;
 
-        return (connection, undo, batch, outputQueryResults) -> new DefaultSqlScriptExecutor(new JdbcTemplate(connection, thisRef),
-                                                                                             callbackExecutor, undo, finalSupportsBatch && batch, outputQueryResults, statementInterceptor);
+        return (connection, undo, batch, outputQueryResults) -> new DefaultSqlScriptExecutor(new JdbcTemplate(connection, thisRef)
+                                                                                                     .streamResults(configuration.getQueryResultFetchSize(), configuration.getQueryResultMaxRows(), configuration.getQueryResultRowSink()),
+                                                                                             callbackExecutor, undo, batch, batchSize, outputQueryResults, statementInterceptor);
     }
 
     public DatabaseExecutionStrategy createExecutionStrategy(java.sql.Connection connection) {
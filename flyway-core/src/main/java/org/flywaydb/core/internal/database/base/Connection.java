@@ -30,6 +30,15 @@ public abstract class Connection<D extends Database> implements Closeable {
     private final java.sql.Connection jdbcConnection;
     protected final String originalSchemaNameOrSearchPath;
     private final boolean originalAutoCommit;
+    /**
+     * Whether this connection is known to be in its original state because only Flyway used it since it was last
+     * restored.
+     */
+    private boolean originalStateRestored;
+    /**
+     * The name of the schema this connection is known to have been switched to, or {@code null} if unknown.
+     */
+    private String currentSchemaName;
 
     protected Connection(D database, java.sql.Connection connection) {
         this.database = database;
@@ -44,7 +53,8 @@ public abstract class Connection<D extends Database> implements Closeable {
         }
 
         this.jdbcConnection = connection;
-        jdbcTemplate = new JdbcTemplate(jdbcConnection, database.getDatabaseType());
+        jdbcTemplate = new JdbcTemplate(jdbcConnection, database.getDatabaseType(),
+                                        database.getConfiguration().getPreparedStatementCacheSize());
         try {
             originalSchemaNameOrSearchPath = getCurrentSchemaNameOrSearchPath();
         } catch (SQLException e) {
@@ -75,16 +85,55 @@ public abstract class Connection<D extends Database> implements Closeable {
     public abstract Schema getSchema(String name);
 
     public void changeCurrentSchemaTo(Schema schema) {
+        if (schema.getName().equals(currentSchemaName)) {
+            database.getSessionStateMetrics().recordSavedRoundTrip();
+            return;
+        }
         try {
-            if (!schema.exists()) {
+            if (!schemaExists(schema)) {
                 return;
             }
-            doChangeCurrentSchemaOrSearchPathTo(schema.getName());
+            doChangeCurrentSchemaTo(schema);
+            currentSchemaName = schema.getName();
+            // Unqualified names in the cached statements may now resolve differently
+            jdbcTemplate.closeStatements();
         } catch (SQLException e) {
             throw new FlywaySqlException("Error setting current schema to " + schema, e);
         }
     }
 
+    /**
+     * @param schema The existing schema to make the current schema for this connection.
+     * @throws SQLException when the current schema could not be set.
+     */
+    protected void doChangeCurrentSchemaTo(Schema schema) throws SQLException {
+        doChangeCurrentSchemaOrSearchPathTo(schema.getName());
+    }
+
+    /**
+     * Checks whether this schema exists, only querying the catalog if it isn't already known to exist.
+     */
+    protected final boolean schemaExists(Schema schema) {
+        if (database.isKnownToExist(schema)) {
+            return true;
+        }
+        if (!schema.exists()) {
+            return false;
+        }
+        database.setKnownToExist(schema);
+        return true;
+    }
+
+    /**
+     * Forgets the known state of this connection, and the schemas and tables known to exist, as statements outside of
+     * Flyway's control, such as migrations and callbacks, may have changed them.
+     */
+    public final void invalidateSessionState() {
+        originalStateRestored = false;
+        currentSchemaName = null;
+        database.forgetKnownObjects();
+    }
+
     /**
      * @param schemaNameOrSearchPath The new current schema for this connection.
      * @throws SQLException when the current schema could not be set.
@@ -111,6 +160,7 @@ public abstract class Connection<D extends Database> implements Closeable {
         restoreOriginalState();
         restoreOriginalSchema();
         restoreOriginalAutoCommit();
+        jdbcTemplate.closeStatements();
         JdbcUtils.closeConnection(jdbcConnection);
     }
 
@@ -126,8 +176,12 @@ public abstract class Connection<D extends Database> implements Closeable {
     }
 
     public final void restoreOriginalState() {
+        if (originalStateRestored) {
+            return;
+        }
         try {
             doRestoreOriginalState();
+            originalStateRestored = true;
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to restore connection to its original state", e);
         }
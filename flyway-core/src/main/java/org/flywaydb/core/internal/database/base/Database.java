@@ -39,6 +39,8 @@ import org.flywaydb.core.internal.util.StringUtils;
 import java.io.Closeable;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstraction for database-specific functionality.
@@ -66,6 +68,17 @@ public abstract class Database<C extends Connection> implements Closeable {
      * The user who applied the migrations.
      */
     private String installedBy;
+    /**
+     * The schemas and tables known to exist, by quoted name. Checks for these are answered without querying the
+     * catalog until Flyway drops or cleans anything, or runs statements outside of its control such as migrations and
+     * callbacks.
+     */
+    private final Set<String> knownToExist = ConcurrentHashMap.newKeySet();
+    /**
+     * The round trips saved by knowing the state of this database and its connections.
+     */
+    @Getter
+    private final SessionStateMetrics sessionStateMetrics = new SessionStateMetrics();
 
     public Database(Configuration configuration, JdbcConnectionFactory jdbcConnectionFactory, StatementInterceptor statementInterceptor) {
         this.databaseType = jdbcConnectionFactory.getDatabaseType();
@@ -298,6 +311,16 @@ public abstract class Database<C extends Connection> implements Closeable {
         return migrationConnection;
     }
 
+    /**
+     * Opens a further connection for applying migrations concurrently with the migration connection. Must not be
+     * used when {@link #useSingleConnection()} is {@code true}.
+     *
+     * @return The new connection. The caller is responsible for closing it.
+     */
+    public final C openAdditionalConnection() {
+        return getConnection(jdbcConnectionFactory.openConnection());
+    }
+
     /**
      * @return The major and minor version of the database.
      */
@@ -374,6 +397,32 @@ public abstract class Database<C extends Connection> implements Closeable {
         return installedBy;
     }
 
+    /**
+     * @return Whether this schema or table is known to exist, recording the round trip saved if it is.
+     */
+    final boolean isKnownToExist(Object schemaOrTable) {
+        if (knownToExist.contains(schemaOrTable.toString())) {
+            sessionStateMetrics.recordSavedRoundTrip();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers that this schema or table exists.
+     */
+    final void setKnownToExist(Object schemaOrTable) {
+        knownToExist.add(schemaOrTable.toString());
+    }
+
+    /**
+     * Forgets which schemas and tables are known to exist, after Flyway dropped or cleaned anything, or ran statements
+     * which may have.
+     */
+    final void forgetKnownObjects() {
+        knownToExist.clear();
+    }
+
     public void close() {
         if (!useSingleConnection() && migrationConnection != null) {
             migrationConnection.close();
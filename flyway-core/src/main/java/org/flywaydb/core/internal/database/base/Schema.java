@@ -103,6 +103,8 @@ public abstract class Schema<D extends Database, T extends Table> {
             doDrop();
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to drop schema " + this, e);
+        } finally {
+            database.forgetKnownObjects();
         }
     }
 
@@ -121,6 +123,8 @@ public abstract class Schema<D extends Database, T extends Table> {
             doClean();
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to clean schema " + this, e);
+        } finally {
+            database.forgetKnownObjects();
         }
     }
 
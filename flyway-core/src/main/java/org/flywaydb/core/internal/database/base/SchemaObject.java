@@ -59,6 +59,8 @@ public abstract class SchemaObject<D extends Database, S extends Schema> {
             doDrop();
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to drop " + this, e);
+        } finally {
+            database.forgetKnownObjects();
         }
     }
 
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.database.base;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the catalog queries and session statements of a database skipped because their outcome was already known, so
+ * that the round trips saved can be reported for each run. Each execution has its own database, and so its own
+ * metrics.
+ */
+public class SessionStateMetrics {
+    private final AtomicLong savedRoundTrips = new AtomicLong();
+
+    /**
+     * @return The number of round trips saved so far.
+     */
+    public long getSavedRoundTrips() {
+        return savedRoundTrips.get();
+    }
+
+    /**
+     * Records a round trip saved.
+     */
+    void recordSavedRoundTrip() {
+        savedRoundTrips.incrementAndGet();
+    }
+}
@@ -18,9 +18,11 @@ package org.flywaydb.core.internal.database.base;
 import org.flywaydb.core.internal.exception.FlywaySqlException;
 import org.flywaydb.core.internal.jdbc.JdbcTemplate;
 import org.flywaydb.core.internal.jdbc.JdbcUtils;
+import org.flywaydb.core.internal.strategy.LockWaitMetrics;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 public abstract class Table<D extends Database, S extends Schema> extends SchemaObject<D, S> {
     /**
@@ -39,8 +41,15 @@ public abstract class Table<D extends Database, S extends Schema> extends Schema
     }
 
     public boolean exists() {
+        if (database.isKnownToExist(this)) {
+            return true;
+        }
         try {
-            return doExists();
+            boolean exists = doExists();
+            if (exists) {
+                database.setKnownToExist(this);
+            }
+            return exists;
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to check whether table " + this + " exists", e);
         }
@@ -93,9 +102,11 @@ public abstract class Table<D extends Database, S extends Schema> extends Schema
         if (!exists()) {
             return;
         }
+        long start = System.nanoTime();
         try {
             doLock();
             lockDepth++;
+            LockWaitMetrics.record(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to lock table " + this, e);
         }
@@ -19,7 +19,6 @@ import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.internal.database.base.Connection;
 import org.flywaydb.core.internal.database.base.Schema;
-import org.flywaydb.core.internal.exception.FlywaySqlException;
 import org.flywaydb.core.internal.util.StringUtils;
 
 import java.sql.SQLException;
@@ -73,16 +72,12 @@ public class CockroachDBConnection extends Connection<CockroachDBDatabase> {
     }
 
     @Override
-    public void changeCurrentSchemaTo(Schema schema) {
-        try {
-            // Avoid unnecessary schema changes as this trips up CockroachDB
-            if (schema.getName().equals(originalSchemaNameOrSearchPath) || !schema.exists()) {
-                return;
-            }
-            doChangeCurrentSchemaOrSearchPathTo(schema.getName());
-        } catch (SQLException e) {
-            throw new FlywaySqlException("Error setting current schema to " + schema, e);
+    protected void doChangeCurrentSchemaTo(Schema schema) throws SQLException {
+        // Avoid unnecessary schema changes as this trips up CockroachDB
+        if (schema.getName().equals(originalSchemaNameOrSearchPath)) {
+            return;
         }
+        doChangeCurrentSchemaOrSearchPathTo(schema.getName());
     }
 
     @Override
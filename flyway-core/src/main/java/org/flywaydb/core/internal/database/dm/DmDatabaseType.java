@@ -95,8 +95,11 @@ public class DmDatabaseType extends BaseDatabaseType {
                                                                    final StatementInterceptor statementInterceptor
                                                                   ) {
         final DatabaseType thisRef = this;
+        final Configuration configuration = jdbcConnectionFactory.getConfiguration();
+        final int batchSize = configuration.getBatchSize();
         return (connection, undo, batch, outputQueryResults) -> new DmSqlScriptExecutor(new JdbcTemplate(connection, thisRef)
-                , callbackExecutor, undo, batch, outputQueryResults, statementInterceptor
+                .streamResults(configuration.getQueryResultFetchSize(), configuration.getQueryResultMaxRows(), configuration.getQueryResultRowSink())
+                , callbackExecutor, undo, batch, batchSize, outputQueryResults, statementInterceptor
         );
     }
 
@@ -30,7 +30,7 @@ import org.flywaydb.core.internal.sqlscript.DefaultSqlScriptExecutor;
 @CustomLog
 @Getter
 public class DmSqlScriptExecutor extends DefaultSqlScriptExecutor {
-    public DmSqlScriptExecutor(JdbcTemplate jdbcTemplate, CallbackExecutor callbackExecutor, boolean undo, boolean batch, boolean outputQueryResults, StatementInterceptor statementInterceptor) {
-        super(jdbcTemplate, callbackExecutor, undo, batch, outputQueryResults, statementInterceptor);
+    public DmSqlScriptExecutor(JdbcTemplate jdbcTemplate, CallbackExecutor callbackExecutor, boolean undo, boolean batch, int batchSize, boolean outputQueryResults, StatementInterceptor statementInterceptor) {
+        super(jdbcTemplate, callbackExecutor, undo, batch, batchSize, outputQueryResults, statementInterceptor);
     }
 }
@@ -129,6 +129,8 @@ public class OracleDatabaseType extends BaseDatabaseType {
 
 
         final DatabaseType thisRef = this;
+        final Configuration configuration = jdbcConnectionFactory.getConfiguration();
+        final int batchSize = configuration.getBatchSize();
 
         return new SqlScriptExecutorFactory() {
             @Override
@@ -139,7 +141,8 @@ public class OracleDatabaseType extends BaseDatabaseType {
 
 
 
-                return new OracleSqlScriptExecutor(new JdbcTemplate(connection, thisRef), callbackExecutor, undo, batch, outputQueryResults, statementInterceptor);
+                return new OracleSqlScriptExecutor(new JdbcTemplate(connection, thisRef)
+                        .streamResults(configuration.getQueryResultFetchSize(), configuration.getQueryResultMaxRows(), configuration.getQueryResultRowSink()), callbackExecutor, undo, batch, batchSize, outputQueryResults, statementInterceptor);
             }
         };
     }
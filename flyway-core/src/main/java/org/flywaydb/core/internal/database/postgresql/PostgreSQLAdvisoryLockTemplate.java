@@ -23,9 +23,10 @@ import org.flywaydb.core.internal.jdbc.JdbcTemplate;
 import org.flywaydb.core.internal.jdbc.TransactionalExecutionTemplate;
 import org.flywaydb.core.internal.strategy.RetryStrategy;
 import org.flywaydb.core.internal.util.FlywayDbWebsiteLinks;
-import org.flywaydb.core.internal.util.SqlCallable;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -38,10 +39,18 @@ public class PostgreSQLAdvisoryLockTemplate {
                     + (0x77 << 16) // w
                     + (0x61 << 8) // a
                     + 0x79; // y
+    /**
+     * The SQL state of a statement that timed out waiting for a lock.
+     */
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
 
     private final Configuration configuration;
     private final JdbcTemplate jdbcTemplate;
     private final long lockNum;
+    /**
+     * Whether the database accepts waiting for the lock with a lock timeout. Forks of PostgreSQL that don't are polled.
+     */
+    private boolean blockingWaitSupported = true;
 
     PostgreSQLAdvisoryLockTemplate(Configuration configuration, JdbcTemplate jdbcTemplate, int discriminator) {
         this.configuration = configuration;
@@ -53,11 +62,11 @@ public class PostgreSQLAdvisoryLockTemplate {
         PostgreSQLConfigurationExtension configurationExtension = configuration.getPluginRegister().getPlugin(PostgreSQLConfigurationExtension.class);
 
         if (configurationExtension.isTransactionalLock()) {
-            return new TransactionalExecutionTemplate(jdbcTemplate.getConnection(), true).execute(() -> execute(callable, this::tryLockTransactional));
+            return new TransactionalExecutionTemplate(jdbcTemplate.getConnection(), true).execute(() -> execute(callable, this::lockTransactional));
         } else {
             RuntimeException rethrow = null;
             try {
-                return execute(callable, this::tryLock);
+                return execute(callable, this::lock);
             } catch (RuntimeException e) {
                 rethrow = e;
                 throw rethrow;
@@ -67,7 +76,7 @@ public class PostgreSQLAdvisoryLockTemplate {
         }
     }
 
-    private <T> T execute(Callable<T> callable, SqlCallable<Boolean> tryLock) {
+    private <T> T execute(Callable<T> callable, RetryStrategy.WaitingAttempt tryLock) {
         try {
             lock(tryLock);
             return callable.call();
@@ -81,13 +90,68 @@ public class PostgreSQLAdvisoryLockTemplate {
         }
     }
 
-    private void lock(SqlCallable<Boolean> tryLock) throws SQLException {
+    private void lock(RetryStrategy.WaitingAttempt tryLock) throws SQLException {
         RetryStrategy strategy = new RetryStrategy();
         strategy.doWithRetries(tryLock, "Interrupted while attempting to acquire PostgreSQL advisory lock",
                                "Number of retries exceeded while attempting to acquire PostgreSQL advisory lock. " +
                                        "Configure the number of retries with the 'lockRetryCount' configuration option: " + FlywayDbWebsiteLinks.LOCK_RETRY_COUNT);
     }
 
+    private boolean lockTransactional(int waitMillis) throws SQLException {
+        if (waitMillis <= 0 || !blockingWaitSupported) {
+            return tryLockTransactional();
+        }
+        return waitForLock("pg_advisory_xact_lock", waitMillis);
+    }
+
+    private boolean lock(int waitMillis) throws SQLException {
+        if (waitMillis <= 0 || !blockingWaitSupported) {
+            return tryLock();
+        }
+        return waitForLock("pg_advisory_lock", waitMillis);
+    }
+
+    /**
+     * Waits for the lock with a lock timeout, so that it is obtained as soon as the node holding it releases it instead
+     * of on the next poll. The previous lock timeout is restored afterwards. Inside a transaction the wait is wrapped
+     * in a savepoint, as a timeout would otherwise abort the whole transaction.
+     *
+     * @return {@code true} if the lock was obtained, {@code false} if the wait timed out.
+     */
+    private boolean waitForLock(String lockFunction, int waitMillis) throws SQLException {
+        Connection connection = jdbcTemplate.getConnection();
+        boolean inTransaction = !connection.getAutoCommit();
+        Savepoint savepoint = inTransaction ? connection.setSavepoint() : null;
+        String lockTimeout = null;
+        try {
+            lockTimeout = jdbcTemplate.queryForString("SELECT current_setting('lock_timeout')");
+            setLockTimeout(waitMillis + "ms", inTransaction);
+            jdbcTemplate.execute("SELECT " + lockFunction + "(" + lockNum + ")");
+            setLockTimeout(lockTimeout, inTransaction);
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return true;
+        } catch (SQLException e) {
+            if (savepoint != null) {
+                // Also reverts the lock timeout
+                connection.rollback(savepoint);
+                connection.releaseSavepoint(savepoint);
+            } else if (lockTimeout != null) {
+                setLockTimeout(lockTimeout, false);
+            }
+            if (!LOCK_NOT_AVAILABLE.equals(e.getSQLState())) {
+                LOG.debug("Unable to wait for PostgreSQL advisory lock, polling for it instead: " + e.getMessage());
+                blockingWaitSupported = false;
+            }
+            return false;
+        }
+    }
+
+    private void setLockTimeout(String lockTimeout, boolean local) throws SQLException {
+        jdbcTemplate.execute("SELECT set_config('lock_timeout', ?, " + local + ")", lockTimeout);
+    }
+
     /**
      * Because both uxdb and kingbase databases are based on postgreSQL for secondary development,
      * the syntax is slightly incompatible, resulting in the first result here,
@@ -65,19 +65,15 @@ public class PostgreSQLConnection extends Connection<PostgreSQLDatabase> {
     }
 
     @Override
-    public void changeCurrentSchemaTo(Schema schema) {
-        try {
-            if (schema.getName().equals(originalSchemaNameOrSearchPath) || originalSchemaNameOrSearchPath.startsWith(schema.getName() + ",") || !schema.exists()) {
-                return;
-            }
-
-            if (StringUtils.hasText(originalSchemaNameOrSearchPath)) {
-                doChangeCurrentSchemaOrSearchPathTo(schema + "," + originalSchemaNameOrSearchPath);
-            } else {
-                doChangeCurrentSchemaOrSearchPathTo(schema.toString());
-            }
-        } catch (SQLException e) {
-            throw new FlywaySqlException("Error setting current schema to " + schema, e);
+    protected void doChangeCurrentSchemaTo(Schema schema) throws SQLException {
+        if (schema.getName().equals(originalSchemaNameOrSearchPath) || originalSchemaNameOrSearchPath.startsWith(schema.getName() + ",")) {
+            return;
+        }
+
+        if (StringUtils.hasText(originalSchemaNameOrSearchPath)) {
+            doChangeCurrentSchemaOrSearchPathTo(schema + "," + originalSchemaNameOrSearchPath);
+        } else {
+            doChangeCurrentSchemaOrSearchPathTo(schema.toString());
         }
     }
 
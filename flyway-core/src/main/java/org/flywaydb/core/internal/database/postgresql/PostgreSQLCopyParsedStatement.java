@@ -58,6 +58,11 @@ public class PostgreSQLCopyParsedStatement extends ParsedSqlStatement {
         this.copyData = copyData;
     }
 
+    @Override
+    public boolean isBatchable() {
+        return false;
+    }
+
     @Override
     public Results execute(JdbcTemplate jdbcTemplate
 
@@ -110,10 +110,12 @@ public class PostgreSQLParser extends Parser {
         }
 
         boolean isDBVerUnder12 = true;
-        try {
-            isDBVerUnder12 = !parsingContext.getDatabase().getVersion().isAtLeast("12");
-        } catch (Exception e) {
-            LOG.debug("Unable to determine database version: " + e.getMessage());
+        if (parsingContext.getDatabase() != null) {
+            try {
+                isDBVerUnder12 = !parsingContext.getDatabase().getVersion().isAtLeast("12");
+            } catch (Exception e) {
+                LOG.debug("Unable to determine database version: " + e.getMessage());
+            }
         }
 
         if (isDBVerUnder12 && ALTER_TYPE_ADD_VALUE_REGEX.matcher(simplifiedStatement).matches()) {
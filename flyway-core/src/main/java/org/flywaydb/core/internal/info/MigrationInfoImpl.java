@@ -34,7 +34,6 @@ public class MigrationInfoImpl implements MigrationInfo {
     private final MigrationInfoContext context;
     private final boolean outOfOrder;
     private final boolean deleted;
-    private final boolean shouldNotExecuteMigration;
 
 
 
@@ -46,7 +45,6 @@ public class MigrationInfoImpl implements MigrationInfo {
         this.context = context;
         this.outOfOrder = outOfOrder;
         this.deleted = deleted;
-        this.shouldNotExecuteMigration = shouldNotExecuteMigration(resolvedMigration);
 
 
 
@@ -144,7 +142,7 @@ public class MigrationInfoImpl implements MigrationInfo {
 
 
 
-            if (shouldNotExecuteMigration) {
+            if (shouldNotExecuteMigration(resolvedMigration)) {
                 return MigrationState.IGNORED;
             }
 
@@ -249,7 +247,7 @@ public class MigrationInfoImpl implements MigrationInfo {
         }
 
         if (!context.isIgnoredIgnored() && MigrationState.IGNORED == state && !resolvedMigration.getType().isBaseline()) {
-            if (shouldNotExecuteMigration) {
+            if (shouldNotExecuteMigration(resolvedMigration)) {
                 return null;
             }
             if (getVersion() != null) {
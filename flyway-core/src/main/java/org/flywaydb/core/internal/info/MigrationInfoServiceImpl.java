@@ -44,9 +44,37 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
     private final ValidatePattern[] ignorePatterns;
     private final MigrationPattern[] cherryPick;
     /**
-     * The migrations infos calculated at the last refresh.
+     * The migrations infos calculated at the last refresh, in sorted order. {@code null} when incremental updates have
+     * made it stale, in which case it is rebuilt from {@link #appliedInfos} and {@link #unappliedInfos} on demand.
      */
     private List<MigrationInfoImpl> migrationInfos;
+    /**
+     * The infos backed by a row of the schema history table, in the order they were applied.
+     */
+    private List<MigrationInfoImpl> appliedInfos;
+    /**
+     * The infos of resolved migrations without any matching applied row, in sorted order.
+     */
+    private LinkedHashMap<ResolvedMigration, MigrationInfoImpl> unappliedInfos;
+    /**
+     * The context shared by all infos of the last refresh.
+     */
+    private MigrationInfoContext context;
+    private Map<MigrationUnique, ResolvedMigration> resolvedUnique;
+    private Map<String, ResolvedMigration> resolvedRepeatable;
+    /**
+     * The number of applied migrations, and the installed rank of the last one, reflected in the current infos.
+     */
+    private int appliedCount;
+    private int lastAppliedRank;
+    /**
+     * Cached results of {@link #current()}, {@link #failed()} and {@link #future()}. Incremental updates only ever
+     * fold successful applications of resolved migrations, which keeps the failed and future ones unchanged.
+     */
+    private boolean currentComputed;
+    private MigrationInfo current;
+    private MigrationInfoImpl[] failed;
+    private MigrationInfo[] future;
     /**
      * Whether all the specified schemas are empty or not.
      */
@@ -80,14 +108,14 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
         Collection<ResolvedMigration> resolvedMigrations = migrationResolver.resolveMigrations(configuration);
         List<AppliedMigration> appliedMigrations = schemaHistory.allAppliedMigrations();
 
-        MigrationInfoContext context = new MigrationInfoContext();
+        context = new MigrationInfoContext();
         context.target = target;
         context.outOfOrder = outOfOrder;
         context.ignorePatterns = ignorePatterns;
         context.cherryPick = cherryPick;
 
-        Map<MigrationUnique, ResolvedMigration> resolvedUnique = getResolvedUniqueMigration(resolvedMigrations, context);
-        Map<String, ResolvedMigration> resolvedRepeatable = new TreeMap<>(getResolvedRepeatableMigrations(resolvedMigrations));
+        resolvedUnique = getResolvedUniqueMigration(resolvedMigrations, context);
+        resolvedRepeatable = getResolvedRepeatableMigrations(resolvedMigrations);
 
 
 
@@ -102,16 +130,18 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
             context.target = context.lastApplied;
         }
 
-        List<MigrationInfoImpl> migrationInfos1 = new ArrayList<>();
+        List<MigrationInfoImpl> migrationInfos1 = new ArrayList<>(appliedMigrations.size() + resolvedMigrations.size());
+        List<ResolvedMigration> appliedVersionedResolved = new ArrayList<>(appliedVersioned.size());
 
         for (Pair<AppliedMigration, AppliedMigrationAttributes> av : appliedVersioned) {
             AppliedMigration appliedMigration = av.getLeft();
-            ResolvedMigration resolvedMigration = resolvedUnique.get(MigrationUnique.builder().migrationType(appliedMigration.getType())
-                    .migrationVersion(appliedMigration.getVersion()).script(appliedMigration.getScript()).build());
+            ResolvedMigration resolvedMigration = resolvedUnique.get(getMigrationUnique(appliedMigration.getVersion(),
+                    appliedMigration.getType(), appliedMigration.getScript()));
+            appliedVersionedResolved.add(resolvedMigration);
             migrationInfos1.add(new MigrationInfoImpl(resolvedMigration, av.getLeft(), context, av.getRight().outOfOrder, av.getRight().deleted, av.getRight().undone));
         }
 
-        for (ResolvedMigration prv : getPendingResolvedVersionedMigrations(appliedVersioned, resolvedUnique, context)) {
+        for (ResolvedMigration prv : getPendingResolvedVersionedMigrations(appliedVersioned, appliedVersionedResolved, resolvedUnique, context)) {
             migrationInfos1.add(new MigrationInfoImpl(prv, null, context, false, false, false));
         }
 
@@ -138,6 +168,22 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
         Collections.sort(migrationInfos1);
         migrationInfos = migrationInfos1;
 
+        appliedInfos = new ArrayList<>();
+        unappliedInfos = new LinkedHashMap<>();
+        for (MigrationInfoImpl migrationInfo : migrationInfos1) {
+            if (migrationInfo.getAppliedMigration() == null) {
+                unappliedInfos.put(migrationInfo.getResolvedMigration(), migrationInfo);
+            } else {
+                appliedInfos.add(migrationInfo);
+            }
+        }
+        appliedCount = appliedMigrations.size();
+        lastAppliedRank = appliedMigrations.isEmpty() ? -1 : appliedMigrations.get(appliedMigrations.size() - 1).getInstalledRank();
+        currentComputed = false;
+        current = null;
+        failed = null;
+        future = null;
+
         if (context.target == MigrationVersion.NEXT) {
             MigrationInfo[] pendingMigrationInfos = pending();
             if (pendingMigrationInfos.length == 0) {
@@ -148,6 +194,122 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
         }
     }
 
+    /**
+     * Brings the infos of the last {@link #refresh()} up to date with the schema history table, without rebuilding
+     * them. Migrations applied since then, by this run or by another node, are folded into the existing infos in
+     * place, so that applying n migrations one after the other costs O(n) instead of O(n²). Falls back to a full
+     * {@link #refresh()} whenever the history changed in a way that can't be folded (rows removed, DELETE or
+     * synthetic markers, failures, migrations not pending locally, ...).
+     */
+    public void refreshIncrementally() {
+        if (migrationInfos == null && appliedInfos == null) {
+            refresh();
+            return;
+        }
+
+        List<AppliedMigration> appliedMigrations = schemaHistory.allAppliedMigrations();
+        int newCount = appliedMigrations.size() - appliedCount;
+        if (newCount == 0 && (appliedCount == 0 || lastAppliedRank == appliedMigrations.get(appliedCount - 1).getInstalledRank())) {
+            return;
+        }
+        if (newCount < 0 || target == MigrationVersion.CURRENT || target == MigrationVersion.NEXT) {
+            refresh();
+            return;
+        }
+
+        // Walk backwards from the end so that only the new rows are visited, even for linked lists.
+        LinkedList<AppliedMigration> newAppliedMigrations = new LinkedList<>();
+        ListIterator<AppliedMigration> iterator = appliedMigrations.listIterator(appliedMigrations.size());
+        for (int i = 0; i < newCount; i++) {
+            newAppliedMigrations.addFirst(iterator.previous());
+        }
+        int previousRank = iterator.hasPrevious() ? iterator.previous().getInstalledRank() : -1;
+        if (previousRank != lastAppliedRank) {
+            refresh();
+            return;
+        }
+
+        for (AppliedMigration appliedMigration : newAppliedMigrations) {
+            if (!foldAppliedMigration(appliedMigration)) {
+                refresh();
+                return;
+            }
+        }
+        appliedCount = appliedMigrations.size();
+        lastAppliedRank = newAppliedMigrations.getLast().getInstalledRank();
+    }
+
+    /**
+     * Folds a newly applied migration into the current infos, replacing the info of the resolved migration it applied.
+     *
+     * @return {@code false} if the applied migration can't be folded and a full refresh is required.
+     */
+    private boolean foldAppliedMigration(AppliedMigration appliedMigration) {
+        MigrationType type = appliedMigration.getType();
+        if (!appliedMigration.isSuccess() || type.isSynthetic() || type.isBaseline() || type.isUndo()
+                || type.equals(CoreMigrationType.DELETE) || appliedMigration.getInstalledRank() <= lastAppliedRank) {
+            return false;
+        }
+
+        MigrationVersion version = appliedMigration.getVersion();
+        ResolvedMigration resolvedMigration = version == null
+                ? resolvedRepeatable.get(appliedMigration.getDescription())
+                : resolvedUnique.get(getMigrationUnique(version, type, appliedMigration.getScript()));
+        if (resolvedMigration == null || !unappliedInfos.containsKey(resolvedMigration)
+                || (version == null && !resolvedMigration.checksumMatches(appliedMigration.getChecksum()))) {
+            return false;
+        }
+
+        boolean outOfOrder = false;
+        if (version != null) {
+            if (version.compareTo(context.lastApplied) > 0) {
+                context.lastApplied = version;
+            } else {
+                outOfOrder = true;
+            }
+        } else {
+            context.latestRepeatableRuns.put(appliedMigration.getDescription(), appliedMigration.getInstalledRank());
+        }
+
+        MigrationInfoImpl migrationInfo = new MigrationInfoImpl(resolvedMigration, appliedMigration, context, outOfOrder, false, false);
+        unappliedInfos.remove(resolvedMigration);
+        appliedInfos.add(migrationInfo);
+        migrationInfos = null;
+
+        if (currentComputed && (current == null || current.getVersion() == null
+                || (version != null && version.compareTo(current.getVersion()) > 0))) {
+            current = migrationInfo;
+        }
+        lastAppliedRank = appliedMigration.getInstalledRank();
+        return true;
+    }
+
+    /**
+     * @return All migration infos in sorted order, rebuilding the sorted list after incremental updates.
+     */
+    private List<MigrationInfoImpl> getMigrationInfos() {
+        if (migrationInfos == null) {
+            List<MigrationInfoImpl> migrationInfos1 = new ArrayList<>(appliedInfos.size() + unappliedInfos.size());
+            migrationInfos1.addAll(appliedInfos);
+            migrationInfos1.addAll(unappliedInfos.values());
+            Collections.sort(migrationInfos1);
+            migrationInfos = migrationInfos1;
+        }
+        return migrationInfos;
+    }
+
+    /**
+     * Lazily iterates over the pending migrations in the order they should be applied. Unlike {@link #pending()} this
+     * neither visits the applied migrations nor evaluates more states than the caller consumes.
+     *
+     * @return The pending migrations.
+     */
+    public Iterable<MigrationInfoImpl> pendingMigrations() {
+        return () -> unappliedInfos.values().stream()
+                .filter(migrationInfo -> MigrationState.PENDING == migrationInfo.getState())
+                .iterator();
+    }
+
     private Map<Pair<MigrationVersion, MigrationType>, ResolvedMigration> getResolvedVersionedMigrations(Collection<ResolvedMigration> resolvedMigrations, MigrationInfoContext context) {
         Map<Pair<MigrationVersion, MigrationType>, ResolvedMigration> resolvedVersionedMigrations = new TreeMap<>((p1, p2) -> p1.getLeft().compareTo(p2.getLeft()) == 0 ?
                 p1.getRight().toString().compareTo(p2.getRight().toString()) :
@@ -166,27 +328,14 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
 
     /**
      * for multi-script in one version. so use {@link MigrationUnique} as key.
+     * Hashed rather than sorted: the keys are only ever looked up, once or twice per applied migration.
      * @param resolvedMigrations resolved of script
      * @param context context
      * @return migration.
      * @author liull
      */
     private Map<MigrationUnique, ResolvedMigration> getResolvedUniqueMigration(Collection<ResolvedMigration> resolvedMigrations, MigrationInfoContext context) {
-        Map<MigrationUnique, ResolvedMigration> resolvedUniqueMigrations = new TreeMap<>((unique1, unique2) -> {
-            MigrationVersion o1Version = unique1.getMigrationVersion();
-            MigrationVersion o2Version = unique2.getMigrationVersion();
-            if (unique1.getMigrationType() != unique2.getMigrationType()) {
-                return unique1.getMigrationType().toString().compareTo(unique2.getMigrationType().toString());
-            }
-            if (o1Version == null) {
-                return -1;
-            }
-            int vc = o1Version.compareTo(o2Version);
-            if (vc != 0) {
-                return vc;
-            }
-            return unique1.getScript().compareTo(unique2.getScript());
-        });
+        Map<MigrationUnique, ResolvedMigration> resolvedUniqueMigrations = new HashMap<>(resolvedMigrations.size() * 4 / 3 + 1);
         for(ResolvedMigration resolvedMigration: resolvedMigrations) {
             MigrationVersion version = resolvedMigration.getVersion();
             if (version != null) {
@@ -194,18 +343,19 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
                     context.lastResolved = version;
                 }
                 resolvedUniqueMigrations.put(
-                        MigrationUnique.builder().migrationType(resolvedMigration.getType())
-                                .migrationVersion(resolvedMigration.getVersion())
-                                .script(resolvedMigration.getScript()).build(),
+                        getMigrationUnique(version, resolvedMigration.getType(), resolvedMigration.getScript()),
                         resolvedMigration);
             }
         }
         return resolvedUniqueMigrations;
     }
 
+    private static MigrationUnique getMigrationUnique(MigrationVersion version, MigrationType type, String script) {
+        return MigrationUnique.builder().migrationVersion(version).migrationType(type).script(script).build();
+    }
 
     private Map<String, ResolvedMigration> getResolvedRepeatableMigrations(Collection<ResolvedMigration> resolvedMigrations) {
-        Map<String, ResolvedMigration> resolvedRepeatableMigrations = new TreeMap<>();
+        Map<String, ResolvedMigration> resolvedRepeatableMigrations = new HashMap<>();
         for (ResolvedMigration resolvedMigration : resolvedMigrations) {
             if (resolvedMigration.getVersion() == null) {
                 resolvedRepeatableMigrations.put(resolvedMigration.getDescription(), resolvedMigration);
@@ -215,7 +365,8 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
     }
 
     private List<Pair<AppliedMigration, AppliedMigrationAttributes>> getAppliedVersionedMigrations(List<AppliedMigration> appliedMigrations, MigrationInfoContext context) {
-        List<Pair<AppliedMigration, AppliedMigrationAttributes>> appliedVersionedMigrations = new ArrayList<>();
+        List<Pair<AppliedMigration, AppliedMigrationAttributes>> appliedVersionedMigrations = new ArrayList<>(appliedMigrations.size());
+        Map<MigrationUnique, Pair<AppliedMigration, AppliedMigrationAttributes>> latestByVersionAndScript = new HashMap<>();
         for (AppliedMigration appliedMigration : appliedMigrations) {
             MigrationVersion version = appliedMigration.getVersion();
             if (version == null) {
@@ -230,7 +381,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
                 }
             }
             if (appliedMigration.getType().equals(CoreMigrationType.DELETE) && appliedMigration.isSuccess()) {
-                markAsDeleted(version, appliedMigration.getScript(), appliedVersionedMigrations);
+                markAsDeleted(version, appliedMigration.getScript(), latestByVersionAndScript);
                 continue;
             }
 
@@ -238,18 +389,27 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
 
 
 
-            appliedVersionedMigrations.add(Pair.of(appliedMigration, new AppliedMigrationAttributes()));
+            Pair<AppliedMigration, AppliedMigrationAttributes> av = Pair.of(appliedMigration, new AppliedMigrationAttributes());
+            appliedVersionedMigrations.add(av);
+            if (!appliedMigration.getType().isSynthetic()) {
+                latestByVersionAndScript.put(getMigrationUnique(version, null, appliedMigration.getScript()), av);
+            }
         }
         return appliedVersionedMigrations;
     }
 
     private List<Pair<AppliedMigration, AppliedMigrationAttributes>> getAppliedRepeatableMigrations(List<AppliedMigration> appliedMigrations) {
         List<Pair<AppliedMigration, AppliedMigrationAttributes>> appliedRepeatableMigrations = new ArrayList<>();
+        Map<String, Pair<AppliedMigration, AppliedMigrationAttributes>> latestByDescription = new HashMap<>();
         for (AppliedMigration appliedMigration : appliedMigrations) {
             if (appliedMigration.getVersion() == null) {
-                appliedRepeatableMigrations.add(Pair.of(appliedMigration, new AppliedMigrationAttributes()));
+                Pair<AppliedMigration, AppliedMigrationAttributes> ar = Pair.of(appliedMigration, new AppliedMigrationAttributes());
+                appliedRepeatableMigrations.add(ar);
+                if (!appliedMigration.getType().isSynthetic()) {
+                    latestByDescription.put(appliedMigration.getDescription(), ar);
+                }
                 if (appliedMigration.getType().equals(CoreMigrationType.DELETE) && appliedMigration.isSuccess()) {
-                    markRepeatableAsDeleted(appliedMigration.getDescription(), appliedRepeatableMigrations);
+                    markRepeatableAsDeleted(appliedMigration.getDescription(), latestByDescription);
                 }
             }
         }
@@ -297,12 +457,17 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
         }
     }
 
+    /**
+     * @param appliedVersionedResolved The resolved migration matching each of the applied versioned migrations, or
+     *                                 {@code null} where there is none.
+     */
     private Set<ResolvedMigration> getPendingResolvedVersionedMigrations(List<Pair<AppliedMigration, AppliedMigrationAttributes>> appliedVersionedMigrations,
+                                                                         List<ResolvedMigration> appliedVersionedResolved,
                                                                          Map<MigrationUnique, ResolvedMigration> resolvedUnique, MigrationInfoContext context) {
         Set<ResolvedMigration> pendingResolvedVersionedMigrations = new HashSet<>(resolvedUnique.values());
-        for (Pair<AppliedMigration, AppliedMigrationAttributes> av : appliedVersionedMigrations) {
-            AppliedMigration applied = av.getLeft();
-            ResolvedMigration resolvedMigration = resolvedUnique.get(MigrationUnique.builder().migrationVersion(applied.getVersion()).migrationType(applied.getType()).script(applied.getScript()).build());
+        for (int i = 0; i < appliedVersionedMigrations.size(); i++) {
+            Pair<AppliedMigration, AppliedMigrationAttributes> av = appliedVersionedMigrations.get(i);
+            ResolvedMigration resolvedMigration = appliedVersionedResolved.get(i);
             if (resolvedMigration != null
                     && !av.getRight().deleted && av.getLeft().getType() != CoreMigrationType.DELETE
 
@@ -380,17 +545,12 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
      * Marks the latest applied migration with this description as deleted.
      *
      * @param description The description to match
-     * @param appliedRepeatable The discovered applied migrations
+     * @param latestByDescription The latest non-synthetic applied migration discovered so far for each description
      */
-    private void markRepeatableAsDeleted(String description, List<Pair<AppliedMigration, AppliedMigrationAttributes>> appliedRepeatable) {
-        for (int i = appliedRepeatable.size() - 1; i >= 0; i--) {
-            Pair<AppliedMigration, AppliedMigrationAttributes> ar = appliedRepeatable.get(i);
-            if (!ar.getLeft().getType().isSynthetic() && description.equals(ar.getLeft().getDescription())) {
-                if (!ar.getRight().deleted) {
-                    ar.getRight().deleted = true;
-                }
-                return;
-            }
+    private void markRepeatableAsDeleted(String description, Map<String, Pair<AppliedMigration, AppliedMigrationAttributes>> latestByDescription) {
+        Pair<AppliedMigration, AppliedMigrationAttributes> ar = latestByDescription.get(description);
+        if (ar != null) {
+            ar.getRight().deleted = true;
         }
     }
 
@@ -398,20 +558,17 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
      * Marks the latest applied migration with this version as deleted.
      * add script same condition. modify by liull.
      * @param version The version.
-     * @param appliedVersioned The applied migrations.
+     * @param latestByVersionAndScript The latest non-synthetic applied migration discovered so far for each version
+     *                                 and script, keyed without type.
      */
-    private void markAsDeleted(MigrationVersion version,String script, List<Pair<AppliedMigration, AppliedMigrationAttributes>> appliedVersioned) {
-        for (int i = appliedVersioned.size() - 1; i >= 0; i--) {
-            Pair<AppliedMigration, AppliedMigrationAttributes> av = appliedVersioned.get(i);
-            if (!av.getLeft().getType().isSynthetic() && version.equals(av.getLeft().getVersion()) && script.equals(av.getLeft().getScript())) {
-                if (av.getRight().deleted) {
-                    throw new FlywayException("Corrupted schema history: multiple delete entries for version " + version,
-                                              ErrorCode.DUPLICATE_DELETED_MIGRATION);
-                } else {
-                    av.getRight().deleted = true;
-                    return;
-                }
+    private void markAsDeleted(MigrationVersion version, String script, Map<MigrationUnique, Pair<AppliedMigration, AppliedMigrationAttributes>> latestByVersionAndScript) {
+        Pair<AppliedMigration, AppliedMigrationAttributes> av = latestByVersionAndScript.get(getMigrationUnique(version, null, script));
+        if (av != null) {
+            if (av.getRight().deleted) {
+                throw new FlywayException("Corrupted schema history: multiple delete entries for version " + version,
+                                          ErrorCode.DUPLICATE_DELETED_MIGRATION);
             }
+            av.getRight().deleted = true;
         }
     }
 
@@ -441,7 +598,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
 
     @Override
     public MigrationInfo[] all() {
-        return migrationInfos.toArray(new MigrationInfo[0]);
+        return getMigrationInfos().toArray(new MigrationInfo[0]);
     }
 
 
@@ -458,6 +615,15 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
 
     @Override
     public MigrationInfo current() {
+        if (!currentComputed) {
+            current = computeCurrent();
+            currentComputed = true;
+        }
+        return current;
+    }
+
+    private MigrationInfo computeCurrent() {
+        List<MigrationInfoImpl> migrationInfos = getMigrationInfos();
         MigrationInfo current = null;
         for (MigrationInfoImpl migrationInfo : migrationInfos) {
             if (migrationInfo.getState().isApplied()
@@ -497,7 +663,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
     @Override
     public MigrationInfoImpl[] pending() {
         List<MigrationInfoImpl> pendingMigrations = new ArrayList<>();
-        for (MigrationInfoImpl migrationInfo : migrationInfos) {
+        for (MigrationInfoImpl migrationInfo : getMigrationInfos()) {
             if (MigrationState.PENDING == migrationInfo.getState()) {
                 pendingMigrations.add(migrationInfo);
             }
@@ -508,7 +674,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
     @Override
     public MigrationInfoImpl[] applied() {
         List<MigrationInfoImpl> appliedMigrations = new ArrayList<>();
-        for (MigrationInfoImpl migrationInfo : migrationInfos) {
+        for (MigrationInfoImpl migrationInfo : getMigrationInfos()) {
             if (migrationInfo.getState().isApplied()) {
                 appliedMigrations.add(migrationInfo);
             }
@@ -521,7 +687,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
      */
     public MigrationInfo[] resolved() {
         List<MigrationInfo> resolvedMigrations = new ArrayList<>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
+        for (MigrationInfo migrationInfo : getMigrationInfos()) {
             if (migrationInfo.getState().isResolved()) {
                 resolvedMigrations.add(migrationInfo);
             }
@@ -533,21 +699,27 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
      * @return The failed migrations. An empty array if none.
      */
     public MigrationInfoImpl[] failed() {
-        List<MigrationInfoImpl> failedMigrations = new ArrayList<>();
-        for (MigrationInfoImpl migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isFailed()) {
-                failedMigrations.add(migrationInfo);
+        if (failed == null) {
+            List<MigrationInfoImpl> failedMigrations = new ArrayList<>();
+            for (MigrationInfoImpl migrationInfo : getMigrationInfos()) {
+                if (migrationInfo.getState().isFailed()) {
+                    failedMigrations.add(migrationInfo);
+                }
             }
+            failed = failedMigrations.toArray(new MigrationInfoImpl[0]);
         }
-        return failedMigrations.toArray(new MigrationInfoImpl[0]);
+        return failed.clone();
     }
 
     /**
      * @return The future migrations. An empty array if none.
      */
     public MigrationInfo[] future() {
+        if (future != null) {
+            return future.clone();
+        }
         List<MigrationInfo> futureMigrations = new ArrayList<>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
+        for (MigrationInfo migrationInfo : getMigrationInfos()) {
             if (((migrationInfo.getState() == MigrationState.FUTURE_SUCCESS)
                     || (migrationInfo.getState() == MigrationState.FUTURE_FAILED))
 
@@ -558,7 +730,8 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
                 futureMigrations.add(migrationInfo);
             }
         }
-        return futureMigrations.toArray(new MigrationInfo[0]);
+        future = futureMigrations.toArray(new MigrationInfo[0]);
+        return future.clone();
     }
 
     /**
@@ -566,7 +739,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
      */
     public MigrationInfo[] outOfOrder() {
         List<MigrationInfo> outOfOrderMigrations = new ArrayList<>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
+        for (MigrationInfo migrationInfo : getMigrationInfos()) {
             if (migrationInfo.getState() == MigrationState.OUT_OF_ORDER) {
                 outOfOrderMigrations.add(migrationInfo);
             }
@@ -595,7 +768,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService, Operation
      */
     public List<ValidateOutput> validate() {
         List<ValidateOutput> invalidMigrations = new ArrayList<>();
-        for (MigrationInfoImpl migrationInfo : migrationInfos) {
+        for (MigrationInfoImpl migrationInfo : getMigrationInfos()) {
             ErrorDetails validateError = migrationInfo.validate();
             if (validateError != null) {
                 invalidMigrations.add(CommandResultFactory.createValidateOutput(migrationInfo, validateError));
@@ -15,62 +15,149 @@
  */
 package org.flywaydb.core.internal.jdbc;
 
+import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.executor.RowSink;
 import org.flywaydb.core.internal.database.DatabaseType;
 import org.flywaydb.core.internal.database.DatabaseTypeRegister;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 /**
  * Collection of utility methods for querying the DB. Inspired by Spring's JdbcTemplate.
  */
+@CustomLog
 public class JdbcTemplate {
+    /**
+     * Queries and DML statements, possibly preceded by comments. These can't change the schema, so the cached
+     * statements stay valid when they are executed.
+     */
+    private static final Pattern DATA_STATEMENT_PATTERN = Pattern.compile(
+            "^(\\s|--[^\\n]*(\\n|$)|/\\*.*?\\*/)*(SELECT|WITH|VALUES|INSERT|UPDATE|DELETE|MERGE|UPSERT)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    /**
+     * The number of statements which may have changed the schema executed on each connection so far, through any
+     * JdbcTemplate. Script executors run their statements through templates of their own, so the cached statements of
+     * a template are discarded whenever this changes for its connection.
+     */
+    private static final Map<Connection, AtomicLong> SCHEMA_CHANGES = Collections.synchronizedMap(new WeakHashMap<>());
+
     protected final Connection connection;
     /**
      * The type to assign to a null value.
      */
     protected final int nullType;
+    /**
+     * The maximum number of prepared statements to keep open for reuse. {@code 0} if statements are never reused.
+     */
+    private final int statementCacheSize;
+    /**
+     * The idle prepared statements by sql, least recently used first. Statements in use are taken out of the cache
+     * until they are released, so that nested queries never share a statement.
+     */
+    private final Map<String, PreparedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The schema changes of the connection, shared by all templates of this connection.
+     */
+    private final AtomicLong schemaChanges;
+    /**
+     * The schema changes of the connection when the cached statements were prepared.
+     */
+    private long cachedSchemaChanges;
+    /**
+     * The number of rows to fetch per round trip when reading the results of {@link #executeStatement(String)}.
+     * {@code 0} to use the default of the driver.
+     */
+    private int resultFetchSize;
+    /**
+     * The maximum number of rows of each result set of {@link #executeStatement(String)} kept in its {@link Result}.
+     */
+    private int maxResultRows = Integer.MAX_VALUE;
+    /**
+     * Receives every row of the result sets of {@link #executeStatement(String)}. {@code null} if there is none.
+     */
+    private RowSink rowSink;
 
     public JdbcTemplate(Connection connection) {
         this(connection, DatabaseTypeRegister.getDatabaseTypeForConnection(connection));
     }
 
     public JdbcTemplate(Connection connection, DatabaseType databaseType) {
+        this(connection, databaseType, 0);
+    }
+
+    /**
+     * @param statementCacheSize The maximum number of prepared statements to keep open for reuse. {@code 0} to
+     * prepare every statement again.
+     */
+    public JdbcTemplate(Connection connection, DatabaseType databaseType, int statementCacheSize) {
         this.connection = connection;
         this.nullType = databaseType.getNullType();
+        this.statementCacheSize = Math.max(statementCacheSize, 0);
+        this.schemaChanges = SCHEMA_CHANGES.computeIfAbsent(connection, c -> new AtomicLong());
+        this.cachedSchemaChanges = schemaChanges.get();
     }
 
     public Connection getConnection() {
         return connection;
     }
 
-    public List<Map<String, String>> queryForList(String query, Object... params) throws SQLException {
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
-
-        List<Map<String, String>> result;
-        try {
-            statement = prepareStatement(query, params);
-            resultSet = statement.executeQuery();
+    /**
+     * Streams the result sets of the statements executed through {@link #executeStatement(String)}: every row is
+     * passed to the sink as it is read, while only the first rows are kept in memory and the others are counted only.
+     *
+     * @param fetchSize The number of rows to fetch per round trip. {@code 0} to use the default of the driver.
+     * @param maxRows The maximum number of rows of each result set to keep. {@code 0} to keep all of them.
+     * @param rowSink The sink receiving every row, or {@code null} for none.
+     * @return This JdbcTemplate.
+     */
+    public JdbcTemplate streamResults(int fetchSize, int maxRows, RowSink rowSink) {
+        this.resultFetchSize = Math.max(fetchSize, 0);
+        this.maxResultRows = maxRows > 0 ? maxRows : Integer.MAX_VALUE;
+        this.rowSink = rowSink;
+        return this;
+    }
 
-            result = new ArrayList<>();
-            while (resultSet.next()) {
-                Map<String, String> rowMap = new LinkedHashMap<>();
-                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
-                    rowMap.put(resultSet.getMetaData().getColumnLabel(i), resultSet.getString(i));
+    /**
+     * Executes this query and returns all its rows, as maps of column labels to values. The rows are fetched in chunks
+     * of the fetch size passed to {@link #streamResults(int, int, RowSink)}, if any. As every row is returned, this is
+     * meant for metadata queries of a bounded size; use {@link #query(String, int, RowMapper, Object...)} or
+     * {@link #executeStatement(String)} to process or cap larger results.
+     *
+     * @param query The query to execute.
+     * @param params The query parameters.
+     * @return The rows of the query.
+     * @throws SQLException when the query failed to execute.
+     */
+    public List<Map<String, String>> queryForList(String query, Object... params) throws SQLException {
+        return query(query, resultFetchSize, new RowMapper<Map<String, String>>() {
+            private String[] labels;
+
+            @Override
+            public Map<String, String> mapRow(ResultSet rs) throws SQLException {
+                if (labels == null) {
+                    ResultSetMetaData metadata = rs.getMetaData();
+                    labels = new String[metadata.getColumnCount()];
+                    for (int i = 0; i < labels.length; i++) {
+                        labels[i] = metadata.getColumnLabel(i + 1);
+                    }
                 }
-                result.add(rowMap);
+                Map<String, String> rowMap = new LinkedHashMap<>(labels.length * 2);
+                for (int i = 0; i < labels.length; i++) {
+                    rowMap.put(labels[i], rs.getString(i + 1));
+                }
+                return rowMap;
             }
-        } finally {
-            JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
-        }
-
-        return result;
+        }, params);
     }
 
     public List<String> queryForStringList(String query, String... params) throws SQLException {
@@ -79,7 +166,7 @@ public class JdbcTemplate {
 
         List<String> result;
         try {
-            statement = prepareStatement(query, params);
+            statement = acquireStatement(query, params);
             resultSet = statement.executeQuery();
 
             result = new ArrayList<>();
@@ -88,7 +175,7 @@ public class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(query, statement);
         }
 
         return result;
@@ -100,13 +187,13 @@ public class JdbcTemplate {
 
         int result;
         try {
-            statement = prepareStatement(query, params);
+            statement = acquireStatement(query, params);
             resultSet = statement.executeQuery();
             resultSet.next();
             result = resultSet.getInt(1);
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(query, statement);
         }
 
         return result;
@@ -118,13 +205,13 @@ public class JdbcTemplate {
 
         long result;
         try {
-            statement = prepareStatement(query, params);
+            statement = acquireStatement(query, params);
             resultSet = statement.executeQuery();
             resultSet.next();
             result = resultSet.getLong(1);
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(query, statement);
         }
 
         return result;
@@ -136,13 +223,13 @@ public class JdbcTemplate {
 
         boolean result;
         try {
-            statement = prepareStatement(query, params);
+            statement = acquireStatement(query, params);
             resultSet = statement.executeQuery();
             resultSet.next();
             result = resultSet.getBoolean(1);
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(query, statement);
         }
 
         return result;
@@ -154,7 +241,7 @@ public class JdbcTemplate {
 
         String result;
         try {
-            statement = prepareStatement(query, params);
+            statement = acquireStatement(query, params);
             resultSet = statement.executeQuery();
             result = null;
             if (resultSet.next()) {
@@ -162,7 +249,7 @@ public class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(query, statement);
         }
 
         return result;
@@ -176,6 +263,7 @@ public class JdbcTemplate {
      * @throws SQLException when the execution failed.
      */
     public void execute(String sql, Object... params) throws SQLException {
+        invalidateStatements(sql);
         PreparedStatement statement = null;
         try {
             statement = prepareStatement(sql, params);
@@ -192,11 +280,15 @@ public class JdbcTemplate {
      * @return the results of the execution.
      */
     public Results executeStatement(String sql) {
+        invalidateStatements(sql);
         Results results = new Results();
         Statement statement = null;
         try {
             statement = connection.createStatement();
             statement.setEscapeProcessing(false);
+            if (resultFetchSize > 0) {
+                statement.setFetchSize(resultFetchSize);
+            }
 
             boolean hasResults = statement.execute(sql);
             extractResults(results, statement, sql, hasResults);
@@ -209,6 +301,53 @@ public class JdbcTemplate {
         return results;
     }
 
+    /**
+     * Executes these sql statements as a single JDBC batch using an ordinary Statement.
+     *
+     * @param sqls The statements to execute. They must not return result sets.
+     * @return the results of the execution, one update count per statement. If the batch failed, the exception is set
+     * and the results only cover the statements before the failing one, so that the number of results is the index of
+     * the failing statement.
+     */
+    public Results executeBatch(List<String> sqls) {
+        for (String sql : sqls) {
+            invalidateStatements(sql);
+        }
+        Results results = new Results();
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            statement.setEscapeProcessing(false);
+            for (String sql : sqls) {
+                statement.addBatch(sql);
+            }
+            int[] updateCounts = statement.executeBatch();
+            extractBatchResults(results, sqls, updateCounts);
+            extractWarnings(results, statement);
+        } catch (BatchUpdateException e) {
+            extractBatchResults(results, sqls, e.getUpdateCounts());
+            extractErrors(results, e.getNextException() == null ? e : e.getNextException());
+        } catch (final SQLException e) {
+            extractErrors(results, e);
+        } finally {
+            JdbcUtils.closeStatement(statement);
+        }
+        return results;
+    }
+
+    private void extractBatchResults(Results results, List<String> sqls, int[] updateCounts) {
+        if (updateCounts == null) {
+            return;
+        }
+        for (int i = 0; i < updateCounts.length && i < sqls.size(); i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                break;
+            }
+            long updateCount = updateCounts[i] == Statement.SUCCESS_NO_INFO ? -1 : updateCounts[i];
+            results.addResult(new Result(updateCount, null, null, sqls.get(i)));
+        }
+    }
+
     private void extractWarnings(Results results, Statement statement) throws SQLException {
         SQLWarning warning = statement.getWarnings();
         while (warning != null) {
@@ -246,6 +385,7 @@ public class JdbcTemplate {
         while (hasResults || (updateCount = statement.getUpdateCount()) != -1) {
             List<String> columns = null;
             List<List<String>> data = null;
+            long rowCount = -1;
             if (hasResults) {
                 try (ResultSet resultSet = statement.getResultSet()) {
                     columns = new ArrayList<>();
@@ -256,17 +396,35 @@ public class JdbcTemplate {
                     }
 
                     data = new ArrayList<>();
+                    rowCount = 0;
+                    if (rowSink != null) {
+                        rowSink.start(sql, columns);
+                    }
 
+                    // Rows beyond the maximum are still read, as errors may only surface while fetching them
                     while (resultSet.next()) {
-                        List<String> row = new ArrayList<>();
+                        rowCount++;
+                        boolean keep = data.size() < maxResultRows;
+                        if (!keep && rowSink == null) {
+                            continue;
+                        }
+                        List<String> row = new ArrayList<>(columnCount);
                         for (int i = 1; i <= columnCount; i++) {
                             row.add(resultSet.getString(i));
                         }
-                        data.add(row);
+                        if (rowSink != null) {
+                            rowSink.row(row);
+                        }
+                        if (keep) {
+                            data.add(row);
+                        }
+                    }
+                    if (rowSink != null) {
+                        rowSink.end(rowCount);
                     }
                 }
             }
-            results.addResult(new Result(updateCount, columns, data, sql));
+            results.addResult(new Result(updateCount, columns, data, sql, rowCount));
             hasResults = statement.getMoreResults();
         }
     }
@@ -281,10 +439,10 @@ public class JdbcTemplate {
     public void update(String sql, Object... params) throws SQLException {
         PreparedStatement statement = null;
         try {
-            statement = prepareStatement(sql, params);
+            statement = acquireStatement(sql, params);
             statement.executeUpdate();
         } finally {
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(sql, statement);
         }
     }
 
@@ -298,6 +456,128 @@ public class JdbcTemplate {
      */
     protected PreparedStatement prepareStatement(String sql, Object[] params) throws SQLException {
         PreparedStatement statement = connection.prepareStatement(sql);
+        setParameters(statement, params);
+        return statement;
+    }
+
+    /**
+     * Takes the cached prepared statement for this sql out of the cache, or creates a new one, and sets these params.
+     * The statement must be handed back with {@link #releaseStatement(String, PreparedStatement)}.
+     *
+     * @param sql The sql to execute.
+     * @param params The params.
+     * @return The prepared statement.
+     * @throws SQLException when the statement could not be prepared.
+     */
+    private PreparedStatement acquireStatement(String sql, Object[] params) throws SQLException {
+        if (statementCacheSize == 0) {
+            return prepareStatement(sql, params);
+        }
+
+        discardStatementsIfSchemaChanged();
+        PreparedStatement statement = statementCache.remove(sql);
+        if (statement != null) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.clearParameters();
+                    setParameters(statement, params);
+                    return statement;
+                }
+            } catch (SQLException e) {
+                LOG.debug("Discarding cached statement: " + e.getMessage());
+            }
+            JdbcUtils.closeStatement(statement);
+        }
+        return prepareStatement(sql, params);
+    }
+
+    private void releaseStatement(String sql, PreparedStatement statement) {
+        releaseStatement(sql, statement, -1);
+    }
+
+    /**
+     * Hands this statement back to the cache, evicting the least recently used statement if the cache is full, or
+     * closes it if it can't be cached.
+     *
+     * @param sql The sql the statement was prepared for.
+     * @param statement The statement. May be {@code null}.
+     * @param defaultFetchSize The fetch size to restore before the statement is reused. {@code -1} if it wasn't changed.
+     */
+    private void releaseStatement(String sql, PreparedStatement statement, int defaultFetchSize) {
+        if (statement == null) {
+            return;
+        }
+        if (statementCacheSize == 0 || discardStatementsIfSchemaChanged() || statementCache.containsKey(sql)) {
+            JdbcUtils.closeStatement(statement);
+            return;
+        }
+        if (defaultFetchSize >= 0) {
+            try {
+                statement.setFetchSize(defaultFetchSize);
+            } catch (SQLException e) {
+                LOG.debug("Discarding statement: " + e.getMessage());
+                JdbcUtils.closeStatement(statement);
+                return;
+            }
+        }
+
+        statementCache.put(sql, statement);
+        if (statementCache.size() > statementCacheSize) {
+            Iterator<PreparedStatement> eldest = statementCache.values().iterator();
+            JdbcUtils.closeStatement(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Closes the cached prepared statements of all templates of this connection before this sql is executed, unless
+     * it is a query or DML statement, which can't change the schema they were prepared against.
+     */
+    private void invalidateStatements(String sql) {
+        if (!DATA_STATEMENT_PATTERN.matcher(sql).lookingAt()) {
+            schemaChanges.incrementAndGet();
+            discardStatementsIfSchemaChanged();
+        }
+    }
+
+    /**
+     * Closes the cached prepared statements if the schema may have changed since they were prepared, through this
+     * template or another one of the same connection.
+     *
+     * @return {@code true} if the schema may have changed.
+     */
+    private boolean discardStatementsIfSchemaChanged() {
+        long current = schemaChanges.get();
+        if (current == cachedSchemaChanges) {
+            return false;
+        }
+        closeStatements();
+        cachedSchemaChanges = current;
+        return true;
+    }
+
+    /**
+     * Closes all cached prepared statements. Called when the connection is closed or its current schema changes, and
+     * before running anything that may change the schema and so invalidate them.
+     */
+    public void closeStatements() {
+        if (statementCache.isEmpty()) {
+            return;
+        }
+        for (PreparedStatement statement : statementCache.values()) {
+            JdbcUtils.closeStatement(statement);
+        }
+        statementCache.clear();
+    }
+
+    /**
+     * Binds these params to this statement, be it newly prepared or reused from the cache.
+     *
+     * @param statement The statement.
+     * @param params The params.
+     * @throws SQLException when a param could not be bound.
+     */
+    protected void setParameters(PreparedStatement statement, Object[] params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
             if (params[i] == null) {
                 statement.setNull(i + 1, nullType);
@@ -318,7 +598,6 @@ public class JdbcTemplate {
                                                   "Please contact support or leave an issue on GitHub.");
             }
         }
-        return statement;
     }
 
     /**
@@ -331,12 +610,31 @@ public class JdbcTemplate {
      * @throws SQLException when the query failed to execute.
      */
     public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... params) throws SQLException {
+        return query(sql, 0, rowMapper, params);
+    }
+
+    /**
+     * Executes this query and map the results using this row mapper, fetching this many rows per round trip.
+     *
+     * @param sql The query to execute.
+     * @param fetchSize The number of rows to fetch per round trip. {@code 0} to use the default of the driver.
+     * @param rowMapper The row mapper to use.
+     * @param <T> The type of the result objects.
+     * @return The list of results.
+     * @throws SQLException when the query failed to execute.
+     */
+    public <T> List<T> query(String sql, int fetchSize, RowMapper<T> rowMapper, Object... params) throws SQLException {
         PreparedStatement statement = null;
         ResultSet resultSet = null;
 
         List<T> results;
+        int defaultFetchSize = -1;
         try {
-            statement = prepareStatement(sql, params);
+            statement = acquireStatement(sql, params);
+            if (fetchSize > 0) {
+                defaultFetchSize = statement.getFetchSize();
+                statement.setFetchSize(fetchSize);
+            }
             resultSet = statement.executeQuery();
 
             results = new ArrayList<>();
@@ -345,7 +643,7 @@ public class JdbcTemplate {
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
+            releaseStatement(sql, statement, defaultFetchSize);
         }
 
         return results;
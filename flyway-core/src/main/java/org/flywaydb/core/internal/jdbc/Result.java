@@ -15,16 +15,27 @@
  */
 package org.flywaydb.core.internal.jdbc;
 
-import lombok.RequiredArgsConstructor;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.util.List;
 
-@RequiredArgsConstructor
+@AllArgsConstructor
 @Getter
 public class Result {
     private final long updateCount;
     private final List<String> columns;
+    /**
+     * The rows of the result set, up to the maximum number of rows kept.
+     */
     private final List<List<String>> data;
     private final String sql;
+    /**
+     * The number of rows of the result set, including those which were not kept. {@code -1} if there is no result set.
+     */
+    private final long rowCount;
+
+    public Result(long updateCount, List<String> columns, List<List<String>> data, String sql) {
+        this(updateCount, columns, data, sql, data == null ? -1 : data.size());
+    }
 }
\ No newline at end of file
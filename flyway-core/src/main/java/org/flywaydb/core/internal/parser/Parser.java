@@ -118,13 +118,8 @@ public abstract class Parser {
         parsingContext.updateFilenamePlaceholder(result, configuration);
 
         PeekingReader peekingReader = new PeekingReader(
-                new RecordingReader(recorder,
-                                    new PositionTrackingReader(tracker, replacePlaceholders(
-                                            new BomStrippingReader(
-                                                    new UnboundedReadAheadReader(
-                                                            new BufferedReader(resource.read(), 4096))),
-                                            metadata))),
-                supportsPeekingMultipleLines());
+                replacePlaceholders(new BomStrippingReader(new BufferedReader(resource.read(), 4096)), metadata),
+                supportsPeekingMultipleLines(), recorder, tracker);
 
         return new ParserSqlStatementIterator(peekingReader, resource, recorder, tracker, context);
     }
@@ -91,6 +91,18 @@ public class ParsingContext {
         }
     }
 
+    /**
+     * Creates a copy of this context with the filename placeholder set for this resource. This context is left
+     * untouched, so several resources can be processed concurrently.
+     */
+    public ParsingContext forResource(ResourceName resourceName, Configuration configuration) {
+        ParsingContext copy = new ParsingContext();
+        copy.placeholders.putAll(placeholders);
+        copy.database = database;
+        copy.updateFilenamePlaceholder(resourceName, configuration);
+        return copy;
+    }
+
     private Schema getCurrentSchema(Database database) {
         try {
             return database.getMainConnection().getCurrentSchema();
@@ -22,62 +22,152 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.Arrays;
 
+/**
+ * Reader that allows peeking ahead and scanning the text of a script a block at a time. Characters are recorded and
+ * their positions tracked as they are consumed.
+ */
 public class PeekingReader extends FilterReader {
-    private int[] peekBuffer = new int[256];
-    private int peekMax = 0;
-    private int peekBufferOffset = 0;
+    private static final int BLOCK_SIZE = 8192;
+
     private final boolean supportsPeekingMultipleLines;
+    private final Recorder recorder;
+    private final PositionTracker tracker;
+
+    /**
+     * The characters read ahead from the underlying reader. Only {@code buffer[pos, limit)} has not been consumed yet.
+     */
+    private char[] buffer;
+    private int pos;
+    private int limit;
+    private boolean eof;
 
-    PeekingReader(Reader in, boolean supportsPeekingMultipleLines) {
+    PeekingReader(Reader in, boolean supportsPeekingMultipleLines, Recorder recorder, PositionTracker tracker) {
+        this(in, supportsPeekingMultipleLines, recorder, tracker, BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize The initial size of the read-ahead buffer.
+     */
+    PeekingReader(Reader in, boolean supportsPeekingMultipleLines, Recorder recorder, PositionTracker tracker, int blockSize) {
         super(in);
         this.supportsPeekingMultipleLines = supportsPeekingMultipleLines;
+        this.recorder = recorder;
+        this.tracker = tracker;
+        this.buffer = new char[blockSize];
     }
 
     @Override
     public int read() throws IOException {
-        peekBufferOffset++;
-        return super.read();
+        if (!fill(1)) {
+            return -1;
+        }
+        char c = buffer[pos];
+        consume(1);
+        return c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill(1)) {
+            return -1;
+        }
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(buffer, pos, cbuf, off, n);
+        consume(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && fill(1)) {
+            int chunk = (int) Math.min(n - skipped, limit - pos);
+            consume(chunk);
+            skipped += chunk;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return pos < limit || super.ready();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
     }
 
     /**
-     * Swallows the next character.
+     * Ensures at least this number of characters are buffered, unless the end of the stream has been reached.
+     *
+     * @param numChars The number of characters.
+     * @return {@code true} if they are, {@code false} if the stream ends before.
      */
-    public void swallow() throws IOException {
-        //noinspection ResultOfMethodCallIgnored
-        read();
+    private boolean fill(int numChars) throws IOException {
+        while (limit - pos < numChars && !eof) {
+            if (limit == buffer.length || pos + numChars > buffer.length) {
+                System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+                // If we need to peek beyond the size of the buffer - eg. we have encountered a very long string
+                // literal - then expand the buffer to be big enough to contain it.
+                if (numChars > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(numChars, buffer.length * 2));
+                }
+            }
+            int read = super.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+        return limit - pos >= numChars;
     }
 
     /**
-     * Swallows the next n characters.
+     * Consumes the next n buffered characters, recording them and tracking their position.
      */
-    public void swallow(int n) throws IOException {
-        for (int i = 0; i < n; i++) {
-            //noinspection ResultOfMethodCallIgnored
-            read();
+    private void consume(int n) {
+        if (n > 0) {
+            recorder.record(buffer, pos, n);
+            tracker.track(buffer, pos, n);
+            pos += n;
         }
     }
 
-    private int peek() throws IOException {
-        if (peekBufferOffset >= peekMax) {
-            refillPeekBuffer();
+    /**
+     * Swallows the next character.
+     */
+    public void swallow() throws IOException {
+        if (fill(1)) {
+            consume(1);
         }
+    }
 
-        return peekBuffer[peekBufferOffset];
+    /**
+     * Swallows the next n characters.
+     */
+    public void swallow(int n) throws IOException {
+        skip(n);
     }
 
-    private void refillPeekBuffer() throws IOException {
-        mark(peekBuffer.length);
-        peekMax = peekBuffer.length;
-        peekBufferOffset = 0;
-        for (int i = 0; i < peekBuffer.length; i++) {
-            int read = super.read();
-            peekBuffer[i] = read;
-            if (!supportsPeekingMultipleLines && read == '\n') {
-                peekMax = i;
-                break;
-            }
-        }
-        reset();
+    private int peek() throws IOException {
+        return fill(1) ? buffer[pos] : -1;
     }
 
     /**
@@ -152,7 +242,26 @@ public class PeekingReader extends FilterReader {
      * @return {@code true} if they do, {@code false} if not.
      */
     public boolean peek(String str) throws IOException {
-        return str.equals(peek(str.length()));
+        return matches(0, str);
+    }
+
+    /**
+     * Checks whether the characters at this offset from the current position match this string exactly. As with
+     * {@link #peek(int)}, a match may not extend beyond the end of the current line.
+     */
+    private boolean matches(int offset, String str) throws IOException {
+        int length = str.length();
+        if (length == 0 || !fill(offset + length)) {
+            return false;
+        }
+        int start = pos + offset;
+        for (int i = 0; i < length; i++) {
+            char c = buffer[start + i];
+            if (c != str.charAt(i) || (c == '\n' && i < length - 1)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -173,39 +282,19 @@ public class PeekingReader extends FilterReader {
      * @return The characters.
      */
     public String peek(int numChars, boolean peekMultipleLines) throws IOException {
-        // If we need to peek beyond the physical size of the peek buffer - eg. we have encountered a very
-        // long string literal - then expand the buffer to be big enough to contain it.
-        if (numChars >= peekBuffer.length) {
-            resizePeekBuffer(numChars);
-        }
-
-        if (peekBufferOffset + numChars >= peekMax) {
-            refillPeekBuffer();
-        }
-
-        StringBuilder result = new StringBuilder();
-        int prevR = -1;
-        for (int i = 0; i < numChars; i++) {
-            int r = peekBuffer[peekBufferOffset + i];
-            if (r == -1) {
-                break;
-            } else if (peekBufferOffset + i > peekMax) {
-                break;
-            } else if (!peekMultipleLines && prevR == '\n') {
+        fill(numChars);
+        boolean multipleLines = peekMultipleLines && supportsPeekingMultipleLines;
+        int end = pos + Math.min(numChars, limit - pos);
+        int i = pos;
+        while (i < end) {
+            if (buffer[i++] == '\n' && !multipleLines) {
                 break;
             }
-            result.append((char) r);
-
-            prevR = r;
         }
-        if (result.length() == 0) {
+        if (i == pos) {
             return null;
         }
-        return result.toString();
-    }
-
-    private void resizePeekBuffer(int newSize) {
-        peekBuffer = Arrays.copyOf(peekBuffer, newSize + peekBufferOffset);
+        return new String(buffer, pos, i - pos);
     }
 
     /**
@@ -215,15 +304,14 @@ public class PeekingReader extends FilterReader {
      * @param delimiter2 The second delimiting character.
      */
     public void swallowUntilExcluding(char delimiter1, char delimiter2) throws IOException {
-        do {
-            if (peek(delimiter1, delimiter2)) {
-                break;
+        while (fill(1)) {
+            int i = indexOf(delimiter1, delimiter2);
+            if (i < limit) {
+                consume(i - pos);
+                return;
             }
-            int r = read();
-            if (r == -1) {
-                break;
-            }
-        } while (true);
+            consume(limit - pos);
+        }
     }
 
     /**
@@ -235,20 +323,28 @@ public class PeekingReader extends FilterReader {
      */
     public String readUntilExcluding(char delimiter1, char delimiter2) throws IOException {
         StringBuilder result = new StringBuilder();
-        do {
-            if (peek(delimiter1, delimiter2)) {
-                break;
-            }
-            int r = read();
-            if (r == -1) {
+        while (fill(1)) {
+            int i = indexOf(delimiter1, delimiter2);
+            result.append(buffer, pos, i - pos);
+            consume(i - pos);
+            if (i < limit) {
                 break;
-            } else {
-                result.append((char) r);
             }
-        } while (true);
+        }
         return result.toString();
     }
 
+    /**
+     * @return The index of the first buffered occurrence of either of these characters, or {@code limit} if none.
+     */
+    private int indexOf(char c1, char c2) {
+        int i = pos;
+        while (i < limit && buffer[i] != c1 && buffer[i] != c2) {
+            i++;
+        }
+        return i;
+    }
+
     /**
      * Swallows all characters in this stream until this delimiting character has been encountered, taking into account
      * this escape character for the delimiting character.
@@ -269,24 +365,24 @@ public class PeekingReader extends FilterReader {
      * @param escape A separate escape character.
      */
     public void swallowUntilIncludingWithEscape(char delimiter, boolean selfEscape, char escape) throws IOException {
-        do {
-            int r = read();
-            if (r == -1) {
-                break;
+        while (fill(1)) {
+            int i = escape == 0 ? indexOf(delimiter, delimiter) : indexOf(delimiter, escape);
+            if (i == limit) {
+                consume(limit - pos);
+                continue;
             }
-            char c = (char) r;
+            char c = buffer[i];
+            consume(i + 1 - pos);
             if (escape != 0 && c == escape) {
                 swallow();
                 continue;
             }
-            if (c == delimiter) {
-                if (selfEscape && peek(delimiter)) {
-                    swallow();
-                    continue;
-                }
-                break;
+            if (selfEscape && peek(delimiter)) {
+                swallow();
+                continue;
             }
-        } while (true);
+            break;
+        }
     }
 
     /**
@@ -348,15 +444,9 @@ public class PeekingReader extends FilterReader {
      * @param str The delimiting string.
      */
     public void swallowUntilExcluding(String str) throws IOException {
-        do {
-            if (peek(str)) {
-                break;
-            }
-            int r = read();
-            if (r == -1) {
-                break;
-            }
-        } while (true);
+        while (fill(1) && !peek(str)) {
+            consume(skipToNextCandidate(str) - pos);
+        }
     }
 
     /**
@@ -367,22 +457,37 @@ public class PeekingReader extends FilterReader {
      */
     public String readUntilExcluding(String... strings) throws IOException {
         StringBuilder result = new StringBuilder();
-        do {
+        while (fill(1)) {
             for (String str : strings) {
                 if (peek(str)) {
                     return result.toString();
                 }
             }
-            int r = read();
-            if (r == -1) {
-                break;
-            } else {
-                result.append((char) r);
-            }
-        } while (true);
+            int i = skipToNextCandidate(strings);
+            result.append(buffer, pos, i - pos);
+            consume(i - pos);
+        }
         return result.toString();
     }
 
+    /**
+     * @return The index of the next buffered character after the current one at which any of these strings could
+     * start, or {@code limit} if none.
+     */
+    private int skipToNextCandidate(String... strings) {
+        int i = pos + 1;
+        while (i < limit) {
+            char c = buffer[i];
+            for (String str : strings) {
+                if (!str.isEmpty() && str.charAt(0) == c) {
+                    return i;
+                }
+            }
+            i++;
+        }
+        return i;
+    }
+
     /**
      * Reads all characters in this stream until any of this delimiting character has been encountered.
      *
@@ -391,17 +496,15 @@ public class PeekingReader extends FilterReader {
      */
     public String readUntilIncluding(char delimiter) throws IOException {
         StringBuilder result = new StringBuilder();
-        do {
-            int r = read();
-            if (r == -1) {
-                break;
-            }
-            char c = (char) r;
-            result.append(c);
-            if (c == delimiter) {
+        while (fill(1)) {
+            int i = indexOf(delimiter, delimiter);
+            int end = i < limit ? i + 1 : limit;
+            result.append(buffer, pos, end - pos);
+            consume(end - pos);
+            if (i < limit) {
                 break;
             }
-        } while (true);
+        }
         return result.toString();
     }
 
@@ -412,21 +515,17 @@ public class PeekingReader extends FilterReader {
      * @return The string read.
      */
     public String readKeywordPart(Delimiter delimiter, ParserContext context) throws IOException {
-        StringBuilder result = new StringBuilder();
-        do {
+        int n = 0;
+        while (fill(n + 1)) {
             boolean isDelimiter = delimiter != null &&
-                    (result.length() == 0 || !delimiter.shouldBeAloneOnLine()) &&
-                    peek(delimiter.getDelimiter());
-
-            boolean shouldAppend = !isDelimiter && peekKeywordPart(context);
-
-            if (shouldAppend) {
-                result.append((char) read());
-            } else {
+                    (n == 0 || !delimiter.shouldBeAloneOnLine()) &&
+                    matches(n, delimiter.getDelimiter());
+            if (isDelimiter || !isKeywordPart(buffer[pos + n], context)) {
                 break;
             }
-        } while (true);
-        return result.toString();
+            n++;
+        }
+        return read(n);
     }
 
     /**
@@ -435,15 +534,11 @@ public class PeekingReader extends FilterReader {
      * @return The string read.
      */
     public String readNumeric() throws IOException {
-        StringBuilder result = new StringBuilder();
-        do {
-            if (peekNumeric()) {
-                result.append((char) read());
-            } else {
-                break;
-            }
-        } while (true);
-        return result.toString();
+        int n = 0;
+        while (fill(n + 1) && isNumeric(buffer[pos + n])) {
+            n++;
+        }
+        return read(n);
     }
 
     /**
@@ -452,14 +547,19 @@ public class PeekingReader extends FilterReader {
      * @return The string read.
      */
     public String readWhitespace() throws IOException {
-        StringBuilder result = new StringBuilder();
-        do {
-            if (peekWhitespace()) {
-                result.append((char) read());
-            } else {
-                break;
-            }
-        } while (true);
-        return result.toString();
+        int n = 0;
+        while (fill(n + 1) && isWhitespace(buffer[pos + n])) {
+            n++;
+        }
+        return read(n);
+    }
+
+    /**
+     * Reads the next n buffered characters.
+     */
+    private String read(int n) {
+        String result = new String(buffer, pos, n);
+        consume(n);
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -21,200 +21,271 @@ import org.flywaydb.core.api.configuration.Configuration;
 import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 public class PlaceholderReplacingReader extends FilterReader {
     private final String prefix;
     private final String suffix;
-    private final CaseInsensitiveMap placeholders = new CaseInsensitiveMap();
+    /**
+     * The placeholder values by lowercased name. Names are lowercased once here, so that each lookup only lowercases
+     * the name found in the input.
+     */
+    private final Map<String, String> placeholders;
+
+    /**
+     * Input read ahead from the underlying reader. Only {@code inBuffer[inPos, inLimit)} has not been processed yet.
+     */
+    private char[] inBuffer = new char[4096];
+    private int inPos;
+    private int inLimit;
+    private boolean inEof;
+
+    /**
+     * Characters to return before processing any further input.
+     */
+    private String pending;
+    private int pendingPos;
+
+    private final char[] singleChar = new char[1];
 
-    private final StringBuilder buffer = new StringBuilder();
-    private String markBuffer;
-
-    private String replacement;
-    private int replacementPos;
-
-    private String markReplacement;
-    private int markReplacementPos;
-
-    private static class CaseInsensitiveMap extends HashMap<String, String> {
-
-        @Override
-        public void putAll(Map<? extends String, ? extends String> m) {
-            for (Map.Entry<? extends String, ? extends String> e : m.entrySet()) {
-                put(e.getKey(), e.getValue());
-            }
-        }
-
-        @Override
-        public String put(String key, String value) {
-            return super.put(key.toLowerCase(), value);
-        }
-
-        @Override
-        public String get(Object key) {
-            return super.get(key.toString().toLowerCase());
-        }
-
-        @Override
-        public boolean containsKey(Object key) {
-            return super.containsKey(key.toString().toLowerCase());
-        }
+    public PlaceholderReplacingReader(String prefix, String suffix, Map<String, String> placeholders, Reader in) {
+        this(prefix, suffix, placeholders, Collections.emptyMap(), in);
     }
 
-    public PlaceholderReplacingReader(String prefix, String suffix, Map<String, String> placeholders, Reader in) {
+    /**
+     * @param overrides Placeholders taking precedence over the former ones.
+     */
+    private PlaceholderReplacingReader(String prefix, String suffix, Map<String, String> placeholders,
+                                       Map<String, String> overrides, Reader in) {
         super(in);
         this.prefix = prefix;
         this.suffix = suffix;
-        this.placeholders.putAll(placeholders);
+        this.placeholders = new HashMap<>(Math.max(16, (placeholders.size() + overrides.size()) * 4 / 3 + 1));
+        for (Map.Entry<String, String> e : placeholders.entrySet()) {
+            this.placeholders.put(e.getKey().toLowerCase(), e.getValue());
+        }
+        for (Map.Entry<String, String> e : overrides.entrySet()) {
+            this.placeholders.put(e.getKey().toLowerCase(), e.getValue());
+        }
     }
 
     public static PlaceholderReplacingReader create(Configuration configuration, ParsingContext parsingContext, Reader reader) {
-        Map<String, String> placeholders = new HashMap<>();
-        Map<String, String> configurationPlaceholders = configuration.getPlaceholders();
-        Map<String, String> parsingContextPlaceholders = parsingContext.getPlaceholders();
-
-        placeholders.putAll(configurationPlaceholders);
-        placeholders.putAll(parsingContextPlaceholders);
-
         return new PlaceholderReplacingReader(
                 configuration.getPlaceholderPrefix(),
                 configuration.getPlaceholderSuffix(),
-                placeholders,
+                configuration.getPlaceholders(),
+                parsingContext.getPlaceholders(),
                 reader);
     }
 
     public static PlaceholderReplacingReader createForScriptMigration(Configuration configuration, ParsingContext parsingContext, Reader reader) {
-        Map<String, String> placeholders = new HashMap<>();
-        Map<String, String> configurationPlaceholders = configuration.getPlaceholders();
-        Map<String, String> parsingContextPlaceholders = parsingContext.getPlaceholders();
-
-        placeholders.putAll(configurationPlaceholders);
-        placeholders.putAll(parsingContextPlaceholders);
-
         return new PlaceholderReplacingReader(
                 configuration.getScriptPlaceholderPrefix(),
                 configuration.getScriptPlaceholderSuffix(),
-                placeholders,
+                configuration.getPlaceholders(),
+                parsingContext.getPlaceholders(),
                 reader);
     }
 
     @Override
     public int read() throws IOException {
-        if (replacement == null) {
+        int r = read(singleChar, 0, 1);
+        return r == -1 ? -1 : singleChar[0];
+    }
 
-            // if we have a previous read, then consume it
-            if (buffer.length() > 0) {
-                char c = buffer.charAt(0);
-                buffer.deleteCharAt(0);
-                return c;
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int count = 0;
+        while (count < len) {
+            // first hand out what is pending, be it a placeholder value or input that turned out not to be a placeholder
+            if (pending != null) {
+                int n = Math.min(len - count, pending.length() - pendingPos);
+                pending.getChars(pendingPos, pendingPos + n, cbuf, off + count);
+                pendingPos += n;
+                count += n;
+                if (pendingPos >= pending.length()) {
+                    pending = null;
+                    pendingPos = 0;
+                }
+                continue;
             }
 
-            // else read ahead by the prefix length
-            int r;
-            do {
-                r = super.read();
-                if (r == -1) {
-                    break;
-                }
+            if (!fill(1)) {
+                break;
+            }
 
-                buffer.append((char) r);
-            } while (buffer.length() < prefix.length() && endsWith(buffer, prefix.substring(0, buffer.length())));
+            // copy everything up to the next possible start of a placeholder in one go
+            char first = prefix.charAt(0);
+            int end = Math.min(inLimit, inPos + len - count);
+            int i = inPos;
+            while (i < end && inBuffer[i] != first) {
+                i++;
+            }
+            if (i > inPos) {
+                System.arraycopy(inBuffer, inPos, cbuf, off + count, i - inPos);
+                count += i - inPos;
+                inPos = i;
+                continue;
+            }
 
-            // if the buffer does not contain the prefix
-            if (!endsWith(buffer, prefix)) {
-                // if it contain data, return the first character of it
-                if (buffer.length() > 0) {
-                    char c = buffer.charAt(0);
-                    buffer.deleteCharAt(0);
-                    return c;
-                }
-                // else return -1
-                return -1;
-            }
-            // if the buffer contained the prefix, wipe the buffer
-            buffer.delete(0, buffer.length());
-
-            // begin reading ahead until we get to the suffix
-            StringBuilder placeholderBuilder = new StringBuilder();
-            do {
-                int r1 = super.read();
-                if (r1 == -1) {
-                    break;
-                } else {
-                    placeholderBuilder.append((char) r1);
-                }
-            } while (!endsWith(placeholderBuilder, suffix));
+            // read ahead by the prefix length, stopping at the first character that does not match
+            fill(prefix.length());
+            int matched = 0;
+            while (matched < prefix.length() && inPos + matched < inLimit
+                    && inBuffer[inPos + matched] == prefix.charAt(matched)) {
+                matched++;
+            }
 
-            // delete the suffix from the builder
-            for (int i = 0; i < suffix.length(); i++) {
-                placeholderBuilder.deleteCharAt(placeholderBuilder.length() - 1);
+            // if the input does not contain the prefix, pass what was read ahead through unchanged
+            if (matched < prefix.length()) {
+                int n = Math.min(matched + 1, inLimit - inPos);
+                pending = new String(inBuffer, inPos, n);
+                inPos += n;
+                continue;
             }
+            inPos += prefix.length();
 
-            // look up the placeholder string
-            String placeholder = placeholderBuilder.toString();
-            if (!placeholders.containsKey(placeholder)) {
-                String canonicalPlaceholder = prefix + placeholder + suffix;
+            String value = lookup(readPlaceholder());
 
-                if (placeholder.contains("flyway:")) {
-                    throw new FlywayException("Failed to populate value for default placeholder: "
-                                                      + canonicalPlaceholder);
-                }
+            // Empty placeholder value -> move to the next character
+            if (value != null && value.length() > 0) {
+                pending = value;
+            }
+        }
+        return count == 0 && len > 0 ? -1 : count;
+    }
 
-                throw new FlywayException("No value provided for placeholder: "
-                                                  + canonicalPlaceholder
-                                                  + ".  Check your configuration!");
+    /**
+     * Reads ahead until the suffix, or the end of the input.
+     *
+     * @return The placeholder name, without the suffix.
+     */
+    private String readPlaceholder() throws IOException {
+        StringBuilder placeholderBuilder = new StringBuilder();
+        if (suffix.isEmpty()) {
+            if (fill(1)) {
+                placeholderBuilder.append(inBuffer[inPos++]);
             }
+            return placeholderBuilder.toString();
+        }
 
-            // set the current placeholder replacement
-            replacement = placeholders.get(placeholder);
+        // Most placeholders are entirely buffered already
+        int suffixPos = indexOfSuffix();
+        if (suffixPos >= 0) {
+            String placeholder = new String(inBuffer, inPos, suffixPos - inPos);
+            inPos = suffixPos + suffix.length();
+            return placeholder;
+        }
 
-            // Empty placeholder value -> move to the next character
-            if (replacement == null || replacement.length() == 0) {
-                replacement = null;
-                return read();
+        // The suffix can only have been reached right after its last character, so copy up to each occurrence of it
+        // in one go and only then check for the whole suffix
+        char last = suffix.charAt(suffix.length() - 1);
+        while (fill(1)) {
+            int i = inPos;
+            while (i < inLimit && inBuffer[i] != last) {
+                i++;
+            }
+            boolean found = i < inLimit;
+            int end = found ? i + 1 : inLimit;
+            placeholderBuilder.append(inBuffer, inPos, end - inPos);
+            inPos = end;
+            if (found && endsWith(placeholderBuilder, suffix)) {
+                break;
             }
         }
 
-        int result = replacement.charAt(replacementPos);
-        replacementPos++;
-        if (replacementPos >= replacement.length()) {
-            replacement = null;
-            replacementPos = 0;
+        // delete the suffix from the builder
+        for (int i = 0; i < suffix.length(); i++) {
+            placeholderBuilder.deleteCharAt(placeholderBuilder.length() - 1);
         }
-        return result;
+        return placeholderBuilder.toString();
     }
 
-    @Override
-    public int read(char[] cbuf, int off, int len) throws IOException {
-        int count = 0;
-        for (int i = 0; i < len; i++) {
-            int r = read();
-            if (r == -1) {
-                return count == 0 ? -1 : count;
+    /**
+     * @return The position of the first occurrence of the suffix in the buffered input, or {@code -1} if there is none.
+     */
+    private int indexOfSuffix() {
+        char first = suffix.charAt(0);
+        int max = inLimit - suffix.length();
+        for (int i = inPos; i <= max; i++) {
+            if (inBuffer[i] != first) {
+                continue;
+            }
+            int matched = 1;
+            while (matched < suffix.length() && inBuffer[i + matched] == suffix.charAt(matched)) {
+                matched++;
+            }
+            if (matched == suffix.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String lookup(String placeholder) {
+        String name = placeholder.toLowerCase();
+        String value = placeholders.get(name);
+        if (value == null && !placeholders.containsKey(name)) {
+            String canonicalPlaceholder = prefix + placeholder + suffix;
+
+            if (placeholder.contains("flyway:")) {
+                throw new FlywayException("Failed to populate value for default placeholder: "
+                                                  + canonicalPlaceholder);
+            }
+
+            throw new FlywayException("No value provided for placeholder: "
+                                              + canonicalPlaceholder
+                                              + ".  Check your configuration!");
+        }
+        return value;
+    }
+
+    /**
+     * Ensures at least this number of characters of input are buffered, unless the end of the input has been reached.
+     *
+     * @return {@code true} if they are, {@code false} if the input ends before.
+     */
+    private boolean fill(int numChars) throws IOException {
+        while (inLimit - inPos < numChars && !inEof) {
+            if (inLimit == inBuffer.length || inPos + numChars > inBuffer.length) {
+                System.arraycopy(inBuffer, inPos, inBuffer, 0, inLimit - inPos);
+                inLimit -= inPos;
+                inPos = 0;
+                if (numChars > inBuffer.length) {
+                    inBuffer = Arrays.copyOf(inBuffer, Math.max(numChars, inBuffer.length * 2));
+                }
+            }
+            int read = super.read(inBuffer, inLimit, inBuffer.length - inLimit);
+            if (read == -1) {
+                inEof = true;
+            } else {
+                inLimit += read;
             }
-            cbuf[off + i] = (char) r;
-            count++;
         }
-        return count;
+        return inLimit - inPos >= numChars;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return pending != null || inPos < inLimit || super.ready();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
     }
 
     @Override
     public void mark(int readAheadLimit) throws IOException {
-        markBuffer = buffer.toString();
-        markReplacement = replacement;
-        markReplacementPos = replacementPos;
-        super.mark(readAheadLimit);
+        throw new IOException("mark() not supported");
     }
 
     @Override
     public void reset() throws IOException {
-        super.reset();
-        buffer.delete(0, buffer.length());
-        buffer.append(markBuffer);
-        replacement = markReplacement;
-        replacementPos = markReplacementPos;
+        throw new IOException("reset() not supported");
     }
 
     private boolean endsWith(StringBuilder result, String str) {
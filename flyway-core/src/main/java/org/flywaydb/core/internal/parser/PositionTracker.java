@@ -55,6 +55,26 @@ public class PositionTracker {
         colIgnoringWhitespace = 1;
     }
 
+    /**
+     * Advances the position past these characters.
+     */
+    public void track(char[] chars, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            pos++;
+            char c = chars[i];
+            if (c == '\n') {
+                linefeed();
+            } else if (c == '\r') {
+                carriageReturn();
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    colIgnoringWhitespace++;
+                }
+                col++;
+            }
+        }
+    }
+
     public void mark() {
         markPos = pos;
         markLine = line;
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resolver;
+
+import lombok.CustomLog;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.resource.classpath.ClassPathResource;
+import org.flywaydb.core.internal.resource.filesystem.FileSystemResource;
+import org.flywaydb.core.internal.util.UrlUtils;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+/**
+ * Persistent cache of migration checksums, stored in a local properties file between runs.
+ * <p>Entries are keyed by the location of the resource and are only reused while its stamp (size and modification
+ * time, or the CRC of the jar entry), the configured encoding and the caller-supplied fingerprint still match.
+ * Resources without a stable identity (S3 objects, in-memory resources) are never cached.</p>
+ * <p>Lookups and updates are thread-safe.</p>
+ */
+@CustomLog
+public class ChecksumCache {
+    private static final ChecksumCache DISABLED = new ChecksumCache(null, Collections.emptyMap());
+    private static final String SEPARATOR = "|";
+
+    private final File file;
+    private final Map<String, String> previousEntries;
+    private final Map<String, String> currentEntries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private ChecksumCache(File file, Map<String, String> previousEntries) {
+        this.file = file;
+        this.previousEntries = previousEntries;
+    }
+
+    /**
+     * Loads the cache configured by {@link Configuration#getChecksumCacheFile()}. A missing or unreadable cache file
+     * simply results in an empty cache.
+     *
+     * @return The cache. Never {@code null}; a no-op cache when no cache file is configured.
+     */
+    public static ChecksumCache load(Configuration configuration) {
+        String checksumCacheFile = configuration.getChecksumCacheFile();
+        if (checksumCacheFile == null || checksumCacheFile.isEmpty()) {
+            return DISABLED;
+        }
+
+        File file = new File(checksumCacheFile);
+        Map<String, String> entries = new HashMap<>();
+        if (file.isFile()) {
+            Properties properties = new Properties();
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String key : properties.stringPropertyNames()) {
+                    entries.put(key, properties.getProperty(key));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOG.warn("Ignoring unreadable checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+                entries.clear();
+            }
+        }
+        return new ChecksumCache(file, entries);
+    }
+
+    /**
+     * Retrieves the cached checksum of this resource.
+     *
+     * @param resource The resource.
+     * @param variant Distinguishes several checksums of the same resource (e.g. with and without placeholders).
+     * @param fingerprints The fingerprints any of which the cached entry may have been stored with.
+     * @return The cached checksum, or {@code null} if there is no up-to-date entry.
+     */
+    public Integer get(LoadableResource resource, String variant, String... fingerprints) {
+        if (file == null) {
+            return null;
+        }
+        String[] identity = identify(resource);
+        if (identity == null) {
+            return null;
+        }
+
+        String key = identity[0] + SEPARATOR + variant;
+        String value = previousEntries.get(key);
+        if (value == null) {
+            return null;
+        }
+        for (String fingerprint : fingerprints) {
+            String prefix = identity[1] + SEPARATOR + fingerprint + SEPARATOR;
+            if (value.startsWith(prefix)) {
+                try {
+                    int checksum = Integer.parseInt(value.substring(prefix.length()));
+                    currentEntries.put(key, value);
+                    return checksum;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the checksum of this resource, if it can be identified.
+     *
+     * @param resource The resource.
+     * @param variant Distinguishes several checksums of the same resource (e.g. with and without placeholders).
+     * @param fingerprint The fingerprint of everything besides the resource itself that the checksum depends on.
+     * @param checksum The checksum.
+     */
+    public void put(LoadableResource resource, String variant, String fingerprint, int checksum) {
+        if (file == null) {
+            return;
+        }
+        String[] identity = identify(resource);
+        if (identity != null) {
+            currentEntries.put(identity[0] + SEPARATOR + variant, identity[1] + SEPARATOR + fingerprint + SEPARATOR + checksum);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the entries used or added during this run back to the cache file. Entries for resources which were not
+     * seen are dropped.
+     */
+    public void save() {
+        if (file == null || (!dirty && currentEntries.size() == previousEntries.size())) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        properties.putAll(currentEntries);
+        File parent = file.getAbsoluteFile().getParentFile();
+        try {
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                properties.store(writer, "Migration checksum cache");
+            }
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to write checksum cache " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The location and the stamp of this resource, or {@code null} if it has no stable identity.
+     */
+    private String[] identify(LoadableResource resource) {
+        try {
+            String location;
+            String stamp;
+            if (resource instanceof FileSystemResource) {
+                File resourceFile = new File(resource.getAbsolutePathOnDisk());
+                if (!resourceFile.isFile()) {
+                    return null;
+                }
+                location = resourceFile.getAbsolutePath();
+                stamp = resourceFile.length() + ":" + resourceFile.lastModified();
+            } else if (resource instanceof ClassPathResource) {
+                URL url = ((ClassPathResource) resource).getUrl();
+                if (url == null) {
+                    return null;
+                }
+                if ("file".equals(url.getProtocol())) {
+                    File resourceFile = new File(UrlUtils.decodeURL(url.getPath()));
+                    if (!resourceFile.isFile()) {
+                        return null;
+                    }
+                    location = resourceFile.getAbsolutePath();
+                    stamp = resourceFile.length() + ":" + resourceFile.lastModified();
+                } else if ("jar".equals(url.getProtocol())) {
+                    JarEntry jarEntry = ((JarURLConnection) url.openConnection()).getJarEntry();
+                    if (jarEntry == null || jarEntry.getCrc() == -1) {
+                        return null;
+                    }
+                    location = url.toExternalForm();
+                    stamp = jarEntry.getSize() + ":crc" + Long.toHexString(jarEntry.getCrc());
+                } else {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+            return new String[] {location, stamp};
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Not caching checksum of " + resource.getFilename() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
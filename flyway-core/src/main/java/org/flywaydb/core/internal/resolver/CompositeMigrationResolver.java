@@ -28,6 +28,7 @@ import org.flywaydb.core.internal.parser.ParsingContext;
 import org.flywaydb.core.internal.resolver.java.FixedJavaMigrationResolver;
 import org.flywaydb.core.internal.resolver.java.ScanningJavaMigrationResolver;
 import org.flywaydb.core.internal.resolver.sql.SqlMigrationResolver;
+import org.flywaydb.core.internal.resource.ResourceCatalog;
 import org.flywaydb.core.internal.sqlscript.SqlScriptExecutorFactory;
 import org.flywaydb.core.internal.sqlscript.SqlScriptFactory;
 
@@ -48,6 +49,7 @@ public class CompositeMigrationResolver implements MigrationResolver {
     private final ParsingContext parsingContext;
 
     public CompositeMigrationResolver(ResourceProvider resourceProvider,
+                                      ResourceCatalog resourceCatalog,
                                       ClassProvider<JavaMigration> classProvider,
                                       Configuration configuration,
                                       SqlScriptExecutorFactory sqlScriptExecutorFactory,
@@ -62,7 +64,7 @@ public class CompositeMigrationResolver implements MigrationResolver {
         this.parsingContext = parsingContext;
 
         if (!configuration.isSkipDefaultResolvers()) {
-            migrationResolvers.add(new SqlMigrationResolver(resourceProvider, sqlScriptExecutorFactory, sqlScriptFactory, configuration, parsingContext));
+            migrationResolvers.add(new SqlMigrationResolver(resourceProvider, resourceCatalog, sqlScriptExecutorFactory, sqlScriptFactory, configuration, parsingContext));
             migrationResolvers.add(new ScanningJavaMigrationResolver(classProvider, configuration));
 
             migrationResolvers.addAll(configuration.getPluginRegister().getPlugins(MigrationResolver.class));
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resolver;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.flywaydb.core.api.MigrationTypeUtil;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.util.FingerprintUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fingerprint of everything a migration run depends on besides the schema history: the resolved migrations with their
+ * checksums, and the configuration deciding which of them get applied. Two runs with the same fingerprint against the
+ * same schema history do the same thing.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class MigrationFingerprint {
+    /**
+     * @return The SHA-256 fingerprint of these resolved migrations under this configuration, as a hex string.
+     */
+    public static String calculate(Collection<ResolvedMigration> resolvedMigrations, Configuration configuration) {
+        List<String> lines = new ArrayList<>(resolvedMigrations.size());
+        for (ResolvedMigration resolvedMigration : resolvedMigrations) {
+            lines.add(MigrationTypeUtil.name(resolvedMigration.getType())
+                              + "|" + resolvedMigration.getVersion()
+                              + "|" + resolvedMigration.getDescription()
+                              + "|" + resolvedMigration.getScript()
+                              + "|" + resolvedMigration.getChecksum());
+        }
+        Collections.sort(lines);
+        lines.add("target=" + configuration.getTarget());
+        lines.add("outOfOrder=" + configuration.isOutOfOrder());
+        lines.add("cherryPick=" + Arrays.toString(configuration.getCherryPick()));
+        lines.add("ignoreMigrationPatterns=" + Arrays.toString(configuration.getIgnoreMigrationPatterns()));
+        lines.add("validateOnMigrate=" + configuration.isValidateOnMigrate());
+        lines.add("skipExecutingMigrations=" + configuration.isSkipExecutingMigrations());
+
+        return FingerprintUtils.sha256(String.join("\n", lines));
+    }
+}
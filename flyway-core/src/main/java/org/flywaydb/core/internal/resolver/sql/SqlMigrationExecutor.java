@@ -21,10 +21,12 @@ import org.flywaydb.core.api.executor.MigrationExecutor;
 import org.flywaydb.core.internal.database.DatabaseExecutionStrategy;
 import org.flywaydb.core.internal.database.DatabaseType;
 import org.flywaydb.core.internal.database.DatabaseTypeRegister;
+import org.flywaydb.core.internal.sqlscript.ScriptCheckpoint;
 import org.flywaydb.core.internal.sqlscript.SqlScript;
 import org.flywaydb.core.internal.sqlscript.SqlScriptExecutorFactory;
 
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Database migration based on a sql file.
@@ -68,6 +70,24 @@ public class SqlMigrationExecutor implements MigrationExecutor {
         sqlScriptExecutorFactory.createSqlScriptExecutor(context.getConnection(), undo, batch, outputQueryResults).execute(sqlScript);
     }
 
+    /**
+     * Executes this migration in chunks of {@link #getCommitEvery()} statements, resuming after the statements already
+     * committed according to this checkpoint.
+     *
+     * @param context The context containing the connection to use.
+     * @param checkpoint The checkpoint of this migration.
+     */
+    public void executeResumable(final Context context, ScriptCheckpoint checkpoint) throws SQLException {
+        DatabaseType databaseType = DatabaseTypeRegister.getDatabaseTypeForConnection(context.getConnection());
+
+        DatabaseExecutionStrategy strategy = databaseType.createExecutionStrategy(context.getConnection());
+        strategy.execute(() -> {
+            sqlScriptExecutorFactory.createSqlScriptExecutor(context.getConnection(), undo, false, false)
+                    .executeResumable(sqlScript, checkpoint);
+            return true;
+        });
+    }
+
     @Override
     public boolean canExecuteInTransaction() {
         return sqlScript.executeInTransaction();
@@ -77,4 +97,26 @@ public class SqlMigrationExecutor implements MigrationExecutor {
     public boolean shouldExecute() {
         return sqlScript.shouldExecute();
     }
+
+    /**
+     * @return The repeatable migrations this one must wait for when repeatable migrations are applied concurrently.
+     */
+    public List<String> dependsOn() {
+        return sqlScript.dependsOn();
+    }
+
+    /**
+     * @return Whether this migration is applied in the background once migrate has returned.
+     */
+    public boolean runInBackground() {
+        return sqlScript.runInBackground();
+    }
+
+    /**
+     * @return The number of statements committed at a time with a checkpoint, or {@code 0} if this migration is
+     * applied as a whole.
+     */
+    public int getCommitEvery() {
+        return sqlScript.commitEvery();
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package org.flywaydb.core.internal.resolver.sql;
 
 import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
 import org.flywaydb.core.api.CoreMigrationType;
 import org.flywaydb.core.api.ResourceProvider;
 import org.flywaydb.core.api.callback.Event;
@@ -25,18 +26,24 @@ import org.flywaydb.core.api.resolver.ResolvedMigration;
 import org.flywaydb.core.api.resource.LoadableResource;
 import org.flywaydb.core.internal.parser.ParsingContext;
 import org.flywaydb.core.internal.parser.PlaceholderReplacingReader;
+import org.flywaydb.core.internal.resolver.ChecksumCache;
 import org.flywaydb.core.internal.resolver.ChecksumCalculator;
 import org.flywaydb.core.internal.resolver.ResolvedMigrationComparator;
 import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
 import org.flywaydb.core.internal.resource.ResourceName;
-import org.flywaydb.core.internal.resource.ResourceNameParser;
+import org.flywaydb.core.internal.resource.ResourceCatalog;
+import org.flywaydb.core.internal.sqlscript.LazySqlScript;
 import org.flywaydb.core.internal.sqlscript.SqlScript;
 import org.flywaydb.core.internal.sqlscript.SqlScriptExecutorFactory;
 import org.flywaydb.core.internal.sqlscript.SqlScriptFactory;
+import org.flywaydb.core.internal.util.FingerprintUtils;
+import org.flywaydb.core.internal.util.ParallelUtils;
 
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Migration resolver for SQL files on the classpath. The SQL files must have names like
@@ -44,16 +51,27 @@ import java.util.List;
  */
 @CustomLog
 public class SqlMigrationResolver implements MigrationResolver {
+    private static final String RAW_CHECKSUM = "raw";
+    private static final String PLACEHOLDER_CHECKSUM = "placeholders";
+
     private final SqlScriptExecutorFactory sqlScriptExecutorFactory;
     private final ResourceProvider resourceProvider;
+    private final ResourceCatalog resourceCatalog;
     private final SqlScriptFactory sqlScriptFactory;
     private final Configuration configuration;
     private final ParsingContext parsingContext;
 
     public SqlMigrationResolver(ResourceProvider resourceProvider, SqlScriptExecutorFactory sqlScriptExecutorFactory,
                                 SqlScriptFactory sqlScriptFactory, Configuration configuration, ParsingContext parsingContext) {
+        this(resourceProvider, new ResourceCatalog(resourceProvider, configuration), sqlScriptExecutorFactory, sqlScriptFactory,
+             configuration, parsingContext);
+    }
+
+    public SqlMigrationResolver(ResourceProvider resourceProvider, ResourceCatalog resourceCatalog, SqlScriptExecutorFactory sqlScriptExecutorFactory,
+                                SqlScriptFactory sqlScriptFactory, Configuration configuration, ParsingContext parsingContext) {
         this.sqlScriptExecutorFactory = sqlScriptExecutorFactory;
         this.resourceProvider = resourceProvider;
+        this.resourceCatalog = resourceCatalog;
         this.sqlScriptFactory = sqlScriptFactory;
         this.configuration = configuration;
         this.parsingContext = parsingContext;
@@ -62,9 +80,9 @@ public class SqlMigrationResolver implements MigrationResolver {
     @Override
     public List<ResolvedMigration> resolveMigrations(Context context) {
         List<ResolvedMigration> migrations = new ArrayList<>();
-        String[] suffixes = configuration.getSqlMigrationSuffixes();
+        ChecksumCache checksumCache = ChecksumCache.load(configuration);
 
-        addMigrations(migrations, configuration.getSqlMigrationPrefix(), suffixes,
+        addMigrations(checksumCache, migrations, configuration.getSqlMigrationPrefix(),
                       false
 
 
@@ -73,18 +91,20 @@ public class SqlMigrationResolver implements MigrationResolver {
 
 
 
-        addMigrations(migrations, configuration.getRepeatableSqlMigrationPrefix(), suffixes,
+        addMigrations(checksumCache, migrations, configuration.getRepeatableSqlMigrationPrefix(),
                       true
 
 
 
                      );
-        addMigrations(migrations, configuration.getOSqlMigrationPrefix(), suffixes, false);
+        addMigrations(checksumCache, migrations, configuration.getOSqlMigrationPrefix(), false);
+        checksumCache.save();
         migrations.sort(new ResolvedMigrationComparator());
         return migrations;
     }
 
-    private LoadableResource[] createPlaceholderReplacingLoadableResources(List<LoadableResource> loadableResources) {
+    private LoadableResource[] createPlaceholderReplacingLoadableResources(List<LoadableResource> loadableResources,
+                                                                           ParsingContext parsingContext) {
         List<LoadableResource> list = new ArrayList<>();
 
         for (final LoadableResource loadableResource : loadableResources) {
@@ -113,40 +133,71 @@ public class SqlMigrationResolver implements MigrationResolver {
         return list.toArray(new LoadableResource[0]);
     }
 
-    private Integer getChecksumForLoadableResource(boolean repeatable, List<LoadableResource> loadableResources, ResourceName resourceName) {
+    private Integer getChecksumForLoadableResource(ChecksumCache checksumCache, boolean repeatable, List<LoadableResource> loadableResources,
+                                                   ResourceName resourceName, Integer rawChecksum) {
         if (repeatable && configuration.isPlaceholderReplacement()) {
-            parsingContext.updateFilenamePlaceholder(resourceName, configuration);
-            return ChecksumCalculator.calculate(createPlaceholderReplacingLoadableResources(loadableResources));
+            ParsingContext parsingContext = this.parsingContext.forResource(resourceName, configuration);
+
+            // A script without placeholders has the same checksum whatever their values, so it is cached against the
+            // placeholder syntax only, instead of against values such as flyway:timestamp which change on every run.
+            String syntaxFingerprint = getEncodingFingerprint() + "," + configuration.getPlaceholderPrefix() + "," + configuration.getPlaceholderSuffix();
+            String valuesFingerprint = syntaxFingerprint + "," + getPlaceholderValuesFingerprint(parsingContext);
+            Integer checksum = checksumCache.get(loadableResources.get(0), PLACEHOLDER_CHECKSUM, syntaxFingerprint, valuesFingerprint);
+            if (checksum == null) {
+                checksum = ChecksumCalculator.calculate(createPlaceholderReplacingLoadableResources(loadableResources, parsingContext));
+                checksumCache.put(loadableResources.get(0), PLACEHOLDER_CHECKSUM,
+                                  checksum.equals(rawChecksum) ? syntaxFingerprint : valuesFingerprint, checksum);
+            }
+            return checksum;
         }
 
-        return ChecksumCalculator.calculate(loadableResources.toArray(new LoadableResource[0]));
+        return rawChecksum != null ? rawChecksum : getRawChecksum(checksumCache, loadableResources);
     }
 
-    private Integer getEquivalentChecksumForLoadableResource(boolean repeatable, List<LoadableResource> loadableResources) {
+    private Integer getEquivalentChecksumForLoadableResource(ChecksumCache checksumCache, boolean repeatable, List<LoadableResource> loadableResources) {
         if (repeatable) {
-            return ChecksumCalculator.calculate(loadableResources.toArray(new LoadableResource[0]));
+            return getRawChecksum(checksumCache, loadableResources);
         }
 
         return null;
     }
 
-    protected void addMigrations(List<ResolvedMigration> migrations, String prefix, String[] suffixes,
+    private Integer getRawChecksum(ChecksumCache checksumCache, List<LoadableResource> loadableResources) {
+        String fingerprint = getEncodingFingerprint();
+        Integer checksum = checksumCache.get(loadableResources.get(0), RAW_CHECKSUM, fingerprint);
+        if (checksum == null) {
+            checksum = ChecksumCalculator.calculate(loadableResources.toArray(new LoadableResource[0]));
+            checksumCache.put(loadableResources.get(0), RAW_CHECKSUM, fingerprint, checksum);
+        }
+        return checksum;
+    }
+
+    private String getEncodingFingerprint() {
+        return configuration.getEncoding().name() + "," + configuration.isDetectEncoding();
+    }
+
+    private String getPlaceholderValuesFingerprint(ParsingContext parsingContext) {
+        Map<String, String> placeholders = new TreeMap<>(configuration.getPlaceholders());
+        placeholders.putAll(parsingContext.getPlaceholders());
+        return FingerprintUtils.sha256(placeholders.toString());
+    }
+
+    protected void addMigrations(ChecksumCache checksumCache, List<ResolvedMigration> migrations, String prefix,
                                boolean repeatable
 
 
 
                               ) {
-        ResourceNameParser resourceNameParser = new ResourceNameParser(configuration);
-
-        for (LoadableResource resource : resourceProvider.getResources(prefix, suffixes)) {
-            String filename = resource.getFilename();
-            ResourceName resourceName = resourceNameParser.parse(filename);
-            if (!resourceName.isValid() || isSqlCallback(resourceName) || !prefix.equals(resourceName.getPrefix())) {
-                continue;
+        // The names were parsed once for the whole catalog. Checksums are I/O bound and independent of each other, so
+        // they may be fanned out; the scripts themselves are then created in resource order, exactly as a sequential
+        // resolution would.
+        List<SqlResource> sqlResources = ParallelUtils.map(resourceCatalog.getResources(prefix), configuration.getResolverThreads(), entry -> {
+            LoadableResource resource = entry.getLeft();
+            ResourceName resourceName = entry.getRight();
+            if (isSqlCallback(resourceName)) {
+                return null;
             }
 
-            SqlScript sqlScript = sqlScriptFactory.createSqlScript(resource, configuration.isMixed(), resourceProvider);
-
             List<LoadableResource> resources = new ArrayList<>();
             resources.add(resource);
 
@@ -161,26 +212,43 @@ public class SqlMigrationResolver implements MigrationResolver {
 
 
 
-            Integer checksum = getChecksumForLoadableResource(repeatable, resources, resourceName);
-            Integer equivalentChecksum = getEquivalentChecksumForLoadableResource(repeatable, resources);
+            Integer equivalentChecksum = getEquivalentChecksumForLoadableResource(checksumCache, repeatable, resources);
+            Integer checksum = getChecksumForLoadableResource(checksumCache, repeatable, resources, resourceName, equivalentChecksum);
+            return new SqlResource(resource, resourceName, checksum, equivalentChecksum, resource.getAbsolutePathOnDisk());
+        });
+
+        for (SqlResource sqlResource : sqlResources) {
+            if (sqlResource == null) {
+                continue;
+            }
+            LoadableResource resource = sqlResource.resource;
+            ResourceName resourceName = sqlResource.resourceName;
+
+            // Most scripts are typically applied already, so their parser and script configuration are only
+            // created once they are to be validated or executed
+            SqlScript sqlScript = new LazySqlScript(resource,
+                                                    () -> sqlScriptFactory.createSqlScript(resource, configuration.isMixed(), resourceProvider));
+            if (repeatable && configuration.isPlaceholderReplacement()) {
+                parsingContext.updateFilenamePlaceholder(resourceName, configuration);
+            }
 
             migrations.add(new ResolvedMigrationImpl(
                     resourceName.getVersion(),
                     resourceName.getDescription(),
                     resource.getRelativePath(),
-                    checksum,
-                    equivalentChecksum,
+                    sqlResource.checksum,
+                    sqlResource.equivalentChecksum,
 
 
 
                             CoreMigrationType.SQL,
-                    resource.getAbsolutePathOnDisk(),
+                    sqlResource.physicalLocation,
                     new SqlMigrationExecutor(sqlScriptExecutorFactory, sqlScript
 
 
 
 
-                                              , false, false
+                                              , false, configuration.isBatch()
 
                     )) {
                 @Override
@@ -197,4 +265,13 @@ public class SqlMigrationResolver implements MigrationResolver {
     protected static boolean isSqlCallback(ResourceName result) {
         return Event.fromId(result.getPrefix()) != null;
     }
+
+    @RequiredArgsConstructor
+    private static class SqlResource {
+        private final LoadableResource resource;
+        private final ResourceName resourceName;
+        private final Integer checksum;
+        private final Integer equivalentChecksum;
+        private final String physicalLocation;
+    }
 }
\ No newline at end of file
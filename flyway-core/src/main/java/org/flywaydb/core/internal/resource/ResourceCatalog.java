@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resource;
+
+import lombok.CustomLog;
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.util.Pair;
+
+import java.util.*;
+
+/**
+ * The SQL resources of a resource provider, each with its parsed name. The resources are listed and their names
+ * parsed only once, after which validation, migration resolution and callbacks all work off this catalog.
+ */
+@CustomLog
+public class ResourceCatalog {
+    private final List<Pair<LoadableResource, ResourceName>> resources = new ArrayList<>();
+    private final Map<String, List<Pair<LoadableResource, ResourceName>>> resourcesByPrefix = new HashMap<>();
+
+    /**
+     * @param resourceProvider The resource provider to list the SQL resources of.
+     * @param configuration The configuration holding the migration naming conventions.
+     */
+    public ResourceCatalog(ResourceProvider resourceProvider, Configuration configuration) {
+        ResourceNameParser resourceNameParser = new ResourceNameParser(configuration);
+        for (LoadableResource resource : resourceProvider.getResources("", configuration.getSqlMigrationSuffixes())) {
+            ResourceName resourceName = resourceNameParser.parse(resource.getFilename());
+            Pair<LoadableResource, ResourceName> entry = Pair.of(resource, resourceName);
+            resources.add(entry);
+            if (resourceName.isValid()) {
+                resourcesByPrefix.computeIfAbsent(resourceName.getPrefix(), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        LOG.debug("Cataloged " + resources.size() + " SQL resources");
+    }
+
+    /**
+     * @return All SQL resources with their parsed names, in the order of the resource provider.
+     */
+    public List<Pair<LoadableResource, ResourceName>> getResources() {
+        return Collections.unmodifiableList(resources);
+    }
+
+    /**
+     * @param prefix The prefix.
+     * @return The SQL resources with a valid name using exactly this prefix, in the order of the resource provider.
+     */
+    public List<Pair<LoadableResource, ResourceName>> getResources(String prefix) {
+        return Collections.unmodifiableList(resourcesByPrefix.getOrDefault(prefix, Collections.emptyList()));
+    }
+}
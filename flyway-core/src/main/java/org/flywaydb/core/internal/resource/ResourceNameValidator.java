@@ -17,38 +17,35 @@ package org.flywaydb.core.internal.resource;
 
 import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
-import org.flywaydb.core.api.ResourceProvider;
 import org.flywaydb.core.api.configuration.Configuration;
 import org.flywaydb.core.api.resource.LoadableResource;
-import org.flywaydb.core.api.resource.Resource;
+import org.flywaydb.core.internal.util.Pair;
 import org.flywaydb.core.internal.util.StringUtils;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 @CustomLog
 public class ResourceNameValidator {
     /**
-     * Validates the names of all SQL resources returned by the ResourceProvider
+     * Validates the names of all SQL resources of the ResourceCatalog
      *
-     * @param provider The ResourceProvider to validate
+     * @param resourceCatalog The ResourceCatalog to validate
      * @param configuration The configuration to use
      */
-    public void validateSQLMigrationNaming(ResourceProvider provider, Configuration configuration) {
+    public void validateSQLMigrationNaming(ResourceCatalog resourceCatalog, Configuration configuration) {
 
         List<String> errorsFound = new ArrayList<>();
-        ResourceNameParser resourceNameParser = new ResourceNameParser(configuration);
 
-        for (Resource resource : getAllSqlResources(provider, configuration)) {
-            String filename = resource.getFilename();
+        for (Pair<LoadableResource, ResourceName> entry : resourceCatalog.getResources()) {
+            String filename = entry.getLeft().getFilename();
             LOG.debug("Validating " + filename);
             // Filter out special purpose files that the parser will not identify.
             if (isSpecialResourceFile(configuration, filename)) {
                 continue;
             }
 
-            ResourceName result = resourceNameParser.parse(filename);
+            ResourceName result = entry.getRight();
             if (!result.isValid()) {
                 errorsFound.add(result.getValidityMessage());
             }
@@ -64,10 +61,6 @@ public class ResourceNameValidator {
         }
     }
 
-    private Collection<LoadableResource> getAllSqlResources(ResourceProvider provider, Configuration configuration) {
-        return provider.getResources("", configuration.getSqlMigrationSuffixes());
-    }
-
     private boolean isSpecialResourceFile(Configuration configuration, String filename) {
 
 
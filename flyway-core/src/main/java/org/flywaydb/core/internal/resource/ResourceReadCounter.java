@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resource;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the raw bytes read from loadable resources, so that the I/O spent on reading, checksumming and parsing
+ * migrations can be reported for each run.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResourceReadCounter {
+    private static final AtomicLong BYTES_READ = new AtomicLong();
+
+    /**
+     * @return The total number of resource bytes read by this JVM so far.
+     */
+    public static long getBytesRead() {
+        return BYTES_READ.get();
+    }
+
+    /**
+     * @return The stream, counting every byte read from it.
+     */
+    public static InputStream count(InputStream inputStream) {
+        return new FilterInputStream(inputStream) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b != -1) {
+                    BYTES_READ.incrementAndGet();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    BYTES_READ.addAndGet(n);
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * @return The channel, counting every byte read from it.
+     */
+    public static ReadableByteChannel count(ReadableByteChannel channel) {
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                int n = channel.read(dst);
+                if (n > 0) {
+                    BYTES_READ.addAndGet(n);
+                }
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
@@ -19,6 +19,7 @@ import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.Location;
 import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.resource.ResourceReadCounter;
 import org.flywaydb.core.internal.util.FlywayDbWebsiteLinks;
 import org.flywaydb.core.internal.util.UrlUtils;
 
@@ -82,7 +83,7 @@ public class ClassPathResource extends LoadableResource {
         return new File(UrlUtils.decodeURL(url.getPath())).getAbsolutePath();
     }
 
-    private URL getUrl() {
+    public URL getUrl() {
         try {
             Enumeration<URL> urls = classLoader.getResources(fileNameWithAbsolutePath);
             while (urls.hasMoreElements()) {
@@ -130,7 +131,7 @@ public class ClassPathResource extends LoadableResource {
 
 
 
-        return new InputStreamReader(inputStream, charset.newDecoder());
+        return new InputStreamReader(ResourceReadCounter.count(inputStream), charset.newDecoder());
     }
 
     @Override
@@ -19,7 +19,7 @@ import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.Location;
 import org.flywaydb.core.api.resource.LoadableResource;
-
+import org.flywaydb.core.internal.resource.ResourceReadCounter;
 
 import org.flywaydb.core.internal.util.BomStrippingReader;
 import org.flywaydb.core.internal.util.FlywayDbWebsiteLinks;
@@ -85,14 +85,14 @@ public class FileSystemResource extends LoadableResource {
 
 
         try {
-            return Channels.newReader(FileChannel.open(file.toPath(), StandardOpenOption.READ), charSet.newDecoder(), 4096);
+            return Channels.newReader(ResourceReadCounter.count(FileChannel.open(file.toPath(), StandardOpenOption.READ)), charSet.newDecoder(), 4096);
         } catch (IOException e) {
             LOG.debug("Unable to load filesystem resource" + file.getPath() + " using FileChannel.open." +
                               " Falling back to FileInputStream implementation. Exception message: " + e.getMessage());
         }
 
         try {
-            return new BufferedReader(new BomStrippingReader(new InputStreamReader(new FileInputStream(file), charSet)));
+            return new BufferedReader(new BomStrippingReader(new InputStreamReader(ResourceReadCounter.count(new FileInputStream(file)), charSet)));
         } catch (IOException e) {
             throw new FlywayException("Unable to load filesystem resource: " + file.getPath() + " (encoding: " + charSet + ")", e);
         }
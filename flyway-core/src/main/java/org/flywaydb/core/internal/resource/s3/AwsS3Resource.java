@@ -20,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.configuration.S3ClientFactory;
 import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.resource.ResourceReadCounter;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -44,7 +45,7 @@ public class AwsS3Resource extends LoadableResource {
             GetObjectRequest.Builder builder = GetObjectRequest.builder().bucket(bucketName).key(s3ObjectSummary.key());
             GetObjectRequest request = builder.build();
             ResponseInputStream o = s3.getObject(request);
-            return Channels.newReader(Channels.newChannel(o), encoding.name());
+            return Channels.newReader(ResourceReadCounter.count(Channels.newChannel(o)), encoding.name());
         } catch (AwsServiceException e) {
             LOG.error(e.getMessage(), e);
             throw new FlywayException("Failed to get object from s3: " + e.getMessage(), e);
@@ -26,6 +26,7 @@ import org.flywaydb.core.internal.scanner.classpath.ResourceAndClassScanner;
 import org.flywaydb.core.internal.scanner.cloud.s3.AwsS3Scanner;
 import org.flywaydb.core.internal.scanner.filesystem.FileSystemScanner;
 import org.flywaydb.core.internal.util.FeatureDetector;
+import org.flywaydb.core.internal.util.ParallelUtils;
 import org.flywaydb.core.internal.util.StringUtils;
 
 
@@ -35,6 +36,7 @@ import org.flywaydb.core.internal.util.StringUtils;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Scanner for Resources and Classes.
@@ -62,7 +64,30 @@ public class Scanner<I> implements ResourceProvider, ClassProvider<I> {
             ResourceNameCache resourceNameCache,
             LocationScannerCache locationScannerCache,
             boolean throwOnMissingLocations) {
+        this(implementedInterface, locations, classLoader, encoding, detectEncoding, stream, resourceNameCache, locationScannerCache,
+             throwOnMissingLocations, 1);
+    }
+
+    /*
+     * Constructor. Scans the given locations for resources, and classes implementing the specified interface. Up to
+     * this many filesystem locations are scanned concurrently, as they are independent of each other.
+     */
+    public Scanner(
+            Class<I> implementedInterface,
+            Collection<Location> locations,
+            ClassLoader classLoader,
+            Charset encoding,
+            boolean detectEncoding,
+            boolean stream,
+            ResourceNameCache resourceNameCache,
+            LocationScannerCache locationScannerCache,
+            boolean throwOnMissingLocations,
+            int threads) {
         FileSystemScanner fileSystemScanner = new FileSystemScanner(encoding, stream, detectEncoding, throwOnMissingLocations);
+        // Classpath locations share the scanner caches, so only filesystem locations are scanned concurrently
+        List<Location> fileSystemLocations = locations.stream().filter(Location::isFileSystem).collect(Collectors.toList());
+        Iterator<Collection<LoadableResource>> fileSystemResources =
+                ParallelUtils.map(fileSystemLocations, threads, fileSystemScanner::scanForResources).iterator();
 
         FeatureDetector detector = new FeatureDetector(classLoader);
         boolean aws = detector.isAwsAvailable();
@@ -71,7 +96,7 @@ public class Scanner<I> implements ResourceProvider, ClassProvider<I> {
 
         for (Location location : locations) {
             if (location.isFileSystem()) {
-                resources.addAll(fileSystemScanner.scanForResources(location));
+                resources.addAll(fileSystemResources.next());
             } else if (location.isGCS()) {
 
                  throw new FlywayTeamsUpgradeRequiredException("Google Cloud Storage");
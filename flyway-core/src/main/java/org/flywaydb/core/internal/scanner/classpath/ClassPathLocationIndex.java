@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.scanner.classpath;
+
+import lombok.AccessLevel;
+import lombok.CustomLog;
+import lombok.NoArgsConstructor;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.flywaydb.core.internal.util.ClassUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Build-time index of the resources and Java migration classes under the classpath locations of an artifact. When a
+ * jar contains indexes covering all of its entries under a location, only the classes they list as Java migrations are
+ * loaded, instead of every class under the location.
+ *
+ * Each artifact writes its index to a path of its own, so that the indexes of all artifacts merged into a shaded jar
+ * are kept. A jar with entries under the location that no index lists, such as those of an unindexed artifact merged
+ * into it, is scanned as if it had no index.
+ *
+ * The index is a UTF-8 text file listing the indexed locations, one {@code location:} line each, followed by the
+ * indexed resource names relative to the root of the classpath, with a {@code skip:} prefix for the classes which are
+ * not Java migrations.
+ */
+@CustomLog
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClassPathLocationIndex {
+    /**
+     * The directory of the indexes within the jar, holding one index per artifact.
+     */
+    public static final String INDEX_DIRECTORY = "META-INF/flyway/index/";
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final String LOCATION_PREFIX = "location:";
+    private static final String SKIP_PREFIX = "skip:";
+    private static final String DEFAULT_LOCATION = "db/migration";
+
+    /**
+     * Writes the index of the classpath locations of this configuration.
+     *
+     * @param configuration The configuration holding the locations and the class loader of the project classes.
+     * @param classpathDirectories The output directories of the project, containing its classes and resources.
+     * @param outputDirectory The output directory to write the index to, packaged into the jar.
+     * @param artifactName The name of the artifact being indexed, unique among the artifacts merged into a jar.
+     * @return The number of indexed entries.
+     */
+    public static int write(Configuration configuration, Collection<File> classpathDirectories, File outputDirectory, String artifactName) {
+        Set<String> locations = new TreeSet<>();
+        for (Location location : configuration.getLocations()) {
+            if (location.isClassPath()) {
+                locations.add(location.getRootPath());
+            }
+        }
+        if (locations.isEmpty()) {
+            locations.add(DEFAULT_LOCATION);
+        }
+
+        Set<String> resourceNames = new TreeSet<>();
+        for (File classpathDirectory : classpathDirectories) {
+            for (String location : locations) {
+                resourceNames.addAll(findResourceNames(configuration.getClassLoader(), classpathDirectory.toPath(), location));
+            }
+        }
+
+        File indexFile = new File(outputDirectory, INDEX_DIRECTORY + artifactName + INDEX_EXTENSION);
+        indexFile.getParentFile().mkdirs();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile), StandardCharsets.UTF_8))) {
+            for (String location : locations) {
+                writer.write(LOCATION_PREFIX + location + "\n");
+            }
+            for (String resourceName : resourceNames) {
+                writer.write(resourceName + "\n");
+            }
+        } catch (IOException e) {
+            throw new FlywayException("Unable to write location index " + indexFile.getAbsolutePath(), e);
+        }
+
+        LOG.info("Indexed " + resourceNames.size() + " entries of " + locations + " into " + indexFile.getAbsolutePath());
+        return resourceNames.size();
+    }
+
+    private static List<String> findResourceNames(ClassLoader classLoader, Path classpathDirectory, String location) {
+        Path locationDirectory = classpathDirectory.resolve(location);
+        if (!Files.isDirectory(locationDirectory)) {
+            return Collections.emptyList();
+        }
+
+        List<String> resourceNames = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(locationDirectory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String resourceName = classpathDirectory.relativize(file).toString().replace(File.separatorChar, '/');
+                if (!resourceName.endsWith(".class") || isJavaMigration(classLoader, resourceName)) {
+                    resourceNames.add(resourceName);
+                } else {
+                    resourceNames.add(SKIP_PREFIX + resourceName);
+                }
+            });
+        } catch (IOException e) {
+            throw new FlywayException("Unable to index location " + locationDirectory, e);
+        }
+        return resourceNames;
+    }
+
+    private static boolean isJavaMigration(ClassLoader classLoader, String resourceName) {
+        String className = resourceName.substring(0, resourceName.length() - ".class".length()).replace('/', '.');
+        try {
+            return ClassUtils.loadClass(JavaMigration.class, className, classLoader) != null;
+        } catch (Throwable e) {
+            LOG.debug("Not indexing " + className + ": " + ClassUtils.formatThrowable(e));
+            return false;
+        }
+    }
+
+    /**
+     * @return Whether this jar entry is the index of an artifact.
+     */
+    static boolean isIndex(String prefix, String entryName) {
+        return entryName.startsWith(prefix + INDEX_DIRECTORY) && entryName.endsWith(INDEX_EXTENSION);
+    }
+
+    /**
+     * Leaves out of these resource names the classes which are not Java migrations, according to the indexes of this
+     * jar.
+     *
+     * @param jarFile The jar file.
+     * @param indexEntries The names of the index entries of the jar.
+     * @param location The location the resource names are under.
+     * @param resourceNames All resource names under this location within the jar.
+     * @return The resource names to load, or all of them if no index covers this location or some of them are not
+     * listed in any index.
+     */
+    static Set<String> filter(JarFile jarFile, List<String> indexEntries, String location, Set<String> resourceNames) {
+        if (indexEntries.isEmpty()) {
+            return resourceNames;
+        }
+
+        String toScan = location + (location.endsWith("/") ? "" : "/");
+        boolean covered = false;
+        Set<String> listed = new HashSet<>();
+        Set<String> skipped = new HashSet<>();
+        for (String indexEntry : indexEntries) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(jarFile.getInputStream(jarFile.getJarEntry(indexEntry)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(LOCATION_PREFIX)) {
+                        String indexedLocation = line.substring(LOCATION_PREFIX.length());
+                        covered |= toScan.startsWith(indexedLocation + (indexedLocation.endsWith("/") ? "" : "/"));
+                    } else if (line.startsWith(SKIP_PREFIX)) {
+                        skipped.add(line.substring(SKIP_PREFIX.length()));
+                    } else {
+                        listed.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn("Unable to read location index " + indexEntry + " of " + jarFile.getName() + ": " + e.getMessage());
+                return resourceNames;
+            }
+        }
+
+        if (!covered) {
+            LOG.debug("Location indexes of " + jarFile.getName() + " do not cover " + location + ", scanning the jar instead");
+            return resourceNames;
+        }
+        for (String resourceName : resourceNames) {
+            if (!resourceName.endsWith("/") && !listed.contains(resourceName) && !skipped.contains(resourceName)) {
+                LOG.debug("Location indexes of " + jarFile.getName() + " do not list " + resourceName + ", scanning the jar instead");
+                return resourceNames;
+            }
+        }
+
+        Set<String> indexedResourceNames = new TreeSet<>(resourceNames);
+        indexedResourceNames.removeAll(skipped);
+        LOG.debug("Skipped " + (resourceNames.size() - indexedResourceNames.size()) + " classes of " + location
+                          + " which the location indexes of " + jarFile.getName() + " list as no Java migrations");
+        return indexedResourceNames;
+    }
+}
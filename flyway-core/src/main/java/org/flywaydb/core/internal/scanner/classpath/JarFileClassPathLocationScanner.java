@@ -105,7 +105,8 @@ public class JarFileClassPathLocationScanner implements ClassPathLocationScanner
     }
 
     /**
-     * Finds all the resource names contained in this directory within this jar file.
+     * Finds all the resource names contained in this directory within this jar file, leaving out the classes its
+     * location indexes list as no Java migrations.
      *
      * @param jarFile The jar file.
      * @param prefix The prefix to ignore within the jar file.
@@ -115,15 +116,18 @@ public class JarFileClassPathLocationScanner implements ClassPathLocationScanner
     private Set<String> findResourceNamesFromJarFile(JarFile jarFile, String prefix, String location) {
         String toScan = prefix + location + (location.endsWith("/") ? "" : "/");
         Set<String> resourceNames = new TreeSet<>();
+        List<String> indexEntries = new ArrayList<>();
 
         Enumeration<JarEntry> entries = jarFile.entries();
         while (entries.hasMoreElements()) {
             String entryName = entries.nextElement().getName();
             if (entryName.startsWith(toScan)) {
                 resourceNames.add(entryName.substring(prefix.length()));
+            } else if (ClassPathLocationIndex.isIndex(prefix, entryName)) {
+                indexEntries.add(entryName);
             }
         }
 
-        return resourceNames;
+        return ClassPathLocationIndex.filter(jarFile, indexEntries, location, resourceNames);
     }
 }
\ No newline at end of file
@@ -23,11 +23,11 @@ import org.flywaydb.core.internal.resource.filesystem.FileSystemResource;
 import org.flywaydb.core.internal.sqlscript.SqlScriptMetadata;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Set;
-import java.util.TreeSet;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
 
 @CustomLog
 public class FileSystemScanner {
@@ -84,12 +84,18 @@ public class FileSystemScanner {
 
         Set<LoadableResource> resources = new TreeSet<>();
 
-        for (String resourceName : findResourceNamesFromFileSystem(path, new File(path))) {
+        // The listing itself tells which resources have a .conf sibling, instead of probing the filesystem for each
+        Set<String> resourceNames = findResourceNamesFromFileSystem(path, dir.toPath());
+        for (String resourceName : resourceNames) {
             boolean detectEncodingForThisResource = detectEncoding;
             if (location.matchesPath(resourceName)) {
+                if (!Files.isReadable(Paths.get(resourceName))) {
+                    LOG.debug("Skipping unreadable file: " + resourceName);
+                    continue;
+                }
                 Charset encoding = defaultEncoding;
                 String encodingBlurb = "";
-                if (new File(resourceName + ".conf").exists()) {
+                if (resourceNames.contains(resourceName + ".conf")) {
                     LoadableResource metadataResource = new FileSystemResource(location, resourceName + ".conf", defaultEncoding, false);
                     SqlScriptMetadata metadata = SqlScriptMetadata.fromResource(metadataResource, null);
                     if (metadata.encoding() != null) {
@@ -108,33 +114,43 @@ public class FileSystemScanner {
     }
 
     /**
-     * Finds all the resource names contained in this file system folder.
+     * Finds all the resource names contained in this file system folder. The whole tree is walked with a single
+     * attribute read per entry, which matters on network-mounted filesystems where each of these is a round trip.
      *
      * @param scanRootLocation The root location of the scan on disk.
      * @param folder The folder to look for resources under on disk.
      * @return The resource names;
      */
-    private Set<String> findResourceNamesFromFileSystem(String scanRootLocation, File folder) {
-        LOG.debug("Scanning for resources in path: " + folder.getPath() + " (" + scanRootLocation + ")");
-
-        Set<String> resourceNames = new TreeSet<>();
-
-        File[] files = folder.listFiles();
-        for (File file : files) {
-            if (file.canRead()) {
-                if (file.isDirectory()) {
-                    if (file.isHidden()) {
+    private Set<String> findResourceNamesFromFileSystem(String scanRootLocation, Path folder) {
+        Set<String> resourceNames = new HashSet<>();
+        try {
+            Files.walkFileTree(folder, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (!dir.equals(folder) && Files.isHidden(dir)) {
                         // #1807: Skip hidden directories to avoid issues with Kubernetes
-                        LOG.debug("Skipping hidden directory: " + file.getAbsolutePath());
-                    } else {
-                        resourceNames.addAll(findResourceNamesFromFileSystem(scanRootLocation, file));
+                        LOG.debug("Skipping hidden directory: " + dir.toAbsolutePath());
+                        return FileVisitResult.SKIP_SUBTREE;
                     }
-                } else {
-                    resourceNames.add(file.getPath());
+                    LOG.debug("Scanning for resources in path: " + dir + " (" + scanRootLocation + ")");
+                    return FileVisitResult.CONTINUE;
                 }
-            }
-        }
 
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    resourceNames.add(file.toString());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    LOG.debug("Skipping unreadable path: " + file + " (" + e + ")");
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new FlywayException("Unable to scan filesystem location: " + scanRootLocation, e);
+        }
         return resourceNames;
     }
-}
\ No newline at end of file
+}
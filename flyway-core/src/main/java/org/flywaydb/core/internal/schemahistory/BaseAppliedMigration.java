@@ -207,7 +207,7 @@ public class BaseAppliedMigration implements AppliedMigration {
 
 
 
-            if (CoreMigrationType.SCHEMA == getType()) {
+            if (CoreMigrationType.SCHEMA == getType() || CoreMigrationType.ARCHIVE == getType()) {
                 return MigrationState.SUCCESS;
             }
 
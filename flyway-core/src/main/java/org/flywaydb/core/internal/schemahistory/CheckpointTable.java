@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.schemahistory;
+
+import lombok.CustomLog;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.internal.database.base.Connection;
+import org.flywaydb.core.internal.database.base.Database;
+import org.flywaydb.core.internal.database.base.Schema;
+import org.flywaydb.core.internal.database.base.Table;
+import org.flywaydb.core.internal.exception.FlywaySqlException;
+import org.flywaydb.core.internal.jdbc.JdbcTemplate;
+import org.flywaydb.core.internal.sqlscript.ScriptCheckpoint;
+import org.flywaydb.core.internal.util.AbbreviationUtils;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Side table next to the schema history table recording how many statements of each migration executed resumably
+ * have been committed, along with the checksum of these statements.
+ * <p>Rows are written by the connection applying the migration, within the transaction of each chunk, and removed
+ * within the transaction recording the migration in the schema history. The table is created on first use.</p>
+ */
+@CustomLog
+public class CheckpointTable {
+    /**
+     * Appended to the name of the schema history table. Kept short to stay within identifier length limits.
+     */
+    private static final String SUFFIX = "_ckpt";
+
+    private final Database database;
+    private final Table table;
+    private volatile boolean exists;
+
+    public CheckpointTable(Database database, Schema schema, Configuration configuration) {
+        this.database = database;
+        this.table = schema.getTable(configuration.getTable() + SUFFIX);
+    }
+
+    /**
+     * Retrieves the checkpoint of this script, creating the table if necessary.
+     *
+     * @param connection The connection applying the script. Must not be within a transaction.
+     * @param script The name of the script.
+     * @return The checkpoint.
+     */
+    public ScriptCheckpoint forScript(Connection<?> connection, String script) {
+        JdbcTemplate jdbcTemplate = connection.getJdbcTemplate();
+        String abbreviatedScript = AbbreviationUtils.abbreviateScript(script);
+        createIfNotExists(jdbcTemplate);
+
+        return new ScriptCheckpoint() {
+            private int checksum;
+
+            @Override
+            public int read() {
+                try {
+                    List<int[]> rows = jdbcTemplate.query("SELECT " + database.quote("checksum") + "," + database.quote("statement_offset")
+                                                                  + " FROM " + table + " WHERE " + database.quote("script") + "=?",
+                                                          rs -> new int[] {rs.getInt(1), rs.getInt(2)},
+                                                          abbreviatedScript);
+                    if (rows.isEmpty()) {
+                        return 0;
+                    }
+                    checksum = rows.get(0)[0];
+                    return rows.get(0)[1];
+                } catch (SQLException e) {
+                    throw new FlywaySqlException("Unable to read checkpoint of " + script + " from " + table, e);
+                }
+            }
+
+            @Override
+            public int getChecksum() {
+                return checksum;
+            }
+
+            @Override
+            public void write(int offset, int checksum) {
+                try {
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE " + database.quote("script") + "=?", abbreviatedScript);
+                    jdbcTemplate.update("INSERT INTO " + table + " (" + database.quote("script") + "," + database.quote("checksum")
+                                                + "," + database.quote("statement_offset") + ") VALUES (?,?,?)",
+                                        abbreviatedScript, checksum, offset);
+                } catch (SQLException e) {
+                    throw new FlywaySqlException("Unable to write checkpoint of " + script + " to " + table, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes the checkpoint of this script, if any. Runs on the main connection, so that it can share the transaction
+     * recording the script in the schema history.
+     *
+     * @param script The name of the script.
+     */
+    public void clear(String script) {
+        if (!exists && !table.exists()) {
+            return;
+        }
+        try {
+            database.getMainConnection().getJdbcTemplate().update("DELETE FROM " + table + " WHERE " + database.quote("script") + "=?",
+                                                                  AbbreviationUtils.abbreviateScript(script));
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Unable to clear checkpoint of " + script + " from " + table, e);
+        }
+    }
+
+    private void createIfNotExists(JdbcTemplate jdbcTemplate) {
+        if (exists) {
+            return;
+        }
+        synchronized (this) {
+            if (!exists && !table.exists()) {
+                LOG.info("Creating checkpoint table " + table + " ...");
+                try {
+                    jdbcTemplate.execute("CREATE TABLE " + table + " ("
+                                                 + database.quote("script") + " VARCHAR(1000) NOT NULL,"
+                                                 + database.quote("checksum") + " INT NOT NULL,"
+                                                 + database.quote("statement_offset") + " INT NOT NULL)");
+                } catch (SQLException e) {
+                    if (!table.exists()) {
+                        throw new FlywaySqlException("Unable to create checkpoint table " + table, e);
+                    }
+                    // Created concurrently by another node
+                }
+            }
+            exists = true;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.flywaydb.core.internal.schemahistory;
 
 import lombok.CustomLog;
+import org.flywaydb.core.api.CoreMigrationType;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.MigrationPattern;
 import org.flywaydb.core.api.MigrationTypeUtil;
@@ -33,8 +34,10 @@ import org.flywaydb.core.internal.exception.FlywaySqlException;
 import org.flywaydb.core.internal.jdbc.ExecutionTemplateFactory;
 import org.flywaydb.core.internal.jdbc.JdbcNullTypes;
 import org.flywaydb.core.internal.jdbc.JdbcTemplate;
+import org.flywaydb.core.internal.jdbc.RowMapper;
 import org.flywaydb.core.internal.sqlscript.SqlScriptExecutorFactory;
 import org.flywaydb.core.internal.sqlscript.SqlScriptFactory;
+import org.flywaydb.core.internal.util.AbbreviationUtils;
 
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -64,12 +67,35 @@ class JdbcTableSchemaHistory extends SchemaHistory {
     private final JdbcTemplate jdbcTemplate;
 
     /**
-     * Applied migration cache.
+     * Applied migration cache, ordered by installed rank. Rows written through this instance are applied to it
+     * directly instead of being read back.
      */
-    private final LinkedList<AppliedMigration> cache = new LinkedList<>();
+    private final List<AppliedMigration> cache = new ArrayList<>();
+
+    /**
+     * The highest installed rank in the cache. All rows up to it are cached, so only the rows above it are read when
+     * refreshing.
+     */
+    private int watermark = -1;
+
+    /**
+     * The factories creating applied migrations, by type.
+     */
+    private final Map<String, AppliedMigration> appliedMigrationFactories = new HashMap<>();
 
     private final Configuration configuration;
 
+    /**
+     * The installed rank of the up to date marker. Being negative, it is never read as an applied migration.
+     */
+    private static final int UP_TO_DATE_RANK = -200;
+
+    /**
+     * The installed rank of the first claim, further claims counting down from it. Being negative, claims are never
+     * read as applied migrations.
+     */
+    private static final int CLAIM_RANK = -1000;
+
     /**
      * Creates a new instance of the schema history table support.
      *
@@ -90,6 +116,7 @@ class JdbcTableSchemaHistory extends SchemaHistory {
     @Override
     public void clearCache() {
         cache.clear();
+        watermark = -1;
     }
 
     @Override
@@ -116,6 +143,8 @@ class JdbcTableSchemaHistory extends SchemaHistory {
                                                                          return null;
                                                                      });
                 } catch (FlywayException e) {
+                    // The failed attempt may have been rolled back along with any state restored within it
+                    connection.invalidateSessionState();
                     if (++retries >= 10) {
                         throw e;
                     }
@@ -166,6 +195,7 @@ class JdbcTableSchemaHistory extends SchemaHistory {
             jdbcTemplate.update(database.getInsertStatement(table),
                                 installedRank, versionObj, description, MigrationTypeUtil.name(type), script, checksumObj, database.getInstalledBy(),
                                 executionTime, success);
+            cacheInsertedRow(installedRank, version, description, MigrationTypeUtil.name(type), script, checksum, executionTime, success);
 
             LOG.debug("Schema History table " + table + " successfully updated to reflect changes");
         } catch (SQLException e) {
@@ -188,38 +218,122 @@ class JdbcTableSchemaHistory extends SchemaHistory {
     }
 
     private void refreshCache() {
-        int maxCachedInstalledRank = cache.isEmpty() ? -1 : cache.getLast().getInstalledRank();
-        String query = database.getSelectStatement(table);
-
         try {
-            cache.addAll(jdbcTemplate.query(query, rs -> {
+            List<AppliedMigration> appliedMigrations = jdbcTemplate.query(database.getSelectStatement(table),
+                                                                          configuration.getSchemaHistoryFetchSize(),
+                                                                          new AppliedMigrationRowMapper(), watermark);
+            if (!appliedMigrations.isEmpty()) {
+                cache.addAll(appliedMigrations);
+                watermark = appliedMigrations.get(appliedMigrations.size() - 1).getInstalledRank();
+            }
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Error while retrieving the list of applied migrations from Schema History table " + table, e);
+        }
+    }
+
+    /**
+     * Adds a row just inserted through this instance to the cache. It is only added if it directly follows the cached
+     * rows, as rows inserted by others in between would otherwise never be read. If it doesn't, it will be read along
+     * with those rows on the next refresh instead.
+     */
+    private void cacheInsertedRow(int installedRank, MigrationVersion version, String description, String type,
+                                  String script, Integer checksum, int executionTime, boolean success) {
+        if (installedRank != watermark + 1) {
+            return;
+        }
+        // The actual installed_on is set by the database. The local time is close enough for the rest of this run.
+        cache.add(createAppliedMigration(installedRank, version, description, type, script, checksum,
+                                         new Timestamp(System.currentTimeMillis()), database.getInstalledBy(),
+                                         executionTime, success));
+        watermark = installedRank;
+    }
+
+    /**
+     * Applies an update of a row through this instance to the cache, if the row is cached.
+     */
+    private void cacheUpdatedRow(int installedRank, String description, String type, Integer checksum) {
+        int low = 0;
+        int high = cache.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            AppliedMigration cached = cache.get(middle);
+            if (cached.getInstalledRank() < installedRank) {
+                low = middle + 1;
+            } else if (cached.getInstalledRank() > installedRank) {
+                high = middle - 1;
+            } else {
+                cache.set(middle, createAppliedMigration(installedRank, cached.getVersion(), description, type,
+                                                         cached.getScript(), checksum, cached.getInstalledOn(),
+                                                         cached.getInstalledBy(), cached.getExecutionTime(),
+                                                         cached.isSuccess()));
+                return;
+            }
+        }
+    }
+
+    private AppliedMigration createAppliedMigration(int installedRank, MigrationVersion version, String description,
+                                                    String type, String script, Integer checksum, Date installedOn,
+                                                    String installedBy, int executionTime, boolean success) {
+        return appliedMigrationFactories.computeIfAbsent(type, t -> configuration.getPluginRegister().getPlugins(AppliedMigration.class).stream()
+                        .filter(am -> am.handlesType(t))
+                        .findFirst()
+                        .orElse(new BaseAppliedMigration()))
+                .create(installedRank, version, description, type, script, checksum, installedOn, installedBy, executionTime, success);
+    }
+
+    /**
+     * Maps the rows of the schema history table, looking up the column ordinals once per result set.
+     */
+    private class AppliedMigrationRowMapper implements RowMapper<AppliedMigration> {
+        private ResultSet resultSet;
+        private int installedRankColumn;
+        private int versionColumn;
+        private int descriptionColumn;
+        private int typeColumn;
+        private int scriptColumn;
+        private int checksumColumn;
+        private int installedOnColumn;
+        private int installedByColumn;
+        private int executionTimeColumn;
+        private int successColumn;
+
+        @Override
+        public AppliedMigration mapRow(ResultSet rs) throws SQLException {
+            if (rs != resultSet) {
                 // Construct a map of lower-cased column names to ordinals. This is useful for databases that
                 // upper-case them - e.g. Snowflake with QUOTED-IDENTIFIERS-IGNORE-CASE turned on
                 HashMap<String, Integer> columnOrdinalMap = constructColumnOrdinalMap(rs);
+                installedRankColumn = columnOrdinalMap.get("installed_rank");
+                versionColumn = columnOrdinalMap.get("version");
+                descriptionColumn = columnOrdinalMap.get("description");
+                typeColumn = columnOrdinalMap.get("type");
+                scriptColumn = columnOrdinalMap.get("script");
+                checksumColumn = columnOrdinalMap.get("checksum");
+                installedOnColumn = columnOrdinalMap.get("installed_on");
+                installedByColumn = columnOrdinalMap.get("installed_by");
+                executionTimeColumn = columnOrdinalMap.get("execution_time");
+                successColumn = columnOrdinalMap.get("success");
+                resultSet = rs;
+            }
 
-                Integer checksum = rs.getInt(columnOrdinalMap.get("checksum"));
-                if (rs.wasNull()) {
-                    checksum = null;
-                }
+            Integer checksum = rs.getInt(checksumColumn);
+            if (rs.wasNull()) {
+                checksum = null;
+            }
 
-                int installedRank = rs.getInt(columnOrdinalMap.get("installed_rank"));
-                MigrationVersion version = rs.getString(columnOrdinalMap.get("version")) != null ? MigrationVersion.fromVersion(rs.getString(columnOrdinalMap.get("version"))) : null;
-                String description = rs.getString(columnOrdinalMap.get("description"));
-                String type = rs.getString(columnOrdinalMap.get("type"));
-                String script = rs.getString(columnOrdinalMap.get("script"));
-                Timestamp installedOn = rs.getTimestamp(columnOrdinalMap.get("installed_on"));
-                String installedBy = rs.getString(columnOrdinalMap.get("installed_by"));
-                int executionTime = rs.getInt(columnOrdinalMap.get("execution_time"));
-                boolean success = rs.getBoolean(columnOrdinalMap.get("success"));
-
-                return configuration.getPluginRegister().getPlugins(AppliedMigration.class).stream()
-                        .filter(am -> am.handlesType(type))
-                        .findFirst()
-                        .orElse(new BaseAppliedMigration())
-                        .create(installedRank, version, description, type, script, checksum, installedOn, installedBy, executionTime, success);
-            }, maxCachedInstalledRank));
-        } catch (SQLException e) {
-            throw new FlywaySqlException("Error while retrieving the list of applied migrations from Schema History table " + table, e);
+            int installedRank = rs.getInt(installedRankColumn);
+            String versionStr = rs.getString(versionColumn);
+            MigrationVersion version = versionStr != null ? MigrationVersion.fromVersion(versionStr) : null;
+            String description = rs.getString(descriptionColumn);
+            String type = rs.getString(typeColumn);
+            String script = rs.getString(scriptColumn);
+            Timestamp installedOn = rs.getTimestamp(installedOnColumn);
+            String installedBy = rs.getString(installedByColumn);
+            int executionTime = rs.getInt(executionTimeColumn);
+            boolean success = rs.getBoolean(successColumn);
+
+            return createAppliedMigration(installedRank, version, description, type, script, checksum, installedOn,
+                                          installedBy, executionTime, success);
         }
     }
 
@@ -235,6 +349,134 @@ class JdbcTableSchemaHistory extends SchemaHistory {
         return columnOrdinalMap;
     }
 
+    @Override
+    public boolean isUpToDate(String fingerprint) {
+        // Queried directly rather than after checking the table exists, as a missing table only fails the query.
+        // The marker stores the fingerprint as script and the installed rank of the last applied migration as checksum
+        String installedRank = database.quote("installed_rank");
+        try {
+            List<Boolean> upToDate = jdbcTemplate.query("SELECT " + database.quote("script") + "," + database.quote("checksum")
+                                                                + ",(SELECT MAX(" + installedRank + ") FROM " + table + " WHERE " + installedRank + " >= 0)"
+                                                                + " FROM " + table + " WHERE " + installedRank + " = " + UP_TO_DATE_RANK, rs -> {
+                int lastInstalledRank = rs.getInt(3);
+                if (rs.wasNull()) {
+                    lastInstalledRank = -1;
+                }
+                return fingerprint.equals(rs.getString(1)) && rs.getInt(2) == lastInstalledRank;
+            });
+            return upToDate.size() == 1 && upToDate.get(0);
+        } catch (SQLException e) {
+            LOG.debug("Unable to check whether Schema History table " + table + " is up to date: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void markUpToDate(String fingerprint) {
+        List<AppliedMigration> appliedMigrations = allAppliedMigrations();
+        int lastInstalledRank = appliedMigrations.isEmpty() ? -1 : appliedMigrations.get(appliedMigrations.size() - 1).getInstalledRank();
+        try {
+            clearUpToDate();
+            jdbcTemplate.update(database.getInsertStatement(table),
+                                UP_TO_DATE_RANK, JdbcNullTypes.StringNull, UP_TO_DATE_DESCRIPTION,
+                                MigrationTypeUtil.name(CoreMigrationType.FINGERPRINT), fingerprint, lastInstalledRank,
+                                database.getInstalledBy(), 0, true);
+            LOG.debug("Schema History table " + table + " marked as up to date");
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Unable to mark Schema History table " + table + " as up to date", e);
+        }
+    }
+
+    /**
+     * Removes the up to date marker. Needed whenever rows are changed or removed in place, as this may go unnoticed by
+     * {@link #isUpToDate(String)}.
+     */
+    private void clearUpToDate() throws SQLException {
+        jdbcTemplate.execute("DELETE FROM " + table + " WHERE " + database.quote("installed_rank") + " = " + UP_TO_DATE_RANK);
+    }
+
+    @Override
+    public List<AppliedMigration> allClaims() {
+        if (!exists()) {
+            return new ArrayList<>();
+        }
+
+        String installedRank = database.quote("installed_rank");
+        try {
+            return jdbcTemplate.query("SELECT " + installedRank
+                                              + "," + database.quote("version")
+                                              + "," + database.quote("description")
+                                              + "," + database.quote("type")
+                                              + "," + database.quote("script")
+                                              + "," + database.quote("checksum")
+                                              + "," + database.quote("installed_on")
+                                              + "," + database.quote("installed_by")
+                                              + "," + database.quote("execution_time")
+                                              + "," + database.quote("success")
+                                              + " FROM " + table
+                                              + " WHERE " + installedRank + " <= " + CLAIM_RANK
+                                              + " ORDER BY " + installedRank + " DESC", new AppliedMigrationRowMapper());
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Error while retrieving the claimed migrations from Schema History table " + table, e);
+        }
+    }
+
+    @Override
+    public AppliedMigration claim(MigrationVersion version, String description, String script, Integer checksum) {
+        connection.restoreOriginalState();
+
+        description = AbbreviationUtils.abbreviateDescription(description);
+        if (!database.supportsEmptyMigrationDescription() && "".equals(description)) {
+            description = NO_DESCRIPTION_MARKER;
+        }
+        script = AbbreviationUtils.abbreviateScript(script);
+
+        String installedRank = database.quote("installed_rank");
+        try {
+            int lowestRank = jdbcTemplate.queryForInt("SELECT COALESCE(MIN(" + installedRank + ")," + (CLAIM_RANK + 1) + ")"
+                                                              + " FROM " + table + " WHERE " + installedRank + " <= " + CLAIM_RANK);
+            int claimRank = lowestRank - 1;
+            jdbcTemplate.update(database.getInsertStatement(table),
+                                claimRank, version == null ? JdbcNullTypes.StringNull : version.toString(), description,
+                                MigrationTypeUtil.name(CoreMigrationType.CLAIM), script,
+                                checksum == null ? JdbcNullTypes.IntegerNull : checksum, database.getInstalledBy(), 0, false);
+            LOG.debug("Claimed migration " + script + " in Schema History table " + table);
+            return createAppliedMigration(claimRank, version, description, MigrationTypeUtil.name(CoreMigrationType.CLAIM),
+                                          script, checksum, new Timestamp(System.currentTimeMillis()),
+                                          database.getInstalledBy(), 0, false);
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Unable to claim migration " + script + " in Schema History table " + table, e);
+        }
+    }
+
+    @Override
+    public void release(AppliedMigration claim) {
+        connection.restoreOriginalState();
+
+        try {
+            jdbcTemplate.execute("DELETE FROM " + table + " WHERE " + database.quote("installed_rank") + " = " + claim.getInstalledRank());
+            LOG.debug("Released claim of migration " + claim.getScript() + " in Schema History table " + table);
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Unable to release claim of migration " + claim.getScript() + " in Schema History table " + table, e);
+        }
+    }
+
+    @Override
+    public List<AppliedMigration> releaseAllClaims() {
+        List<AppliedMigration> claims = allClaims();
+        if (claims.isEmpty()) {
+            return claims;
+        }
+
+        try {
+            jdbcTemplate.execute("DELETE FROM " + table + " WHERE " + database.quote("installed_rank") + " <= " + CLAIM_RANK);
+            LOG.info("Released " + claims.size() + " claimed migrations in Schema History table " + table);
+        } catch (SQLException e) {
+            throw new FlywaySqlException("Unable to release claimed migrations in Schema History table " + table, e);
+        }
+        return claims;
+    }
+
     @Override
     public boolean removeFailedMigrations(RepairResult repairResult, MigrationPattern[] migrationPatternFilter) {
         if (!exists()) {
@@ -251,6 +493,7 @@ class JdbcTableSchemaHistory extends SchemaHistory {
         }
 
         try {
+            clearUpToDate();
             appliedMigrations.stream()
                     .filter(am -> !am.isSuccess())
                     .forEach(am -> repairResult.migrationsRemoved.add(CommandResultFactory.createRepairOutput(am)));
@@ -293,8 +536,6 @@ class JdbcTableSchemaHistory extends SchemaHistory {
     public void update(AppliedMigration appliedMigration, ResolvedMigration resolvedMigration) {
         connection.restoreOriginalState();
 
-        clearCache();
-
         MigrationVersion version = appliedMigration.getVersion();
 
         String description = resolvedMigration.getDescription();
@@ -313,6 +554,7 @@ class JdbcTableSchemaHistory extends SchemaHistory {
         Object checksumObj = checksum == null ? JdbcNullTypes.IntegerNull : checksum;
 
         try {
+            clearUpToDate();
             // for custom script type -- liull
             jdbcTemplate.update("UPDATE " + table
                                         + " SET "
@@ -321,18 +563,75 @@ class JdbcTableSchemaHistory extends SchemaHistory {
                                         + database.quote("checksum") + "=?"
                                         + " WHERE " + database.quote("installed_rank") + "=?",
                                 description, MigrationTypeUtil.name(type), checksumObj, appliedMigration.getInstalledRank());
+            cacheUpdatedRow(appliedMigration.getInstalledRank(), description, MigrationTypeUtil.name(type), checksum);
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to repair Schema History table " + table
                                                  + " for version " + version, e);
         }
     }
 
+    @Override
+    public int compact() {
+        if (!exists()) {
+            return 0;
+        }
+
+        return lock(() -> {
+            clearCache();
+            List<AppliedMigration> appliedMigrations = allAppliedMigrations();
+            List<AppliedMigration> superseded = findSuperseded(appliedMigrations);
+            if (superseded.isEmpty()) {
+                LOG.debug("Compaction of Schema History table " + table + " not necessary. No superseded migrations detected.");
+                return 0;
+            }
+
+            // Fold the previous archive, if any, into the new one
+            List<AppliedMigration> removed = new ArrayList<>(superseded);
+            int archivedRows = superseded.size();
+            int executionTime = 0;
+            for (AppliedMigration appliedMigration : appliedMigrations) {
+                if (appliedMigration.getType() == CoreMigrationType.ARCHIVE) {
+                    removed.add(appliedMigration);
+                    archivedRows += getArchivedRows(appliedMigration);
+                    executionTime += appliedMigration.getExecutionTime();
+                }
+            }
+            for (AppliedMigration appliedMigration : superseded) {
+                executionTime += appliedMigration.getExecutionTime();
+            }
+
+            LOG.info("Compacting Schema History table " + table + ": archiving " + superseded.size() + " superseded rows ...");
+            try {
+                jdbcTemplate.update(database.getInsertStatement(table),
+                                    calculateInstalledRank(), JdbcNullTypes.StringNull, getArchiveDescription(archivedRows),
+                                    MigrationTypeUtil.name(CoreMigrationType.ARCHIVE), ARCHIVE_SCRIPT, JdbcNullTypes.IntegerNull,
+                                    database.getInstalledBy(), executionTime, true);
+
+                // Keep the statements short enough for databases limiting the size of IN lists (e.g. Oracle)
+                for (int i = 0; i < removed.size(); i += 1000) {
+                    StringBuilder installedRanks = new StringBuilder();
+                    for (AppliedMigration appliedMigration : removed.subList(i, Math.min(i + 1000, removed.size()))) {
+                        if (installedRanks.length() > 0) {
+                            installedRanks.append(",");
+                        }
+                        installedRanks.append(appliedMigration.getInstalledRank());
+                    }
+                    jdbcTemplate.execute("DELETE FROM " + table +
+                                                 " WHERE " + database.quote("installed_rank") + " IN (" + installedRanks + ")");
+                }
+            } catch (SQLException e) {
+                throw new FlywaySqlException("Unable to compact Schema History table " + table, e);
+            } finally {
+                clearCache();
+            }
+            return superseded.size();
+        });
+    }
+
     @Override
     public void delete(AppliedMigration appliedMigration) {
         connection.restoreOriginalState();
 
-        clearCache();
-
         MigrationVersion version = appliedMigration.getVersion();
         String versionStr = version == null ? null : version.toString();
 
@@ -346,10 +645,13 @@ class JdbcTableSchemaHistory extends SchemaHistory {
         Object checksumObj = appliedMigration.getChecksum() == null ? JdbcNullTypes.IntegerNull : appliedMigration.getChecksum();
 
         try {
+            int installedRank = calculateInstalledRank();
             jdbcTemplate.update(database.getInsertStatement(table),
-                                calculateInstalledRank(),
+                                installedRank,
                                 versionObj, appliedMigration.getDescription(), "DELETE", appliedMigration.getScript(),
                                 checksumObj, database.getInstalledBy(), 0, appliedMigration.isSuccess());
+            cacheInsertedRow(installedRank, version, appliedMigration.getDescription(), "DELETE", appliedMigration.getScript(),
+                             appliedMigration.getChecksum(), 0, appliedMigration.isSuccess());
         } catch (SQLException e) {
             throw new FlywaySqlException("Unable to repair Schema History table " + table
                                                  + " for version " + version, e);
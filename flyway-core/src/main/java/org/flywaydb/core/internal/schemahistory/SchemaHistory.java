@@ -18,6 +18,7 @@ package org.flywaydb.core.internal.schemahistory;
 import lombok.experimental.ExtensionMethod;
 import org.flywaydb.core.api.CoreMigrationType;
 import org.flywaydb.core.api.MigrationPattern;
+import org.flywaydb.core.api.MigrationUnique;
 import org.flywaydb.core.api.MigrationVersion;
 import org.flywaydb.core.api.output.RepairResult;
 import org.flywaydb.core.api.resolver.ResolvedMigration;
@@ -28,10 +29,10 @@ import org.flywaydb.core.internal.database.base.Table;
 import org.flywaydb.core.internal.util.AbbreviationUtils;
 import org.flywaydb.core.internal.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +41,9 @@ import java.util.stream.Collectors;
 @ExtensionMethod(Arrays.class)
 public abstract class SchemaHistory {
     public static final String NO_DESCRIPTION_MARKER = "<< no description >>";
+    public static final String ARCHIVE_SCRIPT = "<< Flyway History Archive >>";
+    public static final String UP_TO_DATE_DESCRIPTION = "<< Flyway Up To Date >>";
+    private static final Pattern ARCHIVE_DESCRIPTION_PATTERN = Pattern.compile("<< (\\d+) superseded rows archived >>");
 
     /**
      * The schema history table used by Flyway.
@@ -168,6 +172,171 @@ public abstract class SchemaHistory {
      */
     public abstract void delete(AppliedMigration appliedMigration);
 
+    /**
+     * Compacts the schema history: applied migrations marked as DELETED and their DELETE markers are removed, and
+     * accounted for in a single ARCHIVE row that replaces any previous one. This happens atomically under the schema
+     * history lock.
+     *
+     * @return The number of rows removed, not counting a previous ARCHIVE row.
+     */
+    public int compact() {
+        // Do nothing by default.
+        return 0;
+    }
+
+    /**
+     * Checks whether the schema is still up to date with the migrations of this fingerprint, as recorded by
+     * {@link #markUpToDate(String)}, with no row added to the schema history since. This neither takes the lock nor reads
+     * the applied migrations.
+     *
+     * @param fingerprint The fingerprint of the resolved migrations.
+     * @return {@code true} if nothing needs to be migrated.
+     */
+    public boolean isUpToDate(String fingerprint) {
+        return false;
+    }
+
+    /**
+     * Records that the schema is up to date with the migrations of this fingerprint, as of the latest applied migration.
+     * Must be called under the schema history lock.
+     *
+     * @param fingerprint The fingerprint of the resolved migrations.
+     */
+    public void markUpToDate(String fingerprint) {
+        // Do nothing by default.
+    }
+
+    /**
+     * @return The claims of the migrations being applied in the background, as CLAIM rows holding the version,
+     * description and script of the migration, and the user and time it was claimed by. An empty list if there are none.
+     */
+    public abstract List<AppliedMigration> allClaims();
+
+    /**
+     * Claims this migration for this node, so that no other node applies it meanwhile. Must be called under the
+     * schema history lock.
+     *
+     * @param version The version of the migration, or {@code null} for a repeatable migration.
+     * @param description The description of the migration.
+     * @param script The script of the migration.
+     * @param checksum The checksum of the migration.
+     * @return The claim, to be released once the migration has been recorded as applied or failed.
+     */
+    public abstract AppliedMigration claim(MigrationVersion version, String description, String script, Integer checksum);
+
+    /**
+     * Releases this claim.
+     *
+     * @param claim The claim, as returned by {@link #claim}.
+     */
+    public abstract void release(AppliedMigration claim);
+
+    /**
+     * Releases all claims, including those left behind by nodes which stopped while applying a migration.
+     *
+     * @return The released claims.
+     */
+    public abstract List<AppliedMigration> releaseAllClaims();
+
+    /**
+     * Finds the applied migrations superseded by a successful DELETE marker, together with these markers. Markers are
+     * matched the same way the migration info service does, so that removing the returned rows leaves the state of
+     * all other migrations unchanged:
+     * <ul>
+     * <li>A versioned migration marked as deleted is returned with its marker, unless the history contains several
+     * markers for it (which the info service reports as corrupted). Runs are keyed by type, version and script, and a
+     * marker, whose own type is DELETE, applies to the latest run of its version and script.</li>
+     * <li>For a repeatable migration, all runs up to the marker of a deleted run are returned, as long as all of them
+     * succeeded. Its latest run is therefore never removed without everything before it.</li>
+     * </ul>
+     *
+     * @param appliedMigrations All applied migrations, oldest first.
+     * @return The superseded migrations and their markers, oldest first.
+     */
+    protected static List<AppliedMigration> findSuperseded(List<AppliedMigration> appliedMigrations) {
+        Set<AppliedMigration> superseded = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<AppliedMigration> deleted = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<MigrationUnique, AppliedMigration> latestVersioned = new HashMap<>();
+        Map<AppliedMigration, MigrationUnique> markerKeys = new IdentityHashMap<>();
+        Map<String, AppliedMigration> latestRepeatable = new HashMap<>();
+        Map<String, List<AppliedMigration>> repeatableRuns = new HashMap<>();
+        Set<MigrationUnique> corrupted = new HashSet<>();
+
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            boolean marker = appliedMigration.getType() == CoreMigrationType.DELETE;
+            if (!marker && appliedMigration.getType().isSynthetic()) {
+                continue;
+            }
+
+            if (appliedMigration.getVersion() != null) {
+                MigrationUnique versionAndScript = getMigrationUnique(appliedMigration, null);
+                if (!marker) {
+                    latestVersioned.put(versionAndScript, appliedMigration);
+                } else if (appliedMigration.isSuccess() && latestVersioned.containsKey(versionAndScript)) {
+                    AppliedMigration target = latestVersioned.get(versionAndScript);
+                    MigrationUnique key = getMigrationUnique(target, target.getType());
+                    markerKeys.put(appliedMigration, key);
+                    if (deleted.add(target)) {
+                        superseded.add(target);
+                        superseded.add(appliedMigration);
+                    } else {
+                        corrupted.add(key);
+                    }
+                }
+                continue;
+            }
+
+            String description = appliedMigration.getDescription();
+            List<AppliedMigration> runs = repeatableRuns.computeIfAbsent(description, d -> new ArrayList<>());
+            runs.add(appliedMigration);
+            if (!marker) {
+                latestRepeatable.put(description, appliedMigration);
+            } else if (appliedMigration.isSuccess() && latestRepeatable.containsKey(description)
+                    && deleted.add(latestRepeatable.get(description))
+                    && runs.stream().allMatch(AppliedMigration::isSuccess)) {
+                superseded.addAll(runs);
+                runs.clear();
+            }
+        }
+
+        List<AppliedMigration> result = new ArrayList<>(superseded.size());
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            if (!superseded.contains(appliedMigration)) {
+                continue;
+            }
+            if (appliedMigration.getVersion() != null) {
+                MigrationUnique key = appliedMigration.getType() == CoreMigrationType.DELETE
+                        ? markerKeys.get(appliedMigration)
+                        : getMigrationUnique(appliedMigration, appliedMigration.getType());
+                if (corrupted.contains(key)) {
+                    continue;
+                }
+            }
+            result.add(appliedMigration);
+        }
+        return result;
+    }
+
+    private static MigrationUnique getMigrationUnique(AppliedMigration appliedMigration, MigrationType type) {
+        return MigrationUnique.builder().migrationVersion(appliedMigration.getVersion()).migrationType(type)
+                .script(appliedMigration.getScript()).build();
+    }
+
+    /**
+     * @return The description of an ARCHIVE row accounting for this number of rows.
+     */
+    protected static String getArchiveDescription(int archivedRows) {
+        return "<< " + archivedRows + " superseded rows archived >>";
+    }
+
+    /**
+     * @return The number of rows this ARCHIVE row accounts for.
+     */
+    protected static int getArchivedRows(AppliedMigration archive) {
+        Matcher matcher = ARCHIVE_DESCRIPTION_PATTERN.matcher(archive.getDescription());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
     /**
      * Clears the applied migration cache.
      */
@@ -16,25 +16,41 @@
 package org.flywaydb.core.internal.sqlscript;
 
 import lombok.CustomLog;
+import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.api.callback.Error;
 import org.flywaydb.core.api.callback.Event;
 import org.flywaydb.core.api.callback.Warning;
 import org.flywaydb.core.internal.callback.CallbackExecutor;
+import org.flywaydb.core.internal.exception.FlywaySqlException;
 import org.flywaydb.core.internal.jdbc.JdbcTemplate;
 import org.flywaydb.core.internal.jdbc.Result;
 import org.flywaydb.core.internal.jdbc.Results;
 import org.flywaydb.core.internal.jdbc.StatementInterceptor;
 import org.flywaydb.core.internal.util.AsciiTable;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.CRC32;
 
 @CustomLog
 public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
     protected final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Whether to batch consecutive batchable statements.
+     */
+    private final boolean batch;
+
+    /**
+     * The maximum number of statements per batch.
+     */
+    private final int batchSize;
+
 
 
 
@@ -68,10 +84,12 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
 
 
     public DefaultSqlScriptExecutor(JdbcTemplate jdbcTemplate,
-                                    CallbackExecutor callbackExecutor, boolean undo, boolean batch, boolean outputQueryResults,
+                                    CallbackExecutor callbackExecutor, boolean undo, boolean batch, int batchSize, boolean outputQueryResults,
                                     StatementInterceptor statementInterceptor
                                    ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.batch = batch && batchSize > 1;
+        this.batchSize = batchSize;
 
 
 
@@ -91,9 +109,19 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
 
 
 
+        boolean batching = batch && supportsBatchUpdates();
+        List<SqlStatement> batchStatements = new ArrayList<>();
         try (SqlStatementIterator sqlStatementIterator = sqlScript.getSqlStatements()) {
             while (sqlStatementIterator.hasNext()) {
                 SqlStatement sqlStatement = sqlStatementIterator.next();
+                if (batching && sqlStatement.isBatchable()) {
+                    batchStatements.add(sqlStatement);
+                    if (batchStatements.size() >= batchSize) {
+                        executeBatch(jdbcTemplate, sqlScript, batchStatements);
+                    }
+                    continue;
+                }
+                executeBatch(jdbcTemplate, sqlScript, batchStatements);
 
 
 
@@ -128,6 +156,7 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
 
 
             }
+            executeBatch(jdbcTemplate, sqlScript, batchStatements);
         }
 
 
@@ -136,6 +165,85 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
 
 
 
+    }
+
+    @Override
+    public void executeResumable(SqlScript sqlScript, ScriptCheckpoint checkpoint) {
+        int commitEvery = Math.max(sqlScript.commitEvery(), 1);
+        int offset = checkpoint.read();
+        if (offset > 0) {
+            LOG.info("Resuming " + sqlScript.getResource().getFilename() + " after its first " + offset + " statements");
+        }
+
+        Connection connection = jdbcTemplate.getConnection();
+        boolean oldAutocommit = true;
+        try {
+            oldAutocommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            CRC32 crc32 = new CRC32();
+            int index = 0;
+            try (SqlStatementIterator sqlStatementIterator = sqlScript.getSqlStatements()) {
+                while (sqlStatementIterator.hasNext()) {
+                    SqlStatement sqlStatement = sqlStatementIterator.next();
+                    if (index == offset && offset > 0) {
+                        verifyCommittedStatements(sqlScript, checkpoint, crc32);
+                    }
+                    crc32.update(sqlStatement.getSql().getBytes(StandardCharsets.UTF_8));
+                    if (index++ < offset) {
+                        continue;
+                    }
+                    executeStatement(jdbcTemplate, sqlScript, sqlStatement);
+                    if (index % commitEvery == 0) {
+                        commitChunk(connection, checkpoint, index, crc32);
+                    }
+                }
+            }
+            if (index <= offset && offset > 0) {
+                verifyCommittedStatements(sqlScript, checkpoint, index == offset ? crc32 : null);
+            } else if (index % commitEvery != 0) {
+                commitChunk(connection, checkpoint, index, crc32);
+            }
+        } catch (SQLException e) {
+            rollbackChunk(connection);
+            throw new FlywaySqlException("Unable to commit chunk of " + sqlScript.getResource().getFilename(), e);
+        } catch (RuntimeException e) {
+            rollbackChunk(connection);
+            throw e;
+        } finally {
+            try {
+                connection.setAutoCommit(oldAutocommit);
+            } catch (SQLException e) {
+                LOG.error("Unable to restore autocommit to original value for connection", e);
+            }
+        }
+    }
+
+    /**
+     * Ensures the statements committed before the checkpoint have not changed since, as resuming would otherwise leave
+     * the database in a state matching neither version of the script.
+     */
+    private void verifyCommittedStatements(SqlScript sqlScript, ScriptCheckpoint checkpoint, CRC32 crc32) {
+        if (crc32 == null || (int) crc32.getValue() != checkpoint.getChecksum()) {
+            throw new FlywayException("Unable to resume " + sqlScript.getResource().getFilename()
+                                              + ": the statements already committed according to its checkpoint have changed since."
+                                              + " Restore them, or revert their changes and remove its checkpoint to apply it from the start.");
+        }
+    }
+
+    private void commitChunk(Connection connection, ScriptCheckpoint checkpoint, int offset, CRC32 crc32) throws SQLException {
+        checkpoint.write(offset, (int) crc32.getValue());
+        connection.commit();
+        LOG.debug("Committed checkpoint after statement " + offset);
+    }
+
+    private void rollbackChunk(Connection connection) {
+        try {
+            LOG.debug("Rolling back uncommitted chunk...");
+            connection.rollback();
+        } catch (SQLException se) {
+            LOG.error("Unable to rollback uncommitted chunk", se);
+        }
     }
 
     protected void logStatementExecution(SqlStatement sqlStatement) {
@@ -197,6 +305,52 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
 
 
 
+
+    private boolean supportsBatchUpdates() {
+        try {
+            if (jdbcTemplate.getConnection().getMetaData().supportsBatchUpdates()) {
+                return true;
+            }
+            LOG.debug("JDBC driver does not support batch updates. Executing statements individually.");
+        } catch (SQLException e) {
+            LOG.debug("Unable to determine batch update support. Executing statements individually: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Executes these statements as a single JDBC batch and clears the list. A failure is reported against the
+     * statement of the batch which caused it.
+     */
+    protected void executeBatch(JdbcTemplate jdbcTemplate, SqlScript sqlScript, List<SqlStatement> batchStatements) {
+        if (batchStatements.isEmpty()) {
+            return;
+        }
+        if (batchStatements.size() == 1) {
+            SqlStatement sqlStatement = batchStatements.get(0);
+            batchStatements.clear();
+            executeStatement(jdbcTemplate, sqlScript, sqlStatement);
+            return;
+        }
+
+        List<String> sqls = new ArrayList<>(batchStatements.size());
+        for (SqlStatement sqlStatement : batchStatements) {
+            logStatementExecution(sqlStatement);
+            sqls.add(sqlStatement.getSql());
+        }
+        LOG.debug("Executing batch of " + sqls.size() + " statements");
+
+        Results results = jdbcTemplate.executeBatch(sqls);
+        List<SqlStatement> executedStatements = new ArrayList<>(batchStatements);
+        batchStatements.clear();
+        printWarnings(results);
+        if (results.getException() != null) {
+            int failedIndex = Math.min(results.getResults().size(), executedStatements.size() - 1);
+            handleException(results, sqlScript, executedStatements.get(failedIndex));
+            return;
+        }
+        handleResults(results);
+    }
 
     protected void executeStatement(JdbcTemplate jdbcTemplate, SqlScript sqlScript, SqlStatement sqlStatement) {
         logStatementExecution(sqlStatement);
@@ -260,6 +414,10 @@ public class DefaultSqlScriptExecutor implements SqlScriptExecutor {
                         result.getColumns() != null && !result.getColumns().isEmpty()) {
             LOG.info(new AsciiTable(result.getColumns(), result.getData(),
                                     true, "", "No rows returned").render());
+            long omittedRows = result.getRowCount() - result.getData().size();
+            if (omittedRows > 0) {
+                LOG.info("(" + omittedRows + " more " + (omittedRows == 1 ? "row" : "rows") + " not shown)");
+            }
         }
     }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.sqlscript;
+
+import org.flywaydb.core.api.resource.LoadableResource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * SQL script which only creates the actual script, along with its parser and script configuration, when anything
+ * besides its resource is first asked for. Scripts which are already applied are therefore never loaded.
+ * <p>Creation is thread-safe and happens at most once.</p>
+ */
+public class LazySqlScript implements SqlScript {
+    private final LoadableResource resource;
+    private final Supplier<SqlScript> factory;
+    private volatile SqlScript delegate;
+
+    /**
+     * @param resource The sql script resource.
+     * @param factory Creates the actual script from this resource.
+     */
+    public LazySqlScript(LoadableResource resource, Supplier<SqlScript> factory) {
+        this.resource = resource;
+        this.factory = factory;
+    }
+
+    private SqlScript getDelegate() {
+        SqlScript sqlScript = delegate;
+        if (sqlScript == null) {
+            synchronized (this) {
+                sqlScript = delegate;
+                if (sqlScript == null) {
+                    sqlScript = factory.get();
+                    delegate = sqlScript;
+                }
+            }
+        }
+        return sqlScript;
+    }
+
+    @Override
+    public SqlStatementIterator getSqlStatements() {
+        return getDelegate().getSqlStatements();
+    }
+
+    @Override
+    public int getSqlStatementCount() {
+        return getDelegate().getSqlStatementCount();
+    }
+
+    @Override
+    public Collection<SqlScript> getReferencedSqlScripts() {
+        return getDelegate().getReferencedSqlScripts();
+    }
+
+    @Override
+    public LoadableResource getResource() {
+        return resource;
+    }
+
+    @Override
+    public boolean executeInTransaction() {
+        return getDelegate().executeInTransaction();
+    }
+
+    @Override
+    public boolean shouldExecute() {
+        return getDelegate().shouldExecute();
+    }
+
+    @Override
+    public List<String> dependsOn() {
+        return getDelegate().dependsOn();
+    }
+
+    @Override
+    public boolean runInBackground() {
+        return getDelegate().runInBackground();
+    }
+
+    @Override
+    public int commitEvery() {
+        return getDelegate().commitEvery();
+    }
+
+    @Override
+    public void validate() {
+        getDelegate().validate();
+    }
+
+    @Override
+    public int compareTo(SqlScript o) {
+        return resource.getRelativePath().compareTo(o.getResource().getRelativePath());
+    }
+}
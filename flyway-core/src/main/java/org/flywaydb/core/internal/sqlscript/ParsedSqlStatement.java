@@ -19,10 +19,19 @@ import lombok.Getter;
 import org.flywaydb.core.internal.jdbc.JdbcTemplate;
 import org.flywaydb.core.internal.jdbc.Results;
 
+import java.util.regex.Pattern;
+
 /**
  * A sql statement from a script that can be executed at once against a database.
  */
 public class ParsedSqlStatement implements SqlStatement {
+    /**
+     * DML statements, possibly preceded by comments, which do not return a result set.
+     */
+    private static final Pattern BATCHABLE_PATTERN = Pattern.compile(
+            "^(\\s|--[^\\n]*(\\n|$)|/\\*.*?\\*/)*(INSERT|UPDATE|DELETE|MERGE|UPSERT)\\b(?!.*\\bRETURNING\\b).*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
     @Getter
     private final int pos;
     @Getter
@@ -79,6 +88,11 @@ public class ParsedSqlStatement implements SqlStatement {
         return canExecuteInTransaction;
     }
 
+    @Override
+    public boolean isBatchable() {
+        return canExecuteInTransaction && BATCHABLE_PATTERN.matcher(sql).matches();
+    }
+
 
 
 
@@ -25,10 +25,15 @@ import java.util.*;
 @CustomLog
 public class ParserSqlScript implements SqlScript {
     /**
-     * The sql statements contained in this script.
+     * The sql statements contained in this script. Left empty when streaming.
      */
     protected final List<SqlStatement> sqlStatements = new ArrayList<>();
 
+    /**
+     * Whether statements are parsed again on each execution instead of being kept in memory.
+     */
+    private final boolean stream;
+
     private int sqlStatementCount;
 
     /**
@@ -62,6 +67,7 @@ public class ParserSqlScript implements SqlScript {
         this.resource = resource;
         this.metadata = SqlScriptMetadata.fromResource(metadataResource, parser);
         this.parser = parser;
+        this.stream = parser.configuration.isStream();
 
 
 
@@ -76,8 +82,9 @@ public class ParserSqlScript implements SqlScript {
 
 
 
+                if (!stream) {
                     this.sqlStatements.add(sqlStatement);
-
+                }
 
 
 
@@ -123,6 +130,10 @@ public class ParserSqlScript implements SqlScript {
 
     @Override
     public SqlStatementIterator getSqlStatements() {
+        if (stream) {
+            return parser.parse(resource, metadata);
+        }
+
         validate();
 
 
@@ -178,12 +189,19 @@ public class ParserSqlScript implements SqlScript {
 
     @Override
     public boolean executeInTransaction() {
+        if (metadata.commitEvery() > 0) {
+            // Resumable scripts commit their own chunks
+            return false;
+        }
+
         Boolean executeInTransactionOverride = metadata.executeInTransaction();
         if (executeInTransactionOverride != null) {
             LOG.debug("Using executeInTransaction=" + executeInTransactionOverride + " from script configuration");
             return executeInTransactionOverride;
         }
 
+        // Streamed scripts are scanned once up front without keeping their statements, so that a non-transactional
+        // statement is detected before any statement is executed
         validate();
 
         return !nonTransactionalStatementFound;
@@ -194,6 +212,21 @@ public class ParserSqlScript implements SqlScript {
         return metadata.shouldExecute();
     }
 
+    @Override
+    public List<String> dependsOn() {
+        return metadata.dependsOn();
+    }
+
+    @Override
+    public boolean runInBackground() {
+        return metadata.background();
+    }
+
+    @Override
+    public int commitEvery() {
+        return metadata.commitEvery();
+    }
+
     @Override
     public int compareTo(SqlScript o) {
         return resource.getRelativePath().compareTo(o.getResource().getRelativePath());
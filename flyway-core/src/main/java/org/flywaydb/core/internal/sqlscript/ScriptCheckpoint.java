@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.sqlscript;
+
+/**
+ * Records how many statements of a script executed resumably have been committed, so that an interrupted execution
+ * resumes after them instead of starting over.
+ */
+public interface ScriptCheckpoint {
+    /**
+     * Reads the checkpoint.
+     *
+     * @return The number of statements already committed. {@code 0} if there is no checkpoint yet.
+     */
+    int read();
+
+    /**
+     * @return The checksum of the statements already committed, as last written. Only meaningful once {@link #read()}
+     * has returned a positive offset.
+     */
+    int getChecksum();
+
+    /**
+     * Records that this many statements have been executed. Called within the transaction of the chunk, just before
+     * it is committed.
+     *
+     * @param offset The number of statements executed so far.
+     * @param checksum The checksum of these statements.
+     */
+    void write(int offset, int checksum);
+}
@@ -18,6 +18,7 @@ package org.flywaydb.core.internal.sqlscript;
 import org.flywaydb.core.api.resource.LoadableResource;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * SQL script containing a series of statements terminated by a delimiter (eg: ;).
@@ -59,6 +60,29 @@ public interface SqlScript extends Comparable<SqlScript> {
      */
     boolean shouldExecute();
 
+    /**
+     * The repeatable migrations, by description or script name, which must have been applied before this script when
+     * repeatable migrations are applied concurrently.
+     *
+     * @return The dependencies. An empty list if there are none.
+     */
+    List<String> dependsOn();
+
+    /**
+     * Whether this script is applied in the background once migrate has returned.
+     *
+     * @return {@code true} if it is, {@code false} if it is applied along with all other migrations.
+     */
+    boolean runInBackground();
+
+    /**
+     * The number of statements to commit at a time when this script is executed resumably, recording a checkpoint with
+     * each commit.
+     *
+     * @return The number of statements per commit, or {@code 0} if this script is not executed resumably.
+     */
+    int commitEvery();
+
     /**
      * Validates this SQL script.
      */
@@ -25,4 +25,14 @@ public interface SqlScriptExecutor {
      * @param sqlScript The SQL script.
      */
     void execute(SqlScript sqlScript);
+
+    /**
+     * Executes this SQL script in chunks of {@link SqlScript#commitEvery()} statements, each committed along with a
+     * checkpoint, starting after the statements already executed according to that checkpoint. Statements after the
+     * checkpoint may have changed since; the ones before it may not. On failure, the current chunk is rolled back.
+     *
+     * @param sqlScript The SQL script.
+     * @param checkpoint The checkpoint of the script.
+     */
+    void executeResumable(SqlScript sqlScript, ScriptCheckpoint checkpoint);
 }
\ No newline at end of file
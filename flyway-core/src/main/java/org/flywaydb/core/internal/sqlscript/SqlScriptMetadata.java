@@ -22,11 +22,15 @@ import org.flywaydb.core.internal.configuration.ConfigUtils;
 import org.flywaydb.core.internal.license.FlywayTeamsUpgradeRequiredException;
 import org.flywaydb.core.internal.parser.Parser;
 import org.flywaydb.core.internal.parser.PlaceholderReplacingReader;
+import org.flywaydb.core.internal.util.StringUtils;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.flywaydb.core.internal.configuration.ConfigUtils.removeBoolean;
+import static org.flywaydb.core.internal.configuration.ConfigUtils.removeInteger;
 import static org.flywaydb.core.internal.util.BooleanEvaluator.evaluateExpression;
 
 @CustomLog
@@ -35,10 +39,16 @@ public class SqlScriptMetadata {
     private static final String ENCODING = "encoding";
     private static final String PLACEHOLDER_REPLACEMENT = "placeholderReplacement";
     private static final String SHOULD_EXECUTE = "shouldExecute";
+    private static final String DEPENDS_ON = "dependsOn";
+    private static final String BACKGROUND = "background";
+    private static final String COMMIT_EVERY = "commitEvery";
 
     private final Boolean executeInTransaction;
     private final String encoding;
     private final boolean placeholderReplacement;
+    private final List<String> dependsOn;
+    private final boolean background;
+    private final int commitEvery;
     private boolean shouldExecute;
 
     private SqlScriptMetadata(Map<String, String> metadata) {
@@ -51,6 +61,19 @@ public class SqlScriptMetadata {
         this.placeholderReplacement = Boolean.parseBoolean(metadata.getOrDefault(PLACEHOLDER_REPLACEMENT, "true"));
         metadata.remove(PLACEHOLDER_REPLACEMENT);
 
+        List<String> dependsOnProp = StringUtils.tokenizeToStringCollection(metadata.remove(DEPENDS_ON), ",");
+        if (dependsOnProp == null) {
+            this.dependsOn = Collections.emptyList();
+        } else {
+            dependsOnProp.removeIf(String::isEmpty);
+            this.dependsOn = Collections.unmodifiableList(dependsOnProp);
+        }
+
+        this.background = Boolean.TRUE.equals(removeBoolean(metadata, BACKGROUND));
+
+        Integer commitEveryProp = removeInteger(metadata, COMMIT_EVERY);
+        this.commitEvery = commitEveryProp == null ? 0 : Math.max(commitEveryProp, 0);
+
         this.shouldExecute = true;
 
 
@@ -82,6 +105,18 @@ public class SqlScriptMetadata {
         return shouldExecute;
     }
 
+    public List<String> dependsOn() {
+        return dependsOn;
+    }
+
+    public boolean background() {
+        return background;
+    }
+
+    public int commitEvery() {
+        return commitEvery;
+    }
+
     public static boolean isMultilineBooleanExpression(String line) {
         return !line.startsWith(SHOULD_EXECUTE) && (line.contains("==") || line.contains("!="));
     }
@@ -46,6 +46,14 @@ public interface SqlStatement {
      */
     boolean canExecuteInTransaction();
 
+    /**
+     * Whether this statement can be sent to the database as part of a JDBC batch. This is the case for plain INSERT,
+     * UPDATE, DELETE, MERGE and UPSERT statements which do not return results.
+     *
+     * @return {@code true} if this statement can be batched, {@code false} if it must be executed on its own.
+     */
+    boolean isBatchable();
+
 
 
 
@@ -17,6 +17,8 @@ package org.flywaydb.core.internal.strategy;
 
 import lombok.AllArgsConstructor;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 @AllArgsConstructor
 public class BackoffStrategy {
 
@@ -33,6 +35,15 @@ public class BackoffStrategy {
         return temp;
     }
 
+    /**
+     * @return The current value of the counter, randomly spread between half and one and a half times that value, and
+     * immediately updates it with the next value. Keeps several clients backing off together from retrying in lockstep.
+     */
+    public int nextWithJitter() {
+        int value = next();
+        return value / 2 + ThreadLocalRandom.current().nextInt(value + 1);
+    }
+
     /**
      * @return The current value of the counter without updating it
      */
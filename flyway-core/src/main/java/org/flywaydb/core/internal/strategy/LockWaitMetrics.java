@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.strategy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the attempts made to obtain locks and the time spent obtaining them during one execution, so that the time
+ * nodes spend waiting on each other can be reported for each run.
+ * <p>The metrics of an execution collect the locks obtained by the thread which started them, and by the threads it
+ * starts meanwhile, such as those applying repeatable migrations concurrently. Other executions of this JVM, including
+ * background migrations, have metrics of their own.</p>
+ */
+public class LockWaitMetrics {
+    private static final InheritableThreadLocal<LockWaitMetrics> CURRENT = new InheritableThreadLocal<>();
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong waitMillis = new AtomicLong();
+    /**
+     * The metrics of the enclosing execution, restored when these are stopped.
+     */
+    private final LockWaitMetrics enclosing;
+
+    private LockWaitMetrics(LockWaitMetrics enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /**
+     * Starts collecting the lock waits of this thread, and of the threads it starts, until {@link #stop()} is called.
+     *
+     * @return The metrics of the execution.
+     */
+    public static LockWaitMetrics start() {
+        LockWaitMetrics metrics = new LockWaitMetrics(CURRENT.get());
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * Stops collecting lock waits into these metrics on this thread.
+     */
+    public void stop() {
+        if (CURRENT.get() == this) {
+            CURRENT.set(enclosing);
+        }
+    }
+
+    /**
+     * @return The number of attempts made to obtain a lock during this execution so far.
+     */
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    /**
+     * @return The time spent obtaining locks during this execution so far, in milliseconds.
+     */
+    public long getWaitMillis() {
+        return waitMillis.get();
+    }
+
+    /**
+     * Records attempts made to obtain a lock and the time they took in the metrics of the current execution, if any.
+     *
+     * @param attempts The number of attempts.
+     * @param waitMillis The time spent, in milliseconds.
+     */
+    public static void record(int attempts, long waitMillis) {
+        LockWaitMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.attempts.addAndGet(attempts);
+            metrics.waitMillis.addAndGet(waitMillis);
+        }
+    }
+}
@@ -15,14 +15,17 @@
  */
 package org.flywaydb.core.internal.strategy;
 
+import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.internal.util.SqlCallable;
 
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A class that retries a Callable a given number of times until success is obtained.
  */
+@CustomLog
 public class RetryStrategy {
 
     /**
@@ -30,14 +33,17 @@ public class RetryStrategy {
      */
     private static int numberOfRetries = 50;
     private static boolean unlimitedRetries;
+    private static boolean backoff = true;
 
     private int numberOfRetriesRemaining;
+    private final BackoffStrategy backoffStrategy;
 
     /**
      * A class that retries a Callable a given number of times until success is obtained.
      */
     public RetryStrategy() {
         numberOfRetriesRemaining = numberOfRetries;
+        backoffStrategy = createLockWaitBackoffStrategy();
     }
 
     /**
@@ -50,6 +56,31 @@ public class RetryStrategy {
         unlimitedRetries = (retries < 0);
     }
 
+    /**
+     * Set whether to back off exponentially between retries, or to wait one second every time.
+     *
+     * @param exponentialBackoff {@code true} to back off exponentially, with random jitter.
+     */
+    public static void setBackoff(boolean exponentialBackoff) {
+        backoff = exponentialBackoff;
+    }
+
+    /**
+     * @return The waits between attempts to obtain a lock: starting at 50 ms and doubling up to one second when
+     * backing off, one second every time otherwise.
+     */
+    public static BackoffStrategy createLockWaitBackoffStrategy() {
+        return backoff ? new BackoffStrategy(50, 2, 1000) : new BackoffStrategy(1000, 1, 1000);
+    }
+
+    /**
+     * @param backoffStrategy A strategy created by {@link #createLockWaitBackoffStrategy()}.
+     * @return The next wait between attempts to obtain a lock, in milliseconds.
+     */
+    public static int nextLockWaitInMilliseconds(BackoffStrategy backoffStrategy) {
+        return backoff ? backoffStrategy.nextWithJitter() : backoffStrategy.next();
+    }
+
     private boolean hasMoreRetries() {
         return (unlimitedRetries || numberOfRetriesRemaining > 0);
     }
@@ -61,7 +92,7 @@ public class RetryStrategy {
     }
 
     private int nextWaitInMilliseconds() {
-        return 1000;
+        return nextLockWaitInMilliseconds(backoffStrategy);
     }
 
     /**
@@ -76,17 +107,64 @@ public class RetryStrategy {
      * @throws SQLException
      */
     public void doWithRetries(SqlCallable<Boolean> callable, String interruptionMessage, String retriesExceededMessage) throws SQLException {
-        while (!callable.call()) {
-            try {
-                Thread.sleep(nextWaitInMilliseconds());
-            } catch (InterruptedException e) {
-                throw new FlywayException(interruptionMessage, e);
+        doWithRetries(waitMillis -> callable.call(), interruptionMessage, retriesExceededMessage);
+    }
+
+    /**
+     * Like {@link #doWithRetries(SqlCallable, String, String)}, but lets each retry spend its wait blocking on the
+     * resource itself, e.g. with a lock timeout, so that it succeeds as soon as the resource becomes available. Whatever
+     * part of the wait the attempt doesn't spend is slept before the next one.
+     *
+     * @param attempt The attempt to retry
+     * @param interruptionMessage The message to relay if interruption happens
+     * @param retriesExceededMessage The message to relay if the number of retries is exceeded
+     * @throws SQLException
+     */
+    public void doWithRetries(WaitingAttempt attempt, String interruptionMessage, String retriesExceededMessage) throws SQLException {
+        long start = System.nanoTime();
+        int attempts = 1;
+        try {
+            if (attempt.call(0)) {
+                return;
             }
+            while (true) {
+                int waitMillis = nextWaitInMilliseconds();
+                long attemptStart = System.nanoTime();
+                attempts++;
+                if (attempt.call(waitMillis)) {
+                    return;
+                }
+                long remainingMillis = waitMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStart);
+                if (remainingMillis > 0) {
+                    try {
+                        Thread.sleep(remainingMillis);
+                    } catch (InterruptedException e) {
+                        throw new FlywayException(interruptionMessage, e);
+                    }
+                }
 
-            if (!hasMoreRetries()) {
-                throw new FlywayException(retriesExceededMessage);
+                if (!hasMoreRetries()) {
+                    throw new FlywayException(retriesExceededMessage);
+                }
+                nextRetry();
+            }
+        } finally {
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            LockWaitMetrics.record(attempts, waitedMillis);
+            if (attempts > 1) {
+                LOG.debug("Made " + attempts + " attempts in " + waitedMillis + " ms");
             }
-            nextRetry();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * An attempt that may block for up to the given time before giving up.
+     */
+    public interface WaitingAttempt {
+        /**
+         * @param waitMillis The time the attempt may spend blocking, in milliseconds. {@code 0} to not block at all.
+         * @return {@code true} if the attempt succeeded.
+         */
+        boolean call(int waitMillis) throws SQLException;
+    }
+}
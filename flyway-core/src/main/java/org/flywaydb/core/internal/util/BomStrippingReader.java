@@ -25,6 +25,11 @@ import java.io.Reader;
 public class BomStrippingReader extends FilterReader {
     private static final int EMPTY_STREAM = -1;
 
+    /**
+     * Whether the last character read was a BOM that got skipped.
+     */
+    private boolean bomSkipped;
+
     /**
      * Creates a new BOM-stripping reader.
      *
@@ -38,10 +43,35 @@ public class BomStrippingReader extends FilterReader {
     @Override
     public int read() throws IOException {
         int c = super.read();
-        if (c != EMPTY_STREAM && BomFilter.isBom((char) c)) {
+        if (c != EMPTY_STREAM && !bomSkipped && BomFilter.isBom((char) c)) {
             // Skip BOM
-            return super.read();
+            c = super.read();
         }
+        bomSkipped = false;
         return c;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int count;
+        do {
+            int read = super.read(cbuf, off, len);
+            if (read <= 0) {
+                return read;
+            }
+
+            // Skip BOMs in place, keeping the character after a skipped BOM just like read() does
+            count = 0;
+            for (int i = off; i < off + read; i++) {
+                char c = cbuf[i];
+                if (!bomSkipped && BomFilter.isBom(c)) {
+                    bomSkipped = true;
+                    continue;
+                }
+                bomSkipped = false;
+                cbuf[off + count++] = c;
+            }
+        } while (count == 0);
+        return count;
+    }
+}
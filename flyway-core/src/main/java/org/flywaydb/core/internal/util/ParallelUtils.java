@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util;
+
+import lombok.AccessLevel;
+import lombok.CustomLog;
+import lombok.NoArgsConstructor;
+import org.flywaydb.core.api.FlywayException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@CustomLog
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ParallelUtils {
+    /**
+     * Applies this function to all these items using at most {@code threads} concurrent workers. Virtual threads are
+     * used when the running JVM supports them, daemon platform threads otherwise.
+     *
+     * @param items The items to process.
+     * @param threads The maximum number of concurrent workers. {@code 1} or less processes the items on the calling thread.
+     * @param function The function to apply. Must be safe to call concurrently.
+     * @return The results, in the same order as the items.
+     * @throws RuntimeException The first exception thrown by the function, if any. Remaining items are then skipped.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> map(List<T> items, int threads, Function<? super T, ? extends R> function) {
+        int workers = Math.min(threads, items.size());
+        if (workers <= 1) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+
+        Object[] results = new Object[items.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        ExecutorService executor = createExecutor(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    int index;
+                    while (!failed.get() && (index = next.getAndIncrement()) < results.length) {
+                        try {
+                            results[index] = function.apply(items.get(index));
+                        } catch (RuntimeException | Error e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FlywayException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while waiting for workers", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * Creates an executor for at most this many concurrent tasks. Virtual threads are used when the running JVM
+     * supports them, daemon platform threads otherwise. The caller is responsible for shutting it down.
+     *
+     * @param threads The maximum number of tasks the caller will run concurrently.
+     * @return The executor.
+     */
+    public static ExecutorService createExecutor(int threads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Virtual threads not available, using platform threads");
+        }
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
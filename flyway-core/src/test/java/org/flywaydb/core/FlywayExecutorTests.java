@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.flywaydb.core.api.resolver.MigrationResolver;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlywayExecutorTests {
+    @TempDir
+    Path location;
+
+    @Test
+    public void callbacksShareTheMigrationResolverOfTheCommand() throws Exception {
+        Files.write(location.resolve("V1__table.sql"), "CREATE TABLE t (id INT);".getBytes(StandardCharsets.UTF_8));
+        AtomicInteger resolutions = new AtomicInteger();
+        MigrationResolver countingResolver = context -> {
+            resolutions.incrementAndGet();
+            return Collections.emptyList();
+        };
+        ResolvingCallback callback = new ResolvingCallback();
+
+        Flyway flyway = Flyway.configure()
+                .dataSource("jdbc:h2:mem:shared_resolver;DB_CLOSE_DELAY=-1", "sa", "")
+                .locations("filesystem:" + location)
+                .resolvers(countingResolver)
+                .callbacks(callback)
+                .load();
+        flyway.migrate();
+
+        // The default callbacks, this one and the command itself all worked off a single resolution
+        assertEquals(1, resolutions.get());
+        assertEquals(1, callback.resolvers.size());
+        Collection<ResolvedMigration> resolved = callback.resolved.get(0);
+        assertEquals(1, resolved.size());
+        assertSame(resolved, callback.resolvers.get(0).resolveMigrations(flyway.getConfiguration()));
+
+        // Each run resolves afresh, so that changed migrations are picked up
+        flyway.migrate();
+        assertEquals(2, resolutions.get());
+        assertEquals(2, callback.resolvers.size());
+        assertNotSame(callback.resolvers.get(0), callback.resolvers.get(1));
+    }
+
+    /**
+     * Resolves the migrations with the resolver it is handed before each migrate.
+     */
+    private static class ResolvingCallback implements Callback {
+        private final List<CompositeMigrationResolver> resolvers = new ArrayList<>();
+        private final List<Collection<ResolvedMigration>> resolved = new ArrayList<>();
+        private CompositeMigrationResolver migrationResolver;
+
+        @Override
+        public boolean supports(Event event, Context context) {
+            return event == Event.BEFORE_MIGRATE;
+        }
+
+        @Override
+        public boolean canHandleInTransaction(Event event, Context context) {
+            return true;
+        }
+
+        @Override
+        public void handle(Event event, Context context) {
+            resolvers.add(migrationResolver);
+            resolved.add(migrationResolver.resolveMigrations(context.getConfiguration()));
+        }
+
+        @Override
+        public String getCallbackName() {
+            return "resolving";
+        }
+
+        @Override
+        public void setMigrationResolver(CompositeMigrationResolver migrationResolver) {
+            this.migrationResolver = migrationResolver;
+        }
+    }
+}
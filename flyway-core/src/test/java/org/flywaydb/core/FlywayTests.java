@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core;
+
+import org.flywaydb.core.api.BackgroundMigrations;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlywayTests {
+    @TempDir
+    Path location;
+    private String url;
+
+    @Test
+    public void backgroundFailureCompletesTheMigrationsExceptionally() throws Exception {
+        url = "jdbc:h2:mem:background_failure;DB_CLOSE_DELAY=-1";
+        write("V1__table.sql", "CREATE TABLE t (id INT);");
+        write("R__broken.sql", "INSERT INTO missing VALUES (1);");
+        write("R__broken.sql.conf", "background=true");
+
+        Flyway flyway = load();
+        flyway.migrate();
+        BackgroundMigrations backgroundMigrations = flyway.getBackgroundMigrations();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> backgroundMigrations.completion().get(30, TimeUnit.SECONDS));
+        assertInstanceOf(FlywayException.class, e.getCause());
+        assertThrows(ExecutionException.class, () -> backgroundMigrations.completion("broken").get(30, TimeUnit.SECONDS));
+        assertTrue(backgroundMigrations.isDone());
+        assertEquals(0, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"script\" = 'R__broken.sql' AND \"success\""));
+    }
+
+    @Test
+    public void backgroundMigrationsAreDoneOnceApplied() throws Exception {
+        url = "jdbc:h2:mem:background_done;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000";
+        write("V1__table.sql", "CREATE TABLE t (id INT);\nINSERT INTO t VALUES (1);");
+
+        Flyway flyway = load();
+        assertTrue(flyway.getBackgroundMigrations().isDone());
+        flyway.migrate();
+        // Nothing to apply in the background
+        assertTrue(flyway.getBackgroundMigrations().isDone());
+
+        write("R__slow.sql", "UPDATE t SET id = id + 1;");
+        write("R__slow.sql.conf", "background=true");
+        BackgroundMigrations backgroundMigrations;
+        try (Connection blocker = lockTable()) {
+            flyway.migrate();
+            backgroundMigrations = flyway.getBackgroundMigrations();
+            assertEquals(1, backgroundMigrations.getDescriptions().size());
+            assertFalse(backgroundMigrations.isDone());
+            assertFalse(backgroundMigrations.completion("slow").isDone());
+            blocker.rollback();
+        }
+
+        backgroundMigrations.completion().get(30, TimeUnit.SECONDS);
+        assertTrue(backgroundMigrations.isDone());
+        assertTrue(backgroundMigrations.completion("slow").isDone());
+        assertEquals(2, count("SELECT id FROM t"));
+    }
+
+    @Test
+    public void secondMigrateLeavesTheBusyBackgroundMigrationsToReportTheirFailure() throws Exception {
+        url = "jdbc:h2:mem:background_busy;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000";
+        write("V1__table.sql", "CREATE TABLE t (id INT);\nINSERT INTO t VALUES (1);");
+        Flyway flyway = load();
+        flyway.migrate();
+
+        write("R__slow.sql", "UPDATE t SET id = id + 1;\nINSERT INTO missing VALUES (1);");
+        write("R__slow.sql.conf", "background=true");
+        BackgroundMigrations backgroundMigrations;
+        try (Connection blocker = lockTable()) {
+            flyway.migrate();
+            backgroundMigrations = flyway.getBackgroundMigrations();
+
+            // Neither fails nor starts another thread while the first one is busy with the same migration
+            flyway.migrate();
+            assertSame(backgroundMigrations, flyway.getBackgroundMigrations());
+            assertFalse(backgroundMigrations.isDone());
+            blocker.rollback();
+        }
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> backgroundMigrations.completion().get(30, TimeUnit.SECONDS));
+        assertInstanceOf(FlywayException.class, e.getCause());
+
+        // H2 commits the update on its own, so the failure is recorded and refused by the next migrate
+        assertThrows(FlywayException.class, flyway::migrate);
+        assertSame(backgroundMigrations, flyway.getBackgroundMigrations());
+    }
+
+    @Test
+    public void upToDateCheckSkipsMigrateUntilTheMigrationsChange() throws Exception {
+        url = "jdbc:h2:mem:up_to_date_migrations;DB_CLOSE_DELAY=-1";
+        write("V1__table.sql", "CREATE TABLE t (id INT);");
+        CountingCallback callback = new CountingCallback();
+
+        assertEquals(1, upToDateChecking(callback, "a").migrate().migrationsExecuted);
+        upToDateChecking(callback, "a").migrate();
+        int migrations = callback.count;
+        upToDateChecking(callback, "a").migrate();
+        // Returned before firing any callback
+        assertEquals(migrations, callback.count);
+
+        write("V2__insert.sql", "INSERT INTO t VALUES (2);");
+        assertEquals(1, upToDateChecking(callback, "a").migrate().migrationsExecuted);
+        assertEquals(migrations + 1, callback.count);
+        assertEquals(1, count("SELECT COUNT(*) FROM t"));
+    }
+
+    @Test
+    public void upToDateCheckSkipsMigrateUntilThePlaceholdersChange() throws Exception {
+        url = "jdbc:h2:mem:up_to_date_placeholders;DB_CLOSE_DELAY=-1";
+        write("V1__table.sql", "CREATE TABLE t (name VARCHAR(10));");
+        write("R__insert.sql", "INSERT INTO t VALUES ('${value}');");
+        CountingCallback callback = new CountingCallback();
+
+        assertEquals(2, upToDateChecking(callback, "a").migrate().migrationsExecuted);
+        upToDateChecking(callback, "a").migrate();
+        int migrations = callback.count;
+        upToDateChecking(callback, "a").migrate();
+        assertEquals(migrations, callback.count);
+
+        assertEquals(1, upToDateChecking(callback, "b").migrate().migrationsExecuted);
+        assertEquals(1, count("SELECT COUNT(*) FROM t WHERE name = 'b'"));
+    }
+
+    @Test
+    public void upToDateCheckNoticesMigrationsAppliedElsewhere() throws Exception {
+        url = "jdbc:h2:mem:up_to_date_elsewhere;DB_CLOSE_DELAY=-1";
+        write("V1__table.sql", "CREATE TABLE t (id INT);");
+        CountingCallback callback = new CountingCallback();
+        upToDateChecking(callback, "a").migrate();
+        upToDateChecking(callback, "a").migrate();
+
+        // A node without the check applies a migration this one does not know about
+        write("V2__insert.sql", "INSERT INTO t VALUES (2);");
+        load().migrate();
+        Files.delete(location.resolve("V2__insert.sql"));
+
+        int migrations = callback.count;
+        upToDateChecking(callback, "a").migrate();
+        assertEquals(migrations + 1, callback.count);
+    }
+
+    /**
+     * Counts the migrate operations which got as far as firing {@code beforeMigrate}.
+     */
+    private static class CountingCallback implements Callback {
+        private int count;
+
+        @Override
+        public boolean supports(Event event, Context context) {
+            return event == Event.BEFORE_MIGRATE;
+        }
+
+        @Override
+        public boolean canHandleInTransaction(Event event, Context context) {
+            return true;
+        }
+
+        @Override
+        public void handle(Event event, Context context) {
+            count++;
+        }
+
+        @Override
+        public String getCallbackName() {
+            return "counting";
+        }
+    }
+
+    private Flyway upToDateChecking(Callback callback, String value) {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("filesystem:" + location)
+                .upToDateCheck(true)
+                .ignoreMigrationPatterns("*:future")
+                .placeholders(Collections.singletonMap("value", value))
+                .callbacks(callback)
+                .load();
+    }
+
+    /**
+     * @return A connection holding the lock on the rows of table t until it is rolled back.
+     */
+    private Connection lockTable() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE t SET id = id");
+        }
+        return connection;
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+
+    private Flyway load() {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("filesystem:" + location)
+                .load();
+    }
+
+    private void write(String name, String content) throws Exception {
+        Files.write(location.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationVersionTests {
+    private static final String LONG_MAX = Long.toString(Long.MAX_VALUE);
+    private static final String LONG_MAX_PLUS_ONE = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE).toString();
+
+    @Test
+    public void trailingZerosAreIgnored() {
+        assertSameVersion("1", "1.0");
+        assertSameVersion("1", "1.0.0");
+        assertSameVersion("1.0", "1.0.0");
+        assertSameVersion("1.2", "1.2.0.0");
+        assertNotEquals(MigrationVersion.fromVersion("1"), MigrationVersion.fromVersion("1.0.1"));
+    }
+
+    @Test
+    public void trailingZerosAreKeptForDisplay() {
+        assertEquals("1.0.0", MigrationVersion.fromVersion("1.0.0").toString());
+        assertEquals("1.0.0", MigrationVersion.fromVersion("1.0.0").getVersion());
+        assertEquals("1", MigrationVersion.fromVersion("1.0.0").getMajorAsString());
+        assertEquals("0", MigrationVersion.fromVersion("1.0.0").getMinorAsString());
+    }
+
+    @Test
+    public void partsOverflowingALongAreCompared() {
+        // A plain Long.MAX_VALUE is LATEST, hence the leading part
+        assertTrue(compare("1." + LONG_MAX_PLUS_ONE, "1." + LONG_MAX) > 0);
+        assertTrue(compare("1." + LONG_MAX, "1." + LONG_MAX_PLUS_ONE) < 0);
+        assertTrue(compare("1." + LONG_MAX_PLUS_ONE, "1." + LONG_MAX + ".1") > 0);
+        assertTrue(compare("2", "1." + LONG_MAX_PLUS_ONE) > 0);
+        assertTrue(compare("99999999999999999999999", "99999999999999999999998") > 0);
+        assertEquals(new BigInteger(LONG_MAX_PLUS_ONE), MigrationVersion.fromVersion(LONG_MAX_PLUS_ONE + ".3").getMajor());
+        assertEquals("3", MigrationVersion.fromVersion(LONG_MAX_PLUS_ONE + ".3").getMinorAsString());
+    }
+
+    @Test
+    public void partsOverflowingALongFollowTheSameEqualityRules() {
+        assertSameVersion(LONG_MAX_PLUS_ONE, LONG_MAX_PLUS_ONE + ".0");
+        assertSameVersion("1." + LONG_MAX_PLUS_ONE, "1." + LONG_MAX_PLUS_ONE + ".0.0");
+        assertNotEquals(MigrationVersion.fromVersion("1." + LONG_MAX_PLUS_ONE), MigrationVersion.fromVersion("1." + LONG_MAX));
+    }
+
+    @Test
+    public void longPartsWithLeadingZerosStillFitInALong() {
+        assertSameVersion("1", "00000000000000000000000000001");
+        assertSameVersion("1." + LONG_MAX, "1.0000" + LONG_MAX);
+    }
+
+    @Test
+    public void underscoresAreDots() {
+        assertSameVersion("1.2.3", "1_2_3");
+        assertSameVersion("1.2", "1_2_0");
+        assertEquals("1.2.3", MigrationVersion.fromVersion("1_2_3").toString());
+    }
+
+    @Test
+    public void leadingZerosAreIgnored() {
+        assertSameVersion("1.2", "001.02");
+        assertSameVersion("0.1", "000.001");
+        assertTrue(compare("010", "9") > 0);
+        assertEquals("001.02", MigrationVersion.fromVersion("001.02").toString());
+    }
+
+    @Test
+    public void specialVersionsAreNotParsedVersions() {
+        MigrationVersion zero = MigrationVersion.fromVersion("0");
+        assertNotSame(MigrationVersion.EMPTY, zero);
+        assertNotEquals(MigrationVersion.EMPTY, zero);
+        assertNotEquals(zero, MigrationVersion.EMPTY);
+        assertTrue(MigrationVersion.EMPTY.compareTo(zero) < 0);
+        assertTrue(zero.compareTo(MigrationVersion.EMPTY) > 0);
+        assertNull(MigrationVersion.EMPTY.getVersion());
+        assertEquals("0", zero.getVersion());
+
+        assertEquals(4, new HashSet<>(Arrays.asList(MigrationVersion.EMPTY, MigrationVersion.LATEST,
+                                                    MigrationVersion.CURRENT, MigrationVersion.NEXT)).size());
+        assertFalse(new HashSet<>(Arrays.asList(MigrationVersion.EMPTY, MigrationVersion.LATEST,
+                                                MigrationVersion.CURRENT, MigrationVersion.NEXT)).contains(zero));
+    }
+
+    @Test
+    public void specialVersionsAreParsedByName() {
+        assertSame(MigrationVersion.EMPTY, MigrationVersion.fromVersion(null));
+        assertSame(MigrationVersion.LATEST, MigrationVersion.fromVersion("latest"));
+        assertSame(MigrationVersion.LATEST, MigrationVersion.fromVersion(LONG_MAX));
+        assertSame(MigrationVersion.CURRENT, MigrationVersion.fromVersion("Current"));
+        assertSame(MigrationVersion.NEXT, MigrationVersion.fromVersion("NEXT"));
+        assertTrue(MigrationVersion.LATEST.compareTo(MigrationVersion.fromVersion(LONG_MAX_PLUS_ONE)) > 0);
+    }
+
+    @Test
+    public void negativePartsAreInvalid() {
+        // LATEST, CURRENT and NEXT are stored as -1, -2 and -3
+        for (String version : new String[] {"-1", "-2", "-3", "1.-1", "+1"}) {
+            FlywayException e = assertThrows(FlywayException.class, () -> MigrationVersion.fromVersion(version));
+            assertEquals("Version may only contain 0..9 and . (dot). Invalid version: " + version, e.getMessage());
+        }
+    }
+
+    @Test
+    public void invalidVersionsAreReported() {
+        assertInvalid("1.a", "1.a");
+        assertInvalid("1_a", "1.a");
+        assertInvalid("1.2-SNAPSHOT", "1.2-SNAPSHOT");
+        assertInvalid("1.", "1.");
+        assertInvalid("1..2", "1..2");
+        assertInvalid("", "");
+        assertInvalid("v1", "v1");
+        assertInvalid(" 1", " 1");
+    }
+
+    @Test
+    public void parsedVersionsAreInterned() {
+        assertSame(MigrationVersion.fromVersion("7.8.9"), MigrationVersion.fromVersion("7.8.9"));
+    }
+
+    private static void assertSameVersion(String version, String otherVersion) {
+        MigrationVersion migrationVersion = MigrationVersion.fromVersion(version);
+        MigrationVersion otherMigrationVersion = MigrationVersion.fromVersion(otherVersion);
+        assertEquals(migrationVersion, otherMigrationVersion);
+        assertEquals(otherMigrationVersion, migrationVersion);
+        assertEquals(migrationVersion.hashCode(), otherMigrationVersion.hashCode());
+        assertEquals(0, migrationVersion.compareTo(otherMigrationVersion));
+        assertEquals(0, otherMigrationVersion.compareTo(migrationVersion));
+    }
+
+    private static int compare(String version, String otherVersion) {
+        return MigrationVersion.fromVersion(version).compareTo(MigrationVersion.fromVersion(otherVersion));
+    }
+
+    private static void assertInvalid(String version, String displayed) {
+        FlywayException e = assertThrows(FlywayException.class, () -> MigrationVersion.fromVersion(version));
+        assertEquals("Version may only contain 0..9 and . (dot). Invalid version: " + displayed, e.getMessage());
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.command;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DbMigrateTests {
+    private static final String URL = "jdbc:h2:mem:db_migrate;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path location;
+    private String url = URL;
+
+    @Test
+    public void expiredClaimIsTakenOver() throws Exception {
+        write("V1__first.sql", "CREATE TABLE t (id INT);");
+        configure(3600).load().migrate();
+
+        write("R__slow.sql", "INSERT INTO t VALUES (1);");
+        write("R__slow.sql.conf", "background=true");
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            // Left behind by a node which stopped while applying the migration two hours ago
+            statement.execute("INSERT INTO \"flyway_schema_history\" (\"installed_rank\", \"description\", \"type\", \"script\","
+                                      + " \"installed_by\", \"installed_on\", \"execution_time\", \"success\")"
+                                      + " VALUES (-1001, 'slow', 'CLAIM', 'R__slow.sql', 'gone', DATEADD(HOUR, -2, CURRENT_TIMESTAMP), 0, FALSE)");
+        }
+
+        Flyway flyway = configure(3600).load();
+        flyway.migrate();
+        flyway.getBackgroundMigrations().completion().get(30, TimeUnit.SECONDS);
+
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(resultSet.next());
+            assertEquals(1, resultSet.getInt(1));
+        }
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"installed_rank\" <= -1000")) {
+            assertTrue(resultSet.next());
+            assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    public void checkpointIsClearedAlongWithTheHistoryRow() throws Exception {
+        url = "jdbc:h2:mem:checkpoint_cleared;DB_CLOSE_DELAY=-1";
+        writeResumable();
+
+        configure(3600).load().migrate();
+
+        assertEquals(2, count("SELECT COUNT(*) FROM t"));
+        assertEquals(1, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"version\" = '1' AND \"success\""));
+        assertEquals(0, count("SELECT COUNT(*) FROM \"flyway_schema_history_ckpt\""));
+    }
+
+    @Test
+    public void checkpointFailingToClearKeepsTheMigrationUnrecorded() throws Exception {
+        url = "jdbc:h2:mem:checkpoint_kept;DB_CLOSE_DELAY=-1";
+        write("V0__init.sql", "CREATE TABLE t0 (id INT);");
+        configure(3600).load().migrate();
+        writeResumable();
+        execute("CREATE TABLE \"flyway_schema_history_ckpt\" (\"script\" VARCHAR(1000) NOT NULL, \"checksum\" INT NOT NULL,"
+                        + " \"statement_offset\" INT NOT NULL)");
+        execute("CREATE TRIGGER fail_clear BEFORE DELETE ON \"flyway_schema_history_ckpt\" FOR EACH ROW CALL '"
+                        + FailingTrigger.class.getName() + "'");
+
+        assertThrows(FlywayException.class, () -> configure(3600).load().migrate());
+
+        // The history row was rolled back along with the removal of the checkpoint
+        assertEquals(0, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"version\" = '1'"));
+        assertEquals(3, count("SELECT \"statement_offset\" FROM \"flyway_schema_history_ckpt\""));
+
+        execute("DROP TRIGGER fail_clear");
+        configure(3600).load().migrate();
+
+        // Resumed after the statements already committed, and only recorded
+        assertEquals(2, count("SELECT COUNT(*) FROM t"));
+        assertEquals(1, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"version\" = '1' AND \"success\""));
+        assertEquals(0, count("SELECT COUNT(*) FROM \"flyway_schema_history_ckpt\""));
+    }
+
+    @Test
+    public void concurrentRepeatablesWaitForTheirDependencies() throws Exception {
+        url = "jdbc:h2:mem:repeatables_depends_on;DB_CLOSE_DELAY=-1";
+        writeRepeatables();
+
+        configure(3600).repeatableMigrationThreads(3).load().migrate();
+
+        // b and c only insert once the migration they depend on has
+        assertEquals(1, count("SELECT COUNT(*) FROM log WHERE name = 'b'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM log WHERE name = 'c'"));
+        assertEquals(4, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"script\" LIKE 'R__%' AND \"success\""));
+        assertTrue(rank("R__a.sql") < rank("R__b.sql"));
+        assertTrue(rank("R__b.sql") < rank("R__c.sql"));
+        // a and d started together, each on a connection of its own
+        assertTrue(count("SELECT COUNT(DISTINCT session) FROM log") > 1);
+    }
+
+    @Test
+    public void failedConcurrentRepeatableStopsItsDependents() throws Exception {
+        url = "jdbc:h2:mem:repeatables_failure;DB_CLOSE_DELAY=-1";
+        writeRepeatables();
+        write("R__b.sql", "INSERT INTO missing VALUES (1);");
+
+        assertThrows(FlywayException.class, () -> configure(3600).repeatableMigrationThreads(3).load().migrate());
+
+        assertEquals(0, count("SELECT COUNT(*) FROM log WHERE name = 'c'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"script\" = 'R__a.sql' AND \"success\""));
+        assertEquals(0, count("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"script\" IN ('R__b.sql', 'R__c.sql') AND \"success\""));
+    }
+
+    @Test
+    public void circularDependenciesBetweenRepeatablesAreRefused() throws Exception {
+        url = "jdbc:h2:mem:repeatables_circular;DB_CLOSE_DELAY=-1";
+        writeRepeatables();
+        write("R__a.sql.conf", "dependsOn=R__c.sql");
+
+        FlywayException e = assertThrows(FlywayException.class, () -> configure(3600).repeatableMigrationThreads(3).load().migrate());
+
+        assertTrue(e.getMessage().contains("Circular dependsOn"), e.getMessage());
+        assertEquals(0, count("SELECT COUNT(*) FROM log"));
+    }
+
+    @Test
+    public void groupedRepeatablesAreAppliedSerially() throws Exception {
+        url = "jdbc:h2:mem:repeatables_grouped;DB_CLOSE_DELAY=-1";
+        writeRepeatables();
+
+        configure(3600).repeatableMigrationThreads(3).group(true).load().migrate();
+
+        assertEquals(4, count("SELECT COUNT(*) FROM log"));
+        assertEquals(1, count("SELECT COUNT(DISTINCT session) FROM log"));
+    }
+
+    @Test
+    public void singleRepeatableThreadAppliesSerially() throws Exception {
+        url = "jdbc:h2:mem:repeatables_single_thread;DB_CLOSE_DELAY=-1";
+        writeRepeatables();
+
+        configure(3600).repeatableMigrationThreads(1).load().migrate();
+
+        assertEquals(4, count("SELECT COUNT(*) FROM log"));
+        assertEquals(1, count("SELECT COUNT(DISTINCT session) FROM log"));
+    }
+
+    /**
+     * Fails every deletion from the table it is created on.
+     */
+    public static class FailingTrigger implements Trigger {
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            throw new SQLException("Deletion refused");
+        }
+    }
+
+    private void writeResumable() throws Exception {
+        write("V1__resumable.sql", "CREATE TABLE t (id INT);\nINSERT INTO t VALUES (1);\nINSERT INTO t VALUES (2);");
+        write("V1__resumable.sql.conf", "commitEvery=5");
+    }
+
+    /**
+     * Writes the repeatable migrations a to d, where c depends on b which depends on a. Each of them records the
+     * session it was applied on.
+     */
+    private void writeRepeatables() throws Exception {
+        write("V1__log.sql", "CREATE TABLE log (name VARCHAR(10), session INT);");
+        write("R__a.sql", "INSERT INTO log VALUES ('a', SESSION_ID());");
+        write("R__b.sql", "INSERT INTO log SELECT 'b', SESSION_ID() FROM log WHERE name = 'a';");
+        write("R__b.sql.conf", "dependsOn=R__a.sql");
+        write("R__c.sql", "INSERT INTO log SELECT 'c', SESSION_ID() FROM log WHERE name = 'b';");
+        write("R__c.sql.conf", "dependsOn=b");
+        write("R__d.sql", "INSERT INTO log VALUES ('d', SESSION_ID());");
+    }
+
+    private int rank(String script) throws SQLException {
+        return count("SELECT \"installed_rank\" FROM \"flyway_schema_history\" WHERE \"script\" = '" + script + "'");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+
+    private FluentConfiguration configure(int backgroundClaimTimeout) {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("filesystem:" + location)
+                .backgroundClaimTimeout(backgroundClaimTimeout);
+    }
+
+    private void write(String name, String content) throws Exception {
+        Files.write(location.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
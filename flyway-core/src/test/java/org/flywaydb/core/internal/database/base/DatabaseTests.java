@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.database.base;
+
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.internal.jdbc.JdbcConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseTests {
+    private Database<?> database;
+    private Connection<?> connection;
+
+    @BeforeEach
+    public void setUp() {
+        database = open("jdbc:h2:mem:known_objects;DB_CLOSE_DELAY=-1");
+        connection = database.getMainConnection();
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.getJdbcTemplate().execute("DROP ALL OBJECTS");
+        database.close();
+    }
+
+    @Test
+    public void existingTableIsCheckedOnce() throws SQLException {
+        connection.getJdbcTemplate().execute("CREATE TABLE t (id INT)");
+        Table table = connection.getSchema("PUBLIC").getTable("T");
+
+        assertTrue(table.exists());
+        assertTrue(table.exists());
+        assertEquals(1, database.getSessionStateMetrics().getSavedRoundTrips());
+    }
+
+    @Test
+    public void missingTableIsNotRemembered() throws SQLException {
+        Table table = connection.getSchema("PUBLIC").getTable("T");
+        assertFalse(table.exists());
+
+        connection.getJdbcTemplate().execute("CREATE TABLE t (id INT)");
+
+        assertTrue(table.exists());
+    }
+
+    @Test
+    public void tableDroppedByStatementsOutsideFlywayIsCheckedAgain() throws SQLException {
+        connection.getJdbcTemplate().execute("CREATE TABLE t (id INT)");
+        Table table = connection.getSchema("PUBLIC").getTable("T");
+        assertTrue(table.exists());
+
+        // As a migration would
+        database.getMigrationConnection().getJdbcTemplate().execute("DROP TABLE t");
+        database.getMigrationConnection().invalidateSessionState();
+
+        assertFalse(table.exists());
+    }
+
+    @Test
+    public void tableDroppedByFlywayIsCheckedAgain() throws SQLException {
+        connection.getJdbcTemplate().execute("CREATE TABLE t (id INT)");
+        Table table = connection.getSchema("PUBLIC").getTable("T");
+        assertTrue(table.exists());
+
+        table.drop();
+
+        assertFalse(table.exists());
+    }
+
+    @Test
+    public void savedRoundTripsAreCountedPerDatabase() throws SQLException {
+        connection.getJdbcTemplate().execute("CREATE TABLE t (id INT)");
+        Database<?> other = open("jdbc:h2:mem:known_objects;DB_CLOSE_DELAY=-1");
+        try {
+            Table table = connection.getSchema("PUBLIC").getTable("T");
+            table.exists();
+            table.exists();
+
+            assertEquals(1, database.getSessionStateMetrics().getSavedRoundTrips());
+            assertEquals(0, other.getSessionStateMetrics().getSavedRoundTrips());
+        } finally {
+            other.close();
+        }
+    }
+
+    private static Database<?> open(String url) {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setDataSource(url, "sa", "");
+        JdbcConnectionFactory jdbcConnectionFactory = new JdbcConnectionFactory(configuration.getDataSource(), configuration, null);
+        return jdbcConnectionFactory.getDatabaseType().createDatabase(configuration, false, jdbcConnectionFactory, null);
+    }
+}
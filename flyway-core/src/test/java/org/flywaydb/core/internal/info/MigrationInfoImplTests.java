@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.info;
+
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
+import org.flywaydb.core.internal.resolver.sql.SqlMigrationExecutor;
+import org.flywaydb.core.internal.resource.StringResource;
+import org.flywaydb.core.internal.schemahistory.BaseAppliedMigration;
+import org.flywaydb.core.internal.sqlscript.LazySqlScript;
+import org.flywaydb.core.internal.sqlscript.SqlScript;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the script of a SQL migration is only created when its state depends on it, that is while it is not
+ * applied yet.
+ */
+public class MigrationInfoImplTests {
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    public void appliedMigrationDoesNotCreateItsScript() {
+        ResolvedMigration resolvedMigration = resolved("1", false);
+        MigrationInfoImpl info = new MigrationInfoImpl(resolvedMigration,
+                new BaseAppliedMigration(1, MigrationVersion.fromVersion("1"), "v1", CoreMigrationType.SQL, "V1__v1.sql",
+                                         1, new Date(), "test", 0, true),
+                context(), false, false, false);
+
+        assertEquals(MigrationState.SUCCESS, info.getState());
+        assertNull(info.validate());
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    public void pendingMigrationNotToBeExecutedIsIgnored() {
+        MigrationInfoImpl info = new MigrationInfoImpl(resolved("2", false), null, context(), false, false, false);
+
+        assertEquals(MigrationState.IGNORED, info.getState());
+        assertNull(info.validate());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void pendingMigrationToBeExecutedIsPending() {
+        MigrationInfoImpl info = new MigrationInfoImpl(resolved("2", true), null, context(), false, false, false);
+
+        assertEquals(MigrationState.PENDING, info.getState());
+        assertEquals(1, created.get());
+    }
+
+    private static MigrationInfoContext context() {
+        MigrationInfoContext context = new MigrationInfoContext();
+        context.lastApplied = MigrationVersion.fromVersion("1");
+        context.appliedBaseline = MigrationVersion.EMPTY;
+        context.pendingBaseline = MigrationVersion.EMPTY;
+        return context;
+    }
+
+    private ResolvedMigration resolved(String version, boolean shouldExecute) {
+        String script = "V" + version + "__v" + version + ".sql";
+        LazySqlScript sqlScript = new LazySqlScript(new StringResource("SELECT 1;"), () -> {
+            created.incrementAndGet();
+            return (SqlScript) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {SqlScript.class}, (proxy, method, args) -> {
+                if ("shouldExecute".equals(method.getName())) {
+                    return shouldExecute;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        });
+        return new ResolvedMigrationImpl(MigrationVersion.fromVersion(version), "v" + version, script, 1, null,
+                                         CoreMigrationType.SQL, script, new SqlMigrationExecutor(null, sqlScript, false, false));
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.info;
+
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.ErrorCode;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationPattern;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.output.RepairResult;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.extensibility.AppliedMigration;
+import org.flywaydb.core.extensibility.MigrationType;
+import org.flywaydb.core.internal.resolver.CompositeMigrationResolver;
+import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
+import org.flywaydb.core.internal.schemahistory.BaseAppliedMigration;
+import org.flywaydb.core.internal.schemahistory.SchemaHistory;
+import org.flywaydb.core.internal.util.ValidatePatternUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how schema history rows are matched to the resolved migrations, including several scripts sharing a version,
+ * and that folding new rows into the infos of an earlier refresh gives the same infos as a full refresh, whether the
+ * rows can be folded or a full refresh is needed.
+ */
+public class MigrationInfoServiceImplTests {
+    private final List<ResolvedMigration> resolved = new ArrayList<>();
+    private final FakeSchemaHistory history = new FakeSchemaHistory();
+    private boolean outOfOrder;
+
+    @Test
+    public void migrationsAppliedInOrder() {
+        resolve(versioned("1", 1), versioned("2", 2), versioned("3", 3), repeatable("a", 10));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+
+        assertIncrementalMatchesFull(() -> {
+            history.add("2", CoreMigrationType.SQL, 2, true);
+            history.add(null, CoreMigrationType.SQL, 10, true);
+            history.add("3", CoreMigrationType.SQL, 3, true);
+        });
+    }
+
+    @Test
+    public void migrationAppliedOutOfOrder() {
+        outOfOrder = true;
+        resolve(versioned("1", 1), versioned("2", 2), versioned("3", 3));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+        history.add("3", CoreMigrationType.SQL, 3, true);
+
+        assertIncrementalMatchesFull(() -> history.add("2", CoreMigrationType.SQL, 2, true));
+    }
+
+    @Test
+    public void repeatableReappliedWithNewChecksum() {
+        resolve(versioned("1", 1), repeatable("a", 20));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+        history.add(null, CoreMigrationType.SQL, 10, true);
+
+        assertIncrementalMatchesFull(() -> history.add(null, CoreMigrationType.SQL, 20, true));
+    }
+
+    @Test
+    public void repeatableAppliedWithOtherChecksum() {
+        resolve(repeatable("a", 20));
+
+        assertIncrementalMatchesFull(() -> history.add(null, CoreMigrationType.SQL, 30, true));
+    }
+
+    @Test
+    public void failedMigration() {
+        resolve(versioned("1", 1), versioned("2", 2), repeatable("a", 10));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+
+        assertIncrementalMatchesFull(() -> {
+            history.add(null, CoreMigrationType.SQL, 10, false);
+            history.add("2", CoreMigrationType.SQL, 2, false);
+        });
+    }
+
+    @Test
+    public void baselineMarker() {
+        resolve(versioned("1", 1), versioned("2", 2), versioned("3", 3));
+
+        assertIncrementalMatchesFull(() -> history.add("2", CoreMigrationType.BASELINE, null, true));
+    }
+
+    @Test
+    public void undoneMigration() {
+        resolve(versioned("1", 1), versioned("2", 2));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+        history.add("2", CoreMigrationType.SQL, 2, true);
+
+        assertIncrementalMatchesFull(() -> history.add("2", CoreMigrationType.UNDO_SQL, 2, true));
+    }
+
+    @Test
+    public void deletedMigration() {
+        resolve(versioned("1", 1), versioned("2", 2));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+        history.add("2", CoreMigrationType.SQL, 2, true);
+
+        assertIncrementalMatchesFull(() -> history.add("2", CoreMigrationType.DELETE, null, true));
+    }
+
+    @Test
+    public void futureMigration() {
+        resolve(versioned("1", 1), versioned("2", 2));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+
+        assertIncrementalMatchesFull(() -> {
+            history.add("2", CoreMigrationType.SQL, 2, true);
+            history.add("9", CoreMigrationType.SQL, 9, true);
+        });
+    }
+
+    @Test
+    public void foldedRowsFollowedByMarker() {
+        resolve(versioned("1", 1), versioned("2", 2), versioned("3", 3));
+        history.add("1", CoreMigrationType.SQL, 1, true);
+
+        MigrationInfoServiceImpl incremental = service();
+        incremental.refresh();
+        describe(incremental);
+        history.add("2", CoreMigrationType.SQL, 2, true);
+        incremental.refreshIncrementally();
+        assertEquals(describe(fullRefresh()), describe(incremental));
+
+        history.add("2", CoreMigrationType.UNDO_SQL, 2, true);
+        history.add("3", CoreMigrationType.SQL, 3, true);
+        incremental.refreshIncrementally();
+        assertEquals(describe(fullRefresh()), describe(incremental));
+    }
+
+    @Test
+    public void scriptsSharingAVersionAreMatchedByScript() {
+        outOfOrder = true;
+        resolve(versioned("1", "V1__a.sql", 1), versioned("1", "V1__b.sql", 2), versioned("2", 3));
+        history.add("1", "V1__b.sql", CoreMigrationType.SQL, 2, true);
+        history.add("2", CoreMigrationType.SQL, 3, true);
+
+        assertEquals(Arrays.asList("V1__b.sql 2 Success", "V2__v2.sql 3 Success", "V1__a.sql 1 Pending"), states(fullRefresh()));
+    }
+
+    @Test
+    public void deleteMarksTheLatestRowOfItsScriptOnly() {
+        resolve(versioned("1", "V1__a.sql", 1), versioned("1", "V1__b.sql", 2));
+        history.add("1", "V1__a.sql", CoreMigrationType.SQL, 1, true);
+        history.add("1", "V1__b.sql", CoreMigrationType.SQL, 2, true);
+        history.add("1", "V1__b.sql", CoreMigrationType.DELETE, null, true);
+
+        assertEquals(Arrays.asList("V1__a.sql 1 Success", "V1__b.sql 2 Deleted", "V1__b.sql 2 Pending"), states(fullRefresh()));
+    }
+
+    @Test
+    public void deletedScriptMayBeAppliedAndDeletedAgain() {
+        resolve(versioned("1", "V1__a.sql", 1));
+        history.add("1", "V1__a.sql", CoreMigrationType.SQL, 1, true);
+        history.add("1", "V1__a.sql", CoreMigrationType.DELETE, null, true);
+        history.add("1", "V1__a.sql", CoreMigrationType.SQL, 1, true);
+        assertEquals(Arrays.asList("V1__a.sql 1 Deleted", "V1__a.sql 1 Success"), states(fullRefresh()));
+
+        // Marks the row applied since the first delete, instead of refusing a second delete of the first row
+        history.add("1", "V1__a.sql", CoreMigrationType.DELETE, null, true);
+        assertEquals(Arrays.asList("V1__a.sql 1 Deleted", "V1__a.sql 1 Deleted", "V1__a.sql 1 Pending"), states(fullRefresh()));
+    }
+
+    @Test
+    public void duplicateDeleteIsRefused() {
+        resolve(versioned("1", "V1__a.sql", 1));
+        history.add("1", "V1__a.sql", CoreMigrationType.SQL, 1, true);
+        history.add("1", "V1__a.sql", CoreMigrationType.DELETE, null, true);
+        history.add("1", "V1__a.sql", CoreMigrationType.DELETE, null, true);
+
+        FlywayException e = assertThrows(FlywayException.class, this::fullRefresh);
+        assertEquals(ErrorCode.DUPLICATE_DELETED_MIGRATION, e.getErrorCode());
+    }
+
+    @Test
+    public void repeatableDeleteMarksItsLatestRow() {
+        resolve(repeatable("a", 20));
+        history.add(null, CoreMigrationType.SQL, 10, true);
+        history.add(null, CoreMigrationType.SQL, 20, true);
+        history.add(null, CoreMigrationType.DELETE, null, true);
+
+        assertEquals(Arrays.asList("R__a.sql 10 Superseded", "R__a.sql 20 Deleted", "R__a.sql null Success", "R__a.sql 20 Pending"),
+                     states(fullRefresh()));
+    }
+
+    /**
+     * Refreshes a service, applies these changes to the history, then brings the service up to date incrementally
+     * and compares it to a service refreshed from scratch.
+     */
+    private void assertIncrementalMatchesFull(Runnable changes) {
+        MigrationInfoServiceImpl incremental = service();
+        incremental.refresh();
+        // Computes the cached current, failed and future infos before the changes
+        describe(incremental);
+
+        changes.run();
+        incremental.refreshIncrementally();
+
+        assertEquals(describe(fullRefresh()), describe(incremental));
+    }
+
+    private MigrationInfoServiceImpl fullRefresh() {
+        MigrationInfoServiceImpl full = service();
+        full.refresh();
+        return full;
+    }
+
+    private MigrationInfoServiceImpl service() {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setSkipDefaultResolvers(true);
+        CompositeMigrationResolver resolver = new CompositeMigrationResolver(null, null, null, configuration,
+                null, null, null, null, context -> new ArrayList<>(resolved));
+        return new MigrationInfoServiceImpl(resolver, history, null, configuration, MigrationVersion.LATEST, outOfOrder,
+                                            ValidatePatternUtils.getIgnoreAllPattern(), null);
+    }
+
+    private static List<String> describe(MigrationInfoServiceImpl service) {
+        List<String> description = new ArrayList<>();
+        for (MigrationInfo info : service.all()) {
+            description.add(describe(info));
+        }
+        description.add("current " + describe(service.current()));
+        description.add("pending " + describe(service.pending()));
+        description.add("failed " + describe(service.failed()));
+        description.add("future " + describe(service.future()));
+        description.add("outOfOrder " + describe(service.outOfOrder()));
+        return description;
+    }
+
+    private static List<String> states(MigrationInfoServiceImpl service) {
+        List<String> states = new ArrayList<>();
+        for (MigrationInfo info : service.all()) {
+            states.add(info.getScript() + " " + info.getChecksum() + " " + info.getState().getDisplayName());
+        }
+        return states;
+    }
+
+    private static String describe(MigrationInfo[] infos) {
+        List<String> description = new ArrayList<>();
+        for (MigrationInfo info : infos) {
+            description.add(describe(info));
+        }
+        return description.toString();
+    }
+
+    private static String describe(MigrationInfo info) {
+        if (info == null) {
+            return "none";
+        }
+        return info.getType() + " " + info.getVersion() + " " + info.getDescription() + " " + info.getChecksum()
+                + " " + info.getState() + " " + info.getInstalledRank();
+    }
+
+    private void resolve(ResolvedMigration... migrations) {
+        resolved.addAll(Arrays.asList(migrations));
+    }
+
+    private static ResolvedMigration versioned(String version, int checksum) {
+        return new ResolvedMigrationImpl(MigrationVersion.fromVersion(version), "v" + version, "V" + version + "__v" + version + ".sql",
+                                         checksum, null, CoreMigrationType.SQL, "V" + version + "__v" + version + ".sql", null);
+    }
+
+    private static ResolvedMigration versioned(String version, String script, int checksum) {
+        return new ResolvedMigrationImpl(MigrationVersion.fromVersion(version), script.substring(script.indexOf("__") + 2, script.length() - 4),
+                                         script, checksum, null, CoreMigrationType.SQL, script, null);
+    }
+
+    private static ResolvedMigration repeatable(String description, int checksum) {
+        return new ResolvedMigrationImpl(null, description, "R__" + description + ".sql",
+                                         checksum, null, CoreMigrationType.SQL, "R__" + description + ".sql", null);
+    }
+
+    private static class FakeSchemaHistory extends SchemaHistory {
+        private final List<AppliedMigration> rows = new ArrayList<>();
+
+        /**
+         * Adds a row for the versioned migration of this version, or for repeatable "a" if the version is null.
+         */
+        void add(String version, MigrationType type, Integer checksum, boolean success) {
+            add(version, version == null ? "R__a.sql" : "V" + version + "__v" + version + ".sql", type, checksum, success);
+        }
+
+        /**
+         * Adds a row for this script, described by the part of its name after the version.
+         */
+        void add(String version, String script, MigrationType type, Integer checksum, boolean success) {
+            String description = script.substring(script.indexOf("__") + 2, script.length() - 4);
+            rows.add(new BaseAppliedMigration(rows.size() + 1, version == null ? null : MigrationVersion.fromVersion(version),
+                                              description, type, script, checksum, new Date(), "test", 0, success));
+        }
+
+        @Override
+        public List<AppliedMigration> allAppliedMigrations() {
+            return new ArrayList<>(rows);
+        }
+
+        @Override
+        public <T> T lock(Callable<T> callable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public void create(boolean baseline) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean removeFailedMigrations(RepairResult repairResult, MigrationPattern[] migrationPatternFilter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(AppliedMigration appliedMigration, ResolvedMigration resolvedMigration) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(AppliedMigration appliedMigration) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AppliedMigration> allClaims() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public AppliedMigration claim(MigrationVersion version, String description, String script, Integer checksum) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void release(AppliedMigration claim) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AppliedMigration> releaseAllClaims() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void doAddAppliedMigration(int installedRank, MigrationVersion version, String description,
+                                             MigrationType type, String script, Integer checksum,
+                                             int executionTime, boolean success) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.jdbc;
+
+import org.flywaydb.core.api.executor.RowSink;
+import org.flywaydb.core.internal.database.DatabaseTypeRegister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcTemplateTests {
+    private static final String QUERY = "SELECT COUNT(*) FROM cached WHERE id > ?";
+
+    private Connection connection;
+    private CountingJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:statement_cache", "sa", "");
+        jdbcTemplate = new CountingJdbcTemplate(connection);
+        jdbcTemplate.execute("CREATE TABLE cached (id INT)");
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        jdbcTemplate.closeStatements();
+        connection.close();
+    }
+
+    @Test
+    public void reusedStatementsAreBoundThroughSetParameters() throws SQLException {
+        int bound = jdbcTemplate.bound;
+        assertEquals(0, jdbcTemplate.queryForInt(QUERY, "0"));
+        assertEquals(0, jdbcTemplate.queryForInt(QUERY, "1"));
+
+        assertEquals(1, jdbcTemplate.prepared);
+        assertEquals(bound + 2, jdbcTemplate.bound);
+    }
+
+    @Test
+    public void dataStatementsKeepCachedStatements() throws SQLException {
+        jdbcTemplate.queryForInt(QUERY, "0");
+        jdbcTemplate.executeStatement("-- seed\nINSERT INTO cached VALUES (1)");
+        jdbcTemplate.executeBatch(Arrays.asList("INSERT INTO cached VALUES (2)", "UPDATE cached SET id = 3 WHERE id = 2"));
+        jdbcTemplate.execute("DELETE FROM cached WHERE id = ?", 1);
+        jdbcTemplate.executeStatement("SELECT * FROM cached");
+
+        assertEquals(1, jdbcTemplate.queryForInt(QUERY, "0"));
+        assertEquals(1, jdbcTemplate.prepared);
+    }
+
+    @Test
+    public void ddlFlushesCachedStatements() throws SQLException {
+        jdbcTemplate.queryForInt(QUERY, "0");
+        jdbcTemplate.executeStatement("/* widen */ ALTER TABLE cached ADD name VARCHAR(10)");
+
+        assertEquals(0, jdbcTemplate.queryForInt(QUERY, "0"));
+        assertEquals(2, jdbcTemplate.prepared);
+    }
+
+    @Test
+    public void ddlThroughAnotherTemplateOfTheConnectionFlushesCachedStatements() throws SQLException {
+        jdbcTemplate.queryForInt(QUERY, "0");
+        new JdbcTemplate(connection).executeStatement("ALTER TABLE cached ADD name VARCHAR(10)");
+
+        assertEquals(0, jdbcTemplate.queryForInt(QUERY, "0"));
+        assertEquals(2, jdbcTemplate.prepared);
+    }
+
+    @Test
+    public void ddlOnAnotherConnectionKeepsCachedStatements() throws SQLException {
+        jdbcTemplate.queryForInt(QUERY, "0");
+        try (Connection other = DriverManager.getConnection("jdbc:h2:mem:other_connection", "sa", "")) {
+            new JdbcTemplate(other).executeStatement("CREATE TABLE elsewhere (id INT)");
+        }
+
+        assertEquals(0, jdbcTemplate.queryForInt(QUERY, "0"));
+        assertEquals(1, jdbcTemplate.prepared);
+    }
+
+    @Test
+    public void ddlWhileAStatementIsInUseKeepsItOutOfTheCache() throws SQLException {
+        jdbcTemplate.query(QUERY, rs -> {
+            new JdbcTemplate(connection).execute("CREATE TABLE nested (id INT)");
+            return rs.getInt(1);
+        }, "0");
+
+        jdbcTemplate.queryForInt(QUERY, "0");
+        assertEquals(2, jdbcTemplate.prepared);
+    }
+
+    @Test
+    public void fetchSizeOfCachedStatementsIsRestored() throws SQLException {
+        List<Integer> fetchSizes = new ArrayList<>();
+        CountingJdbcTemplate recording = new CountingJdbcTemplate(recordFetchSizes(connection, fetchSizes));
+        int defaultFetchSize;
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            defaultFetchSize = statement.getFetchSize();
+        }
+
+        recording.query(QUERY, 50, rs -> rs.getInt(1), "0");
+        recording.query(QUERY, rs -> rs.getInt(1), "0");
+
+        assertEquals(1, recording.prepared);
+        assertEquals(Arrays.asList(50, defaultFetchSize), fetchSizes);
+        recording.closeStatements();
+    }
+
+    @Test
+    public void otherStatementsFlushCachedStatements() throws SQLException {
+        jdbcTemplate.queryForInt(QUERY, "0");
+        jdbcTemplate.executeBatch(Arrays.asList("INSERT INTO cached VALUES (1)", "TRUNCATE TABLE cached"));
+        jdbcTemplate.queryForInt(QUERY, "0");
+        jdbcTemplate.execute("SET SCHEMA PUBLIC");
+
+        assertEquals(0, jdbcTemplate.queryForInt(QUERY, "0"));
+        assertEquals(3, jdbcTemplate.prepared);
+    }
+
+    @Test
+    public void streamedResultsKeepOnlyTheMaximumButPassEveryRowToTheSink() throws SQLException {
+        jdbcTemplate.execute("INSERT INTO cached SELECT x FROM SYSTEM_RANGE(1, 5)");
+        RecordingRowSink sink = new RecordingRowSink();
+        jdbcTemplate.streamResults(0, 2, sink);
+
+        Result result = jdbcTemplate.executeStatement("SELECT id FROM cached ORDER BY id").getResults().get(0);
+
+        assertEquals(Arrays.asList(Arrays.asList("1"), Arrays.asList("2")), result.getData());
+        assertEquals(5, result.getRowCount());
+        assertEquals(Arrays.asList("start ID", "1", "2", "3", "4", "5", "end 5"), sink.events);
+    }
+
+    @Test
+    public void noMaximumKeepsEveryRow() throws SQLException {
+        jdbcTemplate.execute("INSERT INTO cached SELECT x FROM SYSTEM_RANGE(1, 1500)");
+        jdbcTemplate.streamResults(0, 0, null);
+
+        Result result = jdbcTemplate.executeStatement("SELECT id FROM cached").getResults().get(0);
+
+        assertEquals(1500, result.getData().size());
+        assertEquals(1500, result.getRowCount());
+    }
+
+    @Test
+    public void fetchSizeIsSetOnStatementsReadingResults() throws SQLException {
+        List<Integer> fetchSizes = new ArrayList<>();
+        JdbcTemplate recording = new JdbcTemplate(recordFetchSizes(connection, fetchSizes),
+                                                  DatabaseTypeRegister.getDatabaseTypeForConnection(connection))
+                .streamResults(50, 0, null);
+
+        recording.executeStatement("SELECT id FROM cached");
+        List<Map<String, String>> rows = recording.queryForList("SELECT id AS label FROM cached");
+
+        assertTrue(rows.isEmpty());
+        assertEquals(Arrays.asList(50, 50), fetchSizes);
+    }
+
+    /**
+     * Wraps this connection so that the fetch sizes set on its statements are recorded in this list.
+     */
+    private static Connection recordFetchSizes(Connection connection, List<Integer> fetchSizes) {
+        return (Connection) Proxy.newProxyInstance(JdbcTemplateTests.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (!(result instanceof Statement)) {
+                        return result;
+                    }
+                    return Proxy.newProxyInstance(JdbcTemplateTests.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                            (statementProxy, statementMethod, statementArgs) -> {
+                                if ("setFetchSize".equals(statementMethod.getName())) {
+                                    fetchSizes.add((Integer) statementArgs[0]);
+                                }
+                                return invoke(result, statementMethod, statementArgs);
+                            });
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class RecordingRowSink implements RowSink {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void start(String sql, List<String> columns) {
+            events.add("start " + String.join(",", columns));
+        }
+
+        @Override
+        public void row(List<String> row) {
+            events.add(String.join(",", row));
+        }
+
+        @Override
+        public void end(long rowCount) {
+            events.add("end " + rowCount);
+        }
+    }
+
+    /**
+     * Counts the times {@link #QUERY} is prepared, and the times params are bound to any statement.
+     */
+    private static class CountingJdbcTemplate extends JdbcTemplate {
+        private int prepared;
+        private int bound;
+
+        CountingJdbcTemplate(Connection connection) {
+            super(connection, DatabaseTypeRegister.getDatabaseTypeForConnection(connection), 4);
+        }
+
+        @Override
+        protected PreparedStatement prepareStatement(String sql, Object[] params) throws SQLException {
+            if (QUERY.equals(sql)) {
+                prepared++;
+            }
+            return super.prepareStatement(sql, params);
+        }
+
+        @Override
+        protected void setParameters(PreparedStatement statement, Object[] params) throws SQLException {
+            bound++;
+            super.setParameters(statement, params);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.parser;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.internal.sqlscript.Delimiter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each check with read-ahead buffers small enough for tokens, delimiters and escapes to straddle a block
+ * boundary, over an underlying reader that hands out a single character at a time.
+ */
+public class PeekingReaderTests {
+    private static final int MAX_BLOCK_SIZE = 9;
+
+    @Test
+    public void keywordSplitAcrossBlocks() throws IOException {
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            PeekingReader reader = reader("  select_1 from", blockSize);
+            assertEquals("  ", reader.readWhitespace(), "block size " + blockSize);
+            assertEquals("select_1", reader.readKeywordPart(null, context()), "block size " + blockSize);
+            assertTrue(reader.peekWhitespace(), "block size " + blockSize);
+            reader.swallow();
+            assertTrue(reader.peek("from"), "block size " + blockSize);
+            assertFalse(reader.peek("fromage"), "block size " + blockSize);
+            assertEquals("from", reader.readKeywordPart(null, context()), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void delimiterSplitAcrossBlocks() throws IOException {
+        Delimiter delimiter = new Delimiter("$$", false);
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            PeekingReader reader = reader("abcd$$efg$", blockSize);
+            assertEquals("abcd", reader.readKeywordPart(delimiter, context()), "block size " + blockSize);
+            assertTrue(reader.peek("$$"), "block size " + blockSize);
+            reader.swallow(2);
+            assertEquals("efg$", reader.readKeywordPart(delimiter, context()), "block size " + blockSize);
+            assertFalse(reader.peek("$$"), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void multiCharacterDelimiterSplitAcrossBlocks() throws IOException {
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            PeekingReader reader = reader("body */ tail", blockSize);
+            assertEquals("body ", reader.readUntilExcluding("*/"), "block size " + blockSize);
+            assertTrue(reader.peek("*/"), "block size " + blockSize);
+            reader.swallowUntilExcluding(" ");
+            assertEquals(" tail", reader.readUntilExcluding("--", "*/"), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void selfEscapedDelimiterSplitAcrossBlocks() throws IOException {
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            PeekingReader reader = reader("it''s'' done' next", blockSize);
+            reader.swallowUntilIncludingWithEscape('\'', true);
+            assertEquals(" next", reader.readUntilExcluding('\n', '\n'), "block size " + blockSize);
+
+            reader = reader("it''s'' done' next", blockSize);
+            assertEquals("it''s'' done", reader.readUntilExcludingWithEscape('\'', true), "block size " + blockSize);
+            assertTrue(reader.peek(' '), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void escapeCharacterSplitAcrossBlocks() throws IOException {
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            PeekingReader reader = reader("a\\\"b\\\\\" next", blockSize);
+            reader.swallowUntilIncludingWithEscape('"', false, '\\');
+            assertEquals(" next", reader.readUntilExcluding('\n', '\n'), "block size " + blockSize);
+
+            reader = reader("a\\\"b\\\\\" next", blockSize);
+            assertEquals("a\"b\\", reader.readUntilExcludingWithEscape('"', false, '\\'), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void peekAtEndOfInput() throws IOException {
+        for (int blockSize = 1; blockSize <= 3; blockSize++) {
+            PeekingReader reader = reader("ab", blockSize);
+            assertEquals("ab", reader.peek(5), "block size " + blockSize);
+            assertFalse(reader.peek("abc"), "block size " + blockSize);
+            reader.swallow(2);
+            assertNull(reader.peek(1), "block size " + blockSize);
+            assertFalse(reader.peek('a'), "block size " + blockSize);
+            assertFalse(reader.peek('a', 'b'), "block size " + blockSize);
+            assertFalse(reader.peek("a"), "block size " + blockSize);
+            assertFalse(reader.peekNumeric(), "block size " + blockSize);
+            assertFalse(reader.peekWhitespace(), "block size " + blockSize);
+            assertFalse(reader.peekKeywordPart(context()), "block size " + blockSize);
+            assertEquals(-1, reader.read(), "block size " + blockSize);
+            reader.swallow();
+            assertEquals(-1, reader.read(new char[4], 0, 4), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void peekStopsAtEndOfLine() throws IOException {
+        for (int blockSize = 1; blockSize <= 3; blockSize++) {
+            assertEquals("ab\n", reader("ab\ncd", blockSize).peek(5), "block size " + blockSize);
+            assertFalse(reader("a\nb", blockSize).peek("a\nb"), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void readUntilExcludingAtEndOfInput() throws IOException {
+        for (int blockSize = 1; blockSize <= 3; blockSize++) {
+            PeekingReader reader = reader("no delimiter", blockSize);
+            assertEquals("no delimiter", reader.readUntilExcluding(';', '\n'), "block size " + blockSize);
+            assertEquals("", reader.readUntilExcluding(';', '\n'), "block size " + blockSize);
+
+            reader = reader("no end", blockSize);
+            assertEquals("no end", reader.readUntilExcluding("*/"), "block size " + blockSize);
+            assertEquals("", reader.readUntilIncluding(';'), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void swallowUntilIncludingWithEscapeAtEndOfInput() throws IOException {
+        for (int blockSize = 1; blockSize <= 3; blockSize++) {
+            PeekingReader reader = reader("unterminated ''", blockSize);
+            reader.swallowUntilIncludingWithEscape('\'', true);
+            assertEquals(-1, reader.read(), "block size " + blockSize);
+
+            reader = reader("trailing escape \\", blockSize);
+            reader.swallowUntilIncludingWithEscape('\'', false, '\\');
+            assertEquals(-1, reader.read(), "block size " + blockSize);
+
+            reader = reader("trailing escape \\", blockSize);
+            assertEquals("trailing escape \\", reader.readUntilExcludingWithEscape('\'', false, '\\'), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void recorderSeesExactlyWhatIsConsumed() throws IOException {
+        String sql = "INSERT INTO t VALUES ('a''b', \"c\");\nSELECT 1;";
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            Recorder recorder = new Recorder();
+            PositionTracker tracker = new PositionTracker();
+            PeekingReader reader = new PeekingReader(new TricklingReader(sql), false, recorder, tracker, blockSize);
+
+            recorder.start();
+            assertEquals("INSERT", reader.readKeywordPart(null, context()));
+            assertTrue(reader.peek(" INTO"));
+            reader.readUntilExcluding('\'', '\'');
+            reader.swallow();
+            reader.swallowUntilIncludingWithEscape('\'', true);
+            reader.readUntilExcluding(";");
+            reader.swallow();
+            recorder.confirm();
+            assertTrue(reader.peek('\n'));
+            reader.swallow(3);
+            assertEquals("INSERT INTO t VALUES ('a''b', \"c\");", recorder.stop(), "block size " + blockSize);
+
+            assertEquals(2, tracker.getLine(), "block size " + blockSize);
+            assertEquals(3, tracker.getCol(), "block size " + blockSize);
+            assertEquals(sql.indexOf("SELECT") + 2, tracker.getPos(), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void placeholderSplitAcrossBlocks() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 4094; i++) {
+            sql.append('x');
+        }
+        // The placeholder prefix straddles the end of the placeholder reader's own buffer
+        sql.append("${name} and ${name}s end");
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            Recorder recorder = new Recorder();
+            PlaceholderReplacingReader placeholderReader = new PlaceholderReplacingReader(
+                    "${", "}", Collections.singletonMap("name", "'v''al'"), new TricklingReader(sql.toString()));
+            PeekingReader reader = new PeekingReader(placeholderReader, false, recorder, new PositionTracker(), blockSize);
+
+            assertEquals(4094, reader.readUntilExcluding('\'', '\'').length(), "block size " + blockSize);
+            recorder.start();
+            reader.swallow();
+            reader.swallowUntilIncludingWithEscape('\'', true);
+            recorder.confirm();
+            assertEquals("'v''al'", recorder.stop(), "block size " + blockSize);
+            assertTrue(reader.peek(" and '"), "block size " + blockSize);
+            assertEquals(" and 'v''al's end", reader.readUntilExcluding("${"), "block size " + blockSize);
+            assertEquals(-1, reader.read(), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void missingPlaceholderSplitAcrossBlocks() {
+        for (int blockSize = 1; blockSize <= 3; blockSize++) {
+            PeekingReader reader = new PeekingReader(
+                    new PlaceholderReplacingReader("${", "}", Collections.emptyMap(), new TricklingReader("a ${missing} b")),
+                    false, new Recorder(), new PositionTracker(), blockSize);
+            FlywayException e = assertThrows(FlywayException.class, () -> reader.readUntilExcluding(';', ';'));
+            assertTrue(e.getMessage().contains("${missing}"), "block size " + blockSize);
+        }
+    }
+
+    private static PeekingReader reader(String str, int blockSize) {
+        return new PeekingReader(new TricklingReader(str), true, new Recorder(), new PositionTracker(), blockSize);
+    }
+
+    private static ParserContext context() {
+        ParserContext context = new ParserContext(Delimiter.SEMICOLON);
+        context.setStatementType(StatementType.UNKNOWN);
+        return context;
+    }
+
+    /**
+     * Returns at most one character per read, as a slow stream would.
+     */
+    static class TricklingReader extends Reader {
+        private final StringReader in;
+
+        TricklingReader(String str) {
+            this.in = new StringReader(str);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return in.read(cbuf, off, Math.min(len, 1));
+        }
+
+        @Override
+        public void close() {
+            in.close();
+        }
+    }
+}
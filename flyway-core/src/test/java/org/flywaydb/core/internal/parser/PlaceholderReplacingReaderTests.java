@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.parser;
+
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each check reading blocks small enough for placeholders and their values to straddle a block boundary, over
+ * an underlying reader that hands out a single character at a time.
+ */
+public class PlaceholderReplacingReaderTests {
+    private static final int MAX_BLOCK_SIZE = 9;
+
+    @Test
+    public void placeholdersSplitAcrossBlocks() throws IOException {
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            assertEquals("a value b value", readAll(reader("${", "}", "a ${name} b ${NAME}"), blockSize), "block size " + blockSize);
+            assertEquals("[value][value]", readAll(reader("<<", ">>", "[<<name>>][<<name>>]"), blockSize), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void placeholderSplitAcrossInputBuffer() throws IOException {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 4090; i++) {
+            padding.append('x');
+        }
+        // Moves the placeholder over the end of the 4096 characters buffered at a time
+        for (int shift = 0; shift < 10; shift++) {
+            String sql = padding + "${name} and ${name}s end";
+            PlaceholderReplacingReader reader = new PlaceholderReplacingReader("${", "}", placeholders(), new StringReader(sql));
+            assertEquals(padding + "value and values end", readAll(reader, 1000), "shift " + shift);
+            padding.append('x');
+        }
+    }
+
+    @Test
+    public void prefixCharactersWithoutPlaceholderPassThrough() throws IOException {
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            assertEquals("$ {name} $$ $", readAll(reader("${", "}", "$ {name} $$ $"), blockSize), "block size " + blockSize);
+            assertEquals("<x<<", readAll(reader("<<<", ">", "<x<<"), blockSize), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void emptyValueIsDropped() throws IOException {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("empty", "");
+        for (int blockSize = 1; blockSize <= MAX_BLOCK_SIZE; blockSize++) {
+            PlaceholderReplacingReader reader = new PlaceholderReplacingReader("${", "}", placeholders,
+                                                                               new PeekingReaderTests.TricklingReader("a${empty}b${empty}"));
+            assertEquals("ab", readAll(reader, blockSize), "block size " + blockSize);
+        }
+    }
+
+    @Test
+    public void singleCharacterReads() throws IOException {
+        PlaceholderReplacingReader reader = reader("${", "}", "${name}!");
+        StringBuilder result = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            result.append((char) c);
+        }
+        assertEquals("value!", result.toString());
+        assertEquals(-1, reader.read(new char[4], 0, 4));
+    }
+
+    @Test
+    public void unknownPlaceholder() {
+        for (int blockSize = 1; blockSize <= 3; blockSize++) {
+            int size = blockSize;
+            FlywayException e = assertThrows(FlywayException.class, () -> readAll(reader("${", "}", "a ${missing} b"), size));
+            assertEquals("No value provided for placeholder: ${missing}.  Check your configuration!", e.getMessage(), "block size " + blockSize);
+        }
+        FlywayException e = assertThrows(FlywayException.class, () -> readAll(reader("${", "}", "${flyway:missing}"), 4));
+        assertEquals("Failed to populate value for default placeholder: ${flyway:missing}", e.getMessage());
+    }
+
+    @Test
+    public void markAndResetAreNotSupported() {
+        PlaceholderReplacingReader reader = reader("${", "}", "${name}");
+        assertFalse(reader.markSupported());
+        assertThrows(IOException.class, () -> reader.mark(1));
+        assertThrows(IOException.class, reader::reset);
+    }
+
+    private static Map<String, String> placeholders() {
+        return Collections.singletonMap("Name", "value");
+    }
+
+    private static PlaceholderReplacingReader reader(String prefix, String suffix, String str) {
+        return new PlaceholderReplacingReader(prefix, suffix, placeholders(), new PeekingReaderTests.TricklingReader(str));
+    }
+
+    private static String readAll(Reader reader, int blockSize) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] block = new char[blockSize];
+        int read;
+        while ((read = reader.read(block, 0, blockSize)) != -1) {
+            result.append(block, 0, read);
+        }
+        return result.toString();
+    }
+}
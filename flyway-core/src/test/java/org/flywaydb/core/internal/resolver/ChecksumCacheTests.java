@@ -0,0 +1,136 @@
+package org.flywaydb.core.internal.resolver;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.resource.classpath.ClassPathResource;
+import org.flywaydb.core.internal.resource.filesystem.FileSystemResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChecksumCacheTests {
+    @TempDir
+    File dir;
+
+    @Test
+    public void sameSizeWithNewModificationTimeIsNotReused() throws IOException {
+        File script = write(new File(dir, "V1__a.sql"), "select 1;");
+        File cacheFile = new File(dir, "cache.properties");
+        LoadableResource resource = new FileSystemResource(null, script.getPath(), StandardCharsets.UTF_8, false);
+
+        ChecksumCache cache = load(cacheFile);
+        cache.put(resource, "raw", "fp", 42);
+        cache.save();
+        assertEquals(42, load(cacheFile).get(resource, "raw", "fp"));
+
+        write(script, "select 2;");
+        assertTrue(script.setLastModified(script.lastModified() + 2000));
+        assertNull(load(cacheFile).get(resource, "raw", "fp"));
+    }
+
+    @Test
+    public void changedJarEntryCrcIsNotReused() throws IOException {
+        URLConnection.setDefaultUseCaches("jar", false);
+        File jar = new File(dir, "migrations.jar");
+        writeJar(jar, "select 1;");
+        File cacheFile = new File(dir, "cache.properties");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toURI().toURL()}, null)) {
+            LoadableResource resource = new ClassPathResource(new Location("classpath:db/migration"), "db/migration/V1__a.sql",
+                                                              classLoader, StandardCharsets.UTF_8);
+            ChecksumCache cache = load(cacheFile);
+            cache.put(resource, "raw", "fp", 42);
+            cache.save();
+            assertEquals(42, load(cacheFile).get(resource, "raw", "fp"));
+
+            // Same size, different content, hence a different CRC
+            writeJar(jar, "select 2;");
+            assertNull(load(cacheFile).get(resource, "raw", "fp"));
+        }
+    }
+
+    @Test
+    public void changedPlaceholderValueIsDetected() throws IOException {
+        File migrations = new File(dir, "sql");
+        assertTrue(migrations.mkdirs());
+        write(new File(migrations, "R__p.sql"), "select '${v}';");
+        String cacheFile = new File(dir, "cache.properties").getPath();
+
+        assertEquals(1, migrate(migrations, cacheFile, "a"));
+        assertEquals(0, migrate(migrations, cacheFile, "a"));
+        assertEquals(1, migrate(migrations, cacheFile, "b"));
+        assertEquals(0, migrate(migrations, cacheFile, "b"));
+    }
+
+    @Test
+    public void corruptCacheFileIsIgnoredAndRewritten() throws IOException {
+        File script = write(new File(dir, "V1__a.sql"), "select 1;");
+        File cacheFile = write(new File(dir, "cache.properties"), "broken=\\u00zz\n");
+        LoadableResource resource = new FileSystemResource(null, script.getPath(), StandardCharsets.UTF_8, false);
+
+        ChecksumCache cache = load(cacheFile);
+        assertNull(cache.get(resource, "raw", "fp"));
+        cache.put(resource, "raw", "fp", 42);
+        cache.save();
+        assertEquals(42, load(cacheFile).get(resource, "raw", "fp"));
+    }
+
+    @Test
+    public void missingCacheFileIsCreated() throws IOException {
+        File script = write(new File(dir, "V1__a.sql"), "select 1;");
+        File cacheFile = new File(dir, "missing/cache.properties");
+        LoadableResource resource = new FileSystemResource(null, script.getPath(), StandardCharsets.UTF_8, false);
+
+        ChecksumCache cache = load(cacheFile);
+        assertNull(cache.get(resource, "raw", "fp"));
+        cache.put(resource, "raw", "fp", 42);
+        cache.save();
+        assertTrue(cacheFile.isFile());
+        assertEquals(42, load(cacheFile).get(resource, "raw", "fp"));
+        assertNull(load(cacheFile).get(resource, "raw", "other"));
+    }
+
+    private static ChecksumCache load(File cacheFile) {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setChecksumCacheFile(cacheFile.getPath());
+        return ChecksumCache.load(configuration);
+    }
+
+    private static int migrate(File migrations, String cacheFile, String value) {
+        return Flyway.configure()
+                .dataSource("jdbc:h2:mem:checksum_cache;DB_CLOSE_DELAY=-1", "sa", "")
+                .locations("filesystem:" + migrations.getAbsolutePath())
+                .checksumCacheFile(cacheFile)
+                .placeholders(Collections.singletonMap("v", value))
+                .load()
+                .migrate().migrationsExecuted;
+    }
+
+    private static File write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void writeJar(File jar, String content) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("db/migration/V1__a.sql"));
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resolver.sql;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.resolver.ResolvedMigration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.database.h2.H2DatabaseType;
+import org.flywaydb.core.internal.parser.ParsingContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlMigrationResolverTests {
+    @Test
+    public void parallelResolutionMatchesSequentialResolution() {
+        List<LoadableResource> resources = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            // The first scripts take longest, so that the workers complete them out of order
+            resources.add(new ScriptResource("V" + i + "__v" + i + ".sql", "CREATE TABLE v" + i + " (id INT);", 21 - i));
+            resources.add(new ScriptResource("R__r" + i + ".sql", "SELECT '${flyway:filename}', " + i + ";", 21 - i));
+        }
+
+        List<String> sequential = describe(resolve(resources, 1));
+        List<String> parallel = describe(resolve(resources, 8));
+
+        assertEquals(40, sequential.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void failureOfOneChecksumIsRethrown() {
+        List<LoadableResource> resources = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            resources.add(new ScriptResource("V" + i + "__v" + i + ".sql", "SELECT " + i + ";", 0));
+        }
+        FlywayException failure = new FlywayException("Unable to read V7__v7.sql");
+        resources.set(6, new ScriptResource("V7__v7.sql", "SELECT 7;", 0) {
+            @Override
+            public Reader read() {
+                throw failure;
+            }
+        });
+
+        assertSame(failure, assertThrows(FlywayException.class, () -> resolve(resources, 8)));
+        assertSame(failure, assertThrows(FlywayException.class, () -> resolve(resources, 1)));
+    }
+
+    private static List<String> describe(List<ResolvedMigration> migrations) {
+        return migrations.stream()
+                .map(m -> m.getVersion() + " " + m.getScript() + " " + m.getChecksum())
+                .collect(Collectors.toList());
+    }
+
+    private static List<ResolvedMigration> resolve(List<LoadableResource> resources, int resolverThreads) {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setResolverThreads(resolverThreads);
+        ParsingContext parsingContext = new ParsingContext();
+        ResourceProvider resourceProvider = new ResourceProvider() {
+            @Override
+            public LoadableResource getResource(String name) {
+                return null;
+            }
+
+            @Override
+            public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+                return resources;
+            }
+        };
+        return new SqlMigrationResolver(resourceProvider, null,
+                                        new H2DatabaseType().createSqlScriptFactory(configuration, parsingContext),
+                                        configuration, parsingContext).resolveMigrations(null);
+    }
+
+    /**
+     * A script held in memory, which takes this long to read.
+     */
+    private static class ScriptResource extends LoadableResource {
+        private final String filename;
+        private final String content;
+        private final long delayMillis;
+
+        ScriptResource(String filename, String content, long delayMillis) {
+            this.filename = filename;
+            this.content = content;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public Reader read() {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new StringReader(content);
+        }
+
+        @Override
+        public String getAbsolutePath() {
+            return "/migrations/" + filename;
+        }
+
+        @Override
+        public String getAbsolutePathOnDisk() {
+            return getAbsolutePath();
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getRelativePath() {
+            return filename;
+        }
+    }
+}
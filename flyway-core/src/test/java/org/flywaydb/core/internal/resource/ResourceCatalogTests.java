@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.resource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.resource.filesystem.FileSystemResource;
+import org.flywaydb.core.internal.util.Pair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceCatalogTests {
+    @TempDir
+    Path location;
+
+    @Test
+    public void resourcesAreIndexedByPrefixInProviderOrder() throws Exception {
+        CountingResourceProvider provider = provider("V2__b.sql", "R__r.sql", "V1__a.sql", "beforeMigrate.sql", "notes.sql");
+
+        ResourceCatalog catalog = new ResourceCatalog(provider, new ClassicConfiguration());
+
+        assertEquals(1, provider.listings);
+        assertEquals(5, catalog.getResources().size());
+        assertEquals(Arrays.asList("V2__b.sql", "V1__a.sql"), filenames(catalog.getResources("V")));
+        assertEquals(Collections.singletonList("R__r.sql"), filenames(catalog.getResources("R")));
+        assertEquals(Collections.singletonList("beforeMigrate.sql"), filenames(catalog.getResources("beforeMigrate")));
+        assertTrue(catalog.getResources("U").isEmpty());
+        // Invalid names are only kept for naming validation
+        assertFalse(catalog.getResources().get(4).getRight().isValid());
+        assertEquals(1, provider.listings);
+    }
+
+    @Test
+    public void migrateListsTheResourcesOnce() throws Exception {
+        CountingResourceProvider provider = provider("V1__table.sql", "R__insert.sql", "beforeMigrate.sql", "afterMigrate.sql");
+        write("V1__table.sql", "CREATE TABLE t (id INT);");
+        write("R__insert.sql", "INSERT INTO t VALUES (1);");
+        write("beforeMigrate.sql", "SELECT 1;");
+        write("afterMigrate.sql", "SELECT 2;");
+
+        int executed = Flyway.configure()
+                .dataSource("jdbc:h2:mem:resource_catalog;DB_CLOSE_DELAY=-1", "sa", "")
+                .resourceProvider(provider)
+                .validateMigrationNaming(true)
+                .load()
+                .migrate().migrationsExecuted;
+
+        assertEquals(2, executed);
+        // Naming validation, migration resolution and callbacks all used the same listing
+        assertEquals(1, provider.listings);
+    }
+
+    private CountingResourceProvider provider(String... filenames) {
+        List<LoadableResource> resources = new ArrayList<>();
+        for (String filename : filenames) {
+            resources.add(new FileSystemResource(null, location.resolve(filename).toString(), StandardCharsets.UTF_8, false));
+        }
+        return new CountingResourceProvider(resources);
+    }
+
+    private void write(String name, String content) throws Exception {
+        Files.write(location.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> filenames(List<Pair<LoadableResource, ResourceName>> resources) {
+        return resources.stream().map(entry -> entry.getLeft().getFilename()).collect(Collectors.toList());
+    }
+
+    /**
+     * Hands out the same resources for any prefix, counting how often they are listed.
+     */
+    private static class CountingResourceProvider implements ResourceProvider {
+        private final List<LoadableResource> resources;
+        private int listings;
+
+        CountingResourceProvider(List<LoadableResource> resources) {
+            this.resources = resources;
+        }
+
+        @Override
+        public LoadableResource getResource(String name) {
+            return null;
+        }
+
+        @Override
+        public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+            listings++;
+            return resources;
+        }
+    }
+}
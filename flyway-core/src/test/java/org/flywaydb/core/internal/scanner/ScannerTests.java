@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.scanner;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScannerTests {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void concurrentScanKeepsTheOrderOfTheLocations() throws IOException {
+        List<Location> locations = new ArrayList<>();
+        // Reverse alphabetical, so that the location order differs from the path order
+        for (char name = 'h'; name >= 'a'; name--) {
+            Path location = Files.createDirectories(dir.resolve(String.valueOf(name)));
+            for (int i = 1; i <= 5; i++) {
+                Files.write(location.resolve("V" + name + i + "__" + name + ".sql"), "SELECT 1;".getBytes(StandardCharsets.UTF_8));
+            }
+            locations.add(new Location("filesystem:" + location));
+        }
+
+        List<String> sequential = scan(locations, 1);
+        assertEquals(40, sequential.size());
+        assertTrue(sequential.get(0).endsWith("Vh1__h.sql"), sequential.get(0));
+        assertEquals(sequential, scan(locations, 4));
+    }
+
+    @Test
+    public void failureOfOneLocationIsRethrown() throws IOException {
+        List<Location> locations = new ArrayList<>();
+        locations.add(new Location("filesystem:" + Files.createDirectories(dir.resolve("present"))));
+        locations.add(new Location("filesystem:" + dir.resolve("missing")));
+
+        FlywayException e = assertThrows(FlywayException.class, () -> scan(locations, 4));
+        assertTrue(e.getMessage().contains("missing"), e.getMessage());
+    }
+
+    private static List<String> scan(List<Location> locations, int threads) {
+        Scanner<JavaMigration> scanner = new Scanner<>(JavaMigration.class, locations, ScannerTests.class.getClassLoader(),
+                                                       StandardCharsets.UTF_8, false, false, new ResourceNameCache(),
+                                                       new LocationScannerCache(), true, threads);
+        List<String> paths = new ArrayList<>();
+        for (LoadableResource resource : scanner.getResources("", ".sql")) {
+            paths.add(resource.getAbsolutePath());
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.scanner.classpath;
+
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassPathLocationIndexTests {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void indexedJarSkipsClassesWhichAreNoMigrations() throws IOException {
+        Path first = artifact("first", "db/migration/V1__first.sql", "db/migration/Helper.class");
+        index(first, "com.example.first");
+
+        assertEquals(names("db/migration/", "db/migration/V1__first.sql"), scan(jar(first)));
+    }
+
+    @Test
+    public void eachArtifactKeepsItsOwnIndex() throws IOException {
+        Path first = artifact("first", "db/migration/V1__first.sql", "db/migration/Helper.class");
+        Path second = artifact("second", "db/migration/V2__second.sql", "db/migration/Other.class");
+        index(first, "com.example.first");
+        index(second, "com.example.second");
+
+        assertEquals(names("db/migration/", "db/migration/V1__first.sql", "db/migration/V2__second.sql"), scan(jar(first, second)));
+    }
+
+    @Test
+    public void unindexedEntriesFallBackToTheWholeLocation() throws IOException {
+        Path first = artifact("first", "db/migration/V1__first.sql", "db/migration/Helper.class");
+        Path second = artifact("second", "db/migration/V2__second.sql");
+        index(first, "com.example.first");
+
+        assertEquals(names("db/migration/", "db/migration/V1__first.sql", "db/migration/Helper.class", "db/migration/V2__second.sql"),
+                     scan(jar(first, second)));
+    }
+
+    @Test
+    public void uncoveredLocationFallsBackToTheWholeLocation() throws IOException {
+        Path first = artifact("first", "db/migration/V1__first.sql", "db/other/Helper.class");
+        index(first, "com.example.first");
+
+        assertEquals(names("db/other/", "db/other/Helper.class"), new JarFileClassPathLocationScanner("!/")
+                .findResourceNames("db/other", new URL("jar:" + jar(first).toUri() + "!/db/other")));
+    }
+
+    private Path artifact(String name, String... resourceNames) throws IOException {
+        Path root = dir.resolve(name);
+        for (String resourceName : resourceNames) {
+            Path file = root.resolve(resourceName);
+            Files.createDirectories(file.getParent());
+            // Class files which do not load are not Java migrations
+            Files.write(file, resourceName.getBytes(StandardCharsets.UTF_8));
+        }
+        return root;
+    }
+
+    private void index(Path root, String artifactName) {
+        ClassPathLocationIndex.write(new ClassicConfiguration(), Collections.singletonList(root.toFile()), root.toFile(), artifactName);
+    }
+
+    /**
+     * Merges these artifacts into a single jar, as a shaded jar does.
+     */
+    private Path jar(Path... roots) throws IOException {
+        Path jar = Files.createTempFile(dir, "merged", ".jar");
+        Set<String> entries = new HashSet<>();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path root : roots) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : (Iterable<Path>) files.filter(file -> !file.equals(root))::iterator) {
+                        String entryName = root.relativize(file).toString().replace(File.separatorChar, '/');
+                        boolean directory = Files.isDirectory(file);
+                        if (!entries.add(entryName + (directory ? "/" : ""))) {
+                            continue;
+                        }
+                        out.putNextEntry(new JarEntry(entryName + (directory ? "/" : "")));
+                        if (!directory) {
+                            Files.copy(file, out);
+                        }
+                        out.closeEntry();
+                    }
+                }
+            }
+        }
+        return jar;
+    }
+
+    private static Set<String> scan(Path jar) throws IOException {
+        return new JarFileClassPathLocationScanner("!/")
+                .findResourceNames("db/migration", new URL("jar:" + jar.toUri() + "!/db/migration"));
+    }
+
+    private static Set<String> names(String... names) {
+        return new TreeSet<>(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.scanner.filesystem;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.util.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class FileSystemScannerTests {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void nestedResourcesAreFoundInPathOrder() throws IOException {
+        write("V2__b.sql", "SELECT 2;");
+        write("sub/deeper/V3__c.sql", "SELECT 3;");
+        write("sub/V1__a.sql", "SELECT 1;");
+        write("A__first.sql", "SELECT 0;");
+        // #1807: hidden directories are skipped
+        write(".hidden/V9__hidden.sql", "SELECT 9;");
+
+        assertEquals(Arrays.asList("A__first.sql", "V2__b.sql", "sub/V1__a.sql", "sub/deeper/V3__c.sql"), scan(false));
+    }
+
+    @Test
+    public void symbolicLinksAreFollowed() throws IOException {
+        write("V1__local.sql", "SELECT 1;");
+        Path shared = Files.createDirectories(dir.resolve("shared"));
+        Files.write(shared.resolve("V2__shared.sql"), "SELECT 2;".getBytes(StandardCharsets.UTF_8));
+        assumeTrue(link(migrations().resolve("linked"), shared));
+        assumeTrue(link(migrations().resolve("V3__linked.sql"), shared.resolve("V2__shared.sql")));
+        // A link back up the tree is reported as a loop and skipped, rather than walked forever
+        assumeTrue(link(migrations().resolve("linked-loop"), migrations()));
+
+        assertEquals(Arrays.asList("V1__local.sql", "V3__linked.sql", "linked/V2__shared.sql"), scan(false));
+    }
+
+    @Test
+    public void encodingIsTakenFromTheScriptConfiguration() throws IOException {
+        Files.write(Files.createDirectories(migrations()).resolve("V1__latin.sql"), "SELECT 'café';".getBytes(StandardCharsets.ISO_8859_1));
+        write("V1__latin.sql.conf", "encoding=ISO-8859-1");
+        write("V2__utf8.sql", "SELECT 'café';");
+
+        int scripts = 0;
+        for (LoadableResource resource : new FileSystemScanner(StandardCharsets.UTF_8, false, false, true)
+                .scanForResources(new Location("filesystem:" + migrations()))) {
+            if (resource.getFilename().endsWith(".sql")) {
+                assertEquals("SELECT 'café';", FileUtils.copyToString(resource.read()), resource.getFilename());
+                scripts++;
+            }
+        }
+        assertEquals(2, scripts);
+    }
+
+    @Test
+    public void missingLocation() {
+        Location location = new Location("filesystem:" + migrations());
+
+        assertTrue(new FileSystemScanner(Charset.defaultCharset(), false, false, false).scanForResources(location).isEmpty());
+        assertThrows(FlywayException.class,
+                     () -> new FileSystemScanner(Charset.defaultCharset(), false, false, true).scanForResources(location));
+    }
+
+    private List<String> scan(boolean throwOnMissingLocations) {
+        Collection<LoadableResource> resources = new FileSystemScanner(StandardCharsets.UTF_8, false, false, throwOnMissingLocations)
+                .scanForResources(new Location("filesystem:" + migrations()));
+        List<String> paths = new ArrayList<>();
+        for (LoadableResource resource : resources) {
+            paths.add(resource.getRelativePath());
+        }
+        return paths;
+    }
+
+    /**
+     * @return The location scanned, leaving the rest of the temporary directory for link targets.
+     */
+    private Path migrations() {
+        return dir.resolve("migrations");
+    }
+
+    private void write(String name, String content) throws IOException {
+        Path file = migrations().resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return Whether the link could be created, which may require privileges on some platforms.
+     */
+    private static boolean link(Path link, Path target) {
+        try {
+            Files.createSymbolicLink(link, target);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+}
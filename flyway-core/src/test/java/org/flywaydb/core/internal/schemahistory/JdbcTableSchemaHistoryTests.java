@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.schemahistory;
+
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.extensibility.AppliedMigration;
+import org.flywaydb.core.internal.callback.NoopCallbackExecutor;
+import org.flywaydb.core.internal.database.DatabaseType;
+import org.flywaydb.core.internal.database.base.Database;
+import org.flywaydb.core.internal.jdbc.JdbcConnectionFactory;
+import org.flywaydb.core.internal.parser.ParsingContext;
+import org.flywaydb.core.internal.resolver.ResolvedMigrationImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the rows cached by the schema history table always match those read from scratch.
+ */
+public class JdbcTableSchemaHistoryTests {
+    private static final String URL = "jdbc:h2:mem:history_cache;DB_CLOSE_DELAY=-1";
+
+    private final List<Database<?>> databases = new ArrayList<>();
+    private SchemaHistory history;
+
+    @BeforeEach
+    public void setUp() {
+        history = open();
+        history.create(false);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        databases.get(0).getMainConnection().getJdbcTemplate().execute("DROP ALL OBJECTS");
+        for (Database<?> database : databases) {
+            database.close();
+        }
+    }
+
+    @Test
+    public void insertedRowsAreCached() {
+        add(history, "1");
+        add(history, "2");
+
+        assertEquals(2, history.allAppliedMigrations().size());
+        assertSameAsFresh(history);
+    }
+
+    @Test
+    public void rowsInsertedByOthersAboveTheWatermarkAreRead() {
+        add(history, "1");
+        history.allAppliedMigrations();
+
+        SchemaHistory other = open();
+        add(other, "2");
+        add(history, "3");
+
+        assertEquals(3, history.allAppliedMigrations().size());
+        assertSameAsFresh(history);
+        assertSameAsFresh(other);
+    }
+
+    @Test
+    public void updatedRowIsUpdatedInTheCache() {
+        add(history, "1");
+        add(history, "2");
+        AppliedMigration applied = history.allAppliedMigrations().get(0);
+
+        history.update(applied, new ResolvedMigrationImpl(MigrationVersion.fromVersion("1"), "renamed", "V1__renamed.sql",
+                                                          42, null, CoreMigrationType.SQL, "V1__renamed.sql", null));
+
+        assertEquals("renamed", history.allAppliedMigrations().get(0).getDescription());
+        assertEquals(42, history.allAppliedMigrations().get(0).getChecksum());
+        assertSameAsFresh(history);
+    }
+
+    @Test
+    public void rolledBackRowIsForgottenOnceTheCacheIsCleared() throws SQLException {
+        add(history, "1");
+        Connection connection = databases.get(0).getMainConnection().getJdbcConnection();
+        connection.setAutoCommit(false);
+        try {
+            add(history, "2");
+            connection.rollback();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        history.clearCache();
+
+        assertEquals(1, history.allAppliedMigrations().size());
+        assertSameAsFresh(history);
+        add(history, "2");
+        assertSameAsFresh(history);
+    }
+
+    @Test
+    public void compactionClearsTheCache() {
+        add(history, "1");
+        history.delete(history.allAppliedMigrations().get(0));
+        add(history, "1");
+        add(history, "2");
+
+        assertEquals(2, history.compact());
+
+        assertSameAsFresh(history);
+        add(history, "3");
+        assertSameAsFresh(history);
+    }
+
+    @Test
+    public void concurrentWritersSeeTheSameRows() throws Exception {
+        SchemaHistory other = open();
+        add(history, "0");
+        other.allAppliedMigrations();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> first = executor.submit(() -> addAll(history, "a", start));
+            Future<?> second = executor.submit(() -> addAll(other, "b", start));
+            start.countDown();
+            first.get();
+            second.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(21, history.allAppliedMigrations().size());
+        assertSameAsFresh(history);
+        assertSameAsFresh(other);
+    }
+
+    private static Void addAll(SchemaHistory history, String prefix, CountDownLatch start) throws InterruptedException {
+        start.await();
+        for (int i = 1; i <= 10; i++) {
+            String description = prefix + i;
+            // Ranks are calculated from the rows read, so writers lock the table as migrate does
+            history.lock(() -> {
+                history.addAppliedMigration(null, description, CoreMigrationType.SQL, "R__" + description + ".sql", description.hashCode(), 0, true);
+                return null;
+            });
+        }
+        return null;
+    }
+
+    private static void add(SchemaHistory history, String version) {
+        history.addAppliedMigration(MigrationVersion.fromVersion(version), "v" + version, CoreMigrationType.SQL,
+                                    "V" + version + "__v" + version + ".sql", Integer.valueOf(version), 0, true);
+    }
+
+    private void assertSameAsFresh(SchemaHistory cached) {
+        assertEquals(describe(open().allAppliedMigrations()), describe(cached.allAppliedMigrations()));
+    }
+
+    private static List<String> describe(List<AppliedMigration> appliedMigrations) {
+        List<String> description = new ArrayList<>();
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            description.add(appliedMigration.getInstalledRank() + " " + appliedMigration.getVersion() + " "
+                                    + appliedMigration.getDescription() + " " + appliedMigration.getType() + " "
+                                    + appliedMigration.getScript() + " " + appliedMigration.getChecksum() + " "
+                                    + appliedMigration.isSuccess());
+        }
+        return description;
+    }
+
+    /**
+     * @return A schema history of its own database instance and connections, as another node would have.
+     */
+    private SchemaHistory open() {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setDataSource(URL, "sa", "");
+        JdbcConnectionFactory jdbcConnectionFactory = new JdbcConnectionFactory(configuration.getDataSource(), configuration, null);
+        DatabaseType databaseType = jdbcConnectionFactory.getDatabaseType();
+        Database<?> database = databaseType.createDatabase(configuration, false, jdbcConnectionFactory, null);
+        databases.add(database);
+        return SchemaHistoryFactory.getSchemaHistory(configuration,
+                                                     databaseType.createSqlScriptExecutorFactory(jdbcConnectionFactory, NoopCallbackExecutor.INSTANCE, null),
+                                                     databaseType.createSqlScriptFactory(configuration, new ParsingContext()),
+                                                     database, database.getMainConnection().getSchema("PUBLIC"), null);
+    }
+}
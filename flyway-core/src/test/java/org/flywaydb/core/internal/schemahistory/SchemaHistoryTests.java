@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.schemahistory;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.extensibility.AppliedMigration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaHistoryTests {
+    private final List<AppliedMigration> history = new ArrayList<>();
+
+    @Test
+    public void versionedRunIsSupersededWithItsMarker() {
+        add(null, "<< Flyway Schema Creation >>", "SCHEMA", "\"PUBLIC\"", true);
+        AppliedMigration run = add("1", "init", "SQL", "V1__init.sql", true);
+        AppliedMigration marker = add("1", "init", "DELETE", "V1__init.sql", true);
+        add("1", "init", "SQL", "V1__init.sql", true);
+        add("2", "more", "SQL", "V2__more.sql", true);
+
+        assertEquals(Arrays.asList(run, marker), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void eachRepairedRunIsSupersededByItsOwnMarker() {
+        AppliedMigration first = add("1", "init", "SQL", "V1__init.sql", true);
+        AppliedMigration firstMarker = add("1", "init", "DELETE", "V1__init.sql", true);
+        AppliedMigration second = add("1", "init", "SQL", "V1__init.sql", true);
+        AppliedMigration secondMarker = add("1", "init", "DELETE", "V1__init.sql", true);
+        add("1", "init", "SQL", "V1__init.sql", true);
+
+        assertEquals(Arrays.asList(first, firstMarker, second, secondMarker), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void failedMarkerSupersedesNothing() {
+        add("1", "init", "SQL", "V1__init.sql", true);
+        add("1", "init", "DELETE", "V1__init.sql", false);
+
+        assertEquals(Collections.emptyList(), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void markerWithoutRunSupersedesNothing() {
+        add("1", "init", "DELETE", "V1__init.sql", true);
+        add("1", "init", "SQL", "V1__other.sql", true);
+
+        assertEquals(Collections.emptyList(), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void duplicateMarkersAreLeftForRepair() {
+        add("1", "init", "SQL", "V1__init.sql", true);
+        add("1", "init", "DELETE", "V1__init.sql", true);
+        add("1", "init", "DELETE", "V1__init.sql", true);
+        AppliedMigration run = add("2", "more", "SQL", "V2__more.sql", true);
+        AppliedMigration marker = add("2", "more", "DELETE", "V2__more.sql", true);
+
+        assertEquals(Arrays.asList(run, marker), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void markerMatchesEqualVersionsWrittenDifferently() {
+        AppliedMigration run = add("1.0", "init", "SQL", "V1__init.sql", true);
+        AppliedMigration marker = add("1", "init", "DELETE", "V1__init.sql", true);
+
+        assertEquals(Arrays.asList(run, marker), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void markerAppliesToLatestRunOfAnyType() {
+        add("1", "init", "SQL", "V1__init", true);
+        AppliedMigration run = add("1", "init", "JDBC", "V1__init", true);
+        AppliedMigration marker = add("1", "init", "DELETE", "V1__init", true);
+
+        assertEquals(Arrays.asList(run, marker), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void repeatableRunsUpToMarkerAreSuperseded() {
+        AppliedMigration first = add(null, "view", "SQL", "R__view.sql", true);
+        AppliedMigration second = add(null, "view", "SQL", "R__view.sql", true);
+        AppliedMigration marker = add(null, "view", "DELETE", "R__view.sql", true);
+        add(null, "view", "SQL", "R__view.sql", true);
+        add(null, "other", "SQL", "R__other.sql", true);
+
+        assertEquals(Arrays.asList(first, second, marker), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void failedRepeatableRunKeepsAllRunsUpToMarker() {
+        add(null, "view", "SQL", "R__view.sql", false);
+        add(null, "view", "SQL", "R__view.sql", true);
+        add(null, "view", "DELETE", "R__view.sql", true);
+        add(null, "view", "SQL", "R__view.sql", true);
+
+        assertEquals(Collections.emptyList(), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void failedLatestRepeatableRunKeepsAllRunsUpToMarker() {
+        add(null, "view", "SQL", "R__view.sql", true);
+        add(null, "view", "SQL", "R__view.sql", false);
+        add(null, "view", "DELETE", "R__view.sql", true);
+
+        assertEquals(Collections.emptyList(), SchemaHistory.findSuperseded(history));
+    }
+
+    @Test
+    public void repeatableRunsAfterFailedMarkerAreKept() {
+        add(null, "view", "SQL", "R__view.sql", true);
+        add(null, "view", "DELETE", "R__view.sql", false);
+        add(null, "view", "SQL", "R__view.sql", true);
+
+        assertEquals(Collections.emptyList(), SchemaHistory.findSuperseded(history));
+    }
+
+    private AppliedMigration add(String version, String description, String type, String script, boolean success) {
+        AppliedMigration appliedMigration = new BaseAppliedMigration(
+                history.size() + 1, version == null ? null : MigrationVersion.fromVersion(version), description, type,
+                script, 42, new Date(), "test", 0, success);
+        history.add(appliedMigration);
+        return appliedMigration;
+    }
+}
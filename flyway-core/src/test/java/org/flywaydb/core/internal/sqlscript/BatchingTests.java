@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.sqlscript;
+
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.flywaydb.core.internal.database.postgresql.PostgreSQLCopyParsedStatement;
+import org.flywaydb.core.internal.jdbc.JdbcTemplate;
+import org.flywaydb.core.internal.resource.StringResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchingTests {
+    private Connection connection;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:batching", "sa", "");
+        jdbcTemplate = new JdbcTemplate(connection);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void dmlIsBatchable() {
+        assertTrue(statement("INSERT INTO t VALUES (1)").isBatchable());
+        assertTrue(statement("update t set id = 2").isBatchable());
+        assertTrue(statement("DELETE FROM t").isBatchable());
+        assertTrue(statement("MERGE INTO t KEY (id) VALUES (1)").isBatchable());
+        assertTrue(statement("UPSERT INTO t VALUES (1)").isBatchable());
+        assertTrue(statement("-- seed\n/* first\nrow */ INSERT INTO t VALUES (1)").isBatchable());
+    }
+
+    @Test
+    public void statementsReturningResultsAreNotBatchable() {
+        assertFalse(statement("INSERT INTO t VALUES (1) RETURNING id").isBatchable());
+        assertFalse(statement("update t set id = 2\nreturning id").isBatchable());
+        assertFalse(statement("DELETE FROM t RETURNING *").isBatchable());
+        assertFalse(statement("SELECT * FROM t").isBatchable());
+    }
+
+    @Test
+    public void ddlAndNonTransactionalStatementsAreNotBatchable() {
+        assertFalse(statement("CREATE TABLE t (id INT)").isBatchable());
+        assertFalse(statement("ALTER TABLE t ADD inserted INT").isBatchable());
+        assertFalse(statement("-- INSERT\nDROP TABLE t").isBatchable());
+        assertFalse(statement("INSERTED_ROWS").isBatchable());
+        assertFalse(new ParsedSqlStatement(0, 1, 1, "INSERT INTO t VALUES (1)", Delimiter.SEMICOLON, false).isBatchable());
+        assertFalse(new PostgreSQLCopyParsedStatement(0, 1, 1, "COPY t FROM STDIN", "1\n").isBatchable());
+    }
+
+    @Test
+    public void ddlSplitsBatches() {
+        RecordingExecutor executor = new RecordingExecutor(jdbcTemplate, 100);
+        executor.execute(script(
+                "CREATE TABLE mixed (id INT PRIMARY KEY)",
+                "INSERT INTO mixed VALUES (1)",
+                "INSERT INTO mixed VALUES (2)",
+                "ALTER TABLE mixed ADD name VARCHAR(10)",
+                "INSERT INTO mixed VALUES (3, 'c')",
+                "UPDATE mixed SET name = 'a' WHERE id = 1",
+                "DELETE FROM mixed WHERE id = 2",
+                "DROP TABLE mixed"));
+
+        assertEquals(Arrays.asList(
+                Collections.singletonList("CREATE TABLE mixed (id INT PRIMARY KEY)"),
+                Arrays.asList("INSERT INTO mixed VALUES (1)", "INSERT INTO mixed VALUES (2)"),
+                Collections.singletonList("ALTER TABLE mixed ADD name VARCHAR(10)"),
+                Arrays.asList("INSERT INTO mixed VALUES (3, 'c')", "UPDATE mixed SET name = 'a' WHERE id = 1",
+                              "DELETE FROM mixed WHERE id = 2"),
+                Collections.singletonList("DROP TABLE mixed")), executor.executed);
+    }
+
+    @Test
+    public void batchSizeLimitsBatches() {
+        RecordingExecutor executor = new RecordingExecutor(jdbcTemplate, 2);
+        executor.execute(script(
+                "CREATE TABLE sized (id INT)",
+                "INSERT INTO sized VALUES (1)",
+                "INSERT INTO sized VALUES (2)",
+                "INSERT INTO sized VALUES (3)",
+                "DROP TABLE sized"));
+
+        assertEquals(Arrays.asList(
+                Collections.singletonList("CREATE TABLE sized (id INT)"),
+                Arrays.asList("INSERT INTO sized VALUES (1)", "INSERT INTO sized VALUES (2)"),
+                Collections.singletonList("INSERT INTO sized VALUES (3)"),
+                Collections.singletonList("DROP TABLE sized")), executor.executed);
+    }
+
+    @Test
+    public void failedBatchReportsTheFailingStatement() {
+        RecordingExecutor executor = new RecordingExecutor(jdbcTemplate, 100);
+        FlywaySqlScriptException e = assertThrows(FlywaySqlScriptException.class, () -> executor.execute(script(
+                "CREATE TABLE failing (id INT PRIMARY KEY)",
+                "INSERT INTO failing VALUES (1)",
+                "INSERT INTO failing VALUES (2)",
+                "INSERT INTO failing VALUES (1)",
+                "INSERT INTO failing VALUES (3)")));
+
+        assertEquals(4, e.getLineNumber());
+        assertEquals("INSERT INTO failing VALUES (1)", e.getStatement());
+        assertEquals(4, executor.executed.get(1).size());
+    }
+
+    @Test
+    public void failedFirstStatementOfBatchIsReported() {
+        RecordingExecutor executor = new RecordingExecutor(jdbcTemplate, 100);
+        FlywaySqlScriptException e = assertThrows(FlywaySqlScriptException.class, () -> executor.execute(script(
+                "CREATE TABLE failing_first (id INT PRIMARY KEY)",
+                "INSERT INTO missing VALUES (1)",
+                "INSERT INTO failing_first VALUES (1)")));
+
+        assertEquals(2, e.getLineNumber());
+        assertEquals("INSERT INTO missing VALUES (1)", e.getStatement());
+    }
+
+    private static ParsedSqlStatement statement(String sql) {
+        return new ParsedSqlStatement(0, 1, 1, sql, Delimiter.SEMICOLON, true);
+    }
+
+    /**
+     * A script made of the given statements, each on its own line.
+     */
+    private static SqlScript script(String... sqls) {
+        List<SqlStatement> statements = new ArrayList<>();
+        for (int i = 0; i < sqls.length; i++) {
+            statements.add(new ParsedSqlStatement(0, i + 1, 1, sqls[i], Delimiter.SEMICOLON, true));
+        }
+        LoadableResource resource = new StringResource(String.join(";\n", sqls));
+        return new SqlScript() {
+            @Override
+            public SqlStatementIterator getSqlStatements() {
+                Iterator<SqlStatement> iterator = statements.iterator();
+                return new SqlStatementIterator() {
+                    @Override
+                    public void close() {
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public SqlStatement next() {
+                        return iterator.next();
+                    }
+                };
+            }
+
+            @Override
+            public int getSqlStatementCount() {
+                return statements.size();
+            }
+
+            @Override
+            public Collection<SqlScript> getReferencedSqlScripts() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public LoadableResource getResource() {
+                return resource;
+            }
+
+            @Override
+            public boolean executeInTransaction() {
+                return true;
+            }
+
+            @Override
+            public boolean shouldExecute() {
+                return true;
+            }
+
+            @Override
+            public List<String> dependsOn() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean runInBackground() {
+                return false;
+            }
+
+            @Override
+            public int commitEvery() {
+                return 0;
+            }
+
+            @Override
+            public void validate() {
+            }
+
+            @Override
+            public int compareTo(SqlScript o) {
+                return 0;
+            }
+        };
+    }
+
+    /**
+     * Records the statements sent to the database at once, a single statement being its own batch.
+     */
+    private static class RecordingExecutor extends DefaultSqlScriptExecutor {
+        private final List<List<String>> executed = new ArrayList<>();
+
+        RecordingExecutor(JdbcTemplate jdbcTemplate, int batchSize) {
+            super(jdbcTemplate, null, false, true, batchSize, false, null);
+        }
+
+        @Override
+        protected void executeBatch(JdbcTemplate jdbcTemplate, SqlScript sqlScript, List<SqlStatement> batchStatements) {
+            if (batchStatements.size() > 1) {
+                List<String> batch = new ArrayList<>();
+                for (SqlStatement sqlStatement : batchStatements) {
+                    batch.add(sqlStatement.getSql());
+                }
+                executed.add(batch);
+            }
+            super.executeBatch(jdbcTemplate, sqlScript, batchStatements);
+        }
+
+        @Override
+        protected void executeStatement(JdbcTemplate jdbcTemplate, SqlScript sqlScript, SqlStatement sqlStatement) {
+            executed.add(Collections.singletonList(sqlStatement.getSql()));
+            super.executeStatement(jdbcTemplate, sqlScript, sqlStatement);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.sqlscript;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.api.logging.Log;
+import org.flywaydb.core.api.logging.LogFactory;
+import org.flywaydb.core.internal.database.h2.H2Parser;
+import org.flywaydb.core.internal.jdbc.JdbcTemplate;
+import org.flywaydb.core.internal.jdbc.Results;
+import org.flywaydb.core.internal.parser.ParsingContext;
+import org.flywaydb.core.internal.resource.StringResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultSqlScriptExecutorTests {
+    private final List<String> messages = new ArrayList<>();
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:script_executor", "sa", "");
+        new JdbcTemplate(connection).execute("CREATE TABLE t AS SELECT x AS id FROM SYSTEM_RANGE(1, 5)");
+        new JdbcTemplate(connection).execute("CREATE TABLE r (id INT)");
+        LogFactory.setLogCreator(clazz -> new RecordingLog());
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        LogFactory.setLogCreator(null);
+        connection.close();
+    }
+
+    @Test
+    public void omittedRowsAreReported() {
+        output(2, "SELECT id FROM t");
+
+        assertEquals("(3 more rows not shown)", messages.get(messages.size() - 1));
+    }
+
+    @Test
+    public void singleOmittedRowIsReported() {
+        output(4, "SELECT id FROM t");
+
+        assertEquals("(1 more row not shown)", messages.get(messages.size() - 1));
+    }
+
+    @Test
+    public void nothingIsReportedWithoutMaximum() {
+        output(0, "SELECT id FROM t");
+
+        assertTrue(messages.stream().noneMatch(m -> m.contains("not shown")), messages.toString());
+        assertTrue(messages.get(messages.size() - 1).contains("| 5 "), messages.toString());
+    }
+
+    @Test
+    public void resumableScriptCommitsEveryChunkAndTheTrailingOne() throws SQLException {
+        MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+
+        executor().executeResumable(resumable(1, 2, 3, 4, 5), checkpoint);
+
+        assertEquals(Arrays.asList(2, 4, 5), checkpoint.offsets);
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), ids());
+    }
+
+    @Test
+    public void interruptedScriptResumesAfterItsCheckpoint() throws SQLException {
+        MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+        assertThrows(FlywaySqlScriptException.class, () -> executor().executeResumable(resumable(1, 2, 3, -1, 5), checkpoint));
+        assertEquals(Arrays.asList(2), checkpoint.offsets);
+        // The third statement was rolled back with the failed chunk
+        assertEquals(Arrays.asList("1", "2"), ids());
+
+        executor().executeResumable(resumable(1, 2, 3, 4, 5), checkpoint);
+
+        assertEquals(Arrays.asList(2, 4, 5), checkpoint.offsets);
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), ids());
+    }
+
+    @Test
+    public void changedCommittedStatementsPreventResuming() throws SQLException {
+        MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+        assertThrows(FlywaySqlScriptException.class, () -> executor().executeResumable(resumable(1, 2, 3, -1, 5), checkpoint));
+
+        FlywayException e = assertThrows(FlywayException.class, () -> executor().executeResumable(resumable(1, 7, 3, 4, 5), checkpoint));
+        assertTrue(e.getMessage().contains("have changed since"), e.getMessage());
+        assertEquals(Arrays.asList("1", "2"), ids());
+    }
+
+    @Test
+    public void completedScriptIsOnlyVerified() throws SQLException {
+        MemoryCheckpoint checkpoint = new MemoryCheckpoint();
+        executor().executeResumable(resumable(1, 2, 3), checkpoint);
+
+        executor().executeResumable(resumable(1, 2, 3), checkpoint);
+        assertEquals(Arrays.asList(2, 3), checkpoint.offsets);
+        assertEquals(Arrays.asList("1", "2", "3"), ids());
+
+        assertThrows(FlywayException.class, () -> executor().executeResumable(resumable(1, 2), checkpoint));
+    }
+
+    private DefaultSqlScriptExecutor executor() {
+        return new DefaultSqlScriptExecutor(new JdbcTemplate(connection), null, false, false, 0, false, null);
+    }
+
+    /**
+     * @return A script committing every two statements, inserting these ids into r. Negative ids fail.
+     */
+    private static SqlScript resumable(int... ids) {
+        StringBuilder sql = new StringBuilder();
+        for (int id : ids) {
+            sql.append(id < 0 ? "INSERT INTO missing VALUES (1);\n" : "INSERT INTO r VALUES (" + id + ");\n");
+        }
+        H2Parser parser = new H2Parser(new ClassicConfiguration(), new ParsingContext());
+        return new ParserSqlScript(parser, new StringResource(sql.toString()), new StringResource("commitEvery=2"), false);
+    }
+
+    private List<String> ids() throws SQLException {
+        return new JdbcTemplate(connection).queryForStringList("SELECT id FROM r ORDER BY id");
+    }
+
+    private static class MemoryCheckpoint implements ScriptCheckpoint {
+        private final List<Integer> offsets = new ArrayList<>();
+        private int offset;
+        private int checksum;
+
+        @Override
+        public int read() {
+            return offset;
+        }
+
+        @Override
+        public int getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public void write(int offset, int checksum) {
+            offsets.add(offset);
+            this.offset = offset;
+            this.checksum = checksum;
+        }
+    }
+
+    private void output(int maxRows, String sql) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection).streamResults(0, maxRows, null);
+        DefaultSqlScriptExecutor executor = new DefaultSqlScriptExecutor(jdbcTemplate, null, false, false, 0, true, null);
+        Results results = jdbcTemplate.executeStatement(sql);
+        assertNull(results.getException());
+        executor.handleResults(results);
+    }
+
+    private class RecordingLog implements Log {
+        @Override
+        public boolean isDebugEnabled() {
+            return false;
+        }
+
+        @Override
+        public void debug(String message) {
+        }
+
+        @Override
+        public void info(String message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void warn(String message) {
+        }
+
+        @Override
+        public void error(String message) {
+        }
+
+        @Override
+        public void error(String message, Exception e) {
+        }
+
+        @Override
+        public void notice(String message) {
+        }
+    }
+}
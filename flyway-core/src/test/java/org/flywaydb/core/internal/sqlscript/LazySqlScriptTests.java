@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.sqlscript;
+
+import org.flywaydb.core.internal.resource.StringResource;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazySqlScriptTests {
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    public void scriptIsOnlyCreatedOnceNeeded() {
+        StringResource resource = new StringResource("SELECT 1;");
+        LazySqlScript sqlScript = new LazySqlScript(resource, this::create);
+
+        assertSame(resource, sqlScript.getResource());
+        assertEquals(0, sqlScript.compareTo(new LazySqlScript(resource, this::create)));
+        assertEquals(0, created.get());
+
+        assertEquals(3, sqlScript.getSqlStatementCount());
+        assertFalse(sqlScript.shouldExecute());
+        assertEquals(7, sqlScript.commitEvery());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void concurrentCallersShareOneScript() throws Exception {
+        LazySqlScript sqlScript = new LazySqlScript(new StringResource("SELECT 1;"), this::create);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                sqlScript.executeInTransaction();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, created.get());
+    }
+
+    /**
+     * @return A script with 3 statements, committing every 7 of them and not to be executed.
+     */
+    private SqlScript create() {
+        created.incrementAndGet();
+        return (SqlScript) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {SqlScript.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getSqlStatementCount":
+                    return 3;
+                case "commitEvery":
+                    return 7;
+                case "shouldExecute":
+                case "executeInTransaction":
+                case "runInBackground":
+                    return false;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
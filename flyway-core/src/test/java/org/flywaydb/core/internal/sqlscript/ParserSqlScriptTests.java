@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.sqlscript;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.configuration.ClassicConfiguration;
+import org.flywaydb.core.internal.database.postgresql.PostgreSQLParser;
+import org.flywaydb.core.internal.parser.ParsingContext;
+import org.flywaydb.core.internal.resource.StringResource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserSqlScriptTests {
+    @Test
+    public void streamedTransactionalScriptRunsInTransaction() {
+        ParserSqlScript script = script(true, null, "CREATE TABLE t (id INT);\nINSERT INTO t VALUES (1);");
+
+        assertTrue(script.executeInTransaction());
+        assertEquals(2, script.getSqlStatementCount());
+        assertTrue(script.sqlStatements.isEmpty());
+        assertEquals(Arrays.asList("CREATE TABLE t (id INT)", "INSERT INTO t VALUES (1)"), sqls(script));
+        // Streamed statements are parsed again on each execution
+        assertEquals(2, sqls(script).size());
+    }
+
+    @Test
+    public void streamedNonTransactionalScriptIsDetectedBeforeExecution() {
+        ParserSqlScript script = script(true, null, "CREATE INDEX CONCURRENTLY i ON t (id);");
+
+        assertFalse(script.executeInTransaction());
+        assertTrue(script.sqlStatements.isEmpty());
+        assertEquals(Arrays.asList("CREATE INDEX CONCURRENTLY i ON t (id)"), sqls(script));
+    }
+
+    @Test
+    public void streamedMixedScriptFailsBeforeExecution() {
+        ParserSqlScript script = script(true, null, "INSERT INTO t VALUES (1);\nCREATE INDEX CONCURRENTLY i ON t (id);");
+
+        FlywayException e = assertThrows(FlywayException.class, script::executeInTransaction);
+        assertTrue(e.getMessage().startsWith("Detected both transactional and non-transactional statements"), e.getMessage());
+    }
+
+    @Test
+    public void streamedScriptWithExecuteInTransactionIsNotScanned() {
+        ParserSqlScript script = script(true, "executeInTransaction=false", "INSERT INTO t VALUES (1);\nCREATE INDEX CONCURRENTLY i ON t (id);");
+
+        assertFalse(script.executeInTransaction());
+        assertEquals(Arrays.asList("INSERT INTO t VALUES (1)", "CREATE INDEX CONCURRENTLY i ON t (id)"), sqls(script));
+    }
+
+    @Test
+    public void loadedScriptKeepsItsStatements() {
+        ParserSqlScript script = script(false, null, "CREATE INDEX CONCURRENTLY i ON t (id);");
+
+        assertFalse(script.executeInTransaction());
+        assertEquals(1, script.sqlStatements.size());
+        assertEquals(Arrays.asList("CREATE INDEX CONCURRENTLY i ON t (id)"), sqls(script));
+    }
+
+    private static ParserSqlScript script(boolean stream, String metadata, String sql) {
+        ClassicConfiguration configuration = new ClassicConfiguration();
+        configuration.setStream(stream);
+        PostgreSQLParser parser = new PostgreSQLParser(configuration, new ParsingContext());
+        return new ParserSqlScript(parser, new StringResource(sql), metadata == null ? null : new StringResource(metadata), false);
+    }
+
+    private static List<String> sqls(SqlScript script) {
+        List<String> sqls = new ArrayList<>();
+        try (SqlStatementIterator iterator = script.getSqlStatements()) {
+            while (iterator.hasNext()) {
+                sqls.add(iterator.next().getSql());
+            }
+        }
+        return sqls;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LockWaitMetricsTests {
+    @Test
+    public void locksOfTheExecutionAndItsThreadsAreCounted() throws InterruptedException {
+        LockWaitMetrics metrics = LockWaitMetrics.start();
+        try {
+            LockWaitMetrics.record(2, 30);
+            Thread worker = new Thread(() -> LockWaitMetrics.record(1, 10));
+            worker.start();
+            worker.join();
+        } finally {
+            metrics.stop();
+        }
+        LockWaitMetrics.record(5, 100);
+
+        assertEquals(3, metrics.getAttempts());
+        assertEquals(40, metrics.getWaitMillis());
+    }
+
+    @Test
+    public void concurrentExecutionsAreCountedSeparately() throws InterruptedException {
+        AtomicReference<LockWaitMetrics> background = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            LockWaitMetrics metrics = LockWaitMetrics.start();
+            try {
+                LockWaitMetrics.record(4, 400);
+            } finally {
+                metrics.stop();
+            }
+            background.set(metrics);
+        });
+
+        LockWaitMetrics metrics = LockWaitMetrics.start();
+        try {
+            thread.start();
+            thread.join();
+            LockWaitMetrics.record(1, 10);
+        } finally {
+            metrics.stop();
+        }
+
+        assertEquals(1, metrics.getAttempts());
+        assertEquals(10, metrics.getWaitMillis());
+        assertEquals(4, background.get().getAttempts());
+    }
+
+    @Test
+    public void nestedExecutionRestoresTheEnclosingOne() {
+        LockWaitMetrics outer = LockWaitMetrics.start();
+        try {
+            LockWaitMetrics inner = LockWaitMetrics.start();
+            LockWaitMetrics.record(1, 1);
+            inner.stop();
+            LockWaitMetrics.record(2, 2);
+
+            assertEquals(1, inner.getAttempts());
+            assertEquals(2, outer.getAttempts());
+        } finally {
+            outer.stop();
+        }
+    }
+}
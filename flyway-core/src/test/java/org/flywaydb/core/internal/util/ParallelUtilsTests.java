@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.core.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelUtilsTests {
+    @Test
+    public void resultsKeepTheOrderOfTheItems() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+
+        List<Integer> results = ParallelUtils.map(items, 8, i -> {
+            // Earlier items take longest
+            sleep(50 - i);
+            return i * 2;
+        });
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i * 2, results.get(i));
+        }
+    }
+
+    @Test
+    public void singleThreadRunsOnTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        List<Boolean> results = ParallelUtils.map(Collections.nCopies(5, 0), 1, i -> Thread.currentThread() == caller);
+        assertEquals(Collections.nCopies(5, true), results);
+    }
+
+    @Test
+    public void firstFailureIsRethrownAndRemainingItemsSkipped() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+        IllegalStateException failure = new IllegalStateException("item 3");
+        AtomicInteger processed = new AtomicInteger();
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> ParallelUtils.map(items, 4, i -> {
+            processed.incrementAndGet();
+            if (i == 3) {
+                throw failure;
+            }
+            sleep(1);
+            return i;
+        })));
+        assertTrue(processed.get() < items.size(), "processed " + processed.get());
+    }
+
+    @Test
+    public void errorsAreRethrownAsIs() {
+        AssertionError error = new AssertionError("broken");
+        assertSame(error, assertThrows(AssertionError.class, () -> ParallelUtils.map(Collections.nCopies(10, 0), 4, i -> {
+            throw error;
+        })));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -28,12 +28,19 @@ import java.sql.Types;
 public class BigQueryJdbcTemplate extends JdbcTemplate {
 
     public BigQueryJdbcTemplate(Connection connection) {
-        super(connection, DatabaseTypeRegister.getDatabaseTypeForConnection(connection));
+        this(connection, 0);
+    }
+
+    /**
+     * @param statementCacheSize The maximum number of prepared statements to keep open for reuse. {@code 0} to
+     * prepare every statement again.
+     */
+    public BigQueryJdbcTemplate(Connection connection, int statementCacheSize) {
+        super(connection, DatabaseTypeRegister.getDatabaseTypeForConnection(connection), statementCacheSize);
     }
 
     @Override
-    protected PreparedStatement prepareStatement(String sql, Object[] params) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql);
+    protected void setParameters(PreparedStatement statement, Object[] params) throws SQLException {
         // Spanner requires specific types for NULL according to the column.
         // This is unlike other databases which have a single "null type".
         for (int i = 0; i < params.length; i++) {
@@ -56,7 +63,5 @@ public class BigQueryJdbcTemplate extends JdbcTemplate {
                 throw new FlywayException("Unhandled object of type '" + params[i].getClass().getName() + "'. ");
             }
         }
-
-        return statement;
     }
 }
\ No newline at end of file
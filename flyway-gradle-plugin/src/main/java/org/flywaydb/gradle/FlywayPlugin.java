@@ -18,6 +18,8 @@ package org.flywaydb.gradle;
 import org.flywaydb.gradle.task.*;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.bundling.Jar;
 
 /**
  * Registers the plugin's tasks.
@@ -32,5 +34,8 @@ public class FlywayPlugin implements Plugin<Project> {
         project.getTasks().create("flywayValidate", FlywayValidateTask.class);
         project.getTasks().create("flywayInfo", FlywayInfoTask.class);
         project.getTasks().create("flywayRepair", FlywayRepairTask.class);
+        FlywayIndexTask indexTask = project.getTasks().create("flywayIndex", FlywayIndexTask.class);
+        project.getPluginManager().withPlugin("java", plugin ->
+                ((Jar) project.getTasks().getByName(JavaPlugin.JAR_TASK_NAME)).from(indexTask));
     }
 }
\ No newline at end of file
@@ -609,7 +609,9 @@ public abstract class AbstractFlywayTask extends DefaultTask {
 
             Flyway flyway = Flyway.configure(classLoader).configuration(config).load();
             Object result = run(flyway);
-            ((DriverDataSource) flyway.getConfiguration().getDataSource()).shutdownDatabase();
+            if (flyway.getConfiguration().getDataSource() != null) {
+                ((DriverDataSource) flyway.getConfiguration().getDataSource()).shutdownDatabase();
+            }
             return result;
         } catch (Exception e) {
             throw new FlywayException(collectMessages(e, "Error occurred while executing " + getName()), e);
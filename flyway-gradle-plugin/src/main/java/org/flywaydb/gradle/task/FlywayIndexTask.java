@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.gradle.task;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.internal.scanner.classpath.ClassPathLocationIndex;
+import org.gradle.api.plugins.JavaPluginConvention;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.SourceSet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indexes the migrations of the classpath locations of the main source set into a directory of its own, which the
+ * plugin adds to the jar. Always runs again, as the index depends on the Flyway configuration as well.
+ */
+public class FlywayIndexTask extends AbstractFlywayTask {
+    public FlywayIndexTask() {
+        super();
+        setDescription("Indexes the migrations of the classpath locations into the jar.");
+        getOutputs().upToDateWhen(task -> false);
+        getProject().getPluginManager().withPlugin("java", plugin -> dependsOn("classes"));
+    }
+
+    /**
+     * @return The directory the index is written to.
+     */
+    @OutputDirectory
+    public File getIndexDir() {
+        return new File(getProject().getBuildDir(), "flyway/index");
+    }
+
+    @Override
+    protected Object run(Flyway flyway) {
+        SourceSet main = getProject().getConvention().getPlugin(JavaPluginConvention.class)
+                .getSourceSets().getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+        List<File> classpathDirectories = new ArrayList<>(main.getOutput().getClassesDirs().getFiles());
+        classpathDirectories.add(main.getOutput().getResourcesDir());
+        String group = String.valueOf(getProject().getGroup());
+        getProject().delete(getIndexDir());
+        return ClassPathLocationIndex.write(flyway.getConfiguration(), classpathDirectories, getIndexDir(),
+                                           group.isEmpty() ? getProject().getName() : group + "." + getProject().getName());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.maven;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.internal.scanner.classpath.ClassPathLocationIndex;
+
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Maven goal that indexes the migrations of the classpath locations into the project's output directory, so that only
+ * the Java migrations among the classes of the packaged jar are loaded at runtime. The index is named after the
+ * artifact, so that the indexes of all artifacts merged into a shaded jar are kept.
+ */
+@SuppressWarnings({"UnusedDeclaration", "JavaDoc"})
+@Mojo(name = "index",
+        requiresDependencyResolution = ResolutionScope.RUNTIME,
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        threadSafe = true)
+public class IndexMojo extends AbstractFlywayMojo {
+    @Override
+    protected void doExecute(Flyway flyway) {
+        File outputDirectory = new File(mavenProject.getBuild().getOutputDirectory());
+        ClassPathLocationIndex.write(flyway.getConfiguration(), Collections.singletonList(outputDirectory), outputDirectory,
+                                     mavenProject.getGroupId() + "." + mavenProject.getArtifactId());
+    }
+}
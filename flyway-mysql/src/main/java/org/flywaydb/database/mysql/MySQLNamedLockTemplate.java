@@ -19,15 +19,22 @@ import lombok.CustomLog;
 import org.flywaydb.core.api.FlywayException;
 import org.flywaydb.core.internal.exception.FlywaySqlException;
 import org.flywaydb.core.internal.jdbc.JdbcTemplate;
+import org.flywaydb.core.internal.strategy.LockWaitMetrics;
 
 import java.sql.SQLException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Spring-like template for executing with MySQL named locks.
  */
 @CustomLog
 public class MySQLNamedLockTemplate {
+    /**
+     * How long each attempt blocks in GET_LOCK before trying again.
+     */
+    private static final int LOCK_WAIT_MILLIS = 10000;
+
     /**
      * The connection for the named lock.
      */
@@ -35,6 +42,8 @@ public class MySQLNamedLockTemplate {
 
     private final String lockName;
 
+    private final int lockWaitMillis;
+
     /**
      * Creates a new named lock template for this connection.
      *
@@ -42,8 +51,16 @@ public class MySQLNamedLockTemplate {
      * @param discriminator A number to discriminate between locks.
      */
     MySQLNamedLockTemplate(JdbcTemplate jdbcTemplate, int discriminator) {
+        this(jdbcTemplate, discriminator, LOCK_WAIT_MILLIS);
+    }
+
+    /**
+     * @param lockWaitMillis How long each attempt blocks in GET_LOCK, rounded up to whole seconds.
+     */
+    MySQLNamedLockTemplate(JdbcTemplate jdbcTemplate, int discriminator, int lockWaitMillis) {
         this.jdbcTemplate = jdbcTemplate;
-        lockName = "Flyway-" + discriminator;
+        this.lockName = "Flyway-" + discriminator;
+        this.lockWaitMillis = lockWaitMillis;
     }
 
     /**
@@ -75,17 +92,36 @@ public class MySQLNamedLockTemplate {
         }
     }
 
+    /**
+     * Waits for the lock for as long as it takes, as the node holding it may be applying a long migration. Each
+     * attempt blocks in GET_LOCK, so the lock is obtained as soon as the node holding it releases it.
+     */
     private void lock() throws SQLException {
-        while (!tryLock()) {
-            try {
-                Thread.sleep(100L);
-            } catch (InterruptedException e) {
-                throw new FlywayException("Interrupted while attempting to acquire MySQL named lock: " + lockName, e);
+        long start = System.nanoTime();
+        int attempts = 1;
+        try {
+            while (!tryLock(lockWaitMillis)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new FlywayException("Interrupted while attempting to acquire MySQL named lock: " + lockName);
+                }
+                attempts++;
             }
+        } finally {
+            LockWaitMetrics.record(attempts, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         }
     }
 
-    private boolean tryLock() throws SQLException {
-        return jdbcTemplate.queryForInt("SELECT GET_LOCK(?,10)", lockName) == 1;
+    /**
+     * @return {@code true} if the lock was obtained, {@code false} if the wait timed out.
+     */
+    private boolean tryLock(int waitMillis) throws SQLException {
+        return jdbcTemplate.queryForInt("SELECT GET_LOCK(?," + toTimeoutSeconds(waitMillis) + ")", lockName) == 1;
+    }
+
+    /**
+     * @return This wait in whole seconds, rounded up and at least one, as GET_LOCK(?,0) would not block at all.
+     */
+    static int toTimeoutSeconds(int waitMillis) {
+        return Math.max(1, (waitMillis + 999) / 1000);
     }
 }
\ No newline at end of file
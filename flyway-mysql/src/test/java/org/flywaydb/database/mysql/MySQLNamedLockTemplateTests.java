@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) Red Gate Software Ltd 2010-2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.flywaydb.database.mysql;
+
+import org.flywaydb.core.internal.jdbc.JdbcTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the named lock against H2, with GET_LOCK and RELEASE_LOCK emulated by the aliases below.
+ */
+public class MySQLNamedLockTemplateTests {
+    private static final Object MONITOR = new Object();
+    private static final List<Integer> TIMEOUTS = new CopyOnWriteArrayList<>();
+    private static boolean held;
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        TIMEOUTS.clear();
+        held = false;
+        connection = DriverManager.getConnection("jdbc:h2:mem:named_lock", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS GET_LOCK FOR '" + MySQLNamedLockTemplateTests.class.getName() + ".getLock'");
+            statement.execute("CREATE ALIAS RELEASE_LOCK FOR '" + MySQLNamedLockTemplateTests.class.getName() + ".releaseLock'");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void waitsUntilTheLockIsReleased() throws Exception {
+        hold();
+        Thread holder = new Thread(() -> {
+            try {
+                Thread.sleep(2500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            releaseLock("Flyway-1");
+        });
+        holder.start();
+
+        long start = System.nanoTime();
+        String result = new MySQLNamedLockTemplate(new JdbcTemplate(connection), 1, 200).execute(() -> "applied");
+        holder.join();
+
+        assertEquals("applied", result);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 2000);
+        assertTrue(TIMEOUTS.size() >= 3, "attempts: " + TIMEOUTS);
+        for (int timeout : TIMEOUTS) {
+            assertEquals(1, timeout);
+        }
+        synchronized (MONITOR) {
+            assertFalse(held);
+        }
+    }
+
+    @Test
+    public void freeLockIsObtainedAtOnce() throws Exception {
+        assertEquals("applied", new MySQLNamedLockTemplate(new JdbcTemplate(connection), 1).execute(() -> "applied"));
+        assertEquals(1, TIMEOUTS.size());
+        assertEquals(10, (int) TIMEOUTS.get(0));
+    }
+
+    @Test
+    public void timeoutIsRoundedUpToWholeSeconds() {
+        assertEquals(1, MySQLNamedLockTemplate.toTimeoutSeconds(0));
+        assertEquals(1, MySQLNamedLockTemplate.toTimeoutSeconds(50));
+        assertEquals(1, MySQLNamedLockTemplate.toTimeoutSeconds(1000));
+        assertEquals(2, MySQLNamedLockTemplate.toTimeoutSeconds(1001));
+        assertEquals(10, MySQLNamedLockTemplate.toTimeoutSeconds(10000));
+    }
+
+    private static void hold() {
+        synchronized (MONITOR) {
+            held = true;
+        }
+    }
+
+    public static int getLock(String name, int timeout) throws InterruptedException {
+        TIMEOUTS.add(timeout);
+        long deadline = System.currentTimeMillis() + timeout * 1000L;
+        synchronized (MONITOR) {
+            while (held) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return 0;
+                }
+                MONITOR.wait(remaining);
+            }
+            held = true;
+            return 1;
+        }
+    }
+
+    public static int releaseLock(String name) {
+        synchronized (MONITOR) {
+            held = false;
+            MONITOR.notifyAll();
+            return 1;
+        }
+    }
+}